@@ -0,0 +1,25 @@
+package com.moneysupermarket.componentcatalog.sdk.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+@Value
+@AllArgsConstructor
+@With
+@Builder(toBuilder = true)
+@Jacksonized
+public class BlastRadiusComponent {
+
+    @NotBlank
+    String componentId;
+    @NotNull
+    @Min(1)
+    Integer distance;
+}
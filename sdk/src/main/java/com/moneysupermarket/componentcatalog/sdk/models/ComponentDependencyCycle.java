@@ -0,0 +1,26 @@
+package com.moneysupermarket.componentcatalog.sdk.models;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+import static com.moneysupermarket.componentcatalog.sdk.utils.ListUtils.createUnmodifiableList;
+
+@Value
+@With
+@Builder(toBuilder = true)
+@Jacksonized
+public class ComponentDependencyCycle {
+
+    @NotNull
+    List<@NotBlank String> componentIds;
+
+    public ComponentDependencyCycle(List<String> componentIds) {
+        this.componentIds = createUnmodifiableList(componentIds);
+    }
+}
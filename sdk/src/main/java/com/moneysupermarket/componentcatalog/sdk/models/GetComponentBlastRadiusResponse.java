@@ -0,0 +1,14 @@
+package com.moneysupermarket.componentcatalog.sdk.models;
+
+import lombok.Value;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Value
+public class GetComponentBlastRadiusResponse {
+
+    @NotNull
+    List<@NotNull @Valid BlastRadiusComponent> components;
+}
@@ -0,0 +1,14 @@
+package com.moneysupermarket.componentcatalog.sdk.models;
+
+import lombok.Value;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Value
+public class GetComponentIdsResponse {
+
+    @NotNull
+    List<@NotBlank String> componentIds;
+}
@@ -0,0 +1,18 @@
+package com.moneysupermarket.componentcatalog.sdk.models;
+
+import lombok.Value;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Value
+public class GetSearchResultsResponse {
+
+    @NotNull
+    List<@NotNull @Valid SearchResult> results;
+    @NotNull
+    @Min(0)
+    Integer totalCount;
+}
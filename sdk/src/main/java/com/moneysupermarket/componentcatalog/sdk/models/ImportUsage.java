@@ -0,0 +1,24 @@
+package com.moneysupermarket.componentcatalog.sdk.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+@Value
+@AllArgsConstructor
+@With
+@Builder(toBuilder = true)
+@Jacksonized
+public class ImportUsage {
+
+    @NotBlank
+    String name;
+    @NotEmpty
+    List<@NotBlank String> componentIds;
+}
@@ -0,0 +1,27 @@
+package com.moneysupermarket.componentcatalog.sdk.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+@Value
+@AllArgsConstructor
+@With
+@Builder(toBuilder = true)
+@Jacksonized
+public class SearchResult {
+
+    @NotBlank
+    String componentId;
+    @NotNull
+    Double score;
+    @NotNull
+    @Valid
+    Component component;
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import com.moneysupermarket.componentcatalog.common.services.ValidationConstraintViolationTransformer;
+import com.moneysupermarket.componentcatalog.service.services.HostResilienceFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
@@ -33,8 +34,8 @@ public class ComponentCatalogService {
     }
 
     @Bean
-    public WebClient webClient(WebClient.Builder webClientBuilder) {
-        return webClientBuilder.build();
+    public WebClient webClient(WebClient.Builder webClientBuilder, HostResilienceFilter hostResilienceFilter) {
+        return webClientBuilder.filter(hostResilienceFilter).build();
     }
 
     @Bean
@@ -4,6 +4,7 @@ import lombok.Value;
 import lombok.experimental.NonFinal;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 import javax.validation.constraints.NotEmpty;
@@ -17,4 +18,7 @@ public class DownloadCacheConfig {
 
     @NotEmpty
     String dir;
+    Integer maxHotEntryCount;
+    DataSize maxSize;
+    Boolean compress;
 }
@@ -6,6 +6,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConstructorBinding;
 import org.springframework.validation.annotation.Validated;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import java.time.Duration;
 
@@ -18,4 +19,10 @@ public class DownloaderConfig {
 
     @NotNull
     Duration timeout;
+    /**
+     * The maximum number of concurrent HTTP requests made to each host, so that parallel scans do not overload repositories like Artifactory
+     */
+    @NotNull
+    @Min(1)
+    Integer maxConcurrentRequestsPerHost;
 }
@@ -19,4 +19,5 @@ public class GitConfig {
     @NotEmpty
     String reposDir;
     List<GitHost> hosts;
+    Boolean useSharedObjectStores;
 }
@@ -0,0 +1,35 @@
+package com.moneysupermarket.componentcatalog.service.config;
+
+import lombok.Value;
+import lombok.experimental.NonFinal;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties("outbound-http")
+@ConstructorBinding
+@Value
+@NonFinal
+public class OutboundHttpConfig {
+
+    /**
+     * The response time above which a response from a host is treated as a sign that the host is overloaded, reducing the number of concurrent requests
+     * made to the host
+     */
+    Duration latencyThreshold;
+    /**
+     * The number of concurrent requests made to each host never drops below this, however slow the host is
+     */
+    Integer minConcurrentRequestsPerHost;
+    /**
+     * The number of concurrent requests made to each host never rises above this, however fast the host is.  Each host starts at this limit
+     */
+    Integer maxConcurrentRequestsPerHost;
+    /**
+     * The maximum time a request waits for the number of concurrent requests to its host to drop below the limit before it fails
+     */
+    Duration maxWaitDuration;
+}
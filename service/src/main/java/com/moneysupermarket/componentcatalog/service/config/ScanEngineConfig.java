@@ -0,0 +1,41 @@
+package com.moneysupermarket.componentcatalog.service.config;
+
+import lombok.Value;
+import lombok.experimental.NonFinal;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Validated
+@ConfigurationProperties("scan-engine")
+@ConstructorBinding
+@Value
+@NonFinal
+public class ScanEngineConfig {
+
+    /**
+     * The maximum age of each scanner's contributions to the components and summary, keyed by scanner id.  Within that age, full scans reuse the scanner's
+     * previous outputs instead of refreshing the scanner and scanning again.  Scanners without a refresh interval are refreshed by every full scan
+     */
+    Map<String, Duration> scannerRefreshIntervals;
+    /**
+     * The maximum time each scanner can spend scanning a single input, keyed by scanner id.  Scanners without a scan timeout use the default scan timeout
+     */
+    Map<String, Duration> scanTimeouts;
+    /**
+     * The maximum time a scanner can spend scanning a single input when the scanner has no scan timeout of its own.  When null, scans are not timed out
+     */
+    Duration defaultScanTimeout;
+    /**
+     * The number of consecutive timed out scans of an input by a scanner after which the scanner skips that input
+     */
+    Integer maxConsecutiveScanTimeouts;
+    /**
+     * The number of scans for which an input is skipped once it has reached the maximum number of consecutive timed out scans.  The input is scanned
+     * again after that, and is skipped again if that scan also times out
+     */
+    Integer slowInputSkipCount;
+}
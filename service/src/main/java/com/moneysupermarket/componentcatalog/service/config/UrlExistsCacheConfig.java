@@ -4,9 +4,11 @@ import lombok.Value;
 import lombok.experimental.NonFinal;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 import javax.validation.constraints.NotEmpty;
+import java.time.Duration;
 
 @Validated
 @ConfigurationProperties("url-exists-cache")
@@ -17,4 +19,10 @@ public class UrlExistsCacheConfig {
 
     @NotEmpty
     String dir;
+    Integer maxHotEntryCount;
+    DataSize maxSize;
+    /**
+     * How long a cached "URL does not exist" outcome is trusted for, as the URL may be published later.  Null means forever
+     */
+    Duration negativeEntryTtl;
 }
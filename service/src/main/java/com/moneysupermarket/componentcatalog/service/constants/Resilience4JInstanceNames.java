@@ -4,6 +4,10 @@ public final class Resilience4JInstanceNames {
 
     public static final String HTTP_REQUEST_MAKER = "http-request-maker";
     public static final String ZIPKIN_CLIENT = "zipkin-client";
+    /**
+     * The name of the circuit breaker config shared by the circuit breakers for each host that HTTP requests are made to
+     */
+    public static final String OUTBOUND_HTTP_HOST = "outbound-http-host";
 
     private Resilience4JInstanceNames() {
     }
@@ -0,0 +1,47 @@
+package com.moneysupermarket.componentcatalog.service.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.BitbucketServerWebhookHandler;
+import com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.BitbucketServerWebhookSignatureVerifier;
+import com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.models.api.RepoEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1/webhooks/bitbucket-server")
+public class BitbucketServerWebhookController {
+
+    private static final String SIGNATURE_HEADER = "X-Hub-Signature";
+
+    private final BitbucketServerWebhookSignatureVerifier signatureVerifier;
+    private final BitbucketServerWebhookHandler webhookHandler;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The body is taken as raw bytes because the signature is calculated over the exact bytes that Bitbucket Server sent
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void handleEvent(@RequestHeader(name = SIGNATURE_HEADER, required = false) String signature, @RequestBody byte[] body) {
+        signatureVerifier.verifySignature(signature, body);
+        webhookHandler.handleEvent(readEvent(body));
+    }
+
+    private RepoEvent readEvent(byte[] body) {
+        try {
+            return objectMapper.readValue(body, RepoEvent.class);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Webhook body is not a valid event", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.moneysupermarket.componentcatalog.service.controllers;
+
+import com.moneysupermarket.componentcatalog.sdk.models.GetComponentDependencyCyclesResponse;
+import com.moneysupermarket.componentcatalog.service.partialresponse.PartialResponse;
+import com.moneysupermarket.componentcatalog.service.services.ComponentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1/component-dependency-cycles")
+public class ComponentDependencyCycleController {
+
+    private final ComponentService componentService;
+
+    @GetMapping
+    @PartialResponse
+    public GetComponentDependencyCyclesResponse getComponentDependencyCycles() {
+        return new GetComponentDependencyCyclesResponse(componentService.getComponentDependencyCycles());
+    }
+}
@@ -0,0 +1,43 @@
+package com.moneysupermarket.componentcatalog.service.controllers;
+
+import com.moneysupermarket.componentcatalog.sdk.models.GetComponentBlastRadiusResponse;
+import com.moneysupermarket.componentcatalog.sdk.models.GetComponentIdsResponse;
+import com.moneysupermarket.componentcatalog.service.partialresponse.PartialResponse;
+import com.moneysupermarket.componentcatalog.service.services.ComponentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1/components/{componentId}")
+public class ComponentDependencyGraphController {
+
+    private final ComponentService componentService;
+
+    @GetMapping("/upstream-components")
+    @PartialResponse
+    public GetComponentIdsResponse getUpstreamComponents(@PathVariable String componentId) {
+        return new GetComponentIdsResponse(componentService.getUpstreamComponentIds(componentId));
+    }
+
+    @GetMapping("/downstream-components")
+    @PartialResponse
+    public GetComponentIdsResponse getDownstreamComponents(@PathVariable String componentId) {
+        return new GetComponentIdsResponse(componentService.getDownstreamComponentIds(componentId));
+    }
+
+    @GetMapping("/blast-radius")
+    @PartialResponse
+    public GetComponentBlastRadiusResponse getBlastRadius(@PathVariable String componentId) {
+        return new GetComponentBlastRadiusResponse(componentService.getComponentBlastRadius(componentId));
+    }
+
+    @GetMapping("/shortest-dependency-path/{targetComponentId}")
+    @PartialResponse
+    public GetComponentIdsResponse getShortestDependencyPath(@PathVariable String componentId, @PathVariable String targetComponentId) {
+        return new GetComponentIdsResponse(componentService.getShortestDependencyPath(componentId, targetComponentId));
+    }
+}
@@ -0,0 +1,40 @@
+package com.moneysupermarket.componentcatalog.service.controllers;
+
+import com.moneysupermarket.componentcatalog.sdk.models.GetImportUsagesResponse;
+import com.moneysupermarket.componentcatalog.sdk.models.GetSoftwareRepositoryUsagesResponse;
+import com.moneysupermarket.componentcatalog.sdk.models.GetSoftwareUsagesResponse;
+import com.moneysupermarket.componentcatalog.service.partialresponse.PartialResponse;
+import com.moneysupermarket.componentcatalog.service.services.ComponentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1")
+public class ComponentUsageController {
+
+    private final ComponentService componentService;
+
+    @GetMapping("/software-usages")
+    @PartialResponse
+    public GetSoftwareUsagesResponse getSoftwareUsages(@RequestParam(required = false) String name, @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) String version) {
+        return new GetSoftwareUsagesResponse(componentService.getSoftwareUsages(name, namePrefix, version));
+    }
+
+    @GetMapping("/import-usages")
+    @PartialResponse
+    public GetImportUsagesResponse getImportUsages(@RequestParam(required = false) String name, @RequestParam(required = false) String namePrefix) {
+        return new GetImportUsagesResponse(componentService.getImportUsages(name, namePrefix));
+    }
+
+    @GetMapping("/software-repository-usages")
+    @PartialResponse
+    public GetSoftwareRepositoryUsagesResponse getSoftwareRepositoryUsages(@RequestParam(required = false) String url,
+            @RequestParam(required = false) String urlPrefix) {
+        return new GetSoftwareRepositoryUsagesResponse(componentService.getSoftwareRepositoryUsages(url, urlPrefix));
+    }
+}
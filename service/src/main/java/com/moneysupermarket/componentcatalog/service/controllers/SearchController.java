@@ -0,0 +1,31 @@
+package com.moneysupermarket.componentcatalog.service.controllers;
+
+import com.moneysupermarket.componentcatalog.sdk.models.GetSearchResultsResponse;
+import com.moneysupermarket.componentcatalog.service.partialresponse.PartialResponse;
+import com.moneysupermarket.componentcatalog.service.services.ComponentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Optional;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1/search")
+public class SearchController {
+
+    private final ComponentService componentService;
+
+    /**
+     * Only the ids, scores and a few summary fields of the matching components are returned by default.  The "fields" query param can be used to
+     * return more of each component, for example "fields=results(componentId,score,component),totalCount" returns the whole components
+     */
+    @GetMapping
+    @PartialResponse(defaultFields = "results(componentId,score,component(id,name,typeId,description,teams)),totalCount")
+    public GetSearchResultsResponse getSearchResults(@RequestParam String query, @RequestParam(required = false) Optional<Integer> offset,
+            @RequestParam(required = false) Optional<Integer> limit) {
+        return componentService.search(query, offset, limit);
+    }
+}
@@ -0,0 +1,12 @@
+package com.moneysupermarket.componentcatalog.service.exceptions;
+
+import java.time.Duration;
+
+import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
+
+public class HostConcurrencyLimitException extends RuntimeException {
+
+    public HostConcurrencyLimitException(String host, Duration maxWaitDuration) {
+        super(String.format("Timed out after %s waiting for a concurrent request slot for host \"%s\"", maxWaitDuration, escapeString(host)));
+    }
+}
@@ -0,0 +1,14 @@
+package com.moneysupermarket.componentcatalog.service.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
+
+public class InvalidVersionSelectorException extends ResponseStatusException {
+
+    public InvalidVersionSelectorException(String version) {
+        super(HttpStatus.BAD_REQUEST, String.format("Version selector \"%s\" is not supported, because it needs the metadata of each version, like "
+                + "latest.release does", escapeString(version)));
+    }
+}
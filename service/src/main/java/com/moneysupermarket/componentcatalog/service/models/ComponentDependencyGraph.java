@@ -0,0 +1,329 @@
+package com.moneysupermarket.componentcatalog.service.models;
+
+import com.moneysupermarket.componentcatalog.sdk.models.BlastRadiusComponent;
+import com.moneysupermarket.componentcatalog.sdk.models.ComponentDependencyCycle;
+import com.moneysupermarket.componentcatalog.sdk.models.SummaryComponentDependencies;
+import com.moneysupermarket.componentcatalog.sdk.models.SummaryComponentDependency;
+import com.moneysupermarket.componentcatalog.sdk.models.SummaryComponentDependencyNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+
+/**
+ * An immutable, compact representation of the component dependencies in a {@link SummaryComponentDependencies}, built once each time the summary changes so
+ * that graph queries can be answered by the service instead of each client downloading and walking the whole dependency graph.
+ *
+ * <p>The graph is held as two CSR (compressed sparse row) adjacency structures of int indexes, one for each direction, and the transitive closure of each
+ * node in each direction is precomputed as a {@link BitSet}.  A dependency goes from the component making the call (upstream) to the component being
+ * called (downstream).</p>
+ */
+public final class ComponentDependencyGraph {
+
+    public static final ComponentDependencyGraph EMPTY = create(null);
+
+    private final String[] componentIds;
+    private final Map<String, Integer> componentIndexes;
+    private final int[] downstreamOffsets;
+    private final int[] downstreamIndexes;
+    private final int[] upstreamOffsets;
+    private final int[] upstreamIndexes;
+    private final BitSet[] downstreamClosures;
+    private final BitSet[] upstreamClosures;
+    private final List<ComponentDependencyCycle> cycles;
+
+    private ComponentDependencyGraph(String[] componentIds, Map<String, Integer> componentIndexes, int[][] edges) {
+        this.componentIds = componentIds;
+        this.componentIndexes = componentIndexes;
+        int nodeCount = componentIds.length;
+        downstreamOffsets = new int[nodeCount + 1];
+        downstreamIndexes = new int[edges.length];
+        upstreamOffsets = new int[nodeCount + 1];
+        upstreamIndexes = new int[edges.length];
+        populateAdjacency(edges, 0, 1, downstreamOffsets, downstreamIndexes);
+        populateAdjacency(edges, 1, 0, upstreamOffsets, upstreamIndexes);
+        downstreamClosures = new BitSet[nodeCount];
+        upstreamClosures = new BitSet[nodeCount];
+        populateClosures();
+        cycles = findCycles();
+    }
+
+    /**
+     * Creates a graph from the component dependencies in a summary.  Duplicate nodes for the same component id are merged, dependencies without a source
+     * index are ignored and duplicate dependencies between the same pair of components are collapsed into a single edge.
+     *
+     * @param componentDependencies the component dependencies to build the graph from, which can be null
+     * @return                      the new graph
+     */
+    public static ComponentDependencyGraph create(SummaryComponentDependencies componentDependencies) {
+        List<SummaryComponentDependencyNode> nodes = isNull(componentDependencies) ? List.of() : componentDependencies.getNodes();
+        List<SummaryComponentDependency> dependencies = isNull(componentDependencies) ? List.of() : componentDependencies.getDependencies();
+        Map<String, Integer> componentIndexes = new HashMap<>();
+        List<String> componentIds = new ArrayList<>();
+        int[] nodeIndexToComponentIndex = new int[nodes.size()];
+
+        for (int nodeIndex = 0; nodeIndex < nodes.size(); nodeIndex++) {
+            String componentId = nodes.get(nodeIndex).getComponentId();
+            Integer componentIndex = componentIndexes.get(componentId);
+            if (isNull(componentIndex)) {
+                componentIndex = componentIds.size();
+                componentIndexes.put(componentId, componentIndex);
+                componentIds.add(componentId);
+            }
+            nodeIndexToComponentIndex[nodeIndex] = componentIndex;
+        }
+
+        int[][] edges = dependencies.stream()
+                .filter(dependency -> !isNull(dependency.getSourceIndex()) && !isNull(dependency.getTargetIndex()))
+                .map(dependency -> new int[] {
+                        nodeIndexToComponentIndex[dependency.getSourceIndex()],
+                        nodeIndexToComponentIndex[dependency.getTargetIndex()]})
+                .sorted(Comparator.<int[]>comparingInt(edge -> edge[0]).thenComparingInt(edge -> edge[1]))
+                .toArray(int[][]::new);
+
+        return new ComponentDependencyGraph(componentIds.toArray(String[]::new), Map.copyOf(componentIndexes), removeDuplicateEdges(edges));
+    }
+
+    public boolean containsComponent(String componentId) {
+        return componentIndexes.containsKey(componentId);
+    }
+
+    /**
+     * @param componentId   the id of a component
+     * @return              the ids of all the components that the component calls, directly or indirectly, sorted by id
+     */
+    public List<String> getDownstreamComponentIds(String componentId) {
+        return getClosureComponentIds(downstreamClosures, componentId);
+    }
+
+    /**
+     * @param componentId   the id of a component
+     * @return              the ids of all the components that call the component, directly or indirectly, sorted by id
+     */
+    public List<String> getUpstreamComponentIds(String componentId) {
+        return getClosureComponentIds(upstreamClosures, componentId);
+    }
+
+    /**
+     * Returns the components that would be affected if a component failed, which are all the components that call the component directly or indirectly.
+     * Each affected component includes its distance, which is the minimum number of calls between it and the failing component.
+     *
+     * @param componentId   the id of the failing component
+     * @return              the affected components, sorted by distance and then by id
+     */
+    public List<BlastRadiusComponent> getBlastRadius(String componentId) {
+        Integer componentIndex = componentIndexes.get(componentId);
+
+        if (isNull(componentIndex)) {
+            return List.of();
+        }
+
+        int[] distances = breadthFirstSearch(upstreamOffsets, upstreamIndexes, componentIndex, -1, new int[componentIds.length]);
+        List<BlastRadiusComponent> blastRadius = new ArrayList<>();
+
+        for (int index = upstreamClosures[componentIndex].nextSetBit(0); index >= 0; index = upstreamClosures[componentIndex].nextSetBit(index + 1)) {
+            if (index != componentIndex) {
+                blastRadius.add(new BlastRadiusComponent(componentIds[index], distances[index]));
+            }
+        }
+
+        blastRadius.sort(Comparator.comparing(BlastRadiusComponent::getDistance).thenComparing(BlastRadiusComponent::getComponentId));
+        return Collections.unmodifiableList(blastRadius);
+    }
+
+    /**
+     * @param sourceComponentId the id of the component where the path starts
+     * @param targetComponentId the id of the component where the path ends
+     * @return                  the ids of the components along one of the shortest paths of calls from the source component to the target component,
+     *                          including both the source and target components, or an empty list if the target cannot be reached from the source
+     */
+    public List<String> getShortestPath(String sourceComponentId, String targetComponentId) {
+        Integer sourceIndex = componentIndexes.get(sourceComponentId);
+        Integer targetIndex = componentIndexes.get(targetComponentId);
+
+        if (isNull(sourceIndex) || isNull(targetIndex)) {
+            return List.of();
+        }
+
+        if (Objects.equals(sourceIndex, targetIndex)) {
+            return List.of(sourceComponentId);
+        }
+
+        if (!downstreamClosures[sourceIndex].get(targetIndex)) {
+            return List.of();
+        }
+
+        int[] predecessors = new int[componentIds.length];
+        breadthFirstSearch(downstreamOffsets, downstreamIndexes, sourceIndex, targetIndex, predecessors);
+        List<String> path = new ArrayList<>();
+
+        for (int index = targetIndex; index != sourceIndex; index = predecessors[index]) {
+            path.add(componentIds[index]);
+        }
+
+        path.add(sourceComponentId);
+        Collections.reverse(path);
+        return Collections.unmodifiableList(path);
+    }
+
+    /**
+     * @return  the strongly connected components of the graph that contain a cycle, meaning every component in a cycle can reach every other component in
+     *          the same cycle.  Component ids within each cycle are sorted and the cycles are sorted by their first component id
+     */
+    public List<ComponentDependencyCycle> getCycles() {
+        return cycles;
+    }
+
+    private static int[][] removeDuplicateEdges(int[][] sortedEdges) {
+        int uniqueCount = 0;
+
+        for (int edgeIndex = 0; edgeIndex < sortedEdges.length; edgeIndex++) {
+            if (uniqueCount == 0 || !Arrays.equals(sortedEdges[uniqueCount - 1], sortedEdges[edgeIndex])) {
+                sortedEdges[uniqueCount++] = sortedEdges[edgeIndex];
+            }
+        }
+
+        return Arrays.copyOf(sortedEdges, uniqueCount);
+    }
+
+    private static void populateAdjacency(int[][] edges, int fromPosition, int toPosition, int[] offsets, int[] indexes) {
+        for (int[] edge : edges) {
+            offsets[edge[fromPosition] + 1]++;
+        }
+
+        for (int index = 1; index < offsets.length; index++) {
+            offsets[index] += offsets[index - 1];
+        }
+
+        int[] nextPositions = Arrays.copyOf(offsets, offsets.length - 1);
+
+        for (int[] edge : edges) {
+            indexes[nextPositions[edge[fromPosition]]++] = edge[toPosition];
+        }
+    }
+
+    private void populateClosures() {
+        int nodeCount = componentIds.length;
+
+        for (int index = 0; index < nodeCount; index++) {
+            upstreamClosures[index] = new BitSet(nodeCount);
+        }
+
+        for (int index = 0; index < nodeCount; index++) {
+            downstreamClosures[index] = reachableIndexes(index);
+            BitSet closure = downstreamClosures[index];
+
+            for (int reachableIndex = closure.nextSetBit(0); reachableIndex >= 0; reachableIndex = closure.nextSetBit(reachableIndex + 1)) {
+                upstreamClosures[reachableIndex].set(index);
+            }
+        }
+    }
+
+    /**
+     * A node is only included in its own closure when it is part of a cycle.
+     */
+    private BitSet reachableIndexes(int startIndex) {
+        BitSet visited = new BitSet(componentIds.length);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(startIndex);
+
+        while (!queue.isEmpty()) {
+            int index = queue.poll();
+
+            for (int position = downstreamOffsets[index]; position < downstreamOffsets[index + 1]; position++) {
+                int nextIndex = downstreamIndexes[position];
+                if (!visited.get(nextIndex)) {
+                    visited.set(nextIndex);
+                    queue.add(nextIndex);
+                }
+            }
+        }
+
+        return visited;
+    }
+
+    /**
+     * Walks the graph breadth first from a start node, recording either the distance to, or the predecessor of, each node reached.
+     *
+     * @param offsets       the CSR offsets for the direction to walk in
+     * @param indexes       the CSR indexes for the direction to walk in
+     * @param startIndex    the index of the node to start from
+     * @param stopIndex     the index of a node to stop at once it has been reached, or -1 to walk all reachable nodes
+     * @param predecessors  an array that gets populated with the predecessor of each node reached
+     * @return              an array of the distance of each node reached from the start node
+     */
+    private int[] breadthFirstSearch(int[] offsets, int[] indexes, int startIndex, int stopIndex, int[] predecessors) {
+        int[] distances = new int[componentIds.length];
+        Arrays.fill(distances, -1);
+        distances[startIndex] = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(startIndex);
+
+        while (!queue.isEmpty()) {
+            int index = queue.poll();
+
+            for (int position = offsets[index]; position < offsets[index + 1]; position++) {
+                int nextIndex = indexes[position];
+                if (distances[nextIndex] == -1) {
+                    distances[nextIndex] = distances[index] + 1;
+                    predecessors[nextIndex] = index;
+                    if (nextIndex == stopIndex) {
+                        return distances;
+                    }
+                    queue.add(nextIndex);
+                }
+            }
+        }
+
+        return distances;
+    }
+
+    /**
+     * Two nodes are in the same strongly connected component when each can reach the other, which can be read directly from the precomputed closures.
+     */
+    private List<ComponentDependencyCycle> findCycles() {
+        BitSet assigned = new BitSet(componentIds.length);
+        List<ComponentDependencyCycle> newCycles = new ArrayList<>();
+
+        for (int index = 0; index < componentIds.length; index++) {
+            if (assigned.get(index) || !downstreamClosures[index].get(index)) {
+                continue;
+            }
+
+            BitSet members = (BitSet) downstreamClosures[index].clone();
+            members.and(upstreamClosures[index]);
+            assigned.or(members);
+            newCycles.add(new ComponentDependencyCycle(members.stream()
+                    .mapToObj(memberIndex -> componentIds[memberIndex])
+                    .sorted()
+                    .collect(Collectors.toList())));
+        }
+
+        newCycles.sort(Comparator.comparing(cycle -> cycle.getComponentIds().get(0)));
+        return List.copyOf(newCycles);
+    }
+
+    private List<String> getClosureComponentIds(BitSet[] closures, String componentId) {
+        Integer componentIndex = componentIndexes.get(componentId);
+
+        if (isNull(componentIndex)) {
+            return List.of();
+        }
+
+        return closures[componentIndex].stream()
+                .filter(index -> index != componentIndex)
+                .mapToObj(index -> componentIds[index])
+                .sorted()
+                .collect(Collectors.toUnmodifiableList());
+    }
+}
@@ -0,0 +1,217 @@
+package com.moneysupermarket.componentcatalog.service.models;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.moneysupermarket.componentcatalog.sdk.models.Component;
+import com.moneysupermarket.componentcatalog.sdk.models.Responsibility;
+import com.moneysupermarket.componentcatalog.sdk.models.openapi.OpenApiSpec;
+import com.moneysupermarket.componentcatalog.sdk.models.readme.Readme;
+import com.moneysupermarket.componentcatalog.sdk.models.todos.ToDo;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * An immutable full-text index of the components, built each time the components are published so that components can be searched by the service
+ * instead of each client downloading and filtering all the components.
+ *
+ * <p>The text of each searchable field is split into lower case words.  A component's weight for a word is the sum over its fields of the field's boost
+ * multiplied by {@code 1 + ln(word count in field)}, so a word in the name counts for more than a word in the readme, and repeating a word has
+ * diminishing returns.  A component matches a query when it contains every word of the query, where the last word also matches longer words that start
+ * with it, so that results can be shown while the query is being typed.  Matches are scored by the sum of their weights for the query words, each
+ * multiplied by the word's inverse document frequency, so rare words count for more than common ones.</p>
+ *
+ * <p>Splitting the text of a component into words is the expensive part of building the index, so a new index reuses the words of any component whose
+ * searchable text has not changed since the previous index was built.</p>
+ */
+public final class ComponentSearchIndex {
+
+    public static final ComponentSearchIndex EMPTY = new ComponentSearchIndex(Map.of());
+
+    private static final Pattern WORD_SEPARATOR_PATTERN = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<String, Document> documents;
+    private final NavigableMap<String, List<Posting>> postings = new TreeMap<>();
+
+    private ComponentSearchIndex(Map<String, Document> documents) {
+        this.documents = documents;
+        documents.forEach((componentId, document) -> document.getWordWeights().forEach((word, weight) ->
+                postings.computeIfAbsent(word, ignored -> new ArrayList<>()).add(new Posting(componentId, weight))));
+    }
+
+    /**
+     * Creates a new index of some components, reusing the words of the components in this index whose searchable text has not changed
+     *
+     * @param components    the components to index
+     * @return              the new index
+     */
+    public ComponentSearchIndex update(Collection<Component> components) {
+        Map<String, Document> newDocuments = new HashMap<>();
+
+        components.forEach(component -> {
+            Map<SearchField, List<String>> fieldTexts = getFieldTexts(component);
+            Document document = documents.get(component.getId());
+            newDocuments.put(component.getId(), nonNull(document) && document.getFieldTexts().equals(fieldTexts) ? document
+                    : new Document(fieldTexts, getWordWeights(fieldTexts)));
+        });
+
+        return new ComponentSearchIndex(newDocuments);
+    }
+
+    /**
+     * @param query the words to search for
+     * @return      the components that contain all the words in the query, ordered from the highest score to the lowest and then by component id.  No
+     *              components are returned for a query without any words.
+     */
+    public List<Match> search(String query) {
+        List<String> queryWords = List.copyOf(splitIntoWords(query).collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        if (queryWords.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Double> scores = new HashMap<>();
+        Map<String, Integer> matchedWordCounts = new HashMap<>();
+
+        for (int index = 0; index < queryWords.size(); index++) {
+            String queryWord = queryWords.get(index);
+            Map<String, Double> wordScores = index == queryWords.size() - 1 ? getPrefixScores(queryWord) : getWordScores(queryWord);
+            wordScores.forEach((componentId, score) -> {
+                scores.merge(componentId, score, Double::sum);
+                matchedWordCounts.merge(componentId, 1, Integer::sum);
+            });
+        }
+
+        return scores.entrySet().stream()
+                .filter(entry -> Objects.equals(matchedWordCounts.get(entry.getKey()), queryWords.size()))
+                .map(entry -> new Match(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingDouble(Match::getScore).reversed().thenComparing(Match::getComponentId))
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, Double> getWordScores(String word) {
+        Map<String, Double> wordScores = new HashMap<>();
+        addWordScores(postings.get(word), wordScores);
+        return wordScores;
+    }
+
+    /**
+     * A component that contains several words with the prefix is scored by its best matching word
+     */
+    private Map<String, Double> getPrefixScores(String prefix) {
+        Map<String, Double> prefixScores = new HashMap<>();
+        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                .values().forEach(wordPostings -> addWordScores(wordPostings, prefixScores));
+        return prefixScores;
+    }
+
+    private void addWordScores(List<Posting> wordPostings, Map<String, Double> wordScores) {
+        if (isNull(wordPostings)) {
+            return;
+        }
+
+        double inverseDocumentFrequency = Math.log(1 + (double) documents.size() / wordPostings.size());
+        wordPostings.forEach(posting -> wordScores.merge(posting.getComponentId(), posting.getWeight() * inverseDocumentFrequency, Math::max));
+    }
+
+    private static Map<SearchField, List<String>> getFieldTexts(Component component) {
+        Map<SearchField, List<String>> fieldTexts = new EnumMap<>(SearchField.class);
+        Arrays.stream(SearchField.values()).forEach(field -> fieldTexts.put(field, field.getTextGetter().apply(component)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList())));
+        return fieldTexts;
+    }
+
+    private static Map<String, Double> getWordWeights(Map<SearchField, List<String>> fieldTexts) {
+        Map<String, Double> wordWeights = new HashMap<>();
+        fieldTexts.forEach((field, texts) -> {
+            Map<String, Long> wordCounts = texts.stream()
+                    .flatMap(ComponentSearchIndex::splitIntoWords)
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+            wordCounts.forEach((word, count) -> wordWeights.merge(word, field.getBoost() * (1 + Math.log(count)), Double::sum));
+        });
+        return wordWeights;
+    }
+
+    private static Stream<String> splitIntoWords(String text) {
+        if (isNull(text)) {
+            return Stream.empty();
+        }
+
+        return WORD_SEPARATOR_PATTERN.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(word -> !word.isEmpty());
+    }
+
+    private static <T> Stream<T> streamNullable(List<T> list) {
+        return isNull(list) ? Stream.empty() : list.stream();
+    }
+
+    private static Stream<String> getOpenApiPaths(OpenApiSpec openApiSpec) {
+        JsonNode paths = isNull(openApiSpec.getSpec()) ? null : openApiSpec.getSpec().get("paths");
+
+        if (isNull(paths)) {
+            return Stream.empty();
+        }
+
+        List<String> pathNames = new ArrayList<>();
+        paths.fieldNames().forEachRemaining(pathNames::add);
+        return pathNames.stream();
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    private enum SearchField {
+
+        NAME(10, component -> Stream.of(component.getName())),
+        TAGS(5, component -> streamNullable(component.getTags())),
+        DESCRIPTION(3, component -> Stream.of(component.getDescription())),
+        RESPONSIBILITIES(2, component -> streamNullable(component.getResponsibilities()).map(Responsibility::getDescription)),
+        OPEN_API_PATHS(2, component -> streamNullable(component.getOpenApiSpecs()).flatMap(ComponentSearchIndex::getOpenApiPaths)),
+        TO_DOS(1, component -> streamNullable(component.getToDos()).map(ToDo::getDescription)),
+        README(1, component -> Stream.ofNullable(component.getReadme()).map(Readme::getContent));
+
+        private final double boost;
+        private final Function<Component, Stream<String>> textGetter;
+    }
+
+    @Value
+    public static class Match {
+
+        String componentId;
+        double score;
+    }
+
+    @Value
+    private static class Document {
+
+        Map<SearchField, List<String>> fieldTexts;
+        Map<String, Double> wordWeights;
+    }
+
+    @Value
+    private static class Posting {
+
+        String componentId;
+        double weight;
+    }
+}
@@ -0,0 +1,166 @@
+package com.moneysupermarket.componentcatalog.service.models;
+
+import com.moneysupermarket.componentcatalog.sdk.models.Component;
+import com.moneysupermarket.componentcatalog.sdk.models.Import;
+import com.moneysupermarket.componentcatalog.sdk.models.ImportUsage;
+import com.moneysupermarket.componentcatalog.sdk.models.Software;
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareRepository;
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareRepositoryUsage;
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareUsage;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.Version;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelector;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * An immutable index from the software, imports and software repositories used by components to the ids of the components that use them, built each
+ * time the components are published so that questions like "which components use this library" can be answered without each client downloading and
+ * searching all the components.
+ *
+ * <p>The keys are held in sorted maps, so a prefix query is a range scan of the keys that start with the prefix.  Results are sorted by key, then by
+ * version in Gradle's version order, and the component ids of each result are sorted.</p>
+ */
+public final class ComponentUsageIndex {
+
+    public static final ComponentUsageIndex EMPTY = create(List.of(), new VersionParser());
+
+    private final NavigableMap<String, NavigableMap<String, SortedSet<String>>> softwareComponentIds;
+    private final NavigableMap<String, SortedSet<String>> importComponentIds;
+    private final NavigableMap<String, SortedSet<String>> softwareRepositoryComponentIds;
+
+    private ComponentUsageIndex(NavigableMap<String, NavigableMap<String, SortedSet<String>>> softwareComponentIds,
+            NavigableMap<String, SortedSet<String>> importComponentIds, NavigableMap<String, SortedSet<String>> softwareRepositoryComponentIds) {
+        this.softwareComponentIds = softwareComponentIds;
+        this.importComponentIds = importComponentIds;
+        this.softwareRepositoryComponentIds = softwareRepositoryComponentIds;
+    }
+
+    /**
+     * Creates an index of the software, imports and software repositories of some components.  Items without a name or url are ignored.
+     *
+     * @param components    the components to index
+     * @param versionParser the parser for the software versions, which are sorted the way Gradle sorts versions
+     * @return              the new index
+     */
+    public static ComponentUsageIndex create(Collection<Component> components, VersionParser versionParser) {
+        Comparator<String> versionComparator = createVersionComparator(versionParser);
+        NavigableMap<String, NavigableMap<String, SortedSet<String>>> softwareComponentIds = new TreeMap<>();
+        NavigableMap<String, SortedSet<String>> importComponentIds = new TreeMap<>();
+        NavigableMap<String, SortedSet<String>> softwareRepositoryComponentIds = new TreeMap<>();
+
+        components.forEach(component -> {
+            forEachItemWithKey(component.getSoftware(), Software::getName, software -> softwareComponentIds
+                    .computeIfAbsent(software.getName(), ignored -> new TreeMap<>(versionComparator))
+                    .computeIfAbsent(software.getVersion(), ignored -> new TreeSet<>())
+                    .add(component.getId()));
+            forEachItemWithKey(component.getImports(), Import::getName, item -> addComponentId(importComponentIds, item.getName(), component));
+            forEachItemWithKey(component.getSoftwareRepositories(), SoftwareRepository::getUrl, softwareRepository -> addComponentId(
+                    softwareRepositoryComponentIds, softwareRepository.getUrl(), component));
+        });
+
+        return new ComponentUsageIndex(softwareComponentIds, importComponentIds, softwareRepositoryComponentIds);
+    }
+
+    /**
+     * Finds the components that use software
+     *
+     * @param name              the exact name of the software, or null to use the name prefix instead
+     * @param namePrefix        the prefix that the software names must start with, which is ignored when a name is given and can be null to match all
+     *                          names
+     * @param versionSelector   a selector that the versions must be accepted by, or null to match all versions
+     * @return                  one usage for each matching software name and version
+     */
+    public List<SoftwareUsage> findSoftwareUsages(String name, String namePrefix, VersionSelector versionSelector) {
+        List<SoftwareUsage> softwareUsages = new ArrayList<>();
+        findEntries(softwareComponentIds, name, namePrefix).forEach((softwareName, versions) -> versions.forEach((version, componentIds) -> {
+            if (isNull(versionSelector) || (nonNull(version) && versionSelector.accept(version))) {
+                softwareUsages.add(new SoftwareUsage(softwareName, version, List.copyOf(componentIds)));
+            }
+        }));
+        return softwareUsages;
+    }
+
+    /**
+     * Finds the components that import types
+     *
+     * @param name          the exact name of the imported type, or null to use the name prefix instead
+     * @param namePrefix    the prefix that the imported type names must start with, which is ignored when a name is given and can be null to match all
+     *                      names.  A package name followed by a dot finds the imports of all the types in the package and its sub-packages.
+     * @return              one usage for each matching imported type
+     */
+    public List<ImportUsage> findImportUsages(String name, String namePrefix) {
+        return findEntries(importComponentIds, name, namePrefix).entrySet().stream()
+                .map(entry -> new ImportUsage(entry.getKey(), List.copyOf(entry.getValue())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Finds the components that use software repositories
+     *
+     * @param url       the exact url of the software repository, or null to use the url prefix instead
+     * @param urlPrefix the prefix that the software repository urls must start with, which is ignored when a url is given and can be null to match all
+     *                  urls
+     * @return          one usage for each matching software repository url
+     */
+    public List<SoftwareRepositoryUsage> findSoftwareRepositoryUsages(String url, String urlPrefix) {
+        return findEntries(softwareRepositoryComponentIds, url, urlPrefix).entrySet().stream()
+                .map(entry -> new SoftwareRepositoryUsage(entry.getKey(), List.copyOf(entry.getValue())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Versions that Gradle treats as equal but are written differently, like {@code 1.0-1} and {@code 1.0.1}, are kept apart by falling back to their
+     * text
+     */
+    private static Comparator<String> createVersionComparator(VersionParser versionParser) {
+        Comparator<Version> versionComparator = new DefaultVersionComparator().asVersionComparator();
+        return Comparator.nullsFirst(Comparator.comparing(versionParser::transform, versionComparator)
+                .thenComparing(Comparator.<String>naturalOrder()));
+    }
+
+    private static <T> void forEachItemWithKey(List<T> items, Function<T, String> keyGetter, Consumer<T> action) {
+        if (isNull(items)) {
+            return;
+        }
+
+        items.stream()
+                .filter(item -> nonNull(keyGetter.apply(item)))
+                .forEach(action);
+    }
+
+    private static void addComponentId(Map<String, SortedSet<String>> componentIds, String key, Component component) {
+        componentIds.computeIfAbsent(key, ignored -> new TreeSet<>()).add(component.getId());
+    }
+
+    /**
+     * The keys that start with a prefix are all greater than or equal to the prefix and less than the prefix followed by the highest char
+     */
+    private static <V> NavigableMap<String, V> findEntries(NavigableMap<String, V> map, String key, String keyPrefix) {
+        if (nonNull(key)) {
+            V value = map.get(key);
+            return isNull(value) ? new TreeMap<>() : new TreeMap<>(Map.of(key, value));
+        }
+
+        if (isNull(keyPrefix) || keyPrefix.isEmpty()) {
+            return map;
+        }
+
+        return map.subMap(keyPrefix, true, keyPrefix + Character.MAX_VALUE, false);
+    }
+}
@@ -7,6 +7,8 @@ import org.eclipse.jgit.api.Git;
 
 import java.nio.file.Path;
 
+import static java.util.Objects.nonNull;
+
 @Value
 @AllArgsConstructor
 @Builder
@@ -14,9 +16,25 @@ public class RepoDirAndGit implements AutoCloseable {
 
     Path repoDir;
     Git git;
+    /**
+     * The read lease on the repo clone, which is released when this is closed
+     */
+    RepoLease lease;
+
+    public RepoDirAndGit(Path repoDir, Git git) {
+        this(repoDir, git, null);
+    }
 
     @Override
     public void close() {
-        git.close();
+        try {
+            if (nonNull(git)) {
+                git.close();
+            }
+        } finally {
+            if (nonNull(lease)) {
+                lease.close();
+            }
+        }
     }
 }
@@ -0,0 +1,23 @@
+package com.moneysupermarket.componentcatalog.service.models;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A read lease on a local repo clone.  While the lease is held, the clone is not fetched, checked out or maintained, so its files stay as they were
+ * when the lease was taken.  Closing the lease more than once, or from a different thread to the one that took it, is safe.
+ */
+@RequiredArgsConstructor
+public class RepoLease implements AutoCloseable {
+
+    private final Runnable releaser;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            releaser.run();
+        }
+    }
+}
@@ -8,4 +8,10 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ ElementType.METHOD, ElementType.TYPE })
 public @interface PartialResponse {
+
+    /**
+     * The fields to return when the request has no "fields" query param, in the same format as the query param.  When empty, all the fields are
+     * returned
+     */
+    String defaultFields() default "";
 }
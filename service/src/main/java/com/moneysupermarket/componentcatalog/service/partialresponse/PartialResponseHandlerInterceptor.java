@@ -17,7 +17,7 @@ public class PartialResponseHandlerInterceptor implements HandlerInterceptor {
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         if (isPartialResponseHandler(handler)) {
-            Matcher matcher = validateFieldsQueryParameter(request);
+            Matcher matcher = validateFieldsQueryParameter(request, (HandlerMethod) handler);
             storeMatcher(request, matcher);
         }
 
@@ -34,10 +34,10 @@ public class PartialResponseHandlerInterceptor implements HandlerInterceptor {
         }
     }
 
-    private Matcher validateFieldsQueryParameter(HttpServletRequest request) {
+    private Matcher validateFieldsQueryParameter(HttpServletRequest request, HandlerMethod handlerMethod) {
         String[] fields = request.getParameterValues(QueryParamNames.FIELDS);
         if (fields == null || fields.length == 0) {
-            return null;
+            return getDefaultFieldsMatcher(handlerMethod);
         }
 
         String pattern = Joiner.on(",").join(fields);
@@ -48,6 +48,15 @@ public class PartialResponseHandlerInterceptor implements HandlerInterceptor {
         }
     }
 
+    private Matcher getDefaultFieldsMatcher(HandlerMethod handlerMethod) {
+        PartialResponse partialResponse = handlerMethod.getMethodAnnotation(PartialResponse.class);
+        if (partialResponse == null || partialResponse.defaultFields().isEmpty()) {
+            return null;
+        }
+
+        return Matcher.of(partialResponse.defaultFields());
+    }
+
     private void storeMatcher(HttpServletRequest request, Matcher matcher) {
         request.setAttribute(RequestAttributeNames.MATCHER, matcher);
     }
@@ -0,0 +1,62 @@
+package com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver;
+
+import com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.models.api.Repo;
+import com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.models.api.RepoEvent;
+import com.moneysupermarket.componentcatalog.service.repositories.ComponentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
+import static java.util.Objects.isNull;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BitbucketServerWebhookHandler {
+
+    private static final String REFS_CHANGED_EVENT_KEY = "repo:refs_changed";
+    private static final String GIT_SUFFIX = ".git";
+
+    private final ComponentRepository componentRepository;
+
+    /**
+     * Queues a rescan of the components in a repo when Bitbucket Server reports that the repo has been pushed to.  Other events are ignored.
+     *
+     * @param event the webhook event sent by Bitbucket Server
+     */
+    public void handleEvent(RepoEvent event) {
+        if (!Objects.equals(event.getEventKey(), REFS_CHANGED_EVENT_KEY) || isNull(event.getRepository()) || isNull(event.getRepository().getProject())) {
+            return;
+        }
+
+        String repoPathSuffix = getRepoPathSuffix(event.getRepository());
+        List<String> repoUrls = componentRepository.getComponents().stream()
+                .map(component -> component.getRepo().getUrl())
+                .filter(repoUrl -> repoUrlHasPathSuffix(repoUrl, repoPathSuffix))
+                .distinct()
+                .collect(Collectors.toList());
+        log.info("Queuing rescan of {} repos for push to Bitbucket Server repo \"{}\"", repoUrls.size(), escapeString(repoPathSuffix));
+        repoUrls.forEach(componentRepository::queueRepoRescan);
+    }
+
+    /**
+     * Bitbucket Server's clone URLs end with the project key, in lowercase, followed by the repo slug, for example
+     * https://bitbucket.example.com/scm/example-project/example-repo.git
+     */
+    private String getRepoPathSuffix(Repo repo) {
+        return "/" + repo.getProject().getKey().toLowerCase() + "/" + repo.getSlug().toLowerCase();
+    }
+
+    private boolean repoUrlHasPathSuffix(String repoUrl, String repoPathSuffix) {
+        String normalizedRepoUrl = repoUrl.toLowerCase();
+        if (normalizedRepoUrl.endsWith(GIT_SUFFIX)) {
+            normalizedRepoUrl = normalizedRepoUrl.substring(0, normalizedRepoUrl.length() - GIT_SUFFIX.length());
+        }
+        return normalizedRepoUrl.endsWith(repoPathSuffix);
+    }
+}
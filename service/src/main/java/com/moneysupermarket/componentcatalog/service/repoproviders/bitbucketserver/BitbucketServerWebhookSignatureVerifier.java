@@ -0,0 +1,53 @@
+package com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.config.BitbucketServerConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static java.util.Objects.isNull;
+
+@Service
+@RequiredArgsConstructor
+public class BitbucketServerWebhookSignatureVerifier {
+
+    private static final String SIGNATURE_PREFIX = "sha256=";
+
+    private final BitbucketServerConfig config;
+
+    /**
+     * Checks that a webhook request was sent by Bitbucket Server, which signs the raw body of each request with an HMAC-SHA256 of the webhook's secret
+     * and sends it in the {@code X-Hub-Signature} header, for example {@code sha256=0a1b...}
+     *
+     * @param signature the value of the {@code X-Hub-Signature} header, or null when the header is missing
+     * @param body      the raw body of the request
+     * @throws InvalidWebhookSignatureException when no webhook secret is configured, or the signature is missing or does not match the body
+     */
+    public void verifySignature(String signature, byte[] body) {
+        if (isNull(config.getWebhookSecret()) || config.getWebhookSecret().isEmpty()) {
+            throw new InvalidWebhookSignatureException("No webhook secret is configured");
+        }
+
+        if (isNull(signature) || !signature.startsWith(SIGNATURE_PREFIX)) {
+            throw new InvalidWebhookSignatureException("Webhook signature is missing");
+        }
+
+        byte[] expectedSignature = Hashing.hmacSha256(config.getWebhookSecret().getBytes(StandardCharsets.UTF_8)).hashBytes(body).asBytes();
+
+        if (!MessageDigest.isEqual(parseSignature(signature.substring(SIGNATURE_PREFIX.length())), expectedSignature)) {
+            throw new InvalidWebhookSignatureException("Webhook signature does not match the body");
+        }
+    }
+
+    private byte[] parseSignature(String hexSignature) {
+        try {
+            return HashCode.fromString(hexSignature.toLowerCase()).asBytes();
+        } catch (IllegalArgumentException e) {
+            return new byte[0];
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class InvalidWebhookSignatureException extends ResponseStatusException {
+
+    public InvalidWebhookSignatureException(String reason) {
+        super(HttpStatus.UNAUTHORIZED, reason);
+    }
+}
@@ -18,12 +18,14 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.time.Duration;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -40,56 +42,59 @@ public class BitbucketServerClient {
 
     private static final List<HttpStatus> GET_REPOS_EXPECTED_STATUS_CODES = List.of(HttpStatus.OK);
     private static final List<HttpStatus> BROWSE_EXPECTED_STATUS_CODES = List.of(HttpStatus.OK, HttpStatus.NOT_FOUND);
+    /**
+     * The maximum page size that Bitbucket Server allows by default
+     */
+    private static final int REPOS_PAGE_LIMIT = 1000;
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+    private static final Duration DEFAULT_REPOS_TIMEOUT = Duration.ofMinutes(10);
     private static final Comparator<RepoAndApiRepo> REPO_AND_API_REPO_COMPARATOR = Comparator.comparing(repoAndApiRepo -> repoAndApiRepo.getApiRepo().getUrl());
 
     private final WebClient webClient;
     private final BitbucketServerConfig config;
 
+    /**
+     * Each request has its own timeout, but a host with many repos can still take a long time overall, so the whole listing has a timeout too
+     */
     public List<ApiRepo> getNormalRepos() {
-        return config.getHosts().stream()
-                .map(this::getNormalRepos)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
+        return Flux.fromIterable(config.getHosts())
+                .flatMapSequential(this::getNormalRepos)
+                .collectList()
+                .block(getReposTimeout());
     }
 
-    private List<ApiRepo> getNormalRepos(BitbucketServerHostConfig host) {
-        List<Repo> normalRepos = new ArrayList<>();
-        Optional<Integer> start = Optional.empty();
-
-        while (true) {
-            PageResponse<Repo> page = getReposPage(host, start);
-
-            normalRepos.addAll(getNormalReposFromPage(page));
-
-            if (page.getIsLastPage()) {
-                break;
-            }
+    /**
+     * Pages through a host's repos, using the largest page size that Bitbucket Server allows by default, then checks which of the normal repos contain a
+     * component metadata file.  The checks are made concurrently, up to a configurable maximum number of concurrent requests per host.
+     */
+    private Flux<ApiRepo> getNormalRepos(BitbucketServerHostConfig host) {
+        return getReposPage(host, Optional.empty())
+                .expand(page -> getNextReposPage(host, page))
+                .concatMapIterable(this::getNormalReposFromPage)
+                .map(this::mapRepoToApiRepo)
+                .sort(REPO_AND_API_REPO_COMPARATOR)
+                .flatMapSequential(addHasComponentMetadataFileToApiRepo(host), getMaxConcurrentRequests());
+    }
 
-            start = Optional.ofNullable(page.getNextPageStart());
+    private Mono<PageResponse<Repo>> getNextReposPage(BitbucketServerHostConfig host, PageResponse<Repo> page) {
+        if (page.getIsLastPage()) {
+            return Mono.empty();
         }
 
-        return normalRepos.stream()
-                .map(this::mapRepoToApiRepo)
-                .sorted(REPO_AND_API_REPO_COMPARATOR)
-                .map(addHasComponentMetadataFileToApiRepo(host))
-                .collect(Collectors.toList());
+        return getReposPage(host, Optional.ofNullable(page.getNextPageStart()));
     }
 
-    private PageResponse<Repo> getReposPage(BitbucketServerHostConfig host, Optional<Integer> start) {
-        String uriTemplate = host.getBaseUrl() + BitbucketServerApiPaths.REPOS;
-        UriVariablesBuilder uriVariablesBuilder = UriVariablesBuilder.builder();
+    private Mono<PageResponse<Repo>> getReposPage(BitbucketServerHostConfig host, Optional<Integer> start) {
+        String uriTemplate = host.getBaseUrl() + BitbucketServerApiPaths.REPOS + "?limit={limit}";
+        UriVariablesBuilder uriVariablesBuilder = UriVariablesBuilder.builder()
+                .addUriVariable("limit", REPOS_PAGE_LIMIT);
         if (start.isPresent()) {
-            uriTemplate += "?start={start}";
+            uriTemplate += "&start={start}";
             uriVariablesBuilder.addUriVariable("start", start.get());
         }
-        Map<String, String> uriVariables = uriVariablesBuilder.build();
-
-        logWebCall(uriTemplate, uriVariables);
 
-        ClientResponse clientResponse = makeRequest(host, webClient.get().uri(uriTemplate, uriVariables));
-        checkResponseStatus(clientResponse, GET_REPOS_EXPECTED_STATUS_CODES, uriTemplate, uriVariables);
-        return clientResponse.bodyToMono(new ParameterizedTypeReference<PageResponse<Repo>>() { })
-                .block(config.getTimeout());
+        return makeRequest(host, uriTemplate, uriVariablesBuilder.build(), GET_REPOS_EXPECTED_STATUS_CODES,
+                clientResponse -> clientResponse.bodyToMono(new ParameterizedTypeReference<PageResponse<Repo>>() { }));
     }
 
     private List<Repo> getNormalReposFromPage(PageResponse<Repo> page) {
@@ -118,45 +123,58 @@ public class BitbucketServerClient {
         return link.getName().equals("http");
     }
 
-    private Function<RepoAndApiRepo, ApiRepo> addHasComponentMetadataFileToApiRepo(BitbucketServerHostConfig host) {
-        return repoAndApiRepo -> repoAndApiRepo.getApiRepo().withHasComponentMetadataFile(hasComponentMetadataFile(host, repoAndApiRepo.getRepo()));
+    private Function<RepoAndApiRepo, Mono<ApiRepo>> addHasComponentMetadataFileToApiRepo(BitbucketServerHostConfig host) {
+        return repoAndApiRepo -> hasComponentMetadataFile(host, repoAndApiRepo.getRepo())
+                .map(repoAndApiRepo.getApiRepo()::withHasComponentMetadataFile);
     }
 
-    private boolean hasComponentMetadataFile(BitbucketServerHostConfig host, Repo repo) {
+    private Mono<Boolean> hasComponentMetadataFile(BitbucketServerHostConfig host, Repo repo) {
         String uriTemplate = host.getBaseUrl() + BitbucketServerApiPaths.BROWSE + "/component-metadata.yaml?type=true";
         Map<String, String> uriVariables = UriVariablesBuilder.builder()
                 .addUriVariable("projectKey", repo.getProject().getKey())
                 .addUriVariable("repositorySlug", repo.getSlug())
                 .build();
 
+        return makeRequest(host, uriTemplate, uriVariables, BROWSE_EXPECTED_STATUS_CODES, clientResponse -> clientResponse.bodyToMono(BrowseResponse.class))
+                .map(browseResponse -> Objects.equals(browseResponse.getType(), "FILE"))
+                .defaultIfEmpty(false);
+    }
+
+    private <T> Mono<T> makeRequest(BitbucketServerHostConfig host, String uriTemplate, Map<String, String> uriVariables,
+            List<HttpStatus> expectedStatusCodes, Function<ClientResponse, Mono<T>> responseBodyExtractor) {
         logWebCall(uriTemplate, uriVariables);
 
-        ClientResponse clientResponse = makeRequest(host, webClient.get().uri(uriTemplate, uriVariables));
-        checkResponseStatus(clientResponse, BROWSE_EXPECTED_STATUS_CODES, uriTemplate, uriVariables);
-        BrowseResponse browseResponse = clientResponse.bodyToMono(BrowseResponse.class)
-                .block(config.getTimeout());
-        return Optional.ofNullable(browseResponse)
-                .map(BrowseResponse::getType)
-                .map(type -> type.equals("FILE"))
-                .orElse(false);
+        return webClient.get()
+                .uri(uriTemplate, uriVariables)
+                .headers(headers -> headers.setBasicAuth(host.getUsername(), host.getPassword()))
+                .exchangeToMono(clientResponse -> checkResponseStatus(clientResponse, expectedStatusCodes, uriTemplate, uriVariables)
+                        .then(Mono.defer(() -> responseBodyExtractor.apply(clientResponse))))
+                .timeout(config.getTimeout());
     }
 
-    private ClientResponse makeRequest(BitbucketServerHostConfig host, WebClient.RequestHeadersSpec<?> requestHeadersSpec) {
-        return requestHeadersSpec
-                .headers(headers -> headers.setBasicAuth(host.getUsername(), host.getPassword()))
-                .exchange()
-                .block(config.getTimeout());
+    private Mono<Void> checkResponseStatus(ClientResponse clientResponse, List<HttpStatus> expectedStatusCodes, String uriTemplate,
+            Map<String, String> uriVariables) {
+        if (expectedStatusCodes.contains(clientResponse.statusCode())) {
+            return Mono.empty();
+        }
+
+        return clientResponse.bodyToMono(String.class)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(responseBody -> {
+                    BitbucketServerClientException exception = new BitbucketServerClientException(expandUriTemplate(uriTemplate, uriVariables),
+                            clientResponse.rawStatusCode(), responseBody.orElse(null));
+                    log.warn(exception.getMessage());
+                    return Mono.error(exception);
+                });
     }
 
-    private void checkResponseStatus(ClientResponse clientResponse, List<HttpStatus> expectedStatusCodes, String uriTemplate, Map<String, String> uriVariables) {
-        if (!expectedStatusCodes.contains(clientResponse.statusCode())) {
-            String responseBody = clientResponse.bodyToMono(String.class).block(config.getTimeout());
+    private int getMaxConcurrentRequests() {
+        return Optional.ofNullable(config.getMaxConcurrentRequests()).orElse(DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
 
-            BitbucketServerClientException exception = new BitbucketServerClientException(expandUriTemplate(uriTemplate, uriVariables),
-                    clientResponse.rawStatusCode(), responseBody);
-            log.warn(exception.getMessage());
-            throw exception;
-        }
+    private Duration getReposTimeout() {
+        return Optional.ofNullable(config.getReposTimeout()).orElse(DEFAULT_REPOS_TIMEOUT);
     }
 
     private void logWebCall(String uriTemplate, Map<String, String> uriVariables) {
@@ -22,4 +22,16 @@ public class BitbucketServerConfig {
     List<BitbucketServerHostConfig> hosts;
     @NotNull
     Duration timeout;
+    /**
+     * The maximum time to list the repos of all the hosts, including checking each repo for a component metadata file
+     */
+    Duration reposTimeout;
+    /**
+     * The maximum number of concurrent requests made to each host when checking repos for a component metadata file
+     */
+    Integer maxConcurrentRequests;
+    /**
+     * The secret that Bitbucket Server signs webhook requests with.  Webhook requests are rejected when no secret is configured.
+     */
+    String webhookSecret;
 }
@@ -0,0 +1,14 @@
+package com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.models.api;
+
+import lombok.Value;
+
+/**
+ * The payload of a Bitbucket Server webhook event about a repo, such as the "repo:refs_changed" event sent when a repo is pushed to.  This class only
+ * contains a subset of the fields sent by Bitbucket Server
+ */
+@Value
+public class RepoEvent {
+
+    String eventKey;
+    Repo repository;
+}
@@ -62,8 +62,6 @@ public class ComponentMetadataRepository {
                 .map(RepoProvider::getApiRepos)
                 .flatMap(Collection::stream)
                 .filter(this::repoHasComponentMetadataFile)
-                .map(this::cloneOrPullRepo)
-                .filter(Objects::nonNull)
                 .map(this::readComponentMetadataFile)
                 .filter(Objects::nonNull)
                 .map(this::readComponentMetadataYaml)
@@ -77,27 +75,20 @@ public class ComponentMetadataRepository {
         return repo.getHasComponentMetadataFile();
     }
 
-    private RepoAndRepoDir cloneOrPullRepo(ApiRepo apiRepo) throws RuntimeException {
-        try {
-            RepoDirAndGit repoDirAndGit = gitCloner.cloneOrPullRepo(apiRepo.getUrl());
-            return new RepoAndRepoDir(apiRepo, repoDirAndGit.getRepoDir());
+    /**
+     * The repo clone is closed once the file has been read, which releases its read lease so that the clone can be fetched and maintained again
+     */
+    private RepoAndYaml readComponentMetadataFile(ApiRepo apiRepo) {
+        try (RepoDirAndGit repoDirAndGit = gitCloner.cloneOrPullRepo(apiRepo.getUrl())) {
+            return new RepoAndYaml(apiRepo, Files.readString(getComponentMetadataFile(repoDirAndGit.getRepoDir())));
         } catch (GitAPIException | IOException | URISyntaxException e) {
             logError(apiRepo, e);
             return null;
         }
     }
 
-    private RepoAndYaml readComponentMetadataFile(RepoAndRepoDir repoAndRepoDir) {
-        try {
-            return new RepoAndYaml(repoAndRepoDir.repo, Files.readString(getComponentMetadataFile(repoAndRepoDir)));
-        } catch (IOException e) {
-            logError(repoAndRepoDir.repo, e);
-            return null;
-        }
-    }
-
-    private Path getComponentMetadataFile(RepoAndRepoDir repoAndRepoDir) {
-        return repoAndRepoDir.repoDir.resolve(DEFAULT_COMPONENT_METADATA_PATH);
+    private Path getComponentMetadataFile(Path repoDir) {
+        return repoDir.resolve(DEFAULT_COMPONENT_METADATA_PATH);
     }
 
     private RepoAndComponentMetadata readComponentMetadataYaml(RepoAndYaml repoAndYaml) {
@@ -123,13 +114,6 @@ public class ComponentMetadataRepository {
         log.error("Could not read Component Metadata file from repo \"{}\"", escapeString(repo.getUrl()), e);
     }
 
-    @AllArgsConstructor
-    private static class RepoAndRepoDir {
-
-        private final ApiRepo repo;
-        private final Path repoDir;
-    }
-
     @AllArgsConstructor
     private static class RepoAndYaml {
 
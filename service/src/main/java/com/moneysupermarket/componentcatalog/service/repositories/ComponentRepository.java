@@ -6,16 +6,22 @@ import com.moneysupermarket.componentcatalog.sdk.models.Component;
 import com.moneysupermarket.componentcatalog.sdk.models.Scanner;
 import com.moneysupermarket.componentcatalog.sdk.models.Summary;
 import com.moneysupermarket.componentcatalog.sdk.models.SummaryCallGraph;
+import com.moneysupermarket.componentcatalog.sdk.models.SummaryComponentDependencies;
 import com.moneysupermarket.componentcatalog.sdk.models.SummarySubComponentDependencies;
 import com.moneysupermarket.componentcatalog.sdk.models.SummarySubComponentDependencyNode;
 import com.moneysupermarket.componentcatalog.sdk.models.Team;
 import com.moneysupermarket.componentcatalog.sdk.models.Test;
+import com.moneysupermarket.componentcatalog.service.models.ComponentDependencyGraph;
+import com.moneysupermarket.componentcatalog.service.models.ComponentSearchIndex;
+import com.moneysupermarket.componentcatalog.service.models.ComponentUsageIndex;
+import com.moneysupermarket.componentcatalog.service.services.CachingVersionParser;
 import com.moneysupermarket.componentcatalog.service.services.ComponentMetadataAssembler;
 import com.moneysupermarket.componentcatalog.service.services.ComponentMetadataLoader;
 import com.moneysupermarket.componentcatalog.service.services.ScanEngine;
 import com.moneysupermarket.componentcatalog.service.services.ScannerFinder;
 import com.moneysupermarket.componentcatalog.service.services.TestEngine;
 import com.moneysupermarket.componentcatalog.service.services.TestFinder;
+import com.moneysupermarket.componentcatalog.service.services.ValueInterner;
 import com.moneysupermarket.componentcatalog.service.utils.ObjectReference;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,20 +31,29 @@ import org.springframework.stereotype.Repository;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 @Repository
 @RequiredArgsConstructor
 @Slf4j
 public class ComponentRepository extends RefreshingRepository {
 
+    /**
+     * Rescan requests for the same repo that arrive within this delay, such as a burst of pushes, are combined into a single rescan
+     */
+    private static final long REPO_RESCAN_DELAY_MILLIS = 30_000;
+
     private final ComponentMetadataRepository repository;
     private final ComponentMetadataLoader loader;
     private final ComponentMetadataAssembler assembler;
@@ -46,10 +61,18 @@ public class ComponentRepository extends RefreshingRepository {
     private final ScannerFinder scannerFinder;
     private final TestEngine testEngine;
     private final TestFinder testFinder;
+    private final ValueInterner valueInterner;
+    private final CachingVersionParser versionParser;
     private volatile ConcurrentHashMap<String, Area> areas = new ConcurrentHashMap<>();
     private volatile ConcurrentHashMap<String, Team> teams = new ConcurrentHashMap<>();
     private volatile ConcurrentHashMap<String, Component> components = new ConcurrentHashMap<>();
     private volatile Summary summary = Summary.EMPTY;
+    private volatile ComponentDependencyGraph componentDependencyGraph = ComponentDependencyGraph.EMPTY;
+    private volatile ComponentUsageIndex componentUsageIndex = ComponentUsageIndex.EMPTY;
+    private volatile ComponentSearchIndex componentSearchIndex = ComponentSearchIndex.EMPTY;
+    private volatile ComponentMetadata lastComponentMetadata;
+    private volatile Map<String, Component> unscannedComponents = Map.of();
+    private final Set<String> queuedRepoRescans = ConcurrentHashMap.newKeySet();
 
     @Override
     protected Logger log() {
@@ -68,14 +91,16 @@ public class ComponentRepository extends RefreshingRepository {
 
     @Override
     protected void doRefresh(boolean firstTime) {
+        valueInterner.startNewPool();
         ComponentMetadata componentMetadata = repository.getComponentMetadata();
         ComponentMetadataLoader.Output loaderOutput = loader.loadComponentMetadata(componentMetadata);
+        Map<String, Component> newUnscannedComponents = Map.copyOf(loaderOutput.getComponents());
         Consumer<Summary> summaryUpdater;
         ObjectReference<Summary> newSummary = new ObjectReference<>();
 
         if (firstTime) {
             updateState(loaderOutput);
-            summaryUpdater = updatedSummary -> summary = updatedSummary;
+            summaryUpdater = this::updateSummary;
         } else {
             summaryUpdater = newSummary::set;
         }
@@ -85,8 +110,91 @@ public class ComponentRepository extends RefreshingRepository {
 
         if (!firstTime) {
             updateState(loaderOutput);
-            summary = newSummary.get();
+            updateSummary(newSummary.get());
+        }
+
+        lastComponentMetadata = componentMetadata;
+        unscannedComponents = newUnscannedComponents;
+        updateComponentIndexes();
+        valueInterner.finishPool();
+    }
+
+    /**
+     * Queues a rescan of the components in a repo, for example after the repo has been pushed to.  Duplicate requests for a repo that is already queued
+     * are ignored.
+     *
+     * @param repoUrl   the URL of the repo
+     */
+    public void queueRepoRescan(String repoUrl) {
+        queuedRepoRescans.add(repoUrl);
+    }
+
+    /**
+     * Rescans the components in the queued repos.  Queued repos are left in the queue while a full refresh is in progress.  As with a full refresh, the
+     * updated components and summary are only published once the rescan has finished.
+     */
+    @Scheduled(fixedDelay = REPO_RESCAN_DELAY_MILLIS)
+    public void rescanQueuedRepos() {
+        if (queuedRepoRescans.isEmpty() || isNull(lastComponentMetadata)) {
+            return;
         }
+
+        runIfNotRefreshing(() -> {
+            Set<String> repoUrls = Set.copyOf(queuedRepoRescans);
+            queuedRepoRescans.removeAll(repoUrls);
+
+            try {
+                rescanRepos(repoUrls);
+            } catch (Exception e) {
+                log.error("Rescan of repos aborted due to exception", e);
+            }
+        });
+    }
+
+    private void rescanRepos(Set<String> repoUrls) {
+        ConcurrentHashMap<String, Component> rescannedComponents = unscannedComponents.values().stream()
+                .filter(component -> repoUrls.contains(component.getRepo().getUrl()))
+                .collect(Collectors.toMap(Component::getId, Function.identity(), (a, b) -> a, ConcurrentHashMap::new));
+
+        if (rescannedComponents.isEmpty()) {
+            return;
+        }
+
+        log.info("Rescanning {} components in {} repos", rescannedComponents.size(), repoUrls.size());
+        ObjectReference<Summary> newSummary = new ObjectReference<>();
+        scanEngine.rescan(lastComponentMetadata, rescannedComponents, newSummary::set);
+        ConcurrentHashMap<String, Component> allComponents = new ConcurrentHashMap<>(components);
+        allComponents.putAll(rescannedComponents);
+        testEngine.test(allComponents, rescannedComponents.keySet());
+
+        components = allComponents;
+        if (nonNull(newSummary.get())) {
+            updateSummary(newSummary.get());
+        }
+        updateComponentIndexes();
+    }
+
+    private void updateSummary(Summary updatedSummary) {
+        SummaryComponentDependencies componentDependencies = getComponentDependencies(updatedSummary);
+
+        // Scanners transform the summary many times during a refresh, so only rebuild the graph when the component dependencies have been replaced
+        if (componentDependencies != getComponentDependencies(summary)) {
+            componentDependencyGraph = ComponentDependencyGraph.create(componentDependencies);
+        }
+        summary = updatedSummary;
+    }
+
+    private SummaryComponentDependencies getComponentDependencies(Summary value) {
+        return isNull(value) ? null : value.getComponentDependencies();
+    }
+
+    /**
+     * The components are still being scanned while they are published during the first refresh, so the indexes are only built once the scanning is
+     * done
+     */
+    private void updateComponentIndexes() {
+        componentUsageIndex = ComponentUsageIndex.create(components.values(), versionParser);
+        componentSearchIndex = componentSearchIndex.update(components.values());
     }
 
     private void updateState(ComponentMetadataLoader.Output loaderOutput) {
@@ -135,6 +243,18 @@ public class ComponentRepository extends RefreshingRepository {
         return summary;
     }
 
+    public ComponentDependencyGraph getComponentDependencyGraph() {
+        return componentDependencyGraph;
+    }
+
+    public ComponentUsageIndex getComponentUsageIndex() {
+        return componentUsageIndex;
+    }
+
+    public ComponentSearchIndex getComponentSearchIndex() {
+        return componentSearchIndex;
+    }
+
     public List<Scanner> getScanners() {
         return scannerFinder.getAllScanners().stream()
                 .map(this::mapScanner)
@@ -42,6 +42,25 @@ public abstract class RefreshingRepository {
         }
     }
 
+    /**
+     * Runs a task that must not overlap with a refresh, such as a partial update of the repository's state
+     *
+     * @param task  the task to run
+     * @return      true if the task was run, or false if it was skipped because a refresh is in progress
+     */
+    protected boolean runIfNotRefreshing(Runnable task) {
+        if (!refreshSemaphore.tryAcquire()) {
+            return false;
+        }
+
+        try {
+            task.run();
+            return true;
+        } finally {
+            refreshSemaphore.release();
+        }
+    }
+
     protected abstract void doInitialize();
 
     protected abstract void doRefresh(boolean firstTime);
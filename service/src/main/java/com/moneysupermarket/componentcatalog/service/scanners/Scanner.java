@@ -8,6 +8,7 @@ import com.moneysupermarket.componentcatalog.service.scanners.models.Output;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import static com.moneysupermarket.componentcatalog.common.utils.CaseUtils.toKebabCase;
 
@@ -26,12 +27,28 @@ public abstract class Scanner<I extends ObjectWithReference, O> {
     public void refresh(ComponentMetadata componentMetadata) {
     }
 
+    /**
+     * Called with all the inputs that are about to be scanned, before any of them are scanned, so that work shared by the inputs can be done up front
+     */
+    public void prepare(List<I> inputs) {
+    }
+
     public abstract Output<O> scan(I input);
 
     public Summary transformSummary(Summary summary) {
         return summary;
     }
 
+    /**
+     * Stops the scan if the scan engine has cancelled it, which it does when the scan exceeds the scanner's scan timeout.  Scanners that do a lot of work
+     * per input call this regularly, so that a cancelled scan does not carry on using resources in the background
+     */
+    protected void throwIfScanCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Scan cancelled");
+        }
+    }
+
     protected <T extends ObjectWithScannerId> List<T> replaceScannerItemsInList(List<T> list, List<T> newItems) {
         List<T> newList = new ArrayList<>(list);
         newList.removeIf(item -> item.getScannerId().equals(id()));
@@ -2,26 +2,24 @@ package com.moneysupermarket.componentcatalog.service.scanners.git;
 
 import com.moneysupermarket.componentcatalog.sdk.models.Repo;
 import com.moneysupermarket.componentcatalog.sdk.models.ScannerError;
-import com.moneysupermarket.componentcatalog.sdk.models.git.Identity;
 import com.moneysupermarket.componentcatalog.sdk.models.git.GitRepo;
 import com.moneysupermarket.componentcatalog.service.config.GitConfig;
 import com.moneysupermarket.componentcatalog.service.mappers.ThrowableToScannerErrorMapper;
 import com.moneysupermarket.componentcatalog.service.models.RepoDirAndGit;
 import com.moneysupermarket.componentcatalog.service.scanners.RepoScanner;
+import com.moneysupermarket.componentcatalog.service.scanners.git.models.CommitStats;
+import com.moneysupermarket.componentcatalog.service.scanners.git.services.CommitStatsCalculator;
 import com.moneysupermarket.componentcatalog.service.scanners.models.Codebase;
 import com.moneysupermarket.componentcatalog.service.scanners.models.Output;
 import com.moneysupermarket.componentcatalog.service.services.GitCloner;
 import com.moneysupermarket.componentcatalog.service.spring.stereotypes.Scanner;
 import lombok.RequiredArgsConstructor;
-import lombok.Value;
 import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.AnyObjectId;
 import org.eclipse.jgit.lib.Constants;
-import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.revwalk.RevSort;
 import org.eclipse.jgit.revwalk.RevWalk;
 
 import java.io.IOException;
@@ -29,16 +27,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
 import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
 
-import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 @Scanner
@@ -48,6 +38,7 @@ public class GitScanner extends RepoScanner {
     private final GitCloner gitCloner;
     private final ThrowableToScannerErrorMapper throwableToScannerErrorMapper;
     private final GitConfig config;
+    private final CommitStatsCalculator commitStatsCalculator;
 
     @Override
     public String id() {
@@ -73,37 +64,35 @@ public class GitScanner extends RepoScanner {
             return Output.of(UnaryOperator.identity(), codebase);
         }
 
-        try (RepoDirAndGit repoDirAndGit = gitCloner.cloneOrPullRepo(input.getUrl())) {
-            LocalDateTime firstCommitTimestamp = getFirstCommitTimestamp(repoDirAndGit.getGit());
-            LocalDateTime lastCommitTimestamp = getLastCommitTimestamp(repoDirAndGit.getGit());
-            CommitStats commitStats = getCommitStats(repoDirAndGit.getGit());
-
-            Codebase codebase = new Codebase(input, repoDirAndGit.getRepoDir());
-            GitRepo gitRepo = new GitRepo(firstCommitTimestamp, lastCommitTimestamp, commitStats.commitCount, commitStats.authors, commitStats.committers,
-                    commitStats.authors.size(), commitStats.committers.size());
-            return Output.of(component -> component.withGitRepo(gitRepo), codebase);
+        RepoDirAndGit repoDirAndGit;
+        try {
+            repoDirAndGit = gitCloner.cloneOrPullRepo(input.getUrl());
         } catch (Exception e) {
             return Output.of(new ScannerError(id(), "Failed to scan Git repo", throwableToScannerErrorMapper.map(id(), e)));
         }
-    }
 
-    private LocalDateTime getFirstCommitTimestamp(Git git) throws IOException {
-        Repository repository = git.getRepository();
-        LocalDateTime firstCommitTimestamp = null;
+        // The clone's read lease is handed on to the codebase, so that the clone stays unchanged until the codebase scanners have read it.  The scan
+        // engine releases the lease once they have finished
+        try (Git git = repoDirAndGit.getGit()) {
+            LocalDateTime lastCommitTimestamp = getLastCommitTimestamp(git);
+            CommitStats commitStats = commitStatsCalculator.calculateCommitStats(git.getRepository());
 
-        try (RevWalk revWalk = new RevWalk(repository)) {
-            AnyObjectId headId = repository.resolve(Constants.HEAD);
+            Codebase codebase = new Codebase(input, repoDirAndGit.getRepoDir(), getHeadCommitId(git), repoDirAndGit.getLease());
+            GitRepo gitRepo = new GitRepo(commitStats.getFirstCommitTimestamp(), lastCommitTimestamp, commitStats.getCommitCount(),
+                    commitStats.getAuthors(), commitStats.getCommitters(), commitStats.getAuthors().size(), commitStats.getCommitters().size());
 
-            if (nonNull(headId)) {
-                RevCommit headCommit = revWalk.parseCommit(headId);
-                revWalk.sort(RevSort.REVERSE);
-                revWalk.markStart(headCommit);
-                RevCommit firstCommit = revWalk.next();
-                firstCommitTimestamp = getCommitTime(firstCommit);
+            // A scan that has been cancelled, for example because it timed out, will have its output discarded so must not keep the lease
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Interrupted while scanning Git repo");
             }
-        }
 
-        return firstCommitTimestamp;
+            return Output.of(component -> component.withGitRepo(gitRepo), codebase);
+        } catch (Exception e) {
+            if (nonNull(repoDirAndGit.getLease())) {
+                repoDirAndGit.getLease().close();
+            }
+            return Output.of(new ScannerError(id(), "Failed to scan Git repo", throwableToScannerErrorMapper.map(id(), e)));
+        }
     }
 
     private LocalDateTime getLastCommitTimestamp(Git git) throws IOException {
@@ -124,80 +113,12 @@ public class GitScanner extends RepoScanner {
         return lastCommitTimestamp;
     }
 
-    private CommitStats getCommitStats(Git git) throws GitAPIException, IOException {
-        Iterable<RevCommit> commits = git.log().all().call();
-        int commitCount = 0;
-        Map<String, Identity> authors = new HashMap<>();
-        Map<String, Identity> committers = new HashMap<>();
-
-        for (RevCommit commit : commits) {
-            addIdentity(authors, commit, RevCommit::getAuthorIdent);
-            addIdentity(committers, commit, RevCommit::getCommitterIdent);
-            commitCount++;
-        }
-
-        return new CommitStats(commitCount, getIdentities(authors), getIdentities(committers));
-    }
-
-    private void addIdentity(Map<String, Identity> identities, RevCommit commit, Function<RevCommit, PersonIdent> personIdentGetter) {
-        PersonIdent personIdent = personIdentGetter.apply(commit);
-        String emailAddress = personIdent.getEmailAddress();
-        Identity identity = identities.get(emailAddress);
-        if (isNull(identity)) {
-            LocalDateTime commitTime = getCommitTime(commit);
-            identity = new Identity(
-                    List.of(personIdent.getName()),
-                    emailAddress,
-                    1,
-                    commitTime,
-                    commitTime);
-        } else {
-            identity = identity.withNames(addIdentityName(identity, personIdent))
-                    .withCommitCount(identity.getCommitCount() + 1)
-                    .withFirstCommitTimestamp(getFirstCommitTimestamp(identity, commit))
-                    .withLastCommitTimestamp(getLastCommitTimestamp(identity, commit));
-        }
-        identities.put(emailAddress, identity);
-    }
-
-    private List<Identity> getIdentities(Map<String, Identity> identities) {
-        return identities.values().stream()
-                .sorted(Comparator.comparing(Identity::getCommitCount).reversed())
-                .collect(Collectors.toList());
-    }
-
-    private List<String> addIdentityName(Identity identity, PersonIdent personIdent) {
-        String name = personIdent.getName();
-        if (identity.getNames().contains(name)) {
-            return identity.getNames();
-        }
-        List<String> newList = new ArrayList<>(identity.getNames());
-        newList.add(name);
-        newList.sort(Comparator.naturalOrder());
-        return newList;
-    }
-
-    private LocalDateTime getFirstCommitTimestamp(Identity identity, RevCommit commit) {
-        LocalDateTime a = identity.getFirstCommitTimestamp();
-        LocalDateTime b = getCommitTime(commit);
-        return a.isBefore(b) ? a : b;
-    }
-
-    private LocalDateTime getLastCommitTimestamp(Identity identity, RevCommit commit) {
-        LocalDateTime a = identity.getLastCommitTimestamp();
-        LocalDateTime b = getCommitTime(commit);
-        return a.isAfter(b) ? a : b;
+    private String getHeadCommitId(Git git) throws IOException {
+        ObjectId headId = git.getRepository().resolve(Constants.HEAD);
+        return nonNull(headId) ? headId.name() : null;
     }
 
     private LocalDateTime getCommitTime(RevCommit commit) {
         return LocalDateTime.ofEpochSecond(commit.getCommitTime(), 0, ZoneOffset.UTC);
     }
-
-    @Value
-    private static class CommitStats {
-
-        Integer commitCount;
-        List<Identity> authors;
-        List<Identity> committers;
-    }
 }
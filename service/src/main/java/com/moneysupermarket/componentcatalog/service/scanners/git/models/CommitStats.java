@@ -0,0 +1,16 @@
+package com.moneysupermarket.componentcatalog.service.scanners.git.models;
+
+import com.moneysupermarket.componentcatalog.sdk.models.git.Identity;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+public class CommitStats {
+
+    LocalDateTime firstCommitTimestamp;
+    Integer commitCount;
+    List<Identity> authors;
+    List<Identity> committers;
+}
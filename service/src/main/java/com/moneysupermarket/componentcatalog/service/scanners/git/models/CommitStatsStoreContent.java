@@ -0,0 +1,42 @@
+package com.moneysupermarket.componentcatalog.service.scanners.git.models;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+import static com.moneysupermarket.componentcatalog.sdk.utils.ListUtils.createUnmodifiableList;
+
+@Value
+@With
+@Builder(toBuilder = true)
+@Jacksonized
+public class CommitStatsStoreContent {
+
+    public static final CommitStatsStoreContent EMPTY = CommitStatsStoreContent.builder().build();
+
+    /**
+     * The ids of the commits that the refs pointed to when the stats were last updated.  The stats cover these commits and all their ancestors.
+     */
+    List<String> tips;
+    String headCommitId;
+    /**
+     * The commit time, in epoch seconds, of the earliest commit reachable from the head commit
+     */
+    Long firstCommitTime;
+    int commitCount;
+    List<StoredIdentity> authors;
+    List<StoredIdentity> committers;
+
+    public CommitStatsStoreContent(List<String> tips, String headCommitId, Long firstCommitTime, int commitCount, List<StoredIdentity> authors,
+            List<StoredIdentity> committers) {
+        this.tips = createUnmodifiableList(tips);
+        this.headCommitId = headCommitId;
+        this.firstCommitTime = firstCommitTime;
+        this.commitCount = commitCount;
+        this.authors = createUnmodifiableList(authors);
+        this.committers = createUnmodifiableList(committers);
+    }
+}
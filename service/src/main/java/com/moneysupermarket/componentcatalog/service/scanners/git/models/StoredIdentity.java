@@ -0,0 +1,37 @@
+package com.moneysupermarket.componentcatalog.service.scanners.git.models;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+import static com.moneysupermarket.componentcatalog.sdk.utils.ListUtils.createUnmodifiableList;
+
+@Value
+@With
+@Builder(toBuilder = true)
+@Jacksonized
+public class StoredIdentity {
+
+    List<String> names;
+    String emailAddress;
+    int commitCount;
+    /**
+     * In epoch seconds
+     */
+    long firstCommitTime;
+    /**
+     * In epoch seconds
+     */
+    long lastCommitTime;
+
+    public StoredIdentity(List<String> names, String emailAddress, int commitCount, long firstCommitTime, long lastCommitTime) {
+        this.names = createUnmodifiableList(names);
+        this.emailAddress = emailAddress;
+        this.commitCount = commitCount;
+        this.firstCommitTime = firstCommitTime;
+        this.lastCommitTime = lastCommitTime;
+    }
+}
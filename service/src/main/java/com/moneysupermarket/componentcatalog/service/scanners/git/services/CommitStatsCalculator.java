@@ -0,0 +1,304 @@
+package com.moneysupermarket.componentcatalog.service.scanners.git.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneysupermarket.componentcatalog.sdk.models.git.Identity;
+import com.moneysupermarket.componentcatalog.service.scanners.git.models.CommitStats;
+import com.moneysupermarket.componentcatalog.service.scanners.git.models.CommitStatsStoreContent;
+import com.moneysupermarket.componentcatalog.service.scanners.git.models.StoredIdentity;
+import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Calculates the commit stats of a Git repo incrementally.  The stats are stored in a file in the repo's Git dir, together with the commits that the
+ * refs pointed to when they were calculated.  On the next calculation only the commits that have been added since then are walked.
+ *
+ * The stored stats are discarded and the whole history walked again if any of the previously stored ref commits is no longer reachable from the
+ * current refs, for example because a branch has been force pushed or deleted without being merged.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CommitStatsCalculator {
+
+    private static final String STORE_FILE_NAME = "component-catalog-commit-stats.json";
+
+    private final FileUtils fileUtils;
+    private final ObjectMapper objectMapper;
+
+    public CommitStats calculateCommitStats(Repository repository) throws IOException {
+        Path storeFile = repository.getDirectory().toPath().resolve(STORE_FILE_NAME);
+        CommitStatsStoreContent content = readContent(storeFile);
+        List<ObjectId> tips = getTips(repository);
+        ObjectId headId = repository.resolve(Constants.HEAD);
+
+        CommitStatsStoreContent newContent = content;
+        List<ObjectId> storedTips = toObjectIds(content.getTips());
+        if (!Objects.equals(Set.copyOf(storedTips), Set.copyOf(tips))) {
+            newContent = updateCommitCounts(repository, content, storedTips, tips);
+        }
+
+        List<ObjectId> storedHeadIds = toObjectIds(isNull(content.getHeadCommitId()) ? List.of() : List.of(content.getHeadCommitId()));
+        List<ObjectId> headIds = isNull(headId) ? List.of() : List.of(headId);
+        if (!Objects.equals(storedHeadIds, headIds)) {
+            newContent = newContent.withHeadCommitId(isNull(headId) ? null : headId.name())
+                    .withFirstCommitTime(getFirstCommitTime(repository, content, storedHeadIds, headIds));
+        }
+
+        if (newContent != content) {
+            writeContent(storeFile, newContent);
+        }
+
+        return new CommitStats(
+                isNull(newContent.getFirstCommitTime()) ? null : getCommitTime(newContent.getFirstCommitTime()),
+                newContent.getCommitCount(),
+                getIdentities(newContent.getAuthors()),
+                getIdentities(newContent.getCommitters()));
+    }
+
+    private CommitStatsStoreContent updateCommitCounts(Repository repository, CommitStatsStoreContent content, List<ObjectId> storedTips,
+            List<ObjectId> tips) throws IOException {
+        boolean incremental = allReachable(repository, storedTips, tips);
+        Map<String, IdentityCounter> authors = incremental ? createIdentityCounters(content.getAuthors()) : new HashMap<>();
+        Map<String, IdentityCounter> committers = incremental ? createIdentityCounters(content.getCommitters()) : new HashMap<>();
+        int newCommitCount = walkCommits(repository, tips, incremental ? storedTips : List.of(), commit -> {
+            addCommit(authors, commit, commit.getAuthorIdent());
+            addCommit(committers, commit, commit.getCommitterIdent());
+        });
+
+        log.debug("Walked {} {} commits in Git repo \"{}\"", newCommitCount, incremental ? "new" : "all",
+                escapeString(repository.getDirectory().toString()));
+        return content.withTips(tips.stream().map(AnyObjectId::name).collect(Collectors.toList()))
+                .withCommitCount((incremental ? content.getCommitCount() : 0) + newCommitCount)
+                .withAuthors(getStoredIdentities(authors))
+                .withCommitters(getStoredIdentities(committers));
+    }
+
+    private Long getFirstCommitTime(Repository repository, CommitStatsStoreContent content, List<ObjectId> storedHeadIds, List<ObjectId> headIds)
+            throws IOException {
+        if (headIds.isEmpty()) {
+            return null;
+        }
+
+        boolean incremental = nonNull(content.getFirstCommitTime()) && allReachable(repository, storedHeadIds, headIds);
+        long[] firstCommitTime = { incremental ? content.getFirstCommitTime() : Long.MAX_VALUE };
+        walkCommits(repository, headIds, incremental ? storedHeadIds : List.of(),
+                commit -> firstCommitTime[0] = Math.min(firstCommitTime[0], commit.getCommitTime()));
+        return firstCommitTime[0];
+    }
+
+    /**
+     * Returns the commits that the refs of the repo point to, the same commits that {@code git log --all} starts from
+     */
+    private List<ObjectId> getTips(Repository repository) throws IOException {
+        Set<ObjectId> tips = new LinkedHashSet<>();
+
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            for (Ref ref : repository.getRefDatabase().getRefs()) {
+                Ref peeledRef = ref.isPeeled() ? ref : repository.getRefDatabase().peel(ref);
+                ObjectId objectId = nonNull(peeledRef.getPeeledObjectId()) ? peeledRef.getPeeledObjectId() : peeledRef.getObjectId();
+
+                if (nonNull(objectId)) {
+                    try {
+                        tips.add(revWalk.parseCommit(objectId).copy());
+                    } catch (MissingObjectException | IncorrectObjectTypeException e) {
+                        // Refs that do not point at commits are skipped, as they are by git log
+                    }
+                }
+            }
+        }
+
+        return List.copyOf(tips);
+    }
+
+    /**
+     * Returns whether all the previous tips are reachable from the current tips, in which case the stats for the previous tips can be carried forward
+     */
+    private boolean allReachable(Repository repository, List<ObjectId> previousTips, List<ObjectId> tips) throws IOException {
+        if (previousTips.isEmpty()) {
+            return false;
+        }
+
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            for (ObjectId previousTip : previousTips) {
+                if (tips.contains(previousTip)) {
+                    continue;
+                }
+
+                RevCommit previousCommit = revWalk.parseCommit(previousTip);
+                boolean reachable = false;
+
+                for (ObjectId tip : tips) {
+                    if (revWalk.isMergedInto(previousCommit, revWalk.parseCommit(tip))) {
+                        reachable = true;
+                        break;
+                    }
+                }
+
+                if (!reachable) {
+                    return false;
+                }
+            }
+        } catch (MissingObjectException | IncorrectObjectTypeException e) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Walks the commits that are reachable from the start commits but not from the end commits, returning the number of commits walked
+     */
+    private int walkCommits(Repository repository, Collection<ObjectId> starts, Collection<ObjectId> ends, Consumer<RevCommit> commitConsumer)
+            throws IOException {
+        int commitCount = 0;
+
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            for (ObjectId start : starts) {
+                revWalk.markStart(revWalk.parseCommit(start));
+            }
+            for (ObjectId end : ends) {
+                revWalk.markUninteresting(revWalk.parseCommit(end));
+            }
+            for (RevCommit commit : revWalk) {
+                commitConsumer.accept(commit);
+                commitCount++;
+            }
+        }
+
+        return commitCount;
+    }
+
+    private void addCommit(Map<String, IdentityCounter> identities, RevCommit commit, PersonIdent personIdent) {
+        identities.computeIfAbsent(personIdent.getEmailAddress(), IdentityCounter::new)
+                .add(personIdent.getName(), commit.getCommitTime());
+    }
+
+    private Map<String, IdentityCounter> createIdentityCounters(List<StoredIdentity> identities) {
+        return identities.stream()
+                .map(IdentityCounter::new)
+                .collect(Collectors.toMap(identity -> identity.emailAddress, identity -> identity, (a, b) -> a, HashMap::new));
+    }
+
+    private List<StoredIdentity> getStoredIdentities(Map<String, IdentityCounter> identities) {
+        return identities.values().stream()
+                .map(IdentityCounter::toStoredIdentity)
+                .collect(Collectors.toList());
+    }
+
+    private List<Identity> getIdentities(List<StoredIdentity> identities) {
+        return identities.stream()
+                .map(identity -> new Identity(identity.getNames(), identity.getEmailAddress(), identity.getCommitCount(),
+                        getCommitTime(identity.getFirstCommitTime()), getCommitTime(identity.getLastCommitTime())))
+                .sorted(Comparator.comparing(Identity::getCommitCount).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private List<ObjectId> toObjectIds(List<String> commitIds) {
+        try {
+            return commitIds.stream().map(ObjectId::fromString).collect(Collectors.toList());
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    private LocalDateTime getCommitTime(long commitTime) {
+        return LocalDateTime.ofEpochSecond(commitTime, 0, ZoneOffset.UTC);
+    }
+
+    private CommitStatsStoreContent readContent(Path file) {
+        if (!Files.exists(file)) {
+            return CommitStatsStoreContent.EMPTY;
+        }
+
+        try {
+            return objectMapper.readValue(fileUtils.readFileContent(file), CommitStatsStoreContent.class);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not read commit stats store file \"{}\", the stats will be calculated again", escapeString(file.toString()), e);
+            return CommitStatsStoreContent.EMPTY;
+        }
+    }
+
+    /**
+     * The content is written to a temporary file first, which is then moved over the store file, so the store file is never left half written
+     */
+    private void writeContent(Path file, CommitStatsStoreContent content) {
+        try {
+            Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            fileUtils.writeFileContent(tempFile, objectMapper.writeValueAsString(content));
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not write commit stats store file \"{}\"", escapeString(file.toString()), e);
+        }
+    }
+
+    /**
+     * A mutable counterpart of {@link StoredIdentity}, so that adding a commit does not create a new object
+     */
+    private static class IdentityCounter {
+
+        private final Set<String> names = new TreeSet<>();
+        private final String emailAddress;
+        private int commitCount;
+        private long firstCommitTime = Long.MAX_VALUE;
+        private long lastCommitTime = Long.MIN_VALUE;
+
+        IdentityCounter(String emailAddress) {
+            this.emailAddress = emailAddress;
+        }
+
+        IdentityCounter(StoredIdentity identity) {
+            this.names.addAll(identity.getNames());
+            this.emailAddress = identity.getEmailAddress();
+            this.commitCount = identity.getCommitCount();
+            this.firstCommitTime = identity.getFirstCommitTime();
+            this.lastCommitTime = identity.getLastCommitTime();
+        }
+
+        void add(String name, long commitTime) {
+            names.add(name);
+            commitCount++;
+            firstCommitTime = Math.min(firstCommitTime, commitTime);
+            lastCommitTime = Math.max(lastCommitTime, commitTime);
+        }
+
+        StoredIdentity toStoredIdentity() {
+            return new StoredIdentity(new ArrayList<>(names), emailAddress, commitCount, firstCommitTime, lastCommitTime);
+        }
+    }
+}
@@ -10,6 +10,7 @@ import com.moneysupermarket.componentcatalog.sdk.models.gradle.Gradle;
 import com.moneysupermarket.componentcatalog.service.constants.Comparators;
 import com.moneysupermarket.componentcatalog.service.mappers.ThrowableToScannerErrorMapper;
 import com.moneysupermarket.componentcatalog.service.scanners.CodebaseScanner;
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.config.GradleConfig;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.constants.SoftwareRepositoryUrls;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.groovyscriptvisitors.BaseVisitor;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.groovyscriptvisitors.BuildGradleVisitor;
@@ -21,6 +22,7 @@ import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.mo
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services.BuildFileLoader;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services.BuildFileProcessor;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services.DependencyVersionFetcher;
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services.MavenFilePrefetcher;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services.PluginProcessor;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services.SoftwareRepositoryFactory;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.utils.ArtifactUtils;
@@ -28,11 +30,17 @@ import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.ut
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.utils.InheritingHashSet;
 import com.moneysupermarket.componentcatalog.service.scanners.models.Codebase;
 import com.moneysupermarket.componentcatalog.service.scanners.models.Output;
+import com.moneysupermarket.componentcatalog.service.services.ValueInterner;
 import com.moneysupermarket.componentcatalog.service.spring.stereotypes.Scanner;
 import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.codehaus.groovy.ast.ASTNode;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -41,10 +49,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.regex.Matcher;
@@ -58,13 +70,16 @@ import static com.moneysupermarket.componentcatalog.service.scanners.gradle.inte
 import static com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.constants.GradleFileNames.SETTINGS_GRADLE;
 import static com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.constants.GradleWrapperPropertyNames.DISTRIBUTION_URL;
 import static com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.constants.ToolNames.GRADLE_WRAPPER;
+import static java.util.Objects.nonNull;
 import static java.util.Objects.requireNonNull;
+import static java.util.Objects.requireNonNullElse;
 
 @Scanner
 @RequiredArgsConstructor
 @Slf4j
 public class GradleScanner extends CodebaseScanner {
 
+    private static final int DEFAULT_MAX_CONCURRENT_BUILD_FILE_CHAINS = 4;
     private static final Pattern GRADLE_WRAPPER_VERSION_EXTRACTION_PATTERN = Pattern.compile("/gradle-([0-9]+\\.[0-9]+(\\.[0-9]+)?)-");
     private static final List<ProcessPhase> PROCESS_PHASES = List.of(
             ProcessPhase.INITIALIZE,
@@ -77,8 +92,9 @@ public class GradleScanner extends CodebaseScanner {
             ProcessPhase.DEPENDENCY_MANAGEMENT,
             ProcessPhase.DEPENDENCIES,
             ProcessPhase.FINALIZE);
-    private final SettingsGradleVisitor settingsGradleVisitor;
-    private final BuildGradleVisitor buildGradleVisitor;
+    private final GradleConfig config;
+    private final ObjectProvider<SettingsGradleVisitor> settingsGradleVisitorProvider;
+    private final ObjectProvider<BuildGradleVisitor> buildGradleVisitorProvider;
     private final BuildFileLoader buildFileLoader;
     private final DependencyVersionFetcher dependencyVersionFetcher;
     private final ArtifactUtils artifactUtils;
@@ -87,6 +103,8 @@ public class GradleScanner extends CodebaseScanner {
     private final BuildFileProcessor buildFileProcessor;
     private final ThrowableToScannerErrorMapper throwableToScannerErrorMapper;
     private final FileUtils fileUtils;
+    private final MavenFilePrefetcher mavenFilePrefetcher;
+    private final ValueInterner valueInterner;
 
     @Override
     public String id() {
@@ -107,13 +125,18 @@ public class GradleScanner extends CodebaseScanner {
                 + "* Find the names and versions of any Java libraries used";
     }
 
+    @Override
+    public void prepare(List<Codebase> inputs) {
+        mavenFilePrefetcher.prefetch(id(), inputs.stream().map(Codebase::getDir).collect(Collectors.toList()));
+    }
+
     @Override
     public Output<Void> scan(Codebase input) {
         log.info("Starting Gradle scan of codebase \"" + escapeString(input.getDir().toString()) + "\"");
 
         Gradle gradle;
-        Set<SoftwareRepository> allSoftwareRepositories = new HashSet<>();
-        Set<Software> allSoftware = new HashSet<>();
+        Set<SoftwareRepository> allSoftwareRepositories = ConcurrentHashMap.newKeySet();
+        Set<Software> allSoftware = ConcurrentHashMap.newKeySet();
 
         try {
             Path gradleWrapperPropertiesFile = input.getDir().resolve("gradle").resolve("wrapper").resolve(GRADLE_WRAPPER_PROPERTIES);
@@ -135,118 +158,27 @@ public class GradleScanner extends CodebaseScanner {
             rootProperties.put("rootDir", input.getDir().toString());
             rootProperties.put("rootProject.projectDir", input.getDir().toString());
             rootProperties.put("rootProject.name", input.getDir().getFileName().toString());
+            ScanContext scanContext = new ScanContext(input.getDir(), rootProperties, new ConcurrentHashMap<>(), new ConcurrentHashMap<>(),
+                    allSoftwareRepositories, allSoftware);
+            List<Path> buildFiles = fileUtils.findFiles(input.getDir(), this::matchBuildFile).collect(Collectors.toList());
 
-            long buildFileCount = fileUtils.findFiles(input.getDir(), this::matchBuildFile)
-                .peek(buildFile -> {
-                    log.debug("Found build file \"" + escapeString(buildFile.toString()) + "\"");
-                    List<Path> buildFileChain = getBuildFileChain(input.getDir(), buildFile);
-                    List<InheritingHashMap<String, String>> properties = new ArrayList<>();
-                    List<InheritingHashSet<SoftwareRepository>> buildscriptSoftwareRepositories = new ArrayList<>();
-                    List<InheritingHashSet<SoftwareRepository>> softwareRepositories = new ArrayList<>();
-                    List<InheritingHashSet<Software>> software = new ArrayList<>();
-                    List<InheritingHashMap<String, Set<String>>> dependencyVersions = new ArrayList<>();
-
-                    PROCESS_PHASES.forEach(processPhase -> {
-                        log.debug("Beginning {} phase", processPhase);
-                        for (int index = 0, count = buildFileChain.size(); index < count; index++) {
-                            ProjectMode projectMode = getProjectMode(buildFileChain, index);
-
-                            InheritingHashMap<String, String> currentProperties = getInheritingItem(properties, index, processPhase,
-                                    () -> cloneValues(rootProperties), InheritingHashMap::new);
-                            InheritingHashSet<SoftwareRepository> currentBuildscriptSoftwareRepositories = getInheritingItem(buildscriptSoftwareRepositories,
-                                    index, processPhase, InheritingHashSet::new, InheritingHashSet::new);
-                            InheritingHashSet<SoftwareRepository> currentSoftwareRepositories = getInheritingItem(softwareRepositories, index, processPhase,
-                                    InheritingHashSet::new, InheritingHashSet::new);
-                            InheritingHashSet<Software> currentSoftware = getInheritingItem(software, index, processPhase,
-                                    InheritingHashSet::new, InheritingHashSet::new);
-                            InheritingHashMap<String, Set<String>> currentDependencyVersions = getInheritingItem(dependencyVersions, index, processPhase,
-                                    InheritingHashMap::new, InheritingHashMap::new);
-
-                            Path currentBuildFile = buildFileChain.get(index);
-                            log.debug("Processing build file \"" + escapeString(currentBuildFile.toString()) + "\"");
-
-                            if (processPhase == ProcessPhase.INITIALIZE) {
-                                if (projectMode != ProjectMode.SETTINGS) {
-                                    Path projectDir = currentBuildFile.getParent();
-                                    currentProperties.put("project.name", projectDir.getFileName().toString());
-                                    String propertyName = "projectDir";
-
-                                    while (projectDir.startsWith(input.getDir())) {
-                                        currentProperties.put(propertyName, projectDir.toString());
-
-                                        projectDir = projectDir.getParent();
-                                        propertyName += ".parent";
-                                    }
-                                }
-
-                                Path gradlePropertiesFile = currentBuildFile.getParent().resolve(GRADLE_PROPERTIES);
-                                if (Files.exists(gradlePropertiesFile)) {
-                                    Properties gradleProperties = fileUtils.loadProperties(gradlePropertiesFile);
-                                    addPropertiesToPropertyMap(gradleProperties, currentProperties);
-                                }
-                            } else if (processPhase == ProcessPhase.FINALIZE) {
-                                if (isLastBuildFileInChain(buildFileChain, index)) {
-                                    allSoftwareRepositories.addAll(currentBuildscriptSoftwareRepositories);
-                                    allSoftwareRepositories.addAll(currentSoftwareRepositories);
-                                    allSoftware.addAll(currentSoftware);
-                                }
-                            } else {
-                                if (processPhase == ProcessPhase.DEPENDENCIES && projectMode != ProjectMode.SETTINGS) {
-                                    Optional<Software> optionalSpringBootPlugin = pluginProcessor.getSpringBootPlugin(currentSoftware);
-
-                                    optionalSpringBootPlugin.ifPresent(springBootPlugin ->
-                                        dependencyVersionFetcher.findDependencyVersions(
-                                                id(),
-                                                artifactUtils.createArtifactFromNameAndVersion(
-                                                        "org.springframework.boot:spring-boot-dependencies",
-                                                        springBootPlugin.getVersion()),
-                                                currentSoftwareRepositories,
-                                                currentDependencyVersions,
-                                                currentSoftware));
-                                }
+            Flux.fromIterable(buildFiles)
+                    .flatMap(buildFile -> Mono.fromRunnable(() -> processBuildFileChain(scanContext, buildFile))
+                                    .subscribeOn(Schedulers.boundedElastic()),
+                            requireNonNullElse(config.getMaxConcurrentBuildFileChains(), DEFAULT_MAX_CONCURRENT_BUILD_FILE_CHAINS))
+                    .blockLast();
 
-                                if (Files.exists(currentBuildFile)) {
-                                    List<ASTNode> nodes = buildFileLoader.loadBuildFile(currentBuildFile, input.getDir());
-
-                                    try {
-                                        Set<Import> imports = buildFileProcessor.getImports(nodes);
-
-                                        VisitorState visitorState = new VisitorState(id(), processPhase, projectMode, input.getDir(), currentBuildFile,
-                                                null, imports, currentBuildscriptSoftwareRepositories, currentSoftwareRepositories,
-                                                currentSoftware, currentProperties, currentDependencyVersions);
-                                        BaseVisitor visitor = (projectMode == ProjectMode.SETTINGS) ? settingsGradleVisitor : buildGradleVisitor;
-                                        visitor.setVisitorState(visitorState, visitorState.getProperties());
-
-                                        buildFileProcessor.visitNodes(nodes, visitor);
-                                    } catch (Exception e) {
-                                        throw new RuntimeException(String.format("Failed to process build file \"%s\" for %s project mode and %s process phase",
-                                                escapeString(currentBuildFile.toString()), projectMode, processPhase), e);
-                                    }
-                                }
-
-                                if (processPhase == ProcessPhase.BUILDSCRIPT_REPOSITORIES && projectMode != ProjectMode.SETTINGS) {
-                                    if (pluginProcessor.getPluginCount(currentSoftware) > 0) {
-                                        if (currentBuildscriptSoftwareRepositories.isEmpty()) {
-                                            currentBuildscriptSoftwareRepositories.add(softwareRepositoryFactory.createSoftwareRepository(id(), SoftwareRepositoryUrls.GRADLE_PLUGIN_PORTAL,
-                                                    SoftwareRepositoryScope.BUILDSCRIPT));
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    });
-                })
-                .count();
-
-            gradle = new Gradle(buildFileCount > 0);
+            gradle = new Gradle(!buildFiles.isEmpty());
         } catch (Exception e) {
             return Output.of(new ScannerError(id(), "Failed to scan codebase", throwableToScannerErrorMapper.map(id(), e)));
         }
 
         List<SoftwareRepository> allSoftwareRepositoriesList = allSoftwareRepositories.stream()
+                .map(valueInterner::intern)
                 .sorted(Comparators.SOFTWARE_REPOSITORIES)
                 .collect(Collectors.toList());
         List<Software> allSoftwareList = allSoftware.stream()
+                .map(valueInterner::intern)
                 .sorted(Comparators.SOFTWARE)
                 .collect(Collectors.toList());
         return Output.of(component -> component.withGradle(gradle)
@@ -254,6 +186,167 @@ public class GradleScanner extends CodebaseScanner {
                 .withSoftware(replaceScannerItemsInList(component.getSoftware(), allSoftwareList)));
     }
 
+    /**
+     * Runs all the process phases for the chain of build files that ends with the given build file.  Chains are processed concurrently, so each one
+     * gets its own visitors, and the evaluated state of the build files that chains share is computed by whichever chain gets to it first.
+     */
+    private void processBuildFileChain(ScanContext scanContext, Path buildFile) {
+        log.debug("Found build file \"" + escapeString(buildFile.toString()) + "\"");
+        List<Path> buildFileChain = getBuildFileChain(scanContext.getCodebaseDir(), buildFile);
+        SettingsGradleVisitor settingsGradleVisitor = settingsGradleVisitorProvider.getObject();
+        BuildGradleVisitor buildGradleVisitor = buildGradleVisitorProvider.getObject();
+        List<InheritingHashMap<String, String>> properties = new ArrayList<>();
+        List<InheritingHashSet<SoftwareRepository>> buildscriptSoftwareRepositories = new ArrayList<>();
+        List<InheritingHashSet<SoftwareRepository>> softwareRepositories = new ArrayList<>();
+        List<InheritingHashSet<Software>> software = new ArrayList<>();
+        List<InheritingHashMap<String, Set<String>>> dependencyVersions = new ArrayList<>();
+
+        for (ProcessPhase processPhase : PROCESS_PHASES) {
+            log.debug("Beginning {} phase", processPhase);
+            for (int index = 0, count = buildFileChain.size(); index < count; index++) {
+                ProjectMode projectMode = getProjectMode(buildFileChain, index);
+
+                InheritingHashMap<String, String> currentProperties = getInheritingItem(properties, index, processPhase,
+                        () -> cloneValues(scanContext.getRootProperties()), InheritingHashMap::new);
+                InheritingHashSet<SoftwareRepository> currentBuildscriptSoftwareRepositories = getInheritingItem(buildscriptSoftwareRepositories,
+                        index, processPhase, InheritingHashSet::new, InheritingHashSet::new);
+                InheritingHashSet<SoftwareRepository> currentSoftwareRepositories = getInheritingItem(softwareRepositories, index, processPhase,
+                        InheritingHashSet::new, InheritingHashSet::new);
+                InheritingHashSet<Software> currentSoftware = getInheritingItem(software, index, processPhase,
+                        InheritingHashSet::new, InheritingHashSet::new);
+                InheritingHashMap<String, Set<String>> currentDependencyVersions = getInheritingItem(dependencyVersions, index, processPhase,
+                        InheritingHashMap::new, InheritingHashMap::new);
+
+                Path currentBuildFile = buildFileChain.get(index);
+                CompletableFuture<ProjectSnapshot> projectSnapshotFuture = null;
+
+                if (!isLastBuildFileInChain(buildFileChain, index)) {
+                    CompletableFuture<ProjectSnapshot> newProjectSnapshotFuture = new CompletableFuture<>();
+                    CompletableFuture<ProjectSnapshot> existingProjectSnapshotFuture = scanContext.getProjectSnapshots().putIfAbsent(
+                            new ProjectSnapshotKey(List.copyOf(buildFileChain.subList(0, index + 1)), processPhase), newProjectSnapshotFuture);
+
+                    if (nonNull(existingProjectSnapshotFuture)) {
+                        log.debug("Reusing evaluated build file \"" + escapeString(currentBuildFile.toString()) + "\"");
+                        joinProjectSnapshot(existingProjectSnapshotFuture).restore(currentProperties, currentBuildscriptSoftwareRepositories,
+                                currentSoftwareRepositories, currentSoftware, currentDependencyVersions);
+                        continue;
+                    }
+
+                    projectSnapshotFuture = newProjectSnapshotFuture;
+                }
+
+                log.debug("Processing build file \"" + escapeString(currentBuildFile.toString()) + "\"");
+
+                try {
+                    if (processPhase == ProcessPhase.INITIALIZE) {
+                        if (projectMode != ProjectMode.SETTINGS) {
+                            Path projectDir = currentBuildFile.getParent();
+                            currentProperties.put("project.name", projectDir.getFileName().toString());
+                            String propertyName = "projectDir";
+
+                            while (projectDir.startsWith(scanContext.getCodebaseDir())) {
+                                currentProperties.put(propertyName, projectDir.toString());
+
+                                projectDir = projectDir.getParent();
+                                propertyName += ".parent";
+                            }
+                        }
+
+                        Path gradlePropertiesFile = currentBuildFile.getParent().resolve(GRADLE_PROPERTIES);
+                        if (Files.exists(gradlePropertiesFile)) {
+                            Properties gradleProperties = fileUtils.loadProperties(gradlePropertiesFile);
+                            addPropertiesToPropertyMap(gradleProperties, currentProperties);
+                        }
+                    } else if (processPhase == ProcessPhase.FINALIZE) {
+                        if (isLastBuildFileInChain(buildFileChain, index)) {
+                            scanContext.getAllSoftwareRepositories().addAll(currentBuildscriptSoftwareRepositories);
+                            scanContext.getAllSoftwareRepositories().addAll(currentSoftwareRepositories);
+                            scanContext.getAllSoftware().addAll(currentSoftware);
+                        }
+                    } else {
+                        if (processPhase == ProcessPhase.DEPENDENCIES && projectMode != ProjectMode.SETTINGS) {
+                            Optional<Software> optionalSpringBootPlugin = pluginProcessor.getSpringBootPlugin(currentSoftware);
+
+                            optionalSpringBootPlugin.ifPresent(springBootPlugin ->
+                                dependencyVersionFetcher.findDependencyVersions(
+                                        id(),
+                                        artifactUtils.createArtifactFromNameAndVersion(
+                                                "org.springframework.boot:spring-boot-dependencies",
+                                                springBootPlugin.getVersion()),
+                                        currentSoftwareRepositories,
+                                        currentDependencyVersions,
+                                        currentSoftware));
+                        }
+
+                        CompiledBuildFile compiledBuildFile = scanContext.getCompiledBuildFiles().computeIfAbsent(currentBuildFile,
+                                path -> compileBuildFile(path, scanContext.getCodebaseDir()));
+
+                        if (compiledBuildFile.isExists()) {
+                            try {
+                                VisitorState visitorState = new VisitorState(id(), processPhase, projectMode, scanContext.getCodebaseDir(), currentBuildFile,
+                                        null, compiledBuildFile.getImports(), currentBuildscriptSoftwareRepositories, currentSoftwareRepositories,
+                                        currentSoftware, currentProperties, currentDependencyVersions);
+                                BaseVisitor visitor = (projectMode == ProjectMode.SETTINGS) ? settingsGradleVisitor : buildGradleVisitor;
+                                visitor.setVisitorState(visitorState, visitorState.getProperties());
+
+                                buildFileProcessor.visitNodes(compiledBuildFile.getNodes(), visitor);
+                            } catch (Exception e) {
+                                throw new RuntimeException(String.format("Failed to process build file \"%s\" for %s project mode and %s process phase",
+                                        escapeString(currentBuildFile.toString()), projectMode, processPhase), e);
+                            }
+                        }
+
+                        if (processPhase == ProcessPhase.BUILDSCRIPT_REPOSITORIES && projectMode != ProjectMode.SETTINGS) {
+                            if (pluginProcessor.getPluginCount(currentSoftware) > 0) {
+                                if (currentBuildscriptSoftwareRepositories.isEmpty()) {
+                                    currentBuildscriptSoftwareRepositories.add(softwareRepositoryFactory.createSoftwareRepository(id(), SoftwareRepositoryUrls.GRADLE_PLUGIN_PORTAL,
+                                            SoftwareRepositoryScope.BUILDSCRIPT));
+                                }
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    // Completes the snapshot future so that any other build file chains waiting for it fail too, rather than waiting forever.  Errors
+                    // like StackOverflowError are caught as well, as they would leave the waiting chains blocked just the same
+                    if (nonNull(projectSnapshotFuture)) {
+                        projectSnapshotFuture.completeExceptionally(e);
+                    }
+                    if (e instanceof Error) {
+                        // Reactor rethrows fatal errors on the worker thread instead of passing them downstream, which would leave the scan waiting
+                        throw new RuntimeException(String.format("Failed to process build file \"%s\" for %s project mode and %s process phase",
+                                escapeString(currentBuildFile.toString()), projectMode, processPhase), e);
+                    }
+                    throw e;
+                }
+
+                if (nonNull(projectSnapshotFuture)) {
+                    projectSnapshotFuture.complete(ProjectSnapshot.create(currentProperties, currentBuildscriptSoftwareRepositories,
+                            currentSoftwareRepositories, currentSoftware, currentDependencyVersions));
+                }
+            }
+        }
+    }
+
+    private ProjectSnapshot joinProjectSnapshot(CompletableFuture<ProjectSnapshot> projectSnapshotFuture) {
+        try {
+            return projectSnapshotFuture.join();
+        } catch (CompletionException e) {
+            throw (e.getCause() instanceof RuntimeException) ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Each build file is parsed once per scan, rather than once for every process phase of every build file chain that it is part of
+     */
+    private CompiledBuildFile compileBuildFile(Path buildFile, Path codebaseDir) {
+        if (!Files.exists(buildFile)) {
+            return new CompiledBuildFile(false, List.of(), Set.of());
+        }
+
+        List<ASTNode> nodes = buildFileLoader.loadBuildFile(buildFile, codebaseDir);
+        return new CompiledBuildFile(true, nodes, buildFileProcessor.getImports(nodes));
+    }
+
     private ProjectMode getProjectMode(List<Path> buildFileChain, int index) {
         ProjectMode projectMode;
 
@@ -285,7 +378,7 @@ public class GradleScanner extends CodebaseScanner {
         return list.get(index - 1);
     }
 
-    protected InheritingHashMap<String, String> cloneValues(HashMap<String, String> values) {
+    protected InheritingHashMap<String, String> cloneValues(Map<String, String> values) {
         InheritingHashMap<String, String> newValues = new InheritingHashMap<>();
         newValues.putAll(values);
         return newValues;
@@ -327,4 +420,76 @@ public class GradleScanner extends CodebaseScanner {
     private boolean matchBuildFile(Path path, BasicFileAttributes basicFileAttributes) {
         return basicFileAttributes.isRegularFile() && Objects.equals(path.getFileName().toString(), BUILD_GRADLE);
     }
+
+    @Value
+    private static class ScanContext {
+
+        Path codebaseDir;
+        Map<String, String> rootProperties;
+        Map<Path, CompiledBuildFile> compiledBuildFiles;
+        Map<ProjectSnapshotKey, CompletableFuture<ProjectSnapshot>> projectSnapshots;
+        Set<SoftwareRepository> allSoftwareRepositories;
+        Set<Software> allSoftware;
+    }
+
+    @Value
+    private static class CompiledBuildFile {
+
+        boolean exists;
+        List<ASTNode> nodes;
+        Set<Import> imports;
+    }
+
+    @Value
+    private static class ProjectSnapshotKey {
+
+        List<Path> buildFileChainPrefix;
+        ProcessPhase processPhase;
+    }
+
+    /**
+     * The state that a build file added to its own layer of the inheriting collections, as it was at the end of a process phase.
+     *
+     * A build file that is not the last in its chain is evaluated the same way in every chain that shares the same chain prefix, e.g. settings.gradle
+     * and the root build.gradle file are shared by the chains of all subprojects.  A snapshot is taken after each process phase, rather than just
+     * after the last phase, because the following build files in a chain only see what their parents had added by the end of the current phase.
+     */
+    @Value
+    private static class ProjectSnapshot {
+
+        Map<String, String> properties;
+        Set<SoftwareRepository> buildscriptSoftwareRepositories;
+        Set<SoftwareRepository> softwareRepositories;
+        Set<Software> software;
+        Map<String, Set<String>> dependencyVersions;
+
+        static ProjectSnapshot create(InheritingHashMap<String, String> properties, InheritingHashSet<SoftwareRepository> buildscriptSoftwareRepositories,
+                InheritingHashSet<SoftwareRepository> softwareRepositories, InheritingHashSet<Software> software,
+                InheritingHashMap<String, Set<String>> dependencyVersions) {
+            return new ProjectSnapshot(properties.getOwnEntries(), buildscriptSoftwareRepositories.getOwnElements(), softwareRepositories.getOwnElements(),
+                    software.getOwnElements(), copyDependencyVersions(dependencyVersions.getOwnEntries()));
+        }
+
+        void restore(InheritingHashMap<String, String> properties, InheritingHashSet<SoftwareRepository> buildscriptSoftwareRepositories,
+                InheritingHashSet<SoftwareRepository> softwareRepositories, InheritingHashSet<Software> software,
+                InheritingHashMap<String, Set<String>> dependencyVersions) {
+            properties.clear();
+            properties.putAll(this.properties);
+            buildscriptSoftwareRepositories.clear();
+            buildscriptSoftwareRepositories.addAll(this.buildscriptSoftwareRepositories);
+            softwareRepositories.clear();
+            softwareRepositories.addAll(this.softwareRepositories);
+            software.clear();
+            software.addAll(this.software);
+            dependencyVersions.clear();
+            // The version sets are copied so that the chains that restore the same snapshot never share a mutable set
+            dependencyVersions.putAll(copyDependencyVersions(this.dependencyVersions));
+        }
+
+        private static Map<String, Set<String>> copyDependencyVersions(Map<String, Set<String>> dependencyVersions) {
+            Map<String, Set<String>> copy = new HashMap<>();
+            dependencyVersions.forEach((name, versions) -> copy.put(name, new HashSet<>(versions)));
+            return copy;
+        }
+    }
 }
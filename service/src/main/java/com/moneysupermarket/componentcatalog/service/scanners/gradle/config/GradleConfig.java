@@ -4,9 +4,11 @@ import lombok.Value;
 import lombok.experimental.NonFinal;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 import javax.validation.constraints.NotEmpty;
+import java.time.Duration;
 import java.util.List;
 
 @Validated
@@ -19,4 +21,8 @@ public class GradleConfig {
     List<String> additionalSafeSoftwareRepositoryUrls;
     @NotEmpty
     String pomCacheDir;
+    Integer maxConcurrentPrefetches;
+    Duration versionCatalogueTtl;
+    Integer maxConcurrentBuildFileChains;
+    DataSize buildFileCacheMaxSize;
 }
@@ -80,6 +80,10 @@ import java.util.stream.Collectors;
 import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
 import static java.util.Objects.nonNull;
 
+/**
+ * Visitors hold the state of the build file that they are currently visiting, so the visitor beans are prototype scoped and each build file chain
+ * that is being processed gets its own instances.
+ */
 @RequiredArgsConstructor
 public abstract class BaseVisitor extends CodeVisitorSupport {
 
@@ -15,6 +15,8 @@ import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.se
 import lombok.extern.slf4j.Slf4j;
 import org.codehaus.groovy.ast.expr.MethodCallExpression;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
@@ -24,6 +26,7 @@ import java.util.Optional;
 import static com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.groovyscriptvisitors.ProjectMode.SUBPROJECT;
 
 @Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 @Slf4j
 public class BuildGradleVisitor extends BaseBuildFileVisitor {
 
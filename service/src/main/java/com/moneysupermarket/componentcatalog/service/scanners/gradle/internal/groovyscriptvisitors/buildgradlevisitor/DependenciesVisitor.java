@@ -17,6 +17,8 @@ import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.ut
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.utils.InheritingHashSet;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import java.util.Objects;
@@ -28,6 +30,7 @@ import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 @Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 @Slf4j
 public class DependenciesVisitor extends BaseArtifactVisitor {
 
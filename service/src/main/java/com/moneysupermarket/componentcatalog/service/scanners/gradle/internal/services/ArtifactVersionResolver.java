@@ -1,39 +1,52 @@
 package com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services;
 
 import com.moneysupermarket.componentcatalog.sdk.models.SoftwareRepository;
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.config.GradleConfig;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.utils.ArtifactUtils;
+import com.moneysupermarket.componentcatalog.service.services.CachingVersionParser;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.CachingVersionSelectorScheme;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionSelectorScheme;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.Version;
-import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelector;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Comparator;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
+import static java.util.Objects.isNull;
+import static java.util.Objects.requireNonNullElse;
 
 @Service
 @RequiredArgsConstructor
 public class ArtifactVersionResolver {
 
+    private static final Duration DEFAULT_VERSION_CATALOGUE_TTL = Duration.ofMinutes(15);
+
     private final ArtifactVersionsFetcher artifactVersionsFetcher;
     private final ArtifactUtils artifactUtils;
+    private final GradleConfig config;
+    private final Clock clock;
+    private final CachingVersionParser versionParser;
+    private final Map<VersionCatalogueKey, VersionCatalogue> versionCatalogues = new ConcurrentHashMap<>();
     private CachingVersionSelectorScheme versionSelectorScheme;
-    private VersionParser versionParser;
     private Comparator<Version> versionComparator;
 
     @PostConstruct
     public void initialise() {
-        DefaultVersionSelectorScheme defaultVersionSelectorScheme = new DefaultVersionSelectorScheme(new DefaultVersionComparator(), new VersionParser());
+        DefaultVersionSelectorScheme defaultVersionSelectorScheme = new DefaultVersionSelectorScheme(new DefaultVersionComparator(), versionParser);
         versionSelectorScheme = new CachingVersionSelectorScheme(defaultVersionSelectorScheme);
-        versionParser = new VersionParser();
-        versionComparator = new DefaultVersionComparator().asVersionComparator().reversed();
+        versionComparator = new DefaultVersionComparator().asVersionComparator();
     }
 
     public String resolveArtifactVersion(String groupId, String artifactId, String version, Set<SoftwareRepository> softwareRepositories) {
@@ -43,11 +56,8 @@ public class ArtifactVersionResolver {
             return version;
         }
 
-        Optional<Version> highestMatchingVersion = artifactVersionsFetcher.fetchArtifactVersions(groupId, artifactId, softwareRepositories).stream()
-                .map(versionParser::transform)
-                .sorted(versionComparator)
-                .filter(versionSelector::accept)
-                .findFirst();
+        Optional<Version> highestMatchingVersion = getVersionCatalogue(groupId, artifactId, softwareRepositories)
+                .findHighestMatchingVersion(versionSelector);
 
         if (highestMatchingVersion.isEmpty()) {
             throw new RuntimeException(String.format("Could not find matching version for \"%s\"",
@@ -56,4 +66,30 @@ public class ArtifactVersionResolver {
 
         return highestMatchingVersion.get().getSource();
     }
+
+    /**
+     * Expired catalogues are replaced rather than refreshed in place, so two threads may occasionally fetch the same catalogue.  The downloader
+     * coalesces their requests, and a failed fetch is never cached.
+     */
+    private VersionCatalogue getVersionCatalogue(String groupId, String artifactId, Set<SoftwareRepository> softwareRepositories) {
+        VersionCatalogueKey key = new VersionCatalogueKey(groupId, artifactId, softwareRepositories);
+        Instant now = clock.instant();
+        VersionCatalogue versionCatalogue = versionCatalogues.get(key);
+
+        if (isNull(versionCatalogue) || versionCatalogue.isExpired(now)) {
+            versionCatalogue = VersionCatalogue.create(artifactVersionsFetcher.fetchArtifactVersions(groupId, artifactId, softwareRepositories),
+                    versionParser, versionComparator, now.plus(requireNonNullElse(config.getVersionCatalogueTtl(), DEFAULT_VERSION_CATALOGUE_TTL)));
+            versionCatalogues.put(key, versionCatalogue);
+        }
+
+        return versionCatalogue;
+    }
+
+    @Value
+    private static class VersionCatalogueKey {
+
+        String groupId;
+        String artifactId;
+        Set<SoftwareRepository> softwareRepositories;
+    }
 }
@@ -11,7 +11,6 @@ import org.springframework.stereotype.Service;
 import javax.annotation.PostConstruct;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import java.io.StringReader;
@@ -27,13 +26,12 @@ public class ArtifactVersionsFetcher {
 
     private final MavenRepositoryFileDownloader mavenRepositoryFileDownloader;
     private final ArtifactUtils artifactUtils;
-    private Unmarshaller unmarshaller;
+    private JAXBContext context;
     private XMLInputFactory xmlInputFactory;
 
     @PostConstruct
     public void initialize() throws JAXBException {
-        JAXBContext context = JAXBContext.newInstance(Metadata.class);
-        unmarshaller = context.createUnmarshaller();
+        context = JAXBContext.newInstance(Metadata.class);
         xmlInputFactory = XMLInputFactory.newFactory();
         xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
     }
@@ -55,7 +53,7 @@ public class ArtifactVersionsFetcher {
 
     private Metadata readMetadataXml(String content) {
         try {
-            return (Metadata) unmarshaller.unmarshal(xmlInputFactory.createXMLStreamReader(new StringReader(content)));
+            return (Metadata) context.createUnmarshaller().unmarshal(xmlInputFactory.createXMLStreamReader(new StringReader(content)));
         } catch (JAXBException | XMLStreamException e) {
             throw new RuntimeException(e);
         }
@@ -1,30 +1,66 @@
 package com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.config.GradleConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.Value;
 import org.codehaus.groovy.ast.ASTNode;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
+import static java.util.Objects.isNull;
+
+/**
+ * Caches the parsed nodes of build files, keyed by a hash of their contents, so that a build file shared by many codebases is only parsed once.
+ *
+ * The size of the nodes is proportional to the length of the build file they were parsed from, so the cache is bounded by the total length of the
+ * cached build files rather than by the number of entries.  The least recently used entries are evicted once that total is exceeded.  A single
+ * segment is used so that the limit applies to the cache as a whole.  Writes only follow a parse, so there is little contention for it.  Hits,
+ * misses and evictions are published as metrics.
+ */
 @Service
 public class BuildFileCache {
 
     private static final HashFunction HASH_FUNCTION = Hashing.md5();
-    private Map<String, List<ASTNode>> cache = new HashMap<>();
+    private static final long DEFAULT_MAX_SIZE = 16L * 1024 * 1024;
+    private static final String CACHE_NAME = "gradleBuildFileCache";
+
+    private final Cache<String, CachedNodes> cache;
+
+    public BuildFileCache(GradleConfig config, MeterRegistry meterRegistry) {
+        long maxSize = isNull(config.getBuildFileCacheMaxSize()) ? DEFAULT_MAX_SIZE : config.getBuildFileCacheMaxSize().toBytes();
+        cache = CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumWeight(maxSize)
+                .weigher((String key, CachedNodes value) -> value.getContentLength())
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
 
     public List<ASTNode> getBuildFileNodes(String content) {
-        return cache.get(getHashCodeForBuildFileContent(content));
+        CachedNodes cachedNodes = cache.getIfPresent(getHashCodeForBuildFileContent(content));
+        return isNull(cachedNodes) ? null : cachedNodes.getNodes();
     }
 
-    public List<ASTNode> putBuildFileNodes(String content, List<ASTNode> nodes) {
-        return cache.put(getHashCodeForBuildFileContent(content), nodes);
+    public void putBuildFileNodes(String content, List<ASTNode> nodes) {
+        cache.put(getHashCodeForBuildFileContent(content), new CachedNodes(nodes, content.length()));
     }
 
     private String getHashCodeForBuildFileContent(String content) {
         return HASH_FUNCTION.hashString(content, StandardCharsets.UTF_8).toString();
     }
+
+    @Value
+    private static class CachedNodes {
+
+        List<ASTNode> nodes;
+        int contentLength;
+    }
 }
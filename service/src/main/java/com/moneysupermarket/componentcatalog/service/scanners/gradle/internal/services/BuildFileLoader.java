@@ -4,8 +4,6 @@ import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.codehaus.groovy.ast.ASTNode;
-import org.codehaus.groovy.ast.builder.AstBuilder;
-import org.codehaus.groovy.control.CompilePhase;
 import org.springframework.stereotype.Service;
 
 import java.nio.file.Path;
@@ -20,9 +18,9 @@ import static java.util.Objects.nonNull;
 @Slf4j
 public class BuildFileLoader {
 
-    private final AstBuilder astBuilder = new AstBuilder();
     private final FileUtils fileUtils;
     private final BuildFileCache buildFileCache;
+    private final BuildFileParser buildFileParser;
     private final PropertyExpander propertyExpander;
 
     public List<ASTNode> loadBuildFile(Path buildFile, Path codebaseDir) {
@@ -40,7 +38,7 @@ public class BuildFileLoader {
                 log.debug("Used cached nodes for build file \"{}\"", buildFile);
             } else {
                 log.debug("Built new nodes for build file \"{}\"", buildFile);
-                nodes = astBuilder.buildFromString(CompilePhase.CONVERSION, false, contents);
+                nodes = buildFileParser.parseBuildFile(contents);
                 buildFileCache.putBuildFileNodes(contents, nodes);
             }
 
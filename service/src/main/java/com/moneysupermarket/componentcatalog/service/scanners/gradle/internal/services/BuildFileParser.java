@@ -0,0 +1,49 @@
+package com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services;
+
+import groovy.lang.GroovyClassLoader;
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilePhase;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Parses the contents of a build file into Groovy AST nodes, returning the same nodes as
+ * {@code new AstBuilder().buildFromString(CompilePhase.CONVERSION, false, contents)}.
+ *
+ * AstBuilder creates a new GroovyClassLoader for every call and each node it returns keeps a reference back to that class loader, so every cached
+ * build file kept a class loader of its own alive.  Compilation stops at the conversion phase, before any class is loaded or defined, so a single
+ * class loader and compiler configuration can safely be shared by all parses, including concurrent ones.  Only the compilation unit, which is single
+ * use, is created per parse.
+ */
+@Service
+public class BuildFileParser {
+
+    private static final String SCRIPT_CLASS_NAME_PREFIX = "BuildFileScript";
+
+    private final CompilerConfiguration compilerConfiguration = new CompilerConfiguration(CompilerConfiguration.DEFAULT);
+    private final GroovyClassLoader classLoader = new GroovyClassLoader(BuildFileParser.class.getClassLoader(), compilerConfiguration);
+    private final AtomicLong scriptCount = new AtomicLong();
+
+    public List<ASTNode> parseBuildFile(String contents) {
+        CompilationUnit compilationUnit = new CompilationUnit(compilerConfiguration, null, classLoader);
+        compilationUnit.addSource(SCRIPT_CLASS_NAME_PREFIX + scriptCount.incrementAndGet() + ".groovy", contents);
+        compilationUnit.compile(CompilePhase.CONVERSION.getPhaseNumber());
+
+        List<ASTNode> nodes = new ArrayList<>();
+        for (ModuleNode module : compilationUnit.getAST().getModules()) {
+            if (nonNull(module.getStatementBlock())) {
+                nodes.add(module.getStatementBlock());
+            }
+            nodes.addAll(module.getClasses());
+        }
+        return nodes;
+    }
+}
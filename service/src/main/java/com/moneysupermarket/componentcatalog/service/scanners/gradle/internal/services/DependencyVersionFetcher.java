@@ -8,6 +8,7 @@ import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.co
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.models.Pom;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.models.PomOutcome;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.utils.ArtifactUtils;
+import com.moneysupermarket.componentcatalog.service.services.ValueInterner;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -15,7 +16,6 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 @Service
@@ -24,6 +24,7 @@ public class DependencyVersionFetcher {
 
     private final PomFetcher pomFetcher;
     private final ArtifactUtils artifactUtils;
+    private final ValueInterner valueInterner;
 
     public void findDependencyVersions(String scannerId, String pomArtifactCoordinates, Set<SoftwareRepository> softwareRepositories,
             Map<String, Set<String>> dependencyVersions, Set<Software> software) {
@@ -34,14 +35,11 @@ public class DependencyVersionFetcher {
             pom.getTransitiveArtifactCoordinates().forEach(artifact -> addProjectObjectModelSoftware(scannerId, artifact, SoftwareDependencyType.TRANSITIVE, software));
             if (nonNull(pom.getDependencyManagementDependencies())) {
                 pom.getDependencyManagementDependencies().forEach(item -> {
-                    Set<String> versions = dependencyVersions.get(item.getName());
-
-                    if (isNull(versions)) {
-                        versions = new HashSet<>();
-                        dependencyVersions.put(item.getName(), versions);
-                    }
-
+                    // The versions can be inherited from a parent build file, whose evaluated state is shared with the other subprojects, so
+                    // they are copied into the current build file rather than being added to in place
+                    Set<String> versions = new HashSet<>(dependencyVersions.getOrDefault(item.getName(), Set.of()));
                     versions.add(item.getVersion());
+                    dependencyVersions.put(item.getName(), versions);
                 });
             }
         }
@@ -50,6 +48,7 @@ public class DependencyVersionFetcher {
     private void addProjectObjectModelSoftware(String scannerId, String pomArtifactCoordinates, SoftwareDependencyType dependencyType,
             Set<Software> software) {
         ArtifactUtils.ArtifactParts parts = artifactUtils.getArtifactParts(pomArtifactCoordinates);
-        software.add(new Software(scannerId, SoftwareType.JVM, dependencyType, parts.getName(), parts.getVersion(), null, MavenPackagings.BOM, null));
+        software.add(valueInterner.intern(new Software(scannerId, SoftwareType.JVM, dependencyType, parts.getName(), parts.getVersion(), null,
+                MavenPackagings.BOM, null)));
     }
 }
@@ -0,0 +1,179 @@
+package com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services;
+
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareRepository;
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.config.GradleConfig;
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.constants.SoftwareRepositoryUrls;
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.utils.ArtifactUtils;
+import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionSelectorScheme;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelectorScheme;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
+import static com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.constants.GradleFileNames.BUILD_GRADLE;
+import static com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.constants.GradleFileNames.SETTINGS_GRADLE;
+import static java.util.Objects.requireNonNullElse;
+
+/**
+ * Warms the POM and Maven metadata caches before codebases are scanned.  A cheap first pass over the text of each codebase's build files finds literal
+ * artifact coordinates, Spring Boot plugin versions and repository URLs.  The matching POMs and Maven metadata files are then fetched in parallel, so
+ * that the Gradle scan itself mostly hits the caches instead of waiting on the network one file at a time.
+ *
+ * The first pass does not evaluate the build files, so it misses coordinates that are built from properties.  Those are still fetched by the Gradle
+ * scan as before.  Files are only fetched from repositories declared in the build files, so a codebase with no declared repositories is not
+ * prefetched for.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MavenFilePrefetcher {
+
+    private static final int DEFAULT_MAX_CONCURRENT_PREFETCHES = 16;
+    private static final Pattern ARTIFACT_COORDINATES_PATTERN = Pattern.compile("[\"']([\\w.\\-]+):([\\w.\\-]+):([^\"'\\s:@$]+)(?:[:@][^\"'$]*)?[\"']");
+    private static final Pattern SPRING_BOOT_PLUGIN_PATTERN = Pattern.compile(
+            "id\\s*\\(?\\s*[\"']org\\.springframework\\.boot[\"']\\s*\\)?\\s*version\\s*\\(?\\s*[\"']([^\"'$]+)[\"']");
+    private static final Pattern REPOSITORY_URL_PATTERN = Pattern.compile("url\\s*[=(]?\\s*[\"'](https?://[^\"'$]+)[\"']");
+    private static final String SPRING_BOOT_GROUP_ID = "org.springframework.boot";
+    private static final String SPRING_BOOT_GRADLE_PLUGIN_ARTIFACT_ID = "spring-boot-gradle-plugin";
+    private static final String SPRING_BOOT_DEPENDENCIES_ARTIFACT_ID = "spring-boot-dependencies";
+
+    private final GradleConfig config;
+    private final FileUtils fileUtils;
+    private final ArtifactUtils artifactUtils;
+    private final PomFetcher pomFetcher;
+    private final ArtifactVersionsFetcher artifactVersionsFetcher;
+    private final SoftwareRepositoryFactory softwareRepositoryFactory;
+    private final VersionSelectorScheme versionSelectorScheme = new DefaultVersionSelectorScheme(new DefaultVersionComparator(), new VersionParser());
+
+    public void prefetch(String scannerId, Collection<Path> codebaseDirs) {
+        Set<PrefetchRequest> requests = codebaseDirs.stream()
+                .flatMap(codebaseDir -> findPrefetchRequests(scannerId, codebaseDir).stream())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        log.info("Prefetching {} Maven files for {} codebases", requests.size(), codebaseDirs.size());
+
+        Flux.fromIterable(requests)
+                .flatMap(request -> Mono.fromRunnable(() -> prefetch(request)).subscribeOn(Schedulers.boundedElastic()),
+                        requireNonNullElse(config.getMaxConcurrentPrefetches(), DEFAULT_MAX_CONCURRENT_PREFETCHES))
+                .blockLast();
+    }
+
+    private Set<PrefetchRequest> findPrefetchRequests(String scannerId, Path codebaseDir) {
+        String buildFileText = fileUtils.findFileContents(codebaseDir, this::matchBuildFile)
+                .map(FileUtils.FileContent::getContent)
+                .collect(Collectors.joining("\n"));
+        Set<SoftwareRepository> softwareRepositories = findSoftwareRepositories(scannerId, buildFileText);
+        Set<PrefetchRequest> requests = new LinkedHashSet<>();
+
+        if (softwareRepositories.isEmpty()) {
+            log.debug("Not prefetching for codebase \"{}\" as no repositories were found in its build files", escapeString(codebaseDir.toString()));
+            return requests;
+        }
+
+        Matcher matcher = ARTIFACT_COORDINATES_PATTERN.matcher(buildFileText);
+        while (matcher.find()) {
+            String groupId = matcher.group(1);
+            String artifactId = matcher.group(2);
+            String version = matcher.group(3);
+
+            if (versionSelectorScheme.parseSelector(version).isDynamic()) {
+                requests.add(new PrefetchRequest(PrefetchType.METADATA, groupId, artifactId, null, softwareRepositories));
+            } else {
+                requests.add(new PrefetchRequest(PrefetchType.POM, groupId, artifactId, version, softwareRepositories));
+
+                if (Objects.equals(groupId, SPRING_BOOT_GROUP_ID) && Objects.equals(artifactId, SPRING_BOOT_GRADLE_PLUGIN_ARTIFACT_ID)) {
+                    requests.add(createSpringBootDependenciesRequest(version, softwareRepositories));
+                }
+            }
+        }
+
+        matcher = SPRING_BOOT_PLUGIN_PATTERN.matcher(buildFileText);
+        while (matcher.find()) {
+            requests.add(createSpringBootDependenciesRequest(matcher.group(1), softwareRepositories));
+        }
+
+        return requests;
+    }
+
+    private Set<SoftwareRepository> findSoftwareRepositories(String scannerId, String buildFileText) {
+        Set<String> urls = new LinkedHashSet<>();
+
+        Matcher matcher = REPOSITORY_URL_PATTERN.matcher(buildFileText);
+        while (matcher.find()) {
+            urls.add(matcher.group(1));
+        }
+
+        if (buildFileText.contains("mavenCentral()")) {
+            urls.add(SoftwareRepositoryUrls.MAVEN_CENTRAL);
+        }
+        if (buildFileText.contains("jcenter()")) {
+            urls.add(SoftwareRepositoryUrls.JCENTER);
+        }
+        if (buildFileText.contains("gradlePluginPortal()")) {
+            urls.add(SoftwareRepositoryUrls.GRADLE_PLUGIN_PORTAL);
+        }
+
+        return urls.stream()
+                .map(url -> softwareRepositoryFactory.createSoftwareRepository(scannerId, url, null))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private PrefetchRequest createSpringBootDependenciesRequest(String springBootVersion, Set<SoftwareRepository> softwareRepositories) {
+        return new PrefetchRequest(PrefetchType.POM, SPRING_BOOT_GROUP_ID, SPRING_BOOT_DEPENDENCIES_ARTIFACT_ID, springBootVersion, softwareRepositories);
+    }
+
+    /**
+     * Failures are only logged, as the Gradle scan will make the same request again and report any error against the component
+     */
+    private void prefetch(PrefetchRequest request) {
+        try {
+            if (request.getType() == PrefetchType.POM) {
+                pomFetcher.fetchPom(artifactUtils.createArtifact(request.getGroupId(), request.getArtifactId(), request.getVersion()),
+                        request.getSoftwareRepositories());
+            } else {
+                artifactVersionsFetcher.fetchArtifactVersions(request.getGroupId(), request.getArtifactId(), request.getSoftwareRepositories());
+            }
+        } catch (Exception e) {
+            log.debug("Failed to prefetch {} for \"{}\"", request.getType(),
+                    escapeString(artifactUtils.createName(request.getGroupId(), request.getArtifactId())), e);
+        }
+    }
+
+    private boolean matchBuildFile(Path path, BasicFileAttributes basicFileAttributes) {
+        String fileName = path.getFileName().toString();
+        return basicFileAttributes.isRegularFile() && (Objects.equals(fileName, BUILD_GRADLE) || Objects.equals(fileName, SETTINGS_GRADLE));
+    }
+
+    private enum PrefetchType {
+
+        POM,
+        METADATA
+    }
+
+    @Value
+    private static class PrefetchRequest {
+
+        PrefetchType type;
+        String groupId;
+        String artifactId;
+        String version;
+        Set<SoftwareRepository> softwareRepositories;
+    }
+}
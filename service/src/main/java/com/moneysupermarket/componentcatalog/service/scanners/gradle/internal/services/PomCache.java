@@ -13,7 +13,7 @@ import java.util.Optional;
 public class PomCache extends BaseFileCache {
 
     public PomCache(FileUtils fileUtils, GradleConfig config) throws IOException {
-        super(fileUtils, Path.of(config.getPomCacheDir()));
+        super(fileUtils, Path.of(config.getPomCacheDir()), Options.builder().compress(true).build());
     }
 
     public Optional<String> get(String url) {
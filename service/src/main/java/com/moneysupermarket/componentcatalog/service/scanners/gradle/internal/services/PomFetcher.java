@@ -17,6 +17,7 @@ import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.mo
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.models.mavenxml.project.Properties;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.utils.ArtifactUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -33,6 +34,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -54,19 +56,31 @@ public class PomFetcher {
     private final PropertyExpander propertyExpander;
     private final ObjectMapper objectMapper;
     private final ArtifactUtils artifactUtils;
-    private Unmarshaller unmarshaller;
+    /**
+     * Effective POMs are shared by every scan in the process, so that POMs like spring-boot-dependencies, along with their parents and imported BOMs,
+     * are only resolved once
+     */
+    private final ConcurrentHashMap<String, Pom> pomsByUrl = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<PomRequest, String> pomUrlsByRequest = new ConcurrentHashMap<>();
+    private JAXBContext context;
     private XMLInputFactory xmlInputFactory;
 
     @PostConstruct
     public void initialize() throws JAXBException {
-        JAXBContext context = JAXBContext.newInstance(Project.class);
-        unmarshaller = context.createUnmarshaller();
+        context = JAXBContext.newInstance(Project.class);
         xmlInputFactory = XMLInputFactory.newFactory();
         xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
     }
 
     public PomOutcome fetchPom(String pomArtifactCoordinates, Set<SoftwareRepository> softwareRepositories) {
         log.debug("Processing POM \"" + escapeString(pomArtifactCoordinates) + "\"");
+        PomRequest pomRequest = new PomRequest(pomArtifactCoordinates, softwareRepositories);
+        Optional<Pom> memoizedPom = Optional.ofNullable(pomUrlsByRequest.get(pomRequest)).map(pomsByUrl::get);
+
+        if (memoizedPom.isPresent()) {
+            log.debug("Found memoized POM");
+            return PomOutcome.builder().jarOnly(false).pom(memoizedPom.get()).build();
+        }
 
         log.debug("Downloading and processing POM");
         MavenRepositoryFileDownloader.MavenFileRequestOutcome<String> xmlContent = mavenRepositoryFileDownloader.downloadArtifact(pomArtifactCoordinates, POM, softwareRepositories);
@@ -90,6 +104,23 @@ public class PomFetcher {
             }
         }
 
+        Pom pom = pomsByUrl.get(xmlContent.getUrl());
+
+        if (nonNull(pom)) {
+            log.debug("Found memoized POM");
+        } else {
+            pom = getPom(pomArtifactCoordinates, xmlContent, softwareRepositories);
+            pomsByUrl.putIfAbsent(xmlContent.getUrl(), pom);
+        }
+
+        pomUrlsByRequest.putIfAbsent(pomRequest, xmlContent.getUrl());
+        log.debug("Found {} software items", nonNull(pom.getDependencyManagementDependencies()) ? pom.getDependencyManagementDependencies().size() : 0);
+
+        return PomOutcome.builder().jarOnly(false).pom(pom).build();
+    }
+
+    private Pom getPom(String pomArtifactCoordinates, MavenRepositoryFileDownloader.MavenFileRequestOutcome<String> xmlContent,
+            Set<SoftwareRepository> softwareRepositories) {
         Optional<String> jsonContent = pomCache.get(xmlContent.getUrl());
         Pom pom;
 
@@ -103,9 +134,7 @@ public class PomFetcher {
             pomCache.put(xmlContent.getUrl(), jsonContent.get());
         }
 
-        log.debug("Found {} software items", nonNull(pom.getDependencyManagementDependencies()) ? pom.getDependencyManagementDependencies().size() : 0);
-
-        return PomOutcome.builder().jarOnly(false).pom(pom).build();
+        return pom;
     }
 
     private Exception getFirstException(List<Exception> exceptions) {
@@ -130,12 +159,19 @@ public class PomFetcher {
 
     private Project readPomXml(String content) {
         try {
-            return (Project) unmarshaller.unmarshal(xmlInputFactory.createXMLStreamReader(new StringReader(content)));
+            return (Project) createUnmarshaller().unmarshal(xmlInputFactory.createXMLStreamReader(new StringReader(content)));
         } catch (JAXBException | XMLStreamException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Unmarshallers are not thread-safe, unlike JAXB contexts, so a new unmarshaller is created for each document
+     */
+    private Unmarshaller createUnmarshaller() throws JAXBException {
+        return context.createUnmarshaller();
+    }
+
     private Pom fetchPom(String pomArtifactCoordinates, Project project, Set<SoftwareRepository> softwareRepositories) {
         Pom.PomBuilder pomBuilder = Pom.builder()
                 .artifactCoordinates(pomArtifactCoordinates);
@@ -294,6 +330,13 @@ public class PomFetcher {
         return projectValue.get();
     }
 
+    @Value
+    private static class PomRequest {
+
+        String pomArtifactCoordinates;
+        Set<SoftwareRepository> softwareRepositories;
+    }
+
     private enum DependencyType {
 
         DEPENDENCY_MANAGEMENT,
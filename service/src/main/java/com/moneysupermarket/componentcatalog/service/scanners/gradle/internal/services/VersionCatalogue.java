@@ -0,0 +1,123 @@
+package com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services;
+
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.SubVersionSelector;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.Version;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionRangeSelector;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelector;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Optional;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * The published versions of an artifact, parsed once and sorted from lowest to highest so that version selectors can be evaluated without parsing
+ * or sorting the versions again.
+ *
+ * Range selectors binary search for their upper bound and stop at their lower bound.  Prefix selectors binary search a second, lexicographically
+ * sorted, copy of the version strings, because the versions that share a string prefix are always next to each other in that order but not
+ * necessarily in version order.  Any other selector is checked against each version, starting with the highest.
+ */
+final class VersionCatalogue {
+
+    private final Comparator<Version> versionComparator;
+    private final Version[] versions;
+    private final String[] sortedSources;
+    private final int[] sortedSourceVersionIndexes;
+    private final Instant expiryTime;
+
+    private VersionCatalogue(Comparator<Version> versionComparator, Version[] versions, Instant expiryTime) {
+        this.versionComparator = versionComparator;
+        this.versions = versions;
+        Integer[] indexes = new Integer[versions.length];
+        Arrays.setAll(indexes, index -> index);
+        Arrays.sort(indexes, Comparator.comparing(index -> versions[index].getSource()));
+        this.sortedSources = Arrays.stream(indexes).map(index -> versions[index].getSource()).toArray(String[]::new);
+        this.sortedSourceVersionIndexes = Arrays.stream(indexes).mapToInt(Integer::intValue).toArray();
+        this.expiryTime = expiryTime;
+    }
+
+    static VersionCatalogue create(Collection<String> versions, VersionParser versionParser, Comparator<Version> versionComparator, Instant expiryTime) {
+        Version[] parsedVersions = versions.stream()
+                .distinct()
+                .map(versionParser::transform)
+                .sorted(versionComparator)
+                .toArray(Version[]::new);
+        return new VersionCatalogue(versionComparator, parsedVersions, expiryTime);
+    }
+
+    boolean isExpired(Instant now) {
+        return !now.isBefore(expiryTime);
+    }
+
+    Optional<Version> findHighestMatchingVersion(VersionSelector versionSelector) {
+        if (versionSelector instanceof VersionRangeSelector) {
+            return findHighestMatchingVersion((VersionRangeSelector) versionSelector);
+        } else if (versionSelector instanceof SubVersionSelector) {
+            return findHighestMatchingVersion((SubVersionSelector) versionSelector);
+        }
+
+        for (int index = versions.length - 1; index >= 0; index--) {
+            if (versionSelector.accept(versions[index])) {
+                return Optional.of(versions[index]);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<Version> findHighestMatchingVersion(VersionRangeSelector versionSelector) {
+        Version upperBound = versionSelector.getUpperBoundVersion();
+        Version lowerBound = versionSelector.getLowerBoundVersion();
+        int index = isNull(upperBound) ? versions.length - 1 : findHighestIndexNotAbove(upperBound);
+
+        for (; index >= 0; index--) {
+            if (nonNull(lowerBound) && versionComparator.compare(versions[index], lowerBound) < 0) {
+                break;
+            }
+
+            if (versionSelector.accept(versions[index])) {
+                return Optional.of(versions[index]);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<Version> findHighestMatchingVersion(SubVersionSelector versionSelector) {
+        String prefix = versionSelector.getPrefix();
+        int index = Arrays.binarySearch(sortedSources, prefix);
+        int highestVersionIndex = -1;
+
+        for (index = index < 0 ? -index - 1 : index; index < sortedSources.length && sortedSources[index].startsWith(prefix); index++) {
+            highestVersionIndex = Math.max(highestVersionIndex, sortedSourceVersionIndexes[index]);
+        }
+
+        return highestVersionIndex < 0 ? Optional.empty() : Optional.of(versions[highestVersionIndex]);
+    }
+
+    /**
+     * Returns the index of the highest version that is lower than or equal to the given version, or -1 if there is no such version
+     */
+    private int findHighestIndexNotAbove(Version version) {
+        int low = 0;
+        int high = versions.length - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+
+            if (versionComparator.compare(versions[middle], version) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return high;
+    }
+}
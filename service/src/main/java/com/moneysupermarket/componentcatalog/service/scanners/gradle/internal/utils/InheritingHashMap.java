@@ -33,4 +33,13 @@ public class InheritingHashMap<K, V> extends HashMap<K, V> {
         V value = get(key);
         return nonNull(value) ? value : defaultValue;
     }
+
+    /**
+     * Returns a copy of the entries that were put in this map, excluding those inherited from the parent
+     */
+    public Map<K, V> getOwnEntries() {
+        Map<K, V> ownEntries = new HashMap<>();
+        super.entrySet().forEach(entry -> ownEntries.put(entry.getKey(), entry.getValue()));
+        return ownEntries;
+    }
 }
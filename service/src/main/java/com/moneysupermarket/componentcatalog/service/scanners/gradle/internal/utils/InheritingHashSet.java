@@ -27,6 +27,15 @@ public class InheritingHashSet<E> extends HashSet<E> {
         return union;
     }
 
+    /**
+     * Returns a copy of the elements that were added to this set, excluding those inherited from the parent
+     */
+    public Set<E> getOwnElements() {
+        Set<E> ownElements = new HashSet<>();
+        super.iterator().forEachRemaining(ownElements::add);
+        return ownElements;
+    }
+
     @Override
     public int size() {
         return union().size();
@@ -6,6 +6,7 @@ import com.moneysupermarket.componentcatalog.service.scanners.CodebaseScanner;
 import com.moneysupermarket.componentcatalog.service.scanners.javaimports.internal.services.JavaImportFinder;
 import com.moneysupermarket.componentcatalog.service.scanners.models.Codebase;
 import com.moneysupermarket.componentcatalog.service.scanners.models.Output;
+import com.moneysupermarket.componentcatalog.service.services.ValueInterner;
 import com.moneysupermarket.componentcatalog.service.spring.stereotypes.Scanner;
 import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +24,7 @@ public class JavaImportScanner extends CodebaseScanner {
     public static final String JAVA_FILE_EXTENSION = "java";
     private final FileUtils fileUtils;
     private final JavaImportFinder javaImportFinder;
+    private final ValueInterner valueInterner;
 
     @Override
     public String id() {
@@ -39,6 +41,7 @@ public class JavaImportScanner extends CodebaseScanner {
         List<Import> imports = fileUtils.findFileContents(input.getDir(), this::isJavaFile)
                 .flatMap(fileContent -> javaImportFinder.findImports(id(), fileContent.getContent()).stream())
                 .distinct()
+                .map(valueInterner::intern)
                 .sorted(Comparators.IMPORTS)
                 .collect(Collectors.toList());
         return Output.of(component -> component.withImports(replaceScannerItemsInList(component.getImports(), imports)));
@@ -0,0 +1,206 @@
+package com.moneysupermarket.componentcatalog.service.scanners.keysoftware;
+
+import com.moneysupermarket.componentcatalog.service.scanners.keysoftware.config.KeySoftwareRule;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Finds all the key software rules that match a software name in a single pass over the name, rather than running every rule's pattern against every
+ * software name.
+ *
+ * Nearly all rules are anchored to the start of the name and begin with a literal prefix, like {@code ^org.springframework.boot:}.  Those prefixes
+ * are compiled into a trie, where an unescaped {@code .} becomes an edge that matches any character, so walking a name through the trie finds the
+ * few rules that could match it.  Only those rules' patterns are then run to confirm the match.  Rules without a usable prefix, for example because
+ * they are not anchored or have a top level alternation, are always run.
+ */
+class KeySoftwareRuleMatcher {
+
+    private static final String REGEX_META_CHARACTERS = "\\.[]{}()*+?^$|";
+    private static final String QUANTIFIER_CHARACTERS = "*?{";
+
+    private final List<Pattern> patterns;
+    private final TrieNode root = new TrieNode();
+    private final BitSet rulesWithoutPrefix = new BitSet();
+
+    public KeySoftwareRuleMatcher(List<KeySoftwareRule> rules) {
+        patterns = rules.stream()
+                .map(KeySoftwareRule::getSoftwareNamePattern)
+                .map(Pattern::compile)
+                .collect(Collectors.toList());
+
+        for (int ruleIndex = 0; ruleIndex < rules.size(); ruleIndex++) {
+            List<Character> prefix = getLiteralPrefix(rules.get(ruleIndex).getSoftwareNamePattern());
+
+            if (prefix.isEmpty()) {
+                rulesWithoutPrefix.set(ruleIndex);
+            } else {
+                root.addPrefix(prefix, ruleIndex);
+            }
+        }
+    }
+
+    /**
+     * Returns the indexes of the rules that match the software name, in the same order as the rules
+     */
+    public List<Integer> findMatchingRuleIndexes(String softwareName) {
+        if (isNull(softwareName)) {
+            return List.of();
+        }
+
+        BitSet candidates = root.findRuleIndexes(softwareName);
+        candidates.or(rulesWithoutPrefix);
+        return candidates.stream()
+                .filter(ruleIndex -> patterns.get(ruleIndex).matcher(softwareName).find())
+                .boxed()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the characters that the start of any matching software name must begin with, where null stands for any character.  An empty prefix is
+     * returned for patterns that are not simple enough to be sure of their prefix.
+     */
+    private List<Character> getLiteralPrefix(String pattern) {
+        List<Character> prefix = new ArrayList<>();
+
+        if (!pattern.startsWith("^") || hasTopLevelAlternation(pattern)) {
+            return prefix;
+        }
+
+        int index = 1;
+
+        while (index < pattern.length()) {
+            char character = pattern.charAt(index);
+            Character token;
+
+            if (character == '\\') {
+                if (index + 1 >= pattern.length() || Character.isLetterOrDigit(pattern.charAt(index + 1))) {
+                    // Escapes like \d and \Q are not a single literal character
+                    break;
+                }
+                token = pattern.charAt(index + 1);
+                index += 2;
+            } else if (character == '.') {
+                token = null;
+                index++;
+            } else if (REGEX_META_CHARACTERS.indexOf(character) == -1) {
+                token = character;
+                index++;
+            } else {
+                break;
+            }
+
+            if (index < pattern.length() && QUANTIFIER_CHARACTERS.indexOf(pattern.charAt(index)) != -1) {
+                // The token is optional or repeated
+                break;
+            }
+
+            prefix.add(token);
+
+            if (index < pattern.length() && pattern.charAt(index) == '+') {
+                break;
+            }
+        }
+
+        return prefix;
+    }
+
+    /**
+     * Character classes can contain unescaped parentheses, which would throw off the group depth, so any pattern that has both a character class and an
+     * alternation is treated as though the alternation is at the top level, as are patterns that quote text with {@code \Q}
+     */
+    private boolean hasTopLevelAlternation(String pattern) {
+        boolean hasCharacterClass = false;
+        boolean hasAlternation = false;
+        int groupDepth = 0;
+
+        for (int index = 0; index < pattern.length(); index++) {
+            char character = pattern.charAt(index);
+
+            if (character == '\\') {
+                if (index + 1 < pattern.length() && pattern.charAt(index + 1) == 'Q') {
+                    return true;
+                }
+                index++;
+            } else if (character == '[') {
+                hasCharacterClass = true;
+            } else if (character == '(') {
+                groupDepth++;
+            } else if (character == ')') {
+                groupDepth--;
+            } else if (character == '|') {
+                if (groupDepth <= 0) {
+                    return true;
+                }
+                hasAlternation = true;
+            }
+        }
+
+        return hasCharacterClass && hasAlternation;
+    }
+
+    private static class TrieNode {
+
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private TrieNode anyCharacterChild;
+        private final BitSet ruleIndexes = new BitSet();
+
+        public void addPrefix(List<Character> prefix, int ruleIndex) {
+            TrieNode node = this;
+
+            for (Character character : prefix) {
+                if (isNull(character)) {
+                    if (isNull(node.anyCharacterChild)) {
+                        node.anyCharacterChild = new TrieNode();
+                    }
+                    node = node.anyCharacterChild;
+                } else {
+                    node = node.children.computeIfAbsent(character, ignored -> new TrieNode());
+                }
+            }
+
+            node.ruleIndexes.set(ruleIndex);
+        }
+
+        /**
+         * Each node has a single path from the root, so a node can only be reached once at each depth and the current nodes never need deduplicating
+         */
+        public BitSet findRuleIndexes(String softwareName) {
+            BitSet ruleIndexes = new BitSet();
+            List<TrieNode> nodes = List.of(this);
+            int index = 0;
+
+            while (!nodes.isEmpty()) {
+                List<TrieNode> nextNodes = new ArrayList<>();
+
+                for (TrieNode node : nodes) {
+                    ruleIndexes.or(node.ruleIndexes);
+
+                    if (index < softwareName.length()) {
+                        TrieNode child = node.children.get(softwareName.charAt(index));
+
+                        if (nonNull(child)) {
+                            nextNodes.add(child);
+                        }
+                        if (nonNull(node.anyCharacterChild)) {
+                            nextNodes.add(node.anyCharacterChild);
+                        }
+                    }
+                }
+
+                nodes = nextNodes;
+                index++;
+            }
+
+            return ruleIndexes;
+        }
+    }
+}
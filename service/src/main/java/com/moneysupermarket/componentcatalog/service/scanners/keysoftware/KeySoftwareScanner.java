@@ -2,39 +2,40 @@ package com.moneysupermarket.componentcatalog.service.scanners.keysoftware;
 
 import com.moneysupermarket.componentcatalog.sdk.models.Component;
 import com.moneysupermarket.componentcatalog.sdk.models.KeySoftware;
-import com.moneysupermarket.componentcatalog.sdk.models.Software;
 import com.moneysupermarket.componentcatalog.service.scanners.LateComponentScanner;
 import com.moneysupermarket.componentcatalog.service.scanners.keysoftware.config.KeySoftwareConfig;
 import com.moneysupermarket.componentcatalog.service.scanners.keysoftware.config.KeySoftwareRule;
 import com.moneysupermarket.componentcatalog.service.scanners.models.Output;
+import com.moneysupermarket.componentcatalog.service.services.CachingVersionParser;
 import com.moneysupermarket.componentcatalog.service.spring.stereotypes.Scanner;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.Version;
-import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
 
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.function.Function;
+import java.util.TreeMap;
 import java.util.function.UnaryOperator;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.isNull;
 
 @Scanner
-@RequiredArgsConstructor
 @Slf4j
 public class KeySoftwareScanner extends LateComponentScanner {
 
-    private final Map<String, Pattern> patternCache = new HashMap<>();
-    private final VersionParser versionParser = new VersionParser();
     private final Comparator<Version> versionComparator = new DefaultVersionComparator().asVersionComparator().reversed();
     private final KeySoftwareConfig config;
+    private final CachingVersionParser versionParser;
+    private final KeySoftwareRuleMatcher ruleMatcher;
+
+    public KeySoftwareScanner(KeySoftwareConfig config, CachingVersionParser versionParser) {
+        this.config = config;
+        this.versionParser = versionParser;
+        this.ruleMatcher = new KeySoftwareRuleMatcher(config.getRules());
+    }
 
     @Override
     public String id() {
@@ -57,45 +58,24 @@ public class KeySoftwareScanner extends LateComponentScanner {
         return Output.of(component -> component.withKeySoftware(keySoftware));
     }
 
+    /**
+     * Each software item is matched against all the rules at once, rather than each rule going through all the software items
+     */
     private List<KeySoftware> getKeySoftware(Component input) {
-        return config.getRules().stream()
-                .map(applyRule(input))
-                .filter(Objects::nonNull)
+        Map<Integer, List<Version>> versionsByRuleIndex = new TreeMap<>();
+        input.getSoftware().forEach(software -> ruleMatcher.findMatchingRuleIndexes(software.getName())
+                .forEach(ruleIndex -> versionsByRuleIndex.computeIfAbsent(ruleIndex, ignored -> new ArrayList<>())
+                        .add(versionParser.transform(software.getVersion()))));
+        return versionsByRuleIndex.entrySet().stream()
+                .map(entry -> createKeySoftware(config.getRules().get(entry.getKey()), entry.getValue()))
                 .collect(Collectors.toList());
     }
 
-    private Function<KeySoftwareRule, KeySoftware> applyRule(Component component) {
-        return (KeySoftwareRule rule) -> {
-            List<String> versions = applyRule(component, rule);
-
-            if (versions.isEmpty()) {
-                return null;
-            }
-
-            return new KeySoftware(rule.getName(), versions);
-        };
-    }
-
-    private List<String> applyRule(Component component, KeySoftwareRule rule) {
-        Pattern softwareNamePattern = getCachedPattern(rule.getSoftwareNamePattern());
-        return component.getSoftware().stream()
-                .filter(software -> softwareNamePattern.matcher(software.getName()).find())
-                .map(Software::getVersion)
-                .map(versionParser::transform)
+    private KeySoftware createKeySoftware(KeySoftwareRule rule, List<Version> versions) {
+        return new KeySoftware(rule.getName(), versions.stream()
                 .sorted(versionComparator)
                 .map(Version::getSource)
                 .distinct()
-                .collect(Collectors.toList());
-    }
-
-    private Pattern getCachedPattern(String pattern) {
-        Pattern compiledPattern = patternCache.get(pattern);
-
-        if (isNull(compiledPattern)) {
-            compiledPattern = Pattern.compile(pattern);
-            patternCache.put(pattern, compiledPattern);
-        }
-
-        return compiledPattern;
+                .collect(Collectors.toList()));
     }
 }
@@ -57,6 +57,7 @@ public class LinesOfCodeScanner extends CodebaseScanner {
 
         fileUtils.findFiles(codebase.getDir())
                 .forEach(file -> {
+                    throwIfScanCancelled();
                     LinesOfCodeCounter.LinesOfCodeCountResult result;
                     try {
                         try (InputStream contentIn = fileUtils.openFile(file)) {
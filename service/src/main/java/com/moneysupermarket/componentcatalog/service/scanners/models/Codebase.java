@@ -2,15 +2,46 @@ package com.moneysupermarket.componentcatalog.service.scanners.models;
 
 import com.moneysupermarket.componentcatalog.sdk.models.ObjectWithReference;
 import com.moneysupermarket.componentcatalog.sdk.models.Repo;
+import com.moneysupermarket.componentcatalog.service.models.RepoLease;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.Value;
 
 import java.nio.file.Path;
 
+import static java.util.Objects.nonNull;
+
 @Value
+@AllArgsConstructor
 public class Codebase implements ObjectWithReference {
 
     Repo repo;
     Path dir;
+    /**
+     * The id of the commit checked out in the codebase's dir, if known.  A scanner's output for a codebase is only reused for the same commit
+     */
+    String commitId;
+    /**
+     * The read lease on the local repo clone in the codebase's dir, if any, which keeps the dir from changing while scanners read it
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    RepoLease lease;
+
+    public Codebase(Repo repo, Path dir) {
+        this(repo, dir, null, null);
+    }
+
+    public Codebase(Repo repo, Path dir, String commitId) {
+        this(repo, dir, commitId, null);
+    }
+
+    public void releaseLease() {
+        if (nonNull(lease)) {
+            lease.close();
+        }
+    }
 
     @Override
     public String reference() {
@@ -13,9 +13,9 @@ import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -26,7 +26,7 @@ import static java.util.Objects.nonNull;
 @RequiredArgsConstructor
 public class SpecParser {
 
-    private final Map<String, SwaggerParseResult> swaggerParseResultCache = new HashMap<>();
+    private final Map<String, SwaggerParseResult> swaggerParseResultCache = new ConcurrentHashMap<>();
     private final OpenAPIV3Parser openApiV3Parser = new OpenAPIV3Parser();
 
     private final ObjectMapper objectMapper;
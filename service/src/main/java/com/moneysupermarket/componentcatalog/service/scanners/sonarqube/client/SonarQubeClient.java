@@ -2,130 +2,191 @@ package com.moneysupermarket.componentcatalog.service.scanners.sonarqube.client;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.google.common.collect.Streams;
+import com.google.common.collect.Lists;
 import com.moneysupermarket.componentcatalog.sdk.models.sonarqube.SonarQubeMeasure;
 import com.moneysupermarket.componentcatalog.sdk.models.sonarqube.SummarySonarQubeMetric;
 import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.config.SonarQubeConfig;
 import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.constants.ApiPaths;
 import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.constants.MetricKeys;
 import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.Project;
-import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.api.Component;
-import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.api.ComponentQualifier;
-import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.api.GetComponentMeasuresResponse;
+import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.api.Measure;
+import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.api.PagedResponse;
+import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.api.Paging;
+import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.api.SearchComponentsResponse;
+import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.api.SearchMeasuresResponse;
+import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.api.SearchMetricsResponse;
 import com.moneysupermarket.componentcatalog.service.spring.stereotypes.Client;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Optional;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 @Client
 @RequiredArgsConstructor
 public class SonarQubeClient {
 
     private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    /**
+     * The maximum number of project keys that SonarQube's Search Measures endpoint accepts in a single request
+     */
+    private static final int MAX_PROJECT_KEYS_PER_REQUEST = 100;
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+    /**
+     * The maximum page size that SonarQube's search endpoints accept
+     */
+    private static final int PAGE_SIZE = 500;
 
     private final WebClient webClient;
     private final SonarQubeConfig config;
     private final ObjectMapper objectMapper;
 
     public List<SummarySonarQubeMetric> getMetrics() {
-        return getAllResourcePages(uriVariables -> webClient.get().uri(config.getBaseUrl() + ApiPaths.SEARCH_METRICS + "?p={pageNumber}", uriVariables),
-                "Search Metrics", "metrics", new HashMap<>(), SummarySonarQubeMetric.class);
+        return getAllResourcePages(pageNumber -> webClient.get().uri(config.getBaseUrl() + ApiPaths.SEARCH_METRICS + "?p={pageNumber}&ps={pageSize}",
+                pageNumber, PAGE_SIZE), "Search Metrics", SearchMetricsResponse.class);
     }
 
     public List<Project> getProjects() {
-        return getAllResourcePages(uriVariables -> webClient.get().uri(
-                config.getBaseUrl() + ApiPaths.SEARCH_COMPONENTS + "?qualifiers={qualifiers}&p={pageNumber}", uriVariables),
-                "Search Components", "components", createProjectsUriVariables(), Component.class)
+        return getAllResourcePages(pageNumber -> webClient.get().uri(
+                config.getBaseUrl() + ApiPaths.SEARCH_PROJECTS + "?f=analysisDate&p={pageNumber}&ps={pageSize}", pageNumber, PAGE_SIZE),
+                "Search Projects", SearchComponentsResponse.class)
                 .stream()
-                .map(component -> new Project(component.getKey(), component.getName()))
+                .map(component -> new Project(component.getKey(), component.getName(), component.getAnalysisDate()))
                 .collect(Collectors.toList());
     }
 
-    public List<SonarQubeMeasure> getProjectMeasures(String projectKey, List<SummarySonarQubeMetric> metrics) {
-        WebClient.RequestHeadersSpec<?> requestHeadersSpec = webClient
-                .get()
-                .uri(config.getBaseUrl() + ApiPaths.GET_COMPONENT_MEASURES + "?component={component}&metricKeys={metricKeys}",
-                        projectKey,
-                        getMetricKeys(metrics));
-
-        Response response = makeRequest(requestHeadersSpec);
-        checkResponseStatus(response, HttpStatus.OK, "Get Component Measures");
-
-        try {
-            return objectMapper.readValue(response.getBody(), GetComponentMeasuresResponse.class)
-                    .getComponent()
-                    .getMeasures();
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     * @param metrics   all the metrics on the SonarQube server
+     * @return          the configured metric keys, or the keys of all the metrics if no metric keys have been configured
+     */
+    public List<String> getMetricKeys(List<SummarySonarQubeMetric> metrics) {
+        List<String> configuredMetricKeys = config.getMetricKeys();
+        Stream<String> metricKeys = nonNull(configuredMetricKeys) && !configuredMetricKeys.isEmpty()
+                ? configuredMetricKeys.stream()
+                : metrics.stream().map(SummarySonarQubeMetric::getKey);
+        return metricKeys
+                .filter(this::metricKeyIsNotAffectedBySonarQubeBug)
+                .collect(Collectors.toList());
     }
 
-    private Map<String, String> createProjectsUriVariables() {
-        Map<String, String> uriVariables = new HashMap<>();
-        uriVariables.put("qualifiers", ComponentQualifier.TRK.toString());
-        return uriVariables;
+    /**
+     * Retrieves the measures for many projects using SonarQube's Search Measures endpoint, which accepts a batch of project keys per request.  The batches
+     * are requested concurrently, up to a configurable maximum number of concurrent requests.
+     *
+     * @param projectKeys   the keys of the projects to retrieve measures for
+     * @param metricKeys    the keys of the metrics to retrieve measures for
+     * @return              a map with project keys as keys and each project's measures as values
+     */
+    public Map<String, List<SonarQubeMeasure>> getProjectMeasures(List<String> projectKeys, List<String> metricKeys) {
+        if (projectKeys.isEmpty()) {
+            return Map.of();
+        }
+
+        String joinedMetricKeys = String.join(",", metricKeys);
+        Map<String, List<SonarQubeMeasure>> projectMeasures = Flux.fromIterable(Lists.partition(projectKeys, MAX_PROJECT_KEYS_PER_REQUEST))
+                .flatMap(projectKeysBatch -> getProjectMeasuresBatch(projectKeysBatch, joinedMetricKeys), getMaxConcurrentRequests())
+                .collect(Collectors.groupingBy(Measure::getComponent, Collectors.mapping(this::createSonarQubeMeasure, Collectors.toList())))
+                .block(TIMEOUT);
+        projectMeasures.values().forEach(measures -> measures.sort(Comparator.comparing(SonarQubeMeasure::getMetric)));
+        return projectMeasures;
     }
 
-    private <T> List<T> getAllResourcePages(Function<Map<String, String>, WebClient.RequestHeadersSpec<?>> requestHeadersSpecSupplier, String endpointName,
-            String itemsFieldName, Map<String, String> uriVariables, Class<T> type) {
-        int pageNumber = 1;
-        List<T> allResources = new ArrayList<>();
+    private Flux<Measure> getProjectMeasuresBatch(List<String> projectKeys, String metricKeys) {
+        return makeRequestAsync(webClient
+                .get()
+                .uri(config.getBaseUrl() + ApiPaths.SEARCH_MEASURES + "?projectKeys={projectKeys}&metricKeys={metricKeys}",
+                        String.join(",", projectKeys),
+                        metricKeys))
+                .flatMapIterable(response -> {
+                    checkResponseStatus(response, HttpStatus.OK, "Search Measures");
+
+                    try {
+                        return objectMapper.readValue(response.getBody(), SearchMeasuresResponse.class).getMeasures();
+                    } catch (JsonProcessingException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+    }
 
-        while (true) {
-            List<T> page = getResourcePage(requestHeadersSpecSupplier, endpointName, itemsFieldName, uriVariables, pageNumber, type);
+    private SonarQubeMeasure createSonarQubeMeasure(Measure measure) {
+        return SonarQubeMeasure.builder()
+                .metric(measure.getMetric())
+                .value(measure.getValue())
+                .bestValue(measure.getBestValue())
+                .build();
+    }
 
-            if (page.isEmpty()) {
-                break;
-            }
+    private int getMaxConcurrentRequests() {
+        return Optional.ofNullable(config.getMaxConcurrentRequests()).orElse(DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
 
-            allResources.addAll(page);
-            pageNumber++;
+    /**
+     * Retrieves the first page to find out the total number of items, then retrieves the remaining pages concurrently, up to a configurable maximum
+     * number of concurrent requests.  The items are returned in page order.
+     */
+    private <T, R extends PagedResponse<T>> List<T> getAllResourcePages(IntFunction<WebClient.RequestHeadersSpec<?>> requestHeadersSpecSupplier,
+            String endpointName, Class<R> responseType) {
+        R firstPage = getResourcePage(requestHeadersSpecSupplier, endpointName, responseType, 1).block(TIMEOUT);
+        int pageCount = getPageCount(firstPage);
+        List<T> allResources = new ArrayList<>(firstPage.getItems());
+
+        if (pageCount > 1) {
+            allResources.addAll(Flux.range(2, pageCount - 1)
+                    .flatMapSequential(pageNumber -> getResourcePage(requestHeadersSpecSupplier, endpointName, responseType, pageNumber),
+                            getMaxConcurrentRequests())
+                    .concatMapIterable(PagedResponse::getItems)
+                    .collectList()
+                    .block(TIMEOUT));
         }
 
         return allResources;
     }
 
-    private <T> List<T> getResourcePage(Function<Map<String, String>, WebClient.RequestHeadersSpec<?>> requestHeadersSpecSupplier, String endpointName, String itemsFieldName,
-            Map<String, String> uriVariables, int pageNumber, Class<T> type) {
-        uriVariables.put("pageNumber", Integer.toString(pageNumber));
-        Response response = makeRequest(requestHeadersSpecSupplier.apply(uriVariables));
-        checkResponseStatus(response, HttpStatus.OK, endpointName);
-
-        try {
-            ObjectNode responseBody = (ObjectNode) objectMapper.readTree(response.getBody());
-            ArrayNode itemJsons = (ArrayNode) responseBody.get(itemsFieldName);
-            return Streams.stream(itemJsons.elements())
-                    .map(itemJson -> objectMapper.convertValue(itemJson, type))
-                    .collect(Collectors.toList());
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
+    private <T, R extends PagedResponse<T>> Mono<R> getResourcePage(IntFunction<WebClient.RequestHeadersSpec<?>> requestHeadersSpecSupplier,
+            String endpointName, Class<R> responseType, int pageNumber) {
+        return makeRequestAsync(requestHeadersSpecSupplier.apply(pageNumber))
+                .map(response -> {
+                    checkResponseStatus(response, HttpStatus.OK, endpointName);
+
+                    try {
+                        return objectMapper.readValue(response.getBody(), responseType);
+                    } catch (JsonProcessingException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+    }
+
+    private int getPageCount(PagedResponse<?> page) {
+        Paging paging = page.getPaging();
+
+        if (isNull(paging) || isNull(paging.getTotal()) || isNull(paging.getPageSize()) || paging.getPageSize() <= 0) {
+            return 1;
         }
+
+        return (paging.getTotal() + paging.getPageSize() - 1) / paging.getPageSize();
     }
 
-    private Response makeRequest(WebClient.RequestHeadersSpec<?> requestHeadersSpec) {
-        Mono<ResponseEntity<String>> responseEntityMono = requestHeadersSpec
+    private Mono<Response> makeRequestAsync(WebClient.RequestHeadersSpec<?> requestHeadersSpec) {
+        return requestHeadersSpec
                 .retrieve()
-                .toEntity(String.class);
-        try {
-            ResponseEntity<String> responseEntity = responseEntityMono.block(TIMEOUT);
-            return new Response(responseEntity.getStatusCode(), responseEntity.getBody());
-        } catch (WebClientResponseException e) {
-            return new Response(e.getStatusCode(), e.getResponseBodyAsString());
-        }
+                .toEntity(String.class)
+                .map(responseEntity -> new Response(responseEntity.getStatusCode(), responseEntity.getBody()))
+                .onErrorResume(WebClientResponseException.class, e -> Mono.just(new Response(e.getStatusCode(), e.getResponseBodyAsString())));
     }
 
     private void checkResponseStatus(Response response, HttpStatus expectedStatusCode, String endpointName) {
@@ -134,13 +195,6 @@ public class SonarQubeClient {
         }
     }
 
-    private String getMetricKeys(List<SummarySonarQubeMetric> metrics) {
-        return metrics.stream()
-                .map(SummarySonarQubeMetric::getKey)
-                .filter(this::metricKeyIsNotAffectedBySonarQubeBug)
-                .collect(Collectors.joining(","));
-    }
-
     /**
      * This can be removed once we upgrade to SonarQube 8.1 or higher.
      * See https://jira.sonarsource.com/browse/SONAR-12728 for more information.
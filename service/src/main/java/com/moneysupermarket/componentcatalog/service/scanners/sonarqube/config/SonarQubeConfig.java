@@ -21,4 +21,13 @@ public class SonarQubeConfig {
     @Pattern(regexp = "https?://.+[^/]")
     String baseUrl;
     List<String> expectedComponentTypeIds;
+    /**
+     * The keys of the metrics to retrieve measures for.  Measures for all metrics are retrieved if no metric keys are configured
+     */
+    List<String> metricKeys;
+    Integer maxConcurrentRequests;
+    /**
+     * The file used to persist each project's last analysis date and measures between refreshes.  Nothing is persisted if no file is configured
+     */
+    String projectStoreFile;
 }
@@ -3,9 +3,9 @@ package com.moneysupermarket.componentcatalog.service.scanners.sonarqube.constan
 public final class ApiPaths {
 
     public static final String BASE_PATH = "/api";
-    public static final String SEARCH_COMPONENTS = BASE_PATH + "/components/search";
+    public static final String SEARCH_PROJECTS = BASE_PATH + "/components/search_projects";
     public static final String SEARCH_METRICS = BASE_PATH + "/metrics/search";
-    public static final String GET_COMPONENT_MEASURES = BASE_PATH + "/measures/component";
+    public static final String SEARCH_MEASURES = BASE_PATH + "/measures/search";
 
     private ApiPaths() {
     }
@@ -7,4 +7,18 @@ public class Project {
 
     String key;
     String name;
+    /**
+     * The date and time of the project's last analysis, exactly as returned by SonarQube, or null if the project has never been analysed
+     */
+    String analysisDate;
+
+    public Project(String key, String name, String analysisDate) {
+        this.key = key;
+        this.name = name;
+        this.analysisDate = analysisDate;
+    }
+
+    public Project(String key, String name) {
+        this(key, name, null);
+    }
 }
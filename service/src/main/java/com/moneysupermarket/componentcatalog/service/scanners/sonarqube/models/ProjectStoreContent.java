@@ -0,0 +1,32 @@
+package com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.moneysupermarket.componentcatalog.sdk.utils.ListUtils.createUnmodifiableList;
+import static com.moneysupermarket.componentcatalog.sdk.utils.MapUtils.createUnmodifiableMap;
+
+@Value
+@With
+@Builder(toBuilder = true)
+@Jacksonized
+public class ProjectStoreContent {
+
+    public static final ProjectStoreContent EMPTY = ProjectStoreContent.builder().build();
+
+    /**
+     * The metric keys that the stored measures were retrieved for
+     */
+    List<String> metricKeys;
+    Map<String, StoredProject> projects;
+
+    public ProjectStoreContent(List<String> metricKeys, Map<String, StoredProject> projects) {
+        this.metricKeys = createUnmodifiableList(metricKeys);
+        this.projects = createUnmodifiableMap(projects);
+    }
+}
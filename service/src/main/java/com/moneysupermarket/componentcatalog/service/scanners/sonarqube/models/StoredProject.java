@@ -0,0 +1,26 @@
+package com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models;
+
+import com.moneysupermarket.componentcatalog.sdk.models.sonarqube.SonarQubeMeasure;
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+import static com.moneysupermarket.componentcatalog.sdk.utils.ListUtils.createUnmodifiableList;
+
+@Value
+@With
+@Builder(toBuilder = true)
+@Jacksonized
+public class StoredProject {
+
+    String analysisDate;
+    List<SonarQubeMeasure> measures;
+
+    public StoredProject(String analysisDate, List<SonarQubeMeasure> measures) {
+        this.analysisDate = analysisDate;
+        this.measures = createUnmodifiableList(measures);
+    }
+}
@@ -20,5 +20,6 @@ public class Component {
     String name;
     ComponentQualifier qualifier;
     String project;
+    String analysisDate;
     List<SonarQubeMeasure> measures;
 }
@@ -9,7 +9,10 @@ import lombok.extern.jackson.Jacksonized;
 @With
 @Builder(toBuilder = true)
 @Jacksonized
-public class GetComponentMeasuresResponse {
+public class Measure {
 
-    Component component;
+    String component;
+    String metric;
+    String value;
+    Boolean bestValue;
 }
@@ -0,0 +1,15 @@
+package com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.api;
+
+import java.util.List;
+
+/**
+ * A single page of a SonarQube search endpoint's results
+ *
+ * @param <T>   the type of the items in the page
+ */
+public interface PagedResponse<T> {
+
+    Paging getPaging();
+
+    List<T> getItems();
+}
@@ -13,7 +13,7 @@ import static com.moneysupermarket.componentcatalog.sdk.utils.ListUtils.createUn
 @With
 @Builder(toBuilder = true)
 @Jacksonized
-public class SearchComponentsResponse {
+public class SearchComponentsResponse implements PagedResponse<Component> {
 
     Paging paging;
     List<Component> components;
@@ -22,4 +22,9 @@ public class SearchComponentsResponse {
         this.paging = paging;
         this.components = createUnmodifiableList(components);
     }
+
+    @Override
+    public List<Component> getItems() {
+        return components;
+    }
 }
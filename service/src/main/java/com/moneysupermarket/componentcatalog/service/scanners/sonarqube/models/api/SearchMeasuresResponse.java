@@ -0,0 +1,23 @@
+package com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.api;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+import static com.moneysupermarket.componentcatalog.sdk.utils.ListUtils.createUnmodifiableList;
+
+@Value
+@With
+@Builder(toBuilder = true)
+@Jacksonized
+public class SearchMeasuresResponse {
+
+    List<Measure> measures;
+
+    public SearchMeasuresResponse(List<Measure> measures) {
+        this.measures = createUnmodifiableList(measures);
+    }
+}
@@ -0,0 +1,47 @@
+package com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.api;
+
+import com.moneysupermarket.componentcatalog.sdk.models.sonarqube.SummarySonarQubeMetric;
+import lombok.Builder;
+import lombok.Value;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+import static com.moneysupermarket.componentcatalog.sdk.utils.ListUtils.createUnmodifiableList;
+
+/**
+ * Unlike SonarQube's other search endpoints, the Search Metrics endpoint returns its paging fields at the top level of the response
+ */
+@Value
+@With
+@Builder(toBuilder = true)
+@Jacksonized
+public class SearchMetricsResponse implements PagedResponse<SummarySonarQubeMetric> {
+
+    List<SummarySonarQubeMetric> metrics;
+    Integer total;
+    Integer p;
+    Integer ps;
+
+    public SearchMetricsResponse(List<SummarySonarQubeMetric> metrics, Integer total, Integer p, Integer ps) {
+        this.metrics = createUnmodifiableList(metrics);
+        this.total = total;
+        this.p = p;
+        this.ps = ps;
+    }
+
+    @Override
+    public Paging getPaging() {
+        return Paging.builder()
+                .pageIndex(p)
+                .pageSize(ps)
+                .total(total)
+                .build();
+    }
+
+    @Override
+    public List<SummarySonarQubeMetric> getItems() {
+        return metrics;
+    }
+}
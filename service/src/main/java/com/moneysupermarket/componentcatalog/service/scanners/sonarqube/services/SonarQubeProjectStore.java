@@ -0,0 +1,129 @@
+package com.moneysupermarket.componentcatalog.service.scanners.sonarqube.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneysupermarket.componentcatalog.sdk.models.sonarqube.SonarQubeMeasure;
+import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.config.SonarQubeConfig;
+import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.Project;
+import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.ProjectStoreContent;
+import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.StoredProject;
+import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
+import static java.util.Objects.isNull;
+
+/**
+ * Stores each SonarQube project's last analysis date and measures, so that measures only need to be retrieved from the SonarQube server for projects that
+ * have been analysed since the last sync.  The store is persisted to the configured project store file so that it survives restarts.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SonarQubeProjectStore {
+
+    private final SonarQubeConfig config;
+    private final FileUtils fileUtils;
+    private final ObjectMapper objectMapper;
+    private ProjectStoreContent content;
+
+    /**
+     * Syncs the store with the current list of projects on the SonarQube server.  Projects that have been analysed since the last sync, or that were
+     * not in the store, have their measures retrieved using the measures fetcher.  All the stored measures are discarded if the metric keys have changed.
+     *
+     * @param projects          all the projects on the SonarQube server
+     * @param metricKeys        the keys of the metrics that measures are retrieved for
+     * @param measuresFetcher   a function that retrieves the measures for a list of project keys
+     * @return                  a map with project keys as keys and each project's measures as values, covering all the projects
+     */
+    public Map<String, List<SonarQubeMeasure>> sync(List<Project> projects, List<String> metricKeys,
+            Function<List<String>, Map<String, List<SonarQubeMeasure>>> measuresFetcher) {
+        Map<String, StoredProject> storedProjects = getStoredProjects(metricKeys);
+        List<String> analysedProjectKeys = projects.stream()
+                .filter(project -> projectAnalysedSinceLastSync(storedProjects, project))
+                .map(Project::getKey)
+                .collect(Collectors.toList());
+        log.info("Retrieving SonarQube measures for {} of {} projects that have been analysed since the last sync", analysedProjectKeys.size(),
+                projects.size());
+        Map<String, List<SonarQubeMeasure>> newMeasures = measuresFetcher.apply(analysedProjectKeys);
+        Set<String> analysedProjectKeySet = Set.copyOf(analysedProjectKeys);
+        Map<String, StoredProject> newStoredProjects = projects.stream()
+                .collect(Collectors.toMap(Project::getKey, project -> analysedProjectKeySet.contains(project.getKey())
+                        ? new StoredProject(project.getAnalysisDate(), newMeasures.getOrDefault(project.getKey(), List.of()))
+                        : storedProjects.get(project.getKey()), (a, b) -> a));
+
+        content = new ProjectStoreContent(metricKeys, newStoredProjects);
+        writeContent();
+        return newStoredProjects.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getMeasures()));
+    }
+
+    private Map<String, StoredProject> getStoredProjects(List<String> metricKeys) {
+        if (isNull(content)) {
+            content = readContent();
+        }
+
+        if (!Objects.equals(content.getMetricKeys(), metricKeys)) {
+            return Map.of();
+        }
+
+        return content.getProjects();
+    }
+
+    private boolean projectAnalysedSinceLastSync(Map<String, StoredProject> storedProjects, Project project) {
+        StoredProject storedProject = storedProjects.get(project.getKey());
+        return isNull(storedProject) || !Objects.equals(storedProject.getAnalysisDate(), project.getAnalysisDate());
+    }
+
+    private ProjectStoreContent readContent() {
+        Path file = getStoreFile();
+
+        if (isNull(file) || !Files.exists(file)) {
+            return ProjectStoreContent.EMPTY;
+        }
+
+        try {
+            return objectMapper.readValue(fileUtils.readFileContent(file), ProjectStoreContent.class);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not read SonarQube project store file \"{}\", all measures will be retrieved again", escapeString(file.toString()), e);
+            return ProjectStoreContent.EMPTY;
+        }
+    }
+
+    /**
+     * The content is written to a temporary file first, which is then moved over the store file, so the store file is never left half written
+     */
+    private void writeContent() {
+        Path file = getStoreFile();
+
+        if (isNull(file)) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            fileUtils.writeFileContent(tempFile, objectMapper.writeValueAsString(content));
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not write SonarQube project store file \"{}\"", escapeString(file.toString()), e);
+        }
+    }
+
+    private Path getStoreFile() {
+        return isNull(config.getProjectStoreFile()) ? null : Path.of(config.getProjectStoreFile());
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.nonNull;
@@ -25,13 +26,17 @@ public class SonarQubeService {
     private final SonarQubeProjectCache projectCache;
     private final SonarQubeProjectCreator projectCreator;
     private final SonarQubeMissingComponentCollator missingComponentCollator;
+    private final SonarQubeProjectStore projectStore;
     private List<SummarySonarQubeMetric> metrics;
     private List<Project> projects;
+    private Map<String, List<SonarQubeMeasure>> projectMeasures;
 
     public void refresh() {
         projectCache.clear();
         metrics = client.getMetrics();
         projects = client.getProjects();
+        List<String> metricKeys = client.getMetricKeys(metrics);
+        projectMeasures = projectStore.sync(projects, metricKeys, projectKeys -> client.getProjectMeasures(projectKeys, metricKeys));
     }
 
     public List<SummarySonarQubeMetric> getMetrics() {
@@ -46,10 +51,7 @@ public class SonarQubeService {
         }
 
         codebaseProjects = projectFinder.findProjects(codebaseDir, projects).stream()
-                .map(project -> {
-                    List<SonarQubeMeasure> measures = client.getProjectMeasures(project.getKey(), metrics);
-                    return projectCreator.create(project, measures);
-                })
+                .map(project -> projectCreator.create(project, projectMeasures.getOrDefault(project.getKey(), List.of())))
                 .collect(Collectors.toList());
         projectCache.put(codebaseDir, codebaseProjects);
         return codebaseProjects;
@@ -0,0 +1,131 @@
+package com.moneysupermarket.componentcatalog.service.services;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Limits the number of concurrent requests to a host, adapting the limit to the host's response times using additive increase, multiplicative
+ * decrease (AIMD).  Each request that succeeds within the latency threshold raises the limit by 1/limit, so the limit grows by about 1 for each
+ * limit's worth of fast responses.  A failed or slow request halves the limit.  The limit is only halved once for the requests that were already in
+ * flight when it was last halved, so that a burst of slow responses caused by the same overload does not drive the limit straight to the minimum.
+ */
+public class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final Queue<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlightCount;
+    private long lastDecreaseTime = System.nanoTime();
+
+    public AimdConcurrencyLimiter(int minLimit, int maxLimit, Duration latencyThreshold) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Returns a Mono that completes once the number of requests in flight is below the limit, at which point the caller's request is counted as in
+     * flight.  Waiting callers are let through in the order they subscribed, without blocking a thread.  Cancelling the Mono, for example when it
+     * times out, gives up the caller's place in the queue, or gives back the slot if it was granted at the same moment
+     */
+    public Mono<Void> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            sink.onCancel(() -> cancel(waiter));
+
+            synchronized (this) {
+                if (!waiter.cancelled) {
+                    waiters.add(waiter);
+                }
+            }
+
+            grantSlots();
+        });
+    }
+
+    /**
+     * @param startTime     the time the request was started, from {@link System#nanoTime()}
+     * @param responseTime  the time the host responded, from {@link System#nanoTime()}
+     * @param succeeded     whether the request succeeded, regardless of how long it took
+     */
+    public void release(long startTime, long responseTime, boolean succeeded) {
+        synchronized (this) {
+            inFlightCount--;
+
+            if (succeeded && responseTime - startTime <= latencyThresholdNanos) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            } else if (startTime - lastDecreaseTime > 0) {
+                limit = Math.max(minLimit, limit / 2);
+                lastDecreaseTime = System.nanoTime();
+            }
+        }
+
+        grantSlots();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlightCount;
+    }
+
+    public synchronized int getWaitingCount() {
+        return waiters.size();
+    }
+
+    /**
+     * Completes the sinks outside the lock, because completing a sink runs the caller's request on the current thread
+     */
+    private void grantSlots() {
+        List<Waiter> grantedWaiters = new ArrayList<>();
+
+        synchronized (this) {
+            while (!waiters.isEmpty() && inFlightCount < getLimit()) {
+                Waiter waiter = waiters.remove();
+                waiter.granted = true;
+                inFlightCount++;
+                grantedWaiters.add(waiter);
+            }
+        }
+
+        grantedWaiters.forEach(waiter -> waiter.sink.success());
+    }
+
+    /**
+     * A sink that is cancelled ignores any later attempt to complete it, so a slot that was granted to a waiter that was cancelled at the same time
+     * is given back here
+     */
+    private void cancel(Waiter waiter) {
+        synchronized (this) {
+            waiter.cancelled = true;
+
+            if (waiters.remove(waiter) || !waiter.granted) {
+                return;
+            }
+
+            inFlightCount--;
+        }
+
+        grantSlots();
+    }
+
+    @RequiredArgsConstructor
+    private static class Waiter {
+
+        private final MonoSink<Void> sink;
+        private boolean granted;
+        private boolean cancelled;
+    }
+}
@@ -1,65 +1,223 @@
 package com.moneysupermarket.componentcatalog.service.services;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.PreDestroy;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
-import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
+/**
+ * A cache that is persisted to a {@link SegmentedStore} in the cache dir, with the most recently used entries also kept in memory.
+ */
+@Slf4j
 public class BaseFileCache {
 
     private final FileUtils fileUtils;
     private final Path cacheDir;
+    private final Options options;
+    private final SegmentedStore store;
+    private final HotEntries hotEntries;
+    private final ExecutorService legacyFileImportExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("legacy-cache-file-import-%d").setDaemon(true).build());
+    private final CompletableFuture<Void> legacyFileImport;
 
     public BaseFileCache(FileUtils fileUtils, Path cacheDir) throws IOException {
+        this(fileUtils, cacheDir, Options.builder().build());
+    }
+
+    public BaseFileCache(FileUtils fileUtils, Path cacheDir, Options options) throws IOException {
         this.fileUtils = fileUtils;
         this.cacheDir = cacheDir;
-        Files.createDirectories(this.cacheDir);
+        this.options = options;
+        this.store = new SegmentedStore(cacheDir, options.getMaxSegmentSize(), options.getMaxSize(), options.isCompress(), options.getClock());
+        this.hotEntries = new HotEntries(options.getMaxHotEntryCount());
+        this.legacyFileImport = CompletableFuture.runAsync(this::importLegacyFiles, legacyFileImportExecutor);
+        legacyFileImportExecutor.shutdown();
     }
 
     protected Optional<String> getFileContent(String key) {
-        return readFileContent(getAbsoluteFile(key));
+        StoredEntry hotEntry = hotEntries.get(key);
+
+        if (nonNull(hotEntry)) {
+            if (hotEntry.getExpiryTime() > options.getClock().millis()) {
+                return Optional.of(hotEntry.getContent());
+            }
+
+            hotEntries.remove(key);
+        }
+
+        return store.get(key)
+                .map(storedValue -> {
+                    hotEntries.put(key, new StoredEntry(storedValue.getValue(), storedValue.getExpiryTime()));
+                    return storedValue.getValue();
+                });
     }
 
     protected void putFileContent(String key, String content) {
-        writeFileContent(getAbsoluteFile(key), content);
+        long expiryTime = getExpiryTime(content);
+        store.put(key, content, expiryTime);
+        hotEntries.put(key, new StoredEntry(content, expiryTime));
     }
 
-    private void writeFileContent(Path file, String content) {
-        fileUtils.writeFileContent(file, content, CREATE_NEW);
+    private long getExpiryTime(String content) {
+        Duration ttl = options.getTtlGetter().apply(content);
+        return isNull(ttl) ? SegmentedStore.NO_EXPIRY : options.getClock().millis() + ttl.toMillis();
     }
 
-    private Optional<String> readFileContent(Path file) {
-        if (!Files.exists(file)) {
-            return Optional.empty();
-        }
+    @PreDestroy
+    public void close() throws IOException {
+        legacyFileImportExecutor.shutdownNow();
+        store.close();
+    }
 
-        return Optional.of(fileUtils.readFileContent(file));
+    /**
+     * Completes once any legacy cache files have been imported
+     */
+    CompletableFuture<Void> getLegacyFileImport() {
+        return legacyFileImport;
     }
 
-    private Path getAbsoluteFile(String key) {
-        Path file = cacheDir.resolve(convertKeyToFileName(key));
+    /**
+     * Older versions of the cache stored each entry in its own file, named after the URL encoded key.  Those files are moved into the store in the
+     * background the first time the cache is opened, so that a large cache does not hold up startup.  Until a file has been imported, its entry is
+     * missing from the cache, and an entry that is put into the cache in the meantime is not overwritten by the older legacy file.  Only files named
+     * like the older versions of the cache named them are imported and deleted.  Imported entries are not added to the hot entries, as an entry put
+     * into the cache at the same time could otherwise be replaced there by the older legacy file.
+     */
+    private void importLegacyFiles() {
+        int count = 0;
+
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
 
-        if (!file.startsWith(cacheDir)) {
-            throw new RuntimeException(String.format("File \"%s\" is outside of cache dir \"%s\"", escapeString(file.toString()),
-                    escapeString(cacheDir.toString())));
+                if (!Files.isRegularFile(file) || SegmentedStore.isSegmentFile(file)) {
+                    continue;
+                }
+
+                String key = getLegacyFileKey(file);
+
+                if (isNull(key)) {
+                    continue;
+                }
+
+                String content = fileUtils.readFileContent(file);
+
+                if (isNull(content)) {
+                    log.warn("Skipped legacy cache file \"{}\" as it could not be read", escapeString(file.toString()));
+                    continue;
+                }
+
+                store.putIfAbsent(key, content, getExpiryTime(content));
+                Files.delete(file);
+                count++;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to import legacy cache files into store \"{}\"", escapeString(cacheDir.toString()), e);
         }
 
-        return file;
+        if (count > 0) {
+            log.info("Imported {} legacy cache files into store \"{}\"", count, escapeString(cacheDir.toString()));
+        }
     }
 
-    private String convertKeyToFileName(String key) {
+    /**
+     * Returns null if the file is not named after a URL encoded key, in which case it was not created by an older version of the cache
+     */
+    private String getLegacyFileKey(Path file) {
+        String fileName = file.getFileName().toString();
+        String key;
+
         try {
-            return URLEncoder.encode(key, StandardCharsets.UTF_8.name());
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
+            key = URLDecoder.decode(fileName, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        return URLEncoder.encode(key, StandardCharsets.UTF_8).equals(fileName) ? key : null;
+    }
+
+    @Value
+    @Builder
+    public static class Options {
+
+        /**
+         * The number of recently used entries that are kept in memory
+         */
+        @Builder.Default
+        int maxHotEntryCount = 1_000;
+        @Builder.Default
+        long maxSegmentSize = 64L * 1024 * 1024;
+        /**
+         * The total size of the segment files that triggers compaction
+         */
+        @Builder.Default
+        long maxSize = 1024L * 1024 * 1024;
+        boolean compress;
+        /**
+         * Returns the time-to-live for an entry based on its content, or null if the entry should never expire
+         */
+        @Builder.Default
+        Function<String, Duration> ttlGetter = content -> null;
+        @Builder.Default
+        Clock clock = Clock.systemUTC();
+    }
+
+    @Value
+    private static class StoredEntry {
+
+        String content;
+        long expiryTime;
+    }
+
+    private static class HotEntries {
+
+        private final Map<String, StoredEntry> entries;
+
+        HotEntries(int maxEntryCount) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, StoredEntry> eldest) {
+                    return size() > maxEntryCount;
+                }
+            };
+        }
+
+        synchronized StoredEntry get(String key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(String key, StoredEntry entry) {
+            entries.put(key, entry);
+        }
+
+        synchronized void remove(String key) {
+            entries.remove(key);
         }
     }
 }
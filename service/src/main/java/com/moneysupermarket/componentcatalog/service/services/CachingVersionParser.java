@@ -0,0 +1,37 @@
+package com.moneysupermarket.componentcatalog.service.services;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.Version;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
+import org.springframework.stereotype.Service;
+
+/**
+ * A version parser shared by everything that parses versions, which caches the parsed versions so that each distinct version string is only parsed
+ * once and all its users share the same {@link Version} instance.  The same few hundred versions appear over and over again across the software of
+ * all the components.  The least recently used versions are evicted once the cache is full.  Hits, misses and evictions are published as metrics.
+ */
+@Service
+public class CachingVersionParser extends VersionParser {
+
+    private static final long MAX_SIZE = 100_000;
+    private static final String CACHE_NAME = "versionParserCache";
+
+    private final LoadingCache<String, Version> cache;
+
+    public CachingVersionParser(MeterRegistry meterRegistry) {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(MAX_SIZE)
+                .recordStats()
+                .build(CacheLoader.from(super::transform));
+        GuavaCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public Version transform(String original) {
+        return cache.getUnchecked(original);
+    }
+}
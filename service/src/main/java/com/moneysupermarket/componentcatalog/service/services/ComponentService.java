@@ -1,8 +1,15 @@
 package com.moneysupermarket.componentcatalog.service.services;
 
 import com.moneysupermarket.componentcatalog.sdk.models.Area;
+import com.moneysupermarket.componentcatalog.sdk.models.BlastRadiusComponent;
 import com.moneysupermarket.componentcatalog.sdk.models.Component;
+import com.moneysupermarket.componentcatalog.sdk.models.ComponentDependencyCycle;
+import com.moneysupermarket.componentcatalog.sdk.models.GetSearchResultsResponse;
+import com.moneysupermarket.componentcatalog.sdk.models.ImportUsage;
 import com.moneysupermarket.componentcatalog.sdk.models.Scanner;
+import com.moneysupermarket.componentcatalog.sdk.models.SearchResult;
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareRepositoryUsage;
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareUsage;
 import com.moneysupermarket.componentcatalog.sdk.models.Summary;
 import com.moneysupermarket.componentcatalog.sdk.models.SummaryCallGraph;
 import com.moneysupermarket.componentcatalog.sdk.models.SummarySubComponentDependencyNode;
@@ -10,9 +17,14 @@ import com.moneysupermarket.componentcatalog.sdk.models.Team;
 import com.moneysupermarket.componentcatalog.sdk.models.Test;
 import com.moneysupermarket.componentcatalog.sdk.models.TestOutcome;
 import com.moneysupermarket.componentcatalog.sdk.models.TestResult;
+import com.moneysupermarket.componentcatalog.service.exceptions.InvalidVersionSelectorException;
+import com.moneysupermarket.componentcatalog.service.models.ComponentSearchIndex;
 import com.moneysupermarket.componentcatalog.service.repositories.ComponentRepository;
 import com.moneysupermarket.componentcatalog.service.utils.ObjectReference;
 import lombok.RequiredArgsConstructor;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionSelectorScheme;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelector;
 import org.springframework.stereotype.Service;
 
 import javax.validation.Valid;
@@ -30,7 +42,10 @@ import static java.util.Objects.nonNull;
 @RequiredArgsConstructor
 public class ComponentService {
 
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+
     private final ComponentRepository componentRepository;
+    private final CachingVersionParser versionParser;
 
     public List<Component> getComponents(Optional<Integer> offset, Optional<Integer> limit, List<TestOutcome> testOutcomes) {
         return getFilteredComponents(componentRepository.getComponents(), offset, limit, testOutcomes);
@@ -48,6 +63,58 @@ public class ComponentService {
         return componentRepository.getComponentCallGraphs(componentId);
     }
 
+    public List<String> getUpstreamComponentIds(String componentId) {
+        return componentRepository.getComponentDependencyGraph().getUpstreamComponentIds(componentId);
+    }
+
+    public List<String> getDownstreamComponentIds(String componentId) {
+        return componentRepository.getComponentDependencyGraph().getDownstreamComponentIds(componentId);
+    }
+
+    public List<BlastRadiusComponent> getComponentBlastRadius(String componentId) {
+        return componentRepository.getComponentDependencyGraph().getBlastRadius(componentId);
+    }
+
+    public List<String> getShortestDependencyPath(String sourceComponentId, String targetComponentId) {
+        return componentRepository.getComponentDependencyGraph().getShortestPath(sourceComponentId, targetComponentId);
+    }
+
+    public List<ComponentDependencyCycle> getComponentDependencyCycles() {
+        return componentRepository.getComponentDependencyGraph().getCycles();
+    }
+
+    /**
+     * @param version   a Gradle style version selector, like {@code 2.9.+} or {@code [2.9,2.10)}, or null to find all versions.  Selectors that need
+     *                  version metadata, like {@code latest.release}, are rejected
+     */
+    public List<SoftwareUsage> getSoftwareUsages(String name, String namePrefix, String version) {
+        VersionSelector versionSelector = isNull(version) ? null : parseVersionSelector(version);
+        return componentRepository.getComponentUsageIndex().findSoftwareUsages(name, namePrefix, versionSelector);
+    }
+
+    public List<ImportUsage> getImportUsages(String name, String namePrefix) {
+        return componentRepository.getComponentUsageIndex().findImportUsages(name, namePrefix);
+    }
+
+    public List<SoftwareRepositoryUsage> getSoftwareRepositoryUsages(String url, String urlPrefix) {
+        return componentRepository.getComponentUsageIndex().findSoftwareRepositoryUsages(url, urlPrefix);
+    }
+
+    /**
+     * @return  the matching components on the requested page, ordered from the best match to the worst, along with the total number of matching
+     *          components
+     */
+    public GetSearchResultsResponse search(String query, Optional<Integer> offset, Optional<Integer> limit) {
+        List<ComponentSearchIndex.Match> matches = componentRepository.getComponentSearchIndex().search(query);
+        List<SearchResult> results = matches.stream()
+                .skip(offset.orElse(0))
+                .limit(limit.orElse(DEFAULT_SEARCH_LIMIT))
+                .map(match -> new SearchResult(match.getComponentId(), match.getScore(), componentRepository.getComponent(match.getComponentId())))
+                .filter(result -> nonNull(result.getComponent()))
+                .collect(Collectors.toList());
+        return new GetSearchResultsResponse(results, matches.size());
+    }
+
     public List<Team> getTeams(List<TestOutcome> testOutcomes) {
         return filterComponentsForTeams(componentRepository.getTeams(), testOutcomes);
     }
@@ -84,6 +151,16 @@ public class ComponentService {
         return componentRepository.getSummary();
     }
 
+    private VersionSelector parseVersionSelector(String version) {
+        VersionSelector versionSelector = new DefaultVersionSelectorScheme(new DefaultVersionComparator(), versionParser).parseSelector(version);
+
+        if (versionSelector.requiresMetadata()) {
+            throw new InvalidVersionSelectorException(version);
+        }
+
+        return versionSelector;
+    }
+
     private List<Team> filterComponentsForTeams(List<Team> teams, List<TestOutcome> testOutcomes) {
         return teams.stream()
                 .map(team -> filterComponentsForTeam(team, testOutcomes))
@@ -8,11 +8,13 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Optional;
 
+import static java.util.Objects.nonNull;
+
 @Service
 public class DownloadCache extends BaseFileCache {
 
     public DownloadCache(FileUtils fileUtils, DownloadCacheConfig config) throws IOException {
-        super(fileUtils, Path.of(config.getDir()));
+        super(fileUtils, Path.of(config.getDir()), createOptions(config));
     }
 
     public Optional<String> getContent(String url) {
@@ -22,4 +24,18 @@ public class DownloadCache extends BaseFileCache {
     public void putContent(String url, String content) {
         putFileContent(url, content);
     }
+
+    private static Options createOptions(DownloadCacheConfig config) {
+        Options.OptionsBuilder builder = Options.builder();
+        if (nonNull(config.getMaxHotEntryCount())) {
+            builder.maxHotEntryCount(config.getMaxHotEntryCount());
+        }
+        if (nonNull(config.getMaxSize())) {
+            builder.maxSize(config.getMaxSize().toBytes());
+        }
+        if (nonNull(config.getCompress())) {
+            builder.compress(config.getCompress());
+        }
+        return builder.build();
+    }
 }
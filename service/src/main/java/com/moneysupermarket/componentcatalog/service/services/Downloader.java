@@ -1,6 +1,8 @@
 package com.moneysupermarket.componentcatalog.service.services;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.moneysupermarket.componentcatalog.service.config.DownloaderConfig;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
@@ -9,14 +11,27 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
 
+import javax.annotation.PreDestroy;
+import java.net.URI;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 @Service
 @RequiredArgsConstructor
@@ -28,25 +43,67 @@ public class Downloader {
     private final DownloadCache downloadCache;
     private final UrlExistsCache urlExistsCache;
     private final HttpRequestMaker httpRequestMaker;
+    private final ConcurrentHashMap<InFlightRequestKey, InFlightRequest<?>> inFlightRequests = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ExecutorService> hostExecutors = new ConcurrentHashMap<>();
 
     public HttpRequestOutcome<String> download(String url, int maxRedirectCount) {
+        return waitForOutcome(url, downloadAsync(url, maxRedirectCount));
+    }
+
+    /**
+     * Downloads from the URL without blocking the calling thread.  If the same download is already in flight, the caller shares its outcome instead of
+     * making another HTTP request.  Cancelling the returned future gives up on the download, which is cancelled once every caller sharing it has given
+     * up.
+     */
+    public CompletableFuture<HttpRequestOutcome<String>> downloadAsync(String url, int maxRedirectCount) {
+        return makeCoalescedHttpRequest(new InFlightRequestKey(RequestType.DOWNLOAD, url, maxRedirectCount), downloadCache::getContent,
+                () -> makeDownloadRequest(url, maxRedirectCount));
+    }
+
+    public HttpRequestOutcome<Boolean> exists(String url, int maxRedirectCount) {
+        return waitForOutcome(url, existsAsync(url, maxRedirectCount));
+    }
+
+    /**
+     * Checks whether the URL exists without blocking the calling thread.  If the same check is already in flight, the caller shares its outcome instead
+     * of making another HTTP request.  Cancelling the returned future gives up on the check, which is cancelled once every caller sharing it has given
+     * up.
+     */
+    public CompletableFuture<HttpRequestOutcome<Boolean>> existsAsync(String url, int maxRedirectCount) {
+        return makeCoalescedHttpRequest(new InFlightRequestKey(RequestType.EXISTS, url, maxRedirectCount), urlExistsCache::getExists,
+                () -> makeExistsRequest(url, maxRedirectCount));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hostExecutors.values().forEach(ExecutorService::shutdownNow);
+    }
+
+    private HttpRequestOutcome<String> makeDownloadRequest(String url, int maxRedirectCount) {
         log.debug("Downloading from URL \"" + escapeString(url) + "\"");
 
         return makeHttpRequestFollowingRedirects(url, maxRedirectCount,
-                originalUrlOrRedirectUrl -> webClient.get().uri(originalUrlOrRedirectUrl).exchange().block(config.getTimeout()),
-                clientResponse -> clientResponse.statusCode() == HttpStatus.OK
-                        ? Optional.of(clientResponse.bodyToMono(String.class).block(config.getTimeout()))
-                        : Optional.empty(),
+                originalUrlOrRedirectUrl -> block(webClient.get().uri(originalUrlOrRedirectUrl).exchange()),
+                clientResponse -> {
+                    if (clientResponse.statusCode() == HttpStatus.OK) {
+                        return Optional.of(block(clientResponse.bodyToMono(String.class)));
+                    }
+
+                    releaseBody(clientResponse);
+                    return Optional.empty();
+                },
                 downloadCache::getContent,
                 downloadCache::putContent);
     }
 
-    public HttpRequestOutcome<Boolean> exists(String url, int maxRedirectCount) {
+    private HttpRequestOutcome<Boolean> makeExistsRequest(String url, int maxRedirectCount) {
         log.debug("Checking whether URL \"" + escapeString(url) + "\" exists");
 
         return makeHttpRequestFollowingRedirects(url, maxRedirectCount,
-                originalUrlOrRedirectUrl -> webClient.head().uri(originalUrlOrRedirectUrl).exchange().block(config.getTimeout()),
+                originalUrlOrRedirectUrl -> block(webClient.head().uri(originalUrlOrRedirectUrl).exchange()),
                 clientResponse -> {
+                    releaseBody(clientResponse);
+
                     if (clientResponse.statusCode() == HttpStatus.OK) {
                         return Optional.of(true);
                     } else if (clientResponse.statusCode() == HttpStatus.NOT_FOUND) {
@@ -59,16 +116,78 @@ public class Downloader {
                 urlExistsCache::putExists);
     }
 
-    private <T> HttpRequestOutcome<T> makeHttpRequestFollowingRedirects(String url, int maxRedirectCount,
-            Function<String, ClientResponse> httpRequest, Function<ClientResponse, Optional<T>> outputGetter,
-            Function<String, Optional<T>> cacheGetter, BiConsumer<String, T> cacheSetter) {
-        Optional<T> output = cacheGetter.apply(url);
+    /**
+     * Waits for the outcome in a way that can be interrupted, for example by a scan timeout.  On interrupt the caller gives up on the HTTP request, which
+     * interrupts the thread making the request if no other caller is sharing it.
+     */
+    private <T> HttpRequestOutcome<T> waitForOutcome(String url, CompletableFuture<HttpRequestOutcome<T>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return new HttpRequestOutcome<>(url, false, null, List.of(e));
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * Cached outcomes are returned straight away.  Otherwise the HTTP request is made on the executor for the URL's host, which caps the number of
+     * concurrent requests to each host, and is shared with any identical requests made before it completes.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<HttpRequestOutcome<T>> makeCoalescedHttpRequest(InFlightRequestKey key, Function<String, Optional<T>> cacheGetter,
+            Supplier<HttpRequestOutcome<T>> httpRequest) {
+        Optional<T> output = cacheGetter.apply(key.getUrl());
 
         if (output.isPresent()) {
             log.debug("Entry found in cache");
-            return new HttpRequestOutcome<>(url, true, output.get(), List.of());
+            return CompletableFuture.completedFuture(new HttpRequestOutcome<>(key.getUrl(), true, output.get(), List.of()));
+        }
+
+        while (true) {
+            InFlightRequest<T> newRequest = new InFlightRequest<>();
+            CompletableFuture<HttpRequestOutcome<T>> callerFuture = newRequest.addCaller();
+            InFlightRequest<T> inFlightRequest = (InFlightRequest<T>) inFlightRequests.putIfAbsent(key, newRequest);
+
+            if (isNull(inFlightRequest)) {
+                newRequest.getOutcome().whenComplete((outcome, throwable) -> inFlightRequests.remove(key, newRequest));
+                newRequest.start(getHostExecutor(key.getUrl()), httpRequest);
+                return callerFuture;
+            }
+
+            callerFuture = inFlightRequest.addCaller();
+
+            if (nonNull(callerFuture)) {
+                log.debug("Sharing in-flight request for URL \"{}\"", escapeString(key.getUrl()));
+                return callerFuture;
+            }
+
+            // Every caller of the in-flight request has given up on it, so it is about to be removed
+            inFlightRequests.remove(key, inFlightRequest);
         }
+    }
+
+    private ExecutorService getHostExecutor(String url) {
+        return hostExecutors.computeIfAbsent(getHost(url), host -> Executors.newFixedThreadPool(
+                config.getMaxConcurrentRequestsPerHost(),
+                new ThreadFactoryBuilder().setNameFormat("downloader-" + host + "-%d").setDaemon(true).build()));
+    }
 
+    private String getHost(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return isNull(host) ? "" : host;
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    private <T> HttpRequestOutcome<T> makeHttpRequestFollowingRedirects(String url, int maxRedirectCount,
+            Function<String, ClientResponse> httpRequest, Function<ClientResponse, Optional<T>> outputGetter,
+            Function<String, Optional<T>> cacheGetter, BiConsumer<String, T> cacheSetter) {
+        Optional<T> output;
         int redirectCount = 0;
 
         while (true) {
@@ -84,6 +203,7 @@ public class Downloader {
             if (statusCode == HttpStatus.MOVED_PERMANENTLY
                     || statusCode == HttpStatus.FOUND
                     || statusCode == HttpStatus.SEE_OTHER) {
+                releaseBody(clientResponse);
                 redirectCount++;
 
                 if (redirectCount <= maxRedirectCount) {
@@ -121,11 +241,100 @@ public class Downloader {
         return new HttpRequestOutcome<>(url, false, null, List.of());
     }
 
+    /**
+     * Every response body has to be either read or released.  Otherwise its connection is never returned to the pool and the host's concurrency
+     * limit slot, which {@link HostResilienceFilter} holds until the body is done with, is never freed
+     */
+    private void releaseBody(ClientResponse clientResponse) {
+        block(clientResponse.releaseBody());
+    }
+
+    /**
+     * An interrupted block() cancels its subscription but clears the thread's interrupted flag, so the flag is set again to stop any retries of the
+     * HTTP request as well
+     */
+    private <T> T block(Mono<T> mono) {
+        try {
+            return mono.block(config.getTimeout());
+        } catch (RuntimeException e) {
+            if (Exceptions.unwrap(e) instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw e;
+        }
+    }
+
     private String getLocationHeader(ClientResponse clientResponse) {
         List<String> values = clientResponse.headers().header(HttpHeaders.LOCATION);
         return values.isEmpty() ? null : values.get(0);
     }
 
+    private enum RequestType {
+
+        DOWNLOAD,
+        EXISTS
+    }
+
+    @Value
+    private static class InFlightRequestKey {
+
+        RequestType type;
+        String url;
+        int maxRedirectCount;
+    }
+
+    /**
+     * An HTTP request shared by every caller that asked for it while it was in flight.  Each caller gets its own future, so that one caller giving up
+     * does not cancel the request for the others
+     */
+    private static class InFlightRequest<T> {
+
+        @Getter
+        private final CompletableFuture<HttpRequestOutcome<T>> outcome = new CompletableFuture<>();
+        private Future<?> task;
+        private int callerCount;
+
+        /**
+         * Returns null if every caller has already given up on the request
+         */
+        public synchronized CompletableFuture<HttpRequestOutcome<T>> addCaller() {
+            if (outcome.isCancelled()) {
+                return null;
+            }
+
+            callerCount++;
+            CompletableFuture<HttpRequestOutcome<T>> callerFuture = outcome.thenApply(Function.identity());
+            callerFuture.whenComplete((callerOutcome, throwable) -> {
+                if (callerFuture.isCancelled()) {
+                    removeCaller();
+                }
+            });
+            return callerFuture;
+        }
+
+        public synchronized void start(ExecutorService executor, Supplier<HttpRequestOutcome<T>> httpRequest) {
+            if (outcome.isDone()) {
+                return;
+            }
+
+            task = executor.submit(() -> {
+                try {
+                    outcome.complete(httpRequest.get());
+                } catch (Throwable t) {
+                    outcome.completeExceptionally(t);
+                }
+            });
+        }
+
+        private synchronized void removeCaller() {
+            callerCount--;
+
+            if (callerCount == 0 && outcome.cancel(false) && nonNull(task)) {
+                task.cancel(true);
+            }
+        }
+    }
+
     @Value
     public static class HttpRequestOutcome<T> {
 
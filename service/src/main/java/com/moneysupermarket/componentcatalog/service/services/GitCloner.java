@@ -3,18 +3,29 @@ package com.moneysupermarket.componentcatalog.service.services;
 import com.moneysupermarket.componentcatalog.service.config.GitConfig;
 import com.moneysupermarket.componentcatalog.service.config.GitHost;
 import com.moneysupermarket.componentcatalog.service.models.RepoDirAndGit;
+import com.moneysupermarket.componentcatalog.service.models.RepoLease;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RepositoryCache;
 import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.TagOpt;
+import org.eclipse.jgit.transport.URIish;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.eclipse.jgit.util.FS;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
 
 import javax.annotation.PostConstruct;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -22,15 +33,28 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNullElse;
 
+/**
+ * Clones and fetches repos into local repo clones.  Each clone has a lock that is held for writing while the clone is being cloned, fetched or checked
+ * out.  The lock is then downgraded to a read lease that is returned with the clone, so that the clone is not fetched, checked out or maintained while
+ * a scanner is still reading it.  The lease is released when the returned {@link RepoDirAndGit} is closed, or later if its lease is handed on.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -39,8 +63,13 @@ public class GitCloner {
     private static final String HEAD_REF_NAME = "HEAD";
     private static final String TAG_REF_NAME_PREFIX = "refs/tags/";
     private static final String BRANCH_REF_NAME_PREFIX = "refs/heads/";
+    private static final String SHARED_OBJECT_STORES_DIR_NAME = ".shared-object-stores";
+    private static final String CLONES_IN_PROGRESS_DIR_NAME = ".clones-in-progress";
+    private static final String SHARED_OBJECT_STORE_REF_NAME_PREFIX = "refs/repos/";
+    private static final HashFunction HASH_FUNCTION = Hashing.md5();
 
     private final GitConfig config;
+    private final ConcurrentHashMap<Path, StampedLock> repoLocks = new ConcurrentHashMap<>();
     private Path reposDir;
 
     @PostConstruct
@@ -55,7 +84,106 @@ public class GitCloner {
 
     public RepoDirAndGit cloneOrPullRepo(String repoUrl, String repoRef) throws GitAPIException, URISyntaxException, IOException {
         Path repoDir = getRepoDir(repoUrl);
-        return new RepoDirAndGit(repoDir, cloneOrPullRepo(repoUrl, repoRef, repoDir));
+        StampedLock repoLock = getRepoLock(repoDir);
+        long stamp = lockForWriting(repoLock);
+        Git git;
+
+        try {
+            git = cloneOrPullRepo(repoUrl, repoRef, repoDir);
+        } catch (GitAPIException | URISyntaxException | IOException | RuntimeException | Error e) {
+            repoLock.unlockWrite(stamp);
+            throw e;
+        }
+
+        long readStamp = repoLock.tryConvertToReadLock(stamp);
+        return new RepoDirAndGit(repoDir, git, new RepoLease(() -> repoLock.unlockRead(readStamp)));
+    }
+
+    /**
+     * Returns the dirs of all the local repo clones and shared object stores
+     */
+    public List<Path> getRepoDirs() throws IOException {
+        List<Path> repoDirs = new ArrayList<>(listGitRepoDirs(reposDir));
+        Path sharedObjectStoresDir = reposDir.resolve(SHARED_OBJECT_STORES_DIR_NAME);
+
+        if (Files.isDirectory(sharedObjectStoresDir)) {
+            repoDirs.addAll(listGitRepoDirs(sharedObjectStoresDir));
+        }
+
+        return repoDirs;
+    }
+
+    /**
+     * Returns whether a local repo clone borrows objects from a shared object store.  Repacking such a clone would copy all the objects it borrows
+     * into its own pack.
+     */
+    public boolean usesSharedObjectStore(Path repoDir) {
+        return Files.exists(getAlternatesFile(repoDir));
+    }
+
+    /**
+     * Returns the objects dirs of the shared object stores that a local repo clone borrows objects from
+     */
+    public List<Path> getSharedObjectStoreObjectsDirs(Path repoDir) throws IOException {
+        Path alternatesFile = getAlternatesFile(repoDir);
+
+        if (!Files.exists(alternatesFile)) {
+            return List.of();
+        }
+
+        Path objectsDir = alternatesFile.getParent().getParent();
+        return Files.readAllLines(alternatesFile).stream()
+                .filter(StringUtils::isNotBlank)
+                .map(line -> objectsDir.resolve(line.trim()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Runs a task against a local repo clone, as long as the clone is not being cloned, fetched or checked out and is not leased to a scanner at the
+     * time
+     *
+     * @param repoDir   the dir of the local repo clone
+     * @param task      the task to run
+     * @return          true if the task was run, or false if it was skipped because the clone is in use
+     */
+    public boolean runIfRepoNotInUse(Path repoDir, Runnable task) {
+        StampedLock repoLock = getRepoLock(repoDir);
+        long stamp = repoLock.tryWriteLock();
+
+        if (stamp == 0) {
+            return false;
+        }
+
+        try {
+            task.run();
+            return true;
+        } finally {
+            repoLock.unlockWrite(stamp);
+        }
+    }
+
+    private List<Path> listGitRepoDirs(Path dir) throws IOException {
+        try (Stream<Path> repoDirs = Files.list(dir)) {
+            return repoDirs.filter(repoDir -> nonNull(RepositoryCache.FileKey.resolve(repoDir.toFile(), FS.DETECTED)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private StampedLock getRepoLock(Path repoDir) {
+        return repoLocks.computeIfAbsent(repoDir.toAbsolutePath().normalize(), ignored -> new StampedLock());
+    }
+
+    /**
+     * Waits interruptibly, so that a scan that times out while waiting for a leased clone is not left blocked
+     */
+    private long lockForWriting(StampedLock lock) throws InterruptedIOException {
+        try {
+            return lock.writeLockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a repo lock");
+        }
     }
 
     private Path getRepoDir(String repoUrl) {
@@ -72,9 +200,14 @@ public class GitCloner {
 
     private Git cloneOrPullRepo(String repoUrl, String repoRef, Path repoDir) throws GitAPIException, URISyntaxException, IOException {
         CredentialsProvider credentialsProvider = getCredentialsProvider(repoUrl);
-        Git git = cloneOrFetchGit(repoUrl, repoDir, credentialsProvider);
-        checkoutRef(git, repoUrl, repoRef, repoDir, credentialsProvider);
-        return git;
+        Optional<Git> fetchedGit = fetchExistingClone(repoUrl, repoDir, credentialsProvider);
+
+        if (fetchedGit.isEmpty()) {
+            return cloneAndCheckoutRef(repoUrl, repoRef, repoDir, credentialsProvider);
+        }
+
+        checkoutRef(fetchedGit.get(), repoUrl, repoRef, repoDir, credentialsProvider);
+        return fetchedGit.get();
     }
 
     private CredentialsProvider getCredentialsProvider(String repoUrl) throws URISyntaxException {
@@ -87,47 +220,177 @@ public class GitCloner {
         return optionalHost.map(hostEntry -> new UsernamePasswordCredentialsProvider(hostEntry.getUsername(), hostEntry.getPassword())).orElse(null);
     }
 
-    private Git cloneOrFetchGit(String repoUrl, Path repoDir, CredentialsProvider credentialsProvider) throws IOException, GitAPIException {
-        if (Files.exists(repoDir)) {
-            Git git = null;
+    private Optional<Git> fetchExistingClone(String repoUrl, Path repoDir, CredentialsProvider credentialsProvider) throws IOException {
+        if (!Files.exists(repoDir)) {
+            return Optional.empty();
+        }
 
-            try {
-                git = getGit(repoDir);
-                fetch(git, repoUrl, repoDir, credentialsProvider);
-                return git;
-            } catch (Exception e) {
-                log.error("Fetch failed for {} so deleting and cloning again", createRepoDescription(repoUrl, repoDir), e);
-                if (nonNull(git)) {
-                    git.close();
-                }
+        Git git = null;
+
+        try {
+            git = getGit(repoDir);
+            fetch(git, repoUrl, repoDir, credentialsProvider);
+            return Optional.of(git);
+        } catch (Exception e) {
+            log.error("Fetch failed for {} so deleting and cloning again", createRepoDescription(repoUrl, repoDir), e);
+            if (nonNull(git)) {
+                git.close();
+            }
+        }
+
+        FileSystemUtils.deleteRecursively(repoDir);
+        return Optional.empty();
+    }
+
+    /**
+     * Clones a repo into a separate dir and only moves the clone into the repo's dir once the clone and checkout have completed.  A clone that fails or
+     * is interrupted part way through, for example when the process is stopped, is therefore never mistaken for a complete clone by a later fetch.  Any
+     * clone left over from an earlier attempt is deleted first.
+     */
+    private Git cloneAndCheckoutRef(String repoUrl, String repoRef, Path repoDir, CredentialsProvider credentialsProvider) throws GitAPIException,
+            URISyntaxException, IOException {
+        Path cloneDir = reposDir.resolve(CLONES_IN_PROGRESS_DIR_NAME).resolve(repoDir.getFileName());
+        FileSystemUtils.deleteRecursively(cloneDir);
+        Files.createDirectories(cloneDir.getParent());
+
+        try {
+            try (Git git = clone(repoUrl, cloneDir, credentialsProvider)) {
+                checkoutRef(git, repoUrl, repoRef, cloneDir, credentialsProvider);
             }
 
-            FileSystemUtils.deleteRecursively(repoDir);
+            Files.move(cloneDir, repoDir, StandardCopyOption.ATOMIC_MOVE);
+        } catch (GitAPIException | URISyntaxException | IOException | RuntimeException e) {
+            FileSystemUtils.deleteRecursively(cloneDir);
+            throw e;
         }
 
-        return clone(repoUrl, repoDir, credentialsProvider);
+        return getGit(repoDir);
     }
 
     private Git getGit(Path repoDir) throws IOException {
         return Git.open(repoDir.toFile());
     }
 
-    private Git clone(String repoUrl, Path repoDir, CredentialsProvider credentialsProvider) throws GitAPIException {
-        log.info("Cloning {}", createRepoDescription(repoUrl, repoDir));
-        return Git.cloneRepository()
-                .setURI(repoUrl)
-                .setDirectory(repoDir.toFile())
-                .setCredentialsProvider(credentialsProvider)
-                .call();
+    private Git clone(String repoUrl, Path repoDir, CredentialsProvider credentialsProvider) throws GitAPIException, IOException, URISyntaxException {
+        Optional<Path> sharedObjectStoreDir = getSharedObjectStoreDir(repoUrl);
+
+        if (sharedObjectStoreDir.isEmpty()) {
+            log.info("Cloning {}", createRepoDescription(repoUrl, repoDir));
+            return Git.cloneRepository()
+                    .setURI(repoUrl)
+                    .setDirectory(repoDir.toFile())
+                    .setCredentialsProvider(credentialsProvider)
+                    .call();
+        }
+
+        log.info("Cloning {} using shared object store in dir \"{}\"", createRepoDescription(repoUrl, repoDir),
+                escapeString(sharedObjectStoreDir.get().toString()));
+        fetchIntoSharedObjectStore(repoUrl, sharedObjectStoreDir.get(), credentialsProvider);
+        Git.init().setDirectory(repoDir.toFile()).call().close();
+        Path alternatesFile = getAlternatesFile(repoDir);
+        Files.createDirectories(alternatesFile.getParent());
+        Files.writeString(alternatesFile, sharedObjectStoreDir.get().resolve(Constants.OBJECTS).toAbsolutePath() + "\n");
+        Git git = getGit(repoDir);
+
+        try {
+            git.remoteAdd()
+                    .setName(Constants.DEFAULT_REMOTE_NAME)
+                    .setUri(new URIish(repoUrl))
+                    .call();
+            git.fetch()
+                    .setRemote(Constants.DEFAULT_REMOTE_NAME)
+                    .setCredentialsProvider(credentialsProvider)
+                    .call();
+            return git;
+        } catch (URISyntaxException | GitAPIException | RuntimeException e) {
+            git.close();
+            throw e;
+        }
     }
 
     private void fetch(Git git, String repoUrl, Path repoDir, CredentialsProvider credentialsProvider) throws GitAPIException {
+        if (usesSharedObjectStore(repoDir)) {
+            Optional<Path> sharedObjectStoreDir = getSharedObjectStoreDir(repoUrl);
+
+            try {
+                if (sharedObjectStoreDir.isPresent()) {
+                    fetchIntoSharedObjectStore(repoUrl, sharedObjectStoreDir.get(), credentialsProvider);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to fetch {} into shared object store, so fetching it into its own dir only", createRepoDescription(repoUrl, repoDir), e);
+            }
+        }
+
         log.info("Fetching {}", createRepoDescription(repoUrl, repoDir));
         git.fetch()
                 .setCredentialsProvider(credentialsProvider)
                 .call();
     }
 
+    /**
+     * Fetches a repo's branches and tags into a shared object store, under refs that are specific to the repo.  The store's refs therefore include
+     * every commit that the repo's local clone can refer to, so garbage collecting the store never prunes objects that a clone is borrowing.  Refs
+     * for branches and tags that have been deleted from the repo are kept, because the local clone does not prune its refs either.
+     */
+    private void fetchIntoSharedObjectStore(String repoUrl, Path sharedObjectStoreDir, CredentialsProvider credentialsProvider) throws GitAPIException,
+            IOException {
+        StampedLock storeLock = getRepoLock(sharedObjectStoreDir);
+        long stamp = lockForWriting(storeLock);
+
+        try {
+            if (!Files.exists(sharedObjectStoreDir)) {
+                Files.createDirectories(sharedObjectStoreDir.getParent());
+                Git.init().setBare(true).setDirectory(sharedObjectStoreDir.toFile()).call().close();
+            }
+
+            try (Git git = getGit(sharedObjectStoreDir)) {
+                String refNamePrefix = SHARED_OBJECT_STORE_REF_NAME_PREFIX + HASH_FUNCTION.hashString(repoUrl, StandardCharsets.UTF_8) + "/";
+                log.info("Fetching repo \"{}\" into shared object store in dir \"{}\"", escapeString(repoUrl),
+                        escapeString(sharedObjectStoreDir.toString()));
+                git.fetch()
+                        .setRemote(repoUrl)
+                        .setRefSpecs(new RefSpec("+" + BRANCH_REF_NAME_PREFIX + "*:" + refNamePrefix + "heads/*"),
+                                new RefSpec("+" + TAG_REF_NAME_PREFIX + "*:" + refNamePrefix + "tags/*"))
+                        .setTagOpt(TagOpt.NO_TAGS)
+                        .setCredentialsProvider(credentialsProvider)
+                        .call();
+            }
+        } finally {
+            storeLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the dir of the shared object store for a repo, if shared object stores are enabled.  Repos on the same host whose URLs have the same
+     * path apart from the last segment, for example repos in the same GitHub organisation or Bitbucket project, share an object store.
+     */
+    private Optional<Path> getSharedObjectStoreDir(String repoUrl) {
+        if (!Objects.equals(config.getUseSharedObjectStores(), true)) {
+            return Optional.empty();
+        }
+
+        URIish uri;
+        try {
+            uri = new URIish(repoUrl);
+        } catch (URISyntaxException e) {
+            return Optional.empty();
+        }
+
+        String path = StringUtils.stripEnd(uri.getPath(), "/");
+        int lastSlashIndex = isNull(path) ? -1 : path.lastIndexOf('/');
+
+        if (lastSlashIndex <= 0) {
+            return Optional.empty();
+        }
+
+        String storeName = requireNonNullElse(uri.getHost(), "") + path.substring(0, lastSlashIndex);
+        return Optional.of(reposDir.resolve(SHARED_OBJECT_STORES_DIR_NAME).resolve(convertRepoUrlToDirName(storeName)));
+    }
+
+    private Path getAlternatesFile(Path repoDir) {
+        return repoDir.resolve(Constants.DOT_GIT).resolve(Constants.OBJECTS).resolve("info").resolve("alternates");
+    }
+
     private void checkoutRef(Git git, String repoUrl, String repoRef, Path repoDir, CredentialsProvider credentialsProvider) throws GitAPIException {
         Collection<Ref> remoteRefs = getRemoteRefs(repoUrl, credentialsProvider);
         Optional<Ref> refMatch;
@@ -0,0 +1,364 @@
+package com.moneysupermarket.componentcatalog.service.services;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.internal.storage.file.PackIndex;
+import org.eclipse.jgit.internal.storage.pack.PackWriter;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.pack.PackConfig;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
+import static java.util.Objects.nonNull;
+
+/**
+ * Keeps the local repo clones compact.  Each clone is repeatedly fetched into, which leaves it with a growing number of packs and loose objects that
+ * slow down later fetches and commit walks.  Maintenance runs garbage collection on each clone, which repacks all its objects into a single pack with
+ * a bitmap index, packs its refs and prunes unreachable objects that are older than the prune expiry.  Clones that borrow objects from a shared
+ * object store are not garbage collected, as that would copy the borrowed objects into the clone.  Instead only the objects that such a clone holds
+ * itself are repacked into a single pack, without pruning anything, and its shared object store is garbage collected as usual.
+ *
+ * A clone that is being cloned, fetched or checked out when its turn comes is skipped until the next run.  The disk usage, pack count and loose
+ * object count of each clone are published as metrics, tagged with the clone's dir name.
+ *
+ * Maintenance runs on its own thread rather than on Spring's scheduler thread.  The scheduler has a single thread by default, which is shared with
+ * the component refresh and the draining of queued repo rescans, so garbage collecting every clone on it would stop those from running until
+ * maintenance had finished.  A scheduled run is skipped if the previous run is still going.
+ */
+@Service
+@Slf4j
+public class GitRepoMaintainer {
+
+    private static final String REPO_TAG = "repo";
+    private static final String NUMBER_OF_PACK_FILES = "numberOfPackFiles";
+    private static final String NUMBER_OF_LOOSE_OBJECTS = "numberOfLooseObjects";
+    private static final String PACK_DIR_NAME = "pack";
+    private static final String PACK_FILE_NAME_PREFIX = "pack-";
+    private static final String TEMP_FILE_PREFIX = "repack_";
+    private static final String PACK_FILE_EXTENSION = ".pack";
+    private static final String PACK_INDEX_FILE_EXTENSION = ".idx";
+    private static final String PACK_BITMAP_FILE_EXTENSION = ".bitmap";
+    private static final String PACK_KEEP_FILE_EXTENSION = ".keep";
+    private static final Pattern LOOSE_OBJECT_DIR_NAME_PATTERN = Pattern.compile("[0-9a-f]{2}");
+
+    private final GitCloner gitCloner;
+    private final Map<Path, RepoStats> repoStats = new ConcurrentHashMap<>();
+    private final MultiGauge diskUsageGauge;
+    private final MultiGauge packCountGauge;
+    private final MultiGauge looseObjectCountGauge;
+    private final ExecutorService maintenanceExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("git-repo-maintainer-%d").setDaemon(true).build());
+    private final AtomicBoolean maintaining = new AtomicBoolean();
+
+    public GitRepoMaintainer(GitCloner gitCloner, MeterRegistry meterRegistry) {
+        this.gitCloner = gitCloner;
+        this.diskUsageGauge = MultiGauge.builder("git.repo.disk.usage")
+                .description("The disk space used by a local repo clone, including its working tree")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.packCountGauge = MultiGauge.builder("git.repo.packs")
+                .description("The number of pack files in a local repo clone")
+                .register(meterRegistry);
+        this.looseObjectCountGauge = MultiGauge.builder("git.repo.loose.objects")
+                .description("The number of loose objects in a local repo clone")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${git.maintenance-cron:-}", zone = "UTC")
+    public void scheduleMaintenance() {
+        if (!maintaining.compareAndSet(false, true)) {
+            log.info("Skipped maintenance of local repo clones because the previous maintenance is still running");
+            return;
+        }
+
+        maintenanceExecutor.execute(() -> {
+            try {
+                maintainRepos();
+            } catch (Exception e) {
+                log.error("Failed to maintain local repo clones", e);
+            } finally {
+                maintaining.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        maintenanceExecutor.shutdownNow();
+    }
+
+    public void maintainRepos() throws IOException {
+        List<Path> repoDirs = gitCloner.getRepoDirs();
+        log.info("Starting maintenance of {} local repo clones", repoDirs.size());
+        int skippedCount = 0;
+
+        for (Path repoDir : repoDirs) {
+            if (!gitCloner.runIfRepoNotInUse(repoDir, () -> maintainRepo(repoDir))) {
+                log.info("Skipped maintenance of repo in dir \"{}\" because it is in use", escapeString(repoDir.toString()));
+                skippedCount++;
+            }
+        }
+
+        repoStats.keySet().retainAll(repoDirs);
+        registerGauges();
+        log.info("Finished maintenance of local repo clones, skipping {}", skippedCount);
+    }
+
+    private void maintainRepo(Path repoDir) {
+        try {
+            long startTime = System.currentTimeMillis();
+            Properties statistics;
+
+            if (gitCloner.usesSharedObjectStore(repoDir)) {
+                repackLocalObjects(repoDir);
+
+                try (Git git = Git.open(repoDir.toFile())) {
+                    statistics = git.gc().getStatistics();
+                }
+            } else {
+                try (Git git = Git.open(repoDir.toFile())) {
+                    statistics = git.gc().call();
+                }
+            }
+
+            RepoStats stats = new RepoStats(getDiskUsage(repoDir), getStatistic(statistics, NUMBER_OF_PACK_FILES),
+                    getStatistic(statistics, NUMBER_OF_LOOSE_OBJECTS));
+            repoStats.put(repoDir, stats);
+            log.info("Maintained repo in dir \"{}\" in {}ms, leaving {} packs, {} loose objects and {} bytes on disk", escapeString(repoDir.toString()),
+                    System.currentTimeMillis() - startTime, stats.getPackCount(), stats.getLooseObjectCount(), stats.getDiskUsage());
+        } catch (Exception e) {
+            log.error("Failed to maintain repo in dir \"{}\"", escapeString(repoDir.toString()), e);
+        }
+    }
+
+    /**
+     * Writes the objects that are reachable from the clone's refs and not borrowed from its shared object stores into a new pack, so the new pack only
+     * holds objects that the clone holds itself.  An old pack or loose object is then only deleted if every object in it is in the new pack or in a
+     * shared object store, so unreachable objects are kept.
+     */
+    private void repackLocalObjects(Path repoDir) throws IOException {
+        List<Path> sharedObjectStoreObjectsDirs = gitCloner.getSharedObjectStoreObjectsDirs(repoDir);
+        List<PackIndex> sharedObjectStorePackIndexes = new ArrayList<>();
+
+        for (Path objectsDir : sharedObjectStoreObjectsDirs) {
+            for (Path packIndexFile : listPackIndexFiles(objectsDir.resolve(PACK_DIR_NAME))) {
+                sharedObjectStorePackIndexes.add(PackIndex.open(packIndexFile.toFile()));
+            }
+        }
+
+        Predicate<AnyObjectId> isBorrowed = objectId -> sharedObjectStorePackIndexes.stream().anyMatch(packIndex -> packIndex.contains(objectId))
+                || sharedObjectStoreObjectsDirs.stream().anyMatch(objectsDir -> Files.exists(getLooseObjectFile(objectsDir, objectId)));
+
+        try (Git git = Git.open(repoDir.toFile())) {
+            Repository repository = git.getRepository();
+            Path objectsDir = repository.getDirectory().toPath().resolve(Constants.OBJECTS);
+            Path packDir = objectsDir.resolve(PACK_DIR_NAME);
+            Files.createDirectories(packDir);
+            Optional<String> newPackName = writeLocalObjectsPack(repository, packDir, isBorrowed);
+            PackIndex newPackIndex = newPackName.isPresent() ? PackIndex.open(packDir.resolve(newPackName.get() + PACK_INDEX_FILE_EXTENSION).toFile())
+                    : null;
+            Predicate<AnyObjectId> isRedundant = objectId -> (nonNull(newPackIndex) && newPackIndex.contains(objectId)) || isBorrowed.test(objectId);
+
+            deleteRedundantPacks(packDir, newPackName.orElse(null), isRedundant);
+            deleteRedundantLooseObjects(objectsDir, isRedundant);
+        }
+    }
+
+    /**
+     * Returns the name of the new pack, or empty if the clone holds none of the objects reachable from its refs
+     */
+    private Optional<String> writeLocalObjectsPack(Repository repository, Path packDir, Predicate<AnyObjectId> isBorrowed)
+            throws IOException {
+        Set<ObjectId> refObjectIds = new HashSet<>();
+
+        for (Ref ref : repository.getRefDatabase().getRefs()) {
+            if (nonNull(ref.getObjectId())) {
+                refObjectIds.add(ref.getObjectId());
+            }
+        }
+
+        Ref headRef = repository.exactRef(Constants.HEAD);
+        if (nonNull(headRef) && nonNull(headRef.getObjectId())) {
+            refObjectIds.add(headRef.getObjectId());
+        }
+
+        try (ObjectReader objectReader = repository.newObjectReader();
+                PackWriter packWriter = new PackWriter(new PackConfig(repository), objectReader)) {
+            packWriter.excludeObjects(isBorrowed::test);
+            packWriter.preparePack(NullProgressMonitor.INSTANCE, refObjectIds, PackWriter.NONE);
+
+            if (packWriter.getObjectCount() == 0) {
+                return Optional.empty();
+            }
+
+            Path tempPackFile = Files.createTempFile(packDir, TEMP_FILE_PREFIX, PACK_FILE_EXTENSION);
+            Path tempPackIndexFile = Files.createTempFile(packDir, TEMP_FILE_PREFIX, PACK_INDEX_FILE_EXTENSION);
+
+            try {
+                try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempPackFile))) {
+                    packWriter.writePack(NullProgressMonitor.INSTANCE, NullProgressMonitor.INSTANCE, outputStream);
+                }
+                try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempPackIndexFile))) {
+                    packWriter.writeIndex(outputStream);
+                }
+
+                // The index is moved into place last, as a pack is only used once its index exists
+                String packName = PACK_FILE_NAME_PREFIX + packWriter.computeName().name();
+                Files.move(tempPackFile, packDir.resolve(packName + PACK_FILE_EXTENSION), StandardCopyOption.ATOMIC_MOVE);
+                Files.move(tempPackIndexFile, packDir.resolve(packName + PACK_INDEX_FILE_EXTENSION), StandardCopyOption.ATOMIC_MOVE);
+                return Optional.of(packName);
+            } finally {
+                Files.deleteIfExists(tempPackFile);
+                Files.deleteIfExists(tempPackIndexFile);
+            }
+        }
+    }
+
+    private void deleteRedundantPacks(Path packDir, String newPackName, Predicate<AnyObjectId> isRedundant) throws IOException {
+        for (Path packIndexFile : listPackIndexFiles(packDir)) {
+            String packName = StringUtils.removeEnd(packIndexFile.getFileName().toString(), PACK_INDEX_FILE_EXTENSION);
+
+            if (Objects.equals(packName, newPackName) || Files.exists(packDir.resolve(packName + PACK_KEEP_FILE_EXTENSION))
+                    || !allObjectsMatch(PackIndex.open(packIndexFile.toFile()), isRedundant)) {
+                continue;
+            }
+
+            // The index is deleted first, so that the pack is never left without an index that refers to it
+            Files.delete(packIndexFile);
+            Files.deleteIfExists(packDir.resolve(packName + PACK_FILE_EXTENSION));
+            Files.deleteIfExists(packDir.resolve(packName + PACK_BITMAP_FILE_EXTENSION));
+        }
+    }
+
+    private boolean allObjectsMatch(PackIndex packIndex, Predicate<AnyObjectId> predicate) {
+        for (PackIndex.MutableEntry entry : packIndex) {
+            if (!predicate.test(entry.toObjectId())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void deleteRedundantLooseObjects(Path objectsDir, Predicate<AnyObjectId> isRedundant) throws IOException {
+        List<Path> looseObjectDirs;
+
+        try (Stream<Path> dirs = Files.list(objectsDir)) {
+            looseObjectDirs = dirs.filter(dir -> LOOSE_OBJECT_DIR_NAME_PATTERN.matcher(dir.getFileName().toString()).matches())
+                    .collect(Collectors.toList());
+        }
+
+        for (Path looseObjectDir : looseObjectDirs) {
+            List<Path> looseObjectFiles;
+
+            try (Stream<Path> files = Files.list(looseObjectDir)) {
+                looseObjectFiles = files.collect(Collectors.toList());
+            }
+
+            for (Path looseObjectFile : looseObjectFiles) {
+                String objectName = looseObjectDir.getFileName().toString() + looseObjectFile.getFileName().toString();
+
+                if (ObjectId.isId(objectName) && isRedundant.test(ObjectId.fromString(objectName))) {
+                    Files.delete(looseObjectFile);
+                }
+            }
+        }
+    }
+
+    private List<Path> listPackIndexFiles(Path packDir) throws IOException {
+        if (!Files.isDirectory(packDir)) {
+            return List.of();
+        }
+
+        try (Stream<Path> files = Files.list(packDir)) {
+            return files.filter(file -> {
+                        String fileName = file.getFileName().toString();
+                        return fileName.startsWith(PACK_FILE_NAME_PREFIX) && fileName.endsWith(PACK_INDEX_FILE_EXTENSION);
+                    })
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path getLooseObjectFile(Path objectsDir, AnyObjectId objectId) {
+        String objectName = objectId.name();
+        return objectsDir.resolve(objectName.substring(0, 2)).resolve(objectName.substring(2));
+    }
+
+    private long getDiskUsage(Path repoDir) throws IOException {
+        try (Stream<Path> files = Files.walk(repoDir)) {
+            return files.mapToLong(file -> {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    return attributes.isRegularFile() ? attributes.size() : 0;
+                } catch (IOException e) {
+                    // The file may have been deleted since the dir was listed
+                    return 0;
+                }
+            }).sum();
+        }
+    }
+
+    private long getStatistic(Properties statistics, String key) {
+        Object value = statistics.get(key);
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    private void registerGauges() {
+        diskUsageGauge.register(createGaugeRows(RepoStats::getDiskUsage), true);
+        packCountGauge.register(createGaugeRows(RepoStats::getPackCount), true);
+        looseObjectCountGauge.register(createGaugeRows(RepoStats::getLooseObjectCount), true);
+    }
+
+    private List<MultiGauge.Row<?>> createGaugeRows(ToLongFunction<RepoStats> valueGetter) {
+        return repoStats.entrySet().stream()
+                .map(entry -> MultiGauge.Row.of(Tags.of(REPO_TAG, entry.getKey().getFileName().toString()), valueGetter.applyAsLong(entry.getValue())))
+                .collect(Collectors.toList());
+    }
+
+    @Value
+    private static class RepoStats {
+
+        long diskUsage;
+        long packCount;
+        long looseObjectCount;
+    }
+}
@@ -0,0 +1,175 @@
+package com.moneysupermarket.componentcatalog.service.services;
+
+import com.moneysupermarket.componentcatalog.service.config.OutboundHttpConfig;
+import com.moneysupermarket.componentcatalog.service.constants.Resilience4JInstanceNames;
+import com.moneysupermarket.componentcatalog.service.exceptions.HostConcurrencyLimitException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.requireNonNullElse;
+
+/**
+ * Guards the HTTP requests made to each host with a circuit breaker and an adaptive concurrency limit, so that a host that is down or overloaded does
+ * not hold up every scan that depends on it.  It is applied to the shared WebClient, so covers the downloader and all the API clients.
+ *
+ * While a host's circuit breaker is open, requests to the host fail straight away instead of waiting for timeouts and being retried with backoff.
+ * Server error responses, too many requests responses, exceptions and cancellations, which are usually caused by timeouts, count as failures.  The
+ * circuit breakers are created from the outbound-http-host circuit breaker config and named after their hosts, so their state and call counts are
+ * published by Resilience4j's metrics.  The concurrency limit, in-flight request count and waiting request count of each host are published as
+ * metrics too.
+ */
+@Service
+@RequiredArgsConstructor
+public class HostResilienceFilter implements ExchangeFilterFunction {
+
+    private static final Duration DEFAULT_LATENCY_THRESHOLD = Duration.ofSeconds(5);
+    private static final int DEFAULT_MIN_CONCURRENT_REQUESTS_PER_HOST = 1;
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS_PER_HOST = 8;
+    private static final Duration DEFAULT_MAX_WAIT_DURATION = Duration.ofMinutes(5);
+    private static final String HOST_TAG = "host";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final OutboundHttpConfig config;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, AimdConcurrencyLimiter> concurrencyLimiters = new ConcurrentHashMap<>();
+
+    /**
+     * Waiting for the concurrency limit does not block a thread, so the filter can run on one of the event loop threads.  A request holds its slot
+     * until its response body has been consumed or released, rather than only until the response headers arrive, so the limit covers the whole time
+     * the host is busy with the request
+     */
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String host = getHost(request.url());
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(host, Resilience4JInstanceNames.OUTBOUND_HTTP_HOST);
+        AimdConcurrencyLimiter concurrencyLimiter = getConcurrencyLimiter(host);
+        Duration maxWaitDuration = requireNonNullElse(config.getMaxWaitDuration(), DEFAULT_MAX_WAIT_DURATION);
+        return Mono.fromRunnable(circuitBreaker::acquirePermission)
+                .then(concurrencyLimiter.acquire()
+                        .timeout(maxWaitDuration, Mono.error(() -> new HostConcurrencyLimitException(host, maxWaitDuration)))
+                        .doOnError(error -> circuitBreaker.releasePermission())
+                        .doOnCancel(circuitBreaker::releasePermission))
+                .then(Mono.defer(() -> {
+                    Permits permits = new Permits(circuitBreaker, concurrencyLimiter, System.nanoTime());
+                    return next.exchange(request)
+                            .map(permits::recordResponse)
+                            .doOnError(permits::recordError)
+                            .doOnCancel(permits::cancel);
+                }));
+    }
+
+    private AimdConcurrencyLimiter getConcurrencyLimiter(String host) {
+        return concurrencyLimiters.computeIfAbsent(host, ignored -> {
+            AimdConcurrencyLimiter concurrencyLimiter = new AimdConcurrencyLimiter(
+                    requireNonNullElse(config.getMinConcurrentRequestsPerHost(), DEFAULT_MIN_CONCURRENT_REQUESTS_PER_HOST),
+                    requireNonNullElse(config.getMaxConcurrentRequestsPerHost(), DEFAULT_MAX_CONCURRENT_REQUESTS_PER_HOST),
+                    requireNonNullElse(config.getLatencyThreshold(), DEFAULT_LATENCY_THRESHOLD));
+            Gauge.builder("http.client.host.concurrency.limit", concurrencyLimiter, AimdConcurrencyLimiter::getLimit)
+                    .description("The current limit on the number of concurrent HTTP requests to a host")
+                    .tag(HOST_TAG, host)
+                    .register(meterRegistry);
+            Gauge.builder("http.client.host.requests.in.flight", concurrencyLimiter, AimdConcurrencyLimiter::getInFlightCount)
+                    .description("The number of HTTP requests to a host that are in flight")
+                    .tag(HOST_TAG, host)
+                    .register(meterRegistry);
+            Gauge.builder("http.client.host.requests.waiting", concurrencyLimiter, AimdConcurrencyLimiter::getWaitingCount)
+                    .description("The number of HTTP requests to a host that are waiting for the number in flight to drop below the limit")
+                    .tag(HOST_TAG, host)
+                    .register(meterRegistry);
+            return concurrencyLimiter;
+        });
+    }
+
+    private String getHost(URI url) {
+        String host = url.getHost();
+        return isNull(host) ? "" : host;
+    }
+
+    /**
+     * The circuit breaker and concurrency limiter permits held by a single request, which are each released exactly once, whether the request
+     * completes, fails or is cancelled.  The circuit breaker permit is released as soon as the response headers arrive, because the status code is
+     * enough to tell whether the host is healthy.  The concurrency limiter permit is released once the response body has been consumed or released,
+     * with the response time measured up to the headers so that a large download is not mistaken for a slow host
+     */
+    @RequiredArgsConstructor
+    private static class Permits {
+
+        private final CircuitBreaker circuitBreaker;
+        private final AimdConcurrencyLimiter concurrencyLimiter;
+        private final long startTime;
+        private final AtomicBoolean circuitBreakerReleased = new AtomicBoolean();
+        private final AtomicBoolean concurrencyLimiterReleased = new AtomicBoolean();
+
+        public ClientResponse recordResponse(ClientResponse response) {
+            long responseTime = System.nanoTime();
+            int statusCode = response.rawStatusCode();
+            boolean succeeded = statusCode < HttpStatus.INTERNAL_SERVER_ERROR.value() && statusCode != HttpStatus.TOO_MANY_REQUESTS.value();
+
+            if (succeeded) {
+                releaseCircuitBreaker(responseTime, null);
+            } else {
+                releaseCircuitBreaker(responseTime, WebClientResponseException.create(statusCode, "Host responded with an error status code",
+                        HttpHeaders.EMPTY, new byte[0], null));
+            }
+
+            return response.mutate()
+                    .body(body -> body
+                            .doOnError(error -> releaseConcurrencyLimiter(responseTime, false))
+                            .doFinally(signalType -> releaseConcurrencyLimiter(responseTime, succeeded)))
+                    .build();
+        }
+
+        public void recordError(Throwable throwable) {
+            long responseTime = System.nanoTime();
+            releaseCircuitBreaker(responseTime, throwable);
+            releaseConcurrencyLimiter(responseTime, false);
+        }
+
+        /**
+         * Once the response has been received, cancelling does nothing, because the concurrency limiter permit is then released with the body
+         */
+        public void cancel() {
+            if (!circuitBreakerReleased.get()) {
+                recordError(new CancellationException("HTTP request was cancelled before a response was received"));
+            }
+        }
+
+        private void releaseCircuitBreaker(long responseTime, Throwable throwable) {
+            if (!circuitBreakerReleased.compareAndSet(false, true)) {
+                return;
+            }
+
+            if (isNull(throwable)) {
+                circuitBreaker.onSuccess(responseTime - startTime, TimeUnit.NANOSECONDS);
+            } else {
+                circuitBreaker.onError(responseTime - startTime, TimeUnit.NANOSECONDS, throwable);
+            }
+        }
+
+        private void releaseConcurrencyLimiter(long responseTime, boolean succeeded) {
+            if (concurrencyLimiterReleased.compareAndSet(false, true)) {
+                concurrencyLimiter.release(startTime, responseTime, succeeded);
+            }
+        }
+    }
+}
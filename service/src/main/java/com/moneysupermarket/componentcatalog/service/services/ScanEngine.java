@@ -1,11 +1,13 @@
 package com.moneysupermarket.componentcatalog.service.services;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.moneysupermarket.componentcatalog.componentmetadata.models.ComponentMetadata;
 import com.moneysupermarket.componentcatalog.sdk.models.Component;
 import com.moneysupermarket.componentcatalog.sdk.models.ObjectWithReference;
 import com.moneysupermarket.componentcatalog.sdk.models.Repo;
 import com.moneysupermarket.componentcatalog.sdk.models.ScannerError;
 import com.moneysupermarket.componentcatalog.sdk.models.Summary;
+import com.moneysupermarket.componentcatalog.service.config.ScanEngineConfig;
 import com.moneysupermarket.componentcatalog.service.exceptions.ValidationException;
 import com.moneysupermarket.componentcatalog.service.mappers.ThrowableToScannerErrorMapper;
 import com.moneysupermarket.componentcatalog.service.scanners.Scanner;
@@ -14,70 +16,141 @@ import com.moneysupermarket.componentcatalog.service.scanners.models.ComponentAn
 import com.moneysupermarket.componentcatalog.service.scanners.models.Output;
 import com.moneysupermarket.componentcatalog.service.utils.MapCollectors;
 import com.moneysupermarket.componentcatalog.service.utils.ObjectReference;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.With;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
+/**
+ * Passes the components through the scanners.  When a scanner has a scan timeout, each of its scans runs on a separate thread and is cancelled by
+ * interrupting that thread once the timeout is exceeded, so that a single slow input cannot hold up the rest of the scan.  Scanners that loop over
+ * many files or make many requests check for the interrupt and stop early.  A scanner that ignores the interrupt carries on in the background, but its
+ * output is discarded.  The number of those threads is capped, so scans that keep ignoring the interrupt cannot pile up without limit.  Once every
+ * thread is busy, scans that have a scan timeout fail straight away until a thread is free again.
+ *
+ * An input that has timed out is scanned after the scanner's other inputs in later scans.  Once an input has timed out a number of times in a row, the
+ * scanner skips it for a number of scans before trying it again.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ScanEngine {
 
+    private static final int DEFAULT_MAX_CONSECUTIVE_SCAN_TIMEOUTS = 2;
+    private static final int DEFAULT_SLOW_INPUT_SKIP_COUNT = 12;
+    private static final int MAX_SCAN_THREADS = 16;
+
     private final ScannerFinder scannerFinder;
     private final ValidatorService validatorService;
     private final ThrowableToScannerErrorMapper throwableToScannerErrorMapper;
+    private final ScanEngineConfig config;
+    private final ConcurrentHashMap<String, ScannerState> scannerStates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ScannerInputKey, SlowInput> slowInputs = new ConcurrentHashMap<>();
+    private final ExecutorService scanExecutor = new ThreadPoolExecutor(0, MAX_SCAN_THREADS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("scan-engine-%d").setDaemon(true).build());
 
     public void scan(ComponentMetadata componentMetadata, ConcurrentHashMap<String, Component> componentMap, Consumer<Summary> summaryConsumer) {
+        scan(componentMetadata, componentMap, true, createSummaryTransformerConsumer(summaryConsumer));
+    }
+
+    /**
+     * Rescans a subset of the components, for example the components in a repo that has just been pushed to.  The scanners are not refreshed, so they
+     * reuse the state from the last full scan.  The summary is built from that state, so it still covers all the components.
+     *
+     * @param componentMetadata the component metadata from the last full scan
+     * @param componentMap      a map with component ids as the keys and the components to rescan as the values
+     * @param summaryConsumer   receives the summary each time a scanner transforms it
+     */
+    public void rescan(ComponentMetadata componentMetadata, ConcurrentHashMap<String, Component> componentMap, Consumer<Summary> summaryConsumer) {
+        scan(componentMetadata, componentMap, false, createSummaryTransformerConsumer(summaryConsumer));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanExecutor.shutdownNow();
+    }
+
+    private Consumer<UnaryOperator<Summary>> createSummaryTransformerConsumer(Consumer<Summary> summaryConsumer) {
         ObjectReference<Summary> summary = new ObjectReference<>(Summary.EMPTY);
-        Consumer<UnaryOperator<Summary>> summaryTransformerConsumer = summaryTransformer -> {
+        return summaryTransformer -> {
             Summary transformedSummary = summaryTransformer.apply(summary.get());
             summaryConsumer.accept(transformedSummary);
             summary.set(transformedSummary);
         };
+    }
 
+    private void scan(ComponentMetadata componentMetadata, ConcurrentHashMap<String, Component> componentMap, boolean refreshScanners,
+            Consumer<UnaryOperator<Summary>> summaryTransformerConsumer) {
         scannerFinder.getComponentScanners().forEach(scanner -> executeScanner(
                 componentMetadata,
                 getFreshComponentAndComponentIdMap(componentMap),
                 componentMap,
                 scanner,
+                refreshScanners,
                 summaryTransformerConsumer));
         Map<Codebase, List<String>> codebaseAndComponentIdsMap = executeScanner(
                 componentMetadata,
                 getRepoAndComponentIdsMap(componentMap),
                 componentMap,
                 scannerFinder.getRepoScanner(),
+                refreshScanners,
                 summaryTransformerConsumer);
-        scannerFinder.getCodebaseScanners().forEach(scanner -> executeScanner(
-                componentMetadata,
-                codebaseAndComponentIdsMap,
-                componentMap,
-                scanner,
-                summaryTransformerConsumer));
-        scannerFinder.getComponentAndCodebaseScanners().forEach(scanner -> executeScanner(
-                componentMetadata,
-                getFreshComponentAndCodebaseAndComponentIdsMap(componentMap, codebaseAndComponentIdsMap),
-                componentMap,
-                scanner,
-                summaryTransformerConsumer));
+
+        // The codebases hold read leases on their repo clones, so that the clones are not fetched or maintained while the codebase scanners read them
+        try {
+            scannerFinder.getCodebaseScanners().forEach(scanner -> executeScanner(
+                    componentMetadata,
+                    codebaseAndComponentIdsMap,
+                    componentMap,
+                    scanner,
+                    refreshScanners,
+                    summaryTransformerConsumer));
+            scannerFinder.getComponentAndCodebaseScanners().forEach(scanner -> executeScanner(
+                    componentMetadata,
+                    getFreshComponentAndCodebaseAndComponentIdsMap(componentMap, codebaseAndComponentIdsMap),
+                    componentMap,
+                    scanner,
+                    refreshScanners,
+                    summaryTransformerConsumer));
+        } finally {
+            codebaseAndComponentIdsMap.keySet().forEach(Codebase::releaseLease);
+        }
+
         scannerFinder.getLateComponentScanners().forEach(scanner -> executeScanner(
                 componentMetadata,
                 getFreshComponentAndComponentIdMap(componentMap),
                 componentMap,
                 scanner,
+                refreshScanners,
                 summaryTransformerConsumer));
     }
 
@@ -126,22 +199,44 @@ public class ScanEngine {
 
     private <I extends ObjectWithReference, O> Map<O, List<String>> executeScanner(ComponentMetadata componentMetadata,
             Map<I, List<String>> inputAndComponentIdsMap, ConcurrentHashMap<String, Component> componentMap, Scanner<I, O> scanner,
-            Consumer<UnaryOperator<Summary>> summaryTransformerConsumer) {
-        try {
-            scanner.refresh(componentMetadata);
-        } catch (Exception e) {
-            log.error("Failed to refresh scanner {}", scanner.id(), e);
-            List<ScannerError> newErrors = List.of(new ScannerError(scanner.id(), "Failed to refresh scanner",
-                    throwableToScannerErrorMapper.map(scanner.id(), e)));
-            inputAndComponentIdsMap.values().forEach(componentIds -> addScannerErrorsToComponents(componentMap, componentIds, scanner, newErrors));
-            return Map.of();
+            boolean refreshScanner, Consumer<UnaryOperator<Summary>> summaryTransformerConsumer) {
+        ScannerState scannerState;
+        boolean reuseOutputs;
+
+        if (refreshScanner && scannerRefreshIsDue(scanner)) {
+            try {
+                scanner.refresh(componentMetadata);
+            } catch (Exception e) {
+                scannerStates.remove(scanner.id());
+                log.error("Failed to refresh scanner {}", scanner.id(), e);
+                List<ScannerError> newErrors = List.of(new ScannerError(scanner.id(), "Failed to refresh scanner",
+                        throwableToScannerErrorMapper.map(scanner.id(), e)));
+                inputAndComponentIdsMap.values().forEach(componentIds -> addScannerErrorsToComponents(componentMap, componentIds, scanner, newErrors));
+                return Map.of();
+            }
+
+            scannerState = new ScannerState(Instant.now());
+            scannerStates.put(scanner.id(), scannerState);
+            reuseOutputs = false;
+        } else {
+            scannerState = scannerStates.get(scanner.id());
+            reuseOutputs = refreshScanner;
+            if (reuseOutputs) {
+                log.info("Reusing outputs of scanner {} from refresh at {}", scanner.id(), scannerState.getRefreshTime());
+            }
         }
 
+        prepareScanner(scanner, inputAndComponentIdsMap.keySet().stream()
+                .filter(input -> !reuseOutputs || isNull(scannerState.getOutput(input)))
+                .filter(input -> !isSkipped(scanner, input))
+                .sorted(Comparator.comparing(ObjectWithReference::reference))
+                .collect(Collectors.toList()));
+
         Map<O, List<String>> outputAndComponentIdsMap = inputAndComponentIdsMap
                 .entrySet()
                 .stream()
-                .sorted(getInputEntryComparator())
-                .map(entry -> executeScanner(entry.getKey(), entry.getValue(), componentMap, scanner))
+                .sorted(getInputEntryComparator(scanner))
+                .map(entry -> executeScanner(entry.getKey(), entry.getValue(), componentMap, scanner, scannerState, reuseOutputs))
                 .filter(Objects::nonNull)
                 .collect(MapCollectors.toMap());
 
@@ -150,8 +245,39 @@ public class ScanEngine {
         return outputAndComponentIdsMap;
     }
 
-    private <I extends ObjectWithReference> Comparator<Map.Entry<I, List<String>>> getInputEntryComparator() {
-        return Comparator.comparing(entry -> entry.getKey().reference());
+    /**
+     * Preparing a scanner is only an optimisation, so a failure is logged and the inputs are still scanned
+     */
+    private <I extends ObjectWithReference> void prepareScanner(Scanner<I, ?> scanner, List<I> inputs) {
+        if (inputs.isEmpty()) {
+            return;
+        }
+
+        try {
+            scanner.prepare(inputs);
+        } catch (Exception e) {
+            log.warn("Failed to prepare scanner {}", scanner.id(), e);
+        }
+    }
+
+    /**
+     * A scanner is due a refresh if it has never been refreshed, if it has no refresh interval or if its last refresh is older than its refresh interval
+     */
+    private boolean scannerRefreshIsDue(Scanner<?, ?> scanner) {
+        ScannerState scannerState = scannerStates.get(scanner.id());
+        Duration refreshInterval = Optional.ofNullable(config.getScannerRefreshIntervals())
+                .map(scannerRefreshIntervals -> scannerRefreshIntervals.get(scanner.id()))
+                .orElse(null);
+        return isNull(scannerState) || isNull(refreshInterval) || scannerState.getRefreshTime().plus(refreshInterval).isBefore(Instant.now());
+    }
+
+    /**
+     * Inputs that have timed out before are scanned last, so that the scanner's other inputs are scanned first
+     */
+    private <I extends ObjectWithReference> Comparator<Map.Entry<I, List<String>>> getInputEntryComparator(Scanner<?, ?> scanner) {
+        return Comparator.<Map.Entry<I, List<String>>, Boolean>comparing(entry -> slowInputs.containsKey(new ScannerInputKey(scanner.id(),
+                        entry.getKey().reference())))
+                .thenComparing(entry -> entry.getKey().reference());
     }
 
     private void addScannerErrorsToComponents(ConcurrentHashMap<String, Component> componentMap, List<String> componentIds, Scanner<?, ?> scanner,
@@ -183,14 +309,16 @@ public class ScanEngine {
     }
 
     private <I extends ObjectWithReference, O> Map.Entry<O, List<String>> executeScanner(I input, List<String> componentIds,
-            ConcurrentHashMap<String, Component> componentMap, Scanner<I, O> scanner) {
-        log.info("Executing scanner {} for \"{}\"", scanner.id(), escapeString(input.reference()));
-        Output<O> output;
-        try {
-            output = scanner.scan(input);
-        } catch (Exception e) {
-            output = Output.of(new ScannerError(
-                    scanner.id(), String.format("Failed to scan \"%s\"", escapeString(input.reference())), throwableToScannerErrorMapper.map(scanner.id(), e)));
+            ConcurrentHashMap<String, Component> componentMap, Scanner<I, O> scanner, ScannerState scannerState, boolean reuseOutputs) {
+        Output<O> output = reuseOutputs ? scannerState.getOutput(input) : null;
+
+        if (isNull(output)) {
+            output = scanInput(input, scanner);
+
+            // Failed outputs are not stored, so that the input is scanned again by the next scan
+            if (nonNull(scannerState) && !output.failed()) {
+                scannerState.putOutput(input, output);
+            }
         }
 
         if (output.failed()) {
@@ -206,4 +334,135 @@ public class ScanEngine {
 
         return nonNull(output.getOutput()) ? Map.entry(output.getOutput(), componentIds) : null;
     }
+
+    private <I extends ObjectWithReference, O> Output<O> scanInput(I input, Scanner<I, O> scanner) {
+        ScannerInputKey key = new ScannerInputKey(scanner.id(), input.reference());
+        SlowInput slowInput = slowInputs.get(key);
+
+        if (nonNull(slowInput) && slowInput.getRemainingSkipCount() > 0) {
+            slowInputs.put(key, slowInput.withRemainingSkipCount(slowInput.getRemainingSkipCount() - 1));
+            log.info("Skipping scanner {} for \"{}\" because its last {} scans timed out", scanner.id(), escapeString(input.reference()),
+                    slowInput.getConsecutiveTimeoutCount());
+            return Output.of(new ScannerError(scanner.id(), String.format("Skipped scanning \"%s\" because its last %d scans timed out",
+                    escapeString(input.reference()), slowInput.getConsecutiveTimeoutCount()), null));
+        }
+
+        log.info("Executing scanner {} for \"{}\"", scanner.id(), escapeString(input.reference()));
+        Duration scanTimeout = getScanTimeout(scanner);
+        try {
+            Output<O> output = isNull(scanTimeout) ? scanner.scan(input) : scanInputWithTimeout(input, scanner, scanTimeout);
+            slowInputs.remove(key);
+            return output;
+        } catch (TimeoutException e) {
+            recordScanTimeout(key);
+            return Output.of(new ScannerError(scanner.id(), String.format("Timed out scanning \"%s\" after %s", escapeString(input.reference()),
+                    scanTimeout), null));
+        } catch (Exception e) {
+            return Output.of(new ScannerError(
+                    scanner.id(), String.format("Failed to scan \"%s\"", escapeString(input.reference())), throwableToScannerErrorMapper.map(scanner.id(), e)));
+        }
+    }
+
+    private <I extends ObjectWithReference, O> Output<O> scanInputWithTimeout(I input, Scanner<I, O> scanner, Duration scanTimeout)
+            throws Exception {
+        Future<Output<O>> future;
+        try {
+            future = scanExecutor.submit(() -> scanner.scan(input));
+        } catch (RejectedExecutionException e) {
+            throw new RejectedExecutionException(String.format("All %d scan threads are busy, most likely with timed out scans that are still "
+                    + "running", MAX_SCAN_THREADS), e);
+        }
+        try {
+            return future.get(scanTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            // Interrupts the scan if it is still running, which is a no-op if it has already finished
+            future.cancel(true);
+        }
+    }
+
+    private Duration getScanTimeout(Scanner<?, ?> scanner) {
+        return Optional.ofNullable(config.getScanTimeouts())
+                .map(scanTimeouts -> scanTimeouts.get(scanner.id()))
+                .orElse(config.getDefaultScanTimeout());
+    }
+
+    private boolean isSkipped(Scanner<?, ?> scanner, ObjectWithReference input) {
+        SlowInput slowInput = slowInputs.get(new ScannerInputKey(scanner.id(), input.reference()));
+        return nonNull(slowInput) && slowInput.getRemainingSkipCount() > 0;
+    }
+
+    private void recordScanTimeout(ScannerInputKey key) {
+        int maxConsecutiveScanTimeouts = Optional.ofNullable(config.getMaxConsecutiveScanTimeouts()).orElse(DEFAULT_MAX_CONSECUTIVE_SCAN_TIMEOUTS);
+        int slowInputSkipCount = Optional.ofNullable(config.getSlowInputSkipCount()).orElse(DEFAULT_SLOW_INPUT_SKIP_COUNT);
+        slowInputs.compute(key, (ignored, slowInput) -> {
+            int consecutiveTimeoutCount = isNull(slowInput) ? 1 : slowInput.getConsecutiveTimeoutCount() + 1;
+            return new SlowInput(consecutiveTimeoutCount, consecutiveTimeoutCount >= maxConsecutiveScanTimeouts ? slowInputSkipCount : 0);
+        });
+    }
+
+    @Value
+    private static class ScannerInputKey {
+
+        String scannerId;
+        String inputReference;
+    }
+
+    /**
+     * An input that has timed out in its most recent scans by a scanner, and the number of scans for which the scanner will skip it
+     */
+    @Value
+    private static class SlowInput {
+
+        int consecutiveTimeoutCount;
+        @With
+        int remainingSkipCount;
+    }
+
+    /**
+     * A scanner's refresh time and the outputs it has produced since then, keyed by input reference.  An output for a codebase is only reused for the
+     * commit it was produced from, so that pushes to a repo are scanned without waiting for the scanner's next refresh
+     */
+    @RequiredArgsConstructor
+    private static class ScannerState {
+
+        @Getter
+        private final Instant refreshTime;
+        private final ConcurrentHashMap<String, StoredOutput> outputs = new ConcurrentHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        public <O> Output<O> getOutput(ObjectWithReference input) {
+            StoredOutput storedOutput = outputs.get(input.reference());
+            return nonNull(storedOutput) && Objects.equals(storedOutput.getCommitId(), getCommitId(input))
+                    ? (Output<O>) storedOutput.getOutput()
+                    : null;
+        }
+
+        public void putOutput(ObjectWithReference input, Output<?> output) {
+            outputs.put(input.reference(), new StoredOutput(getCommitId(input), output));
+        }
+
+        private static String getCommitId(ObjectWithReference input) {
+            if (input instanceof Codebase) {
+                return ((Codebase) input).getCommitId();
+            } else if (input instanceof ComponentAndCodebase) {
+                return ((ComponentAndCodebase) input).getCodebase().getCommitId();
+            }
+            return null;
+        }
+    }
+
+    @Value
+    private static class StoredOutput {
+
+        String commitId;
+        Output<?> output;
+    }
 }
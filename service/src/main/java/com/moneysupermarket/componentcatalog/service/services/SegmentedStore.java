@@ -0,0 +1,575 @@
+package com.moneysupermarket.componentcatalog.service.services;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * An append-only key/value store made up of a directory of segment files.  Each put appends a checksummed record to the active segment and updates an
+ * in-memory index of the latest record for each key, so lookups never have to search the disk.
+ *
+ * When the segment files grow beyond the max size, the store is compacted by copying the live records into new segments and deleting the old ones.
+ * Superseded and expired records are dropped and, if the live records alone are still too large, the oldest records are evicted.  The copying is done
+ * without holding the store's lock, so gets and puts carry on while the store is being compacted.
+ *
+ * When the store is opened, the index is rebuilt by replaying the segments in order.  A segment that ends with a partially written or corrupt record,
+ * for example after a crash, is truncated at the last good record.
+ */
+@Slf4j
+class SegmentedStore implements Closeable {
+
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+    private static final String SEGMENT_FILE_NAME_PREFIX = "segment-";
+    private static final String SEGMENT_FILE_NAME_SUFFIX = ".dat";
+    private static final int RECORD_MAGIC = 0x4B565331;
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Byte.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int RECORD_CHECKSUM_SIZE = Integer.BYTES;
+    private static final byte COMPRESSED_FLAG = 1;
+    private static final int MAX_KEY_LENGTH = 64 * 1024;
+    /**
+     * Compaction reduces the store to this fraction of the max size, so that it is not compacted again by the next few puts
+     */
+    private static final double COMPACTION_TARGET_RATIO = 0.75;
+
+    private final Path dir;
+    private final long maxSegmentSize;
+    private final long maxSize;
+    private final boolean compress;
+    private final Clock clock;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, RecordLocation> index = new HashMap<>();
+    private final NavigableMap<Integer, Segment> segments = new TreeMap<>();
+    private long totalSize;
+    private boolean compacting;
+
+    SegmentedStore(Path dir, long maxSegmentSize, long maxSize, boolean compress, Clock clock) throws IOException {
+        this.dir = dir;
+        this.maxSegmentSize = maxSegmentSize;
+        this.maxSize = maxSize;
+        this.compress = compress;
+        this.clock = clock;
+        Files.createDirectories(dir);
+        recover();
+    }
+
+    static boolean isSegmentFile(Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.startsWith(SEGMENT_FILE_NAME_PREFIX) && fileName.endsWith(SEGMENT_FILE_NAME_SUFFIX);
+    }
+
+    public Optional<StoredValue> get(String key) {
+        lock.readLock().lock();
+        try {
+            RecordLocation location = index.get(key);
+
+            if (isNull(location) || isExpired(location.getExpiryTime())) {
+                return Optional.empty();
+            }
+
+            Record record = readRecord(segments.get(location.getSegmentId()), location.getOffset());
+
+            if (isNull(record) || !record.getKey().equals(key)) {
+                log.warn("Record for key \"{}\" in store \"{}\" is corrupt", escapeString(key), escapeString(dir.toString()));
+                return Optional.empty();
+            }
+
+            return Optional.of(new StoredValue(record.getValue(), record.getExpiryTime()));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(String key, String value, long expiryTime) {
+        put(key, value, expiryTime, false);
+    }
+
+    /**
+     * Only stores the value if the store has no unexpired value for the key, checking and storing atomically
+     *
+     * @return whether the value was stored
+     */
+    public boolean putIfAbsent(String key, String value, long expiryTime) {
+        return put(key, value, expiryTime, true);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long totalSize() {
+        lock.readLock().lock();
+        try {
+            return totalSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.getChannel().close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean put(String key, String value, long expiryTime, boolean onlyIfAbsent) {
+        ByteBuffer record = encodeRecord(key, value, expiryTime);
+        Compaction compaction = null;
+
+        lock.writeLock().lock();
+        try {
+            if (onlyIfAbsent) {
+                RecordLocation location = index.get(key);
+
+                if (nonNull(location) && !isExpired(location.getExpiryTime())) {
+                    return false;
+                }
+            }
+
+            append(record, key, expiryTime);
+
+            if (totalSize > maxSize && !compacting) {
+                compaction = startCompaction();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (nonNull(compaction)) {
+            compact(compaction);
+        }
+
+        return true;
+    }
+
+    private void recover() throws IOException {
+        List<Path> segmentFiles;
+        try (Stream<Path> files = Files.list(dir)) {
+            segmentFiles = files.filter(SegmentedStore::isSegmentFile)
+                    .sorted(Comparator.comparingInt(SegmentedStore::getSegmentId))
+                    .collect(Collectors.toList());
+        }
+
+        for (Path segmentFile : segmentFiles) {
+            Segment segment = openSegment(getSegmentId(segmentFile));
+            long offset = 0;
+            long segmentFileSize = segment.getChannel().size();
+
+            while (offset < segmentFileSize) {
+                Record record = readRecord(segment, offset);
+
+                if (isNull(record)) {
+                    log.warn("Truncating segment file \"{}\" at offset {} because it ends with a partially written or corrupt record",
+                            escapeString(segmentFile.toString()), offset);
+                    segment.getChannel().truncate(offset);
+                    break;
+                }
+
+                index.remove(record.getKey());
+                if (!isExpired(record.getExpiryTime())) {
+                    index.put(record.getKey(), new RecordLocation(segment.getId(), offset, record.getSize(), record.getExpiryTime()));
+                }
+                offset += record.getSize();
+            }
+
+            segment.setSize(offset);
+            totalSize += offset;
+        }
+
+        log.info("Opened store \"{}\" with {} entries in {} segments", escapeString(dir.toString()), index.size(), segments.size());
+    }
+
+    private void append(ByteBuffer record, String key, long expiryTime) throws IOException {
+        Segment segment = getActiveSegment(record.remaining());
+        long offset = segment.getSize();
+        int recordSize = record.remaining();
+        writeFully(segment.getChannel(), record, offset);
+        segment.setSize(offset + recordSize);
+        totalSize += recordSize;
+        index.put(key, new RecordLocation(segment.getId(), offset, recordSize, expiryTime));
+    }
+
+    private Segment getActiveSegment(int recordSize) throws IOException {
+        Map.Entry<Integer, Segment> lastEntry = segments.lastEntry();
+
+        if (nonNull(lastEntry) && (lastEntry.getValue().getSize() == 0 || lastEntry.getValue().getSize() + recordSize <= maxSegmentSize)) {
+            return lastEntry.getValue();
+        }
+
+        return openSegment(isNull(lastEntry) ? 1 : lastEntry.getKey() + 1);
+    }
+
+    /**
+     * Takes a snapshot of the index and moves puts to a new active segment, so that the old segments are no longer written to while they are copied.
+     *
+     * <p>The copied records are written to a range of segment ids that is reserved between the old segments and the new active segment.  If the store
+     * is reopened after the compaction was interrupted, replaying the segments in order still results in the latest record for each key winning.  With
+     * each segment filled until the next record does not fit, any two neighbouring segments hold more than the max segment size, so the copied records
+     * never need more than {@code 2 * ceil(copied bytes / max segment size) + 1} segments.</p>
+     */
+    private Compaction startCompaction() throws IOException {
+        Map<Integer, Segment> oldSegments = new HashMap<>(segments);
+        List<Map.Entry<String, RecordLocation>> liveEntries = new ArrayList<>();
+        List<Map.Entry<String, RecordLocation>> droppedEntries = new ArrayList<>();
+        index.forEach((key, location) -> (isExpired(location.getExpiryTime()) ? droppedEntries : liveEntries).add(Map.entry(key, location)));
+        liveEntries.sort(Map.Entry.comparingByValue(Comparator.comparingInt(RecordLocation::getSegmentId).thenComparingLong(RecordLocation::getOffset)));
+        long liveSize = liveEntries.stream().mapToLong(entry -> entry.getValue().getSize()).sum();
+        long bytesToEvict = Math.max(0, liveSize - (long) (maxSize * COMPACTION_TARGET_RATIO));
+        log.info("Compacting store \"{}\" from {} bytes, with {} bytes of live records and {} bytes to evict", escapeString(dir.toString()), totalSize,
+                liveSize, bytesToEvict);
+
+        List<Map.Entry<String, RecordLocation>> copiedEntries = new ArrayList<>();
+        long copiedSize = 0;
+
+        for (Map.Entry<String, RecordLocation> entry : liveEntries) {
+            if (bytesToEvict > 0) {
+                bytesToEvict -= entry.getValue().getSize();
+                droppedEntries.add(entry);
+            } else {
+                copiedEntries.add(entry);
+                copiedSize += entry.getValue().getSize();
+            }
+        }
+
+        int firstCompactedSegmentId = segments.lastKey() + 1;
+        int reservedSegmentCount = (int) (2 * ((copiedSize + maxSegmentSize - 1) / maxSegmentSize) + 1);
+        openSegment(firstCompactedSegmentId + reservedSegmentCount);
+        compacting = true;
+        return new Compaction(oldSegments, copiedEntries, droppedEntries, firstCompactedSegmentId, firstCompactedSegmentId + reservedSegmentCount);
+    }
+
+    /**
+     * Copies the live records into the new segments without holding the lock, and then swaps the new segments in.  The index is only updated once all
+     * the records have been copied, so if the copying fails, the store carries on using the old segments and the new segments are deleted.  A key
+     * that has been put again while the store was being compacted keeps its new record.
+     */
+    private void compact(Compaction compaction) {
+        NavigableMap<Integer, Segment> newSegments = new TreeMap<>();
+        Map<String, RecordLocation> newLocations = new HashMap<>();
+
+        try {
+            for (Map.Entry<String, RecordLocation> entry : compaction.getCopiedEntries()) {
+                RecordLocation location = entry.getValue();
+                ByteBuffer record = ByteBuffer.allocate(location.getSize());
+                readFully(compaction.getOldSegments().get(location.getSegmentId()).getChannel(), record, location.getOffset());
+                record.flip();
+                Segment segment = getCompactedSegment(compaction, newSegments, location.getSize());
+                long offset = segment.getSize();
+                writeFully(segment.getChannel(), record, offset);
+                segment.setSize(offset + location.getSize());
+                newLocations.put(entry.getKey(), new RecordLocation(segment.getId(), offset, location.getSize(), location.getExpiryTime()));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to compact store \"{}\", so it will carry on using its current segments", escapeString(dir.toString()), e);
+            newSegments.values().forEach(this::deleteSegment);
+            lock.writeLock().lock();
+            try {
+                compacting = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            compaction.getCopiedEntries().forEach(entry -> index.replace(entry.getKey(), entry.getValue(), newLocations.get(entry.getKey())));
+            compaction.getDroppedEntries().forEach(entry -> index.remove(entry.getKey(), entry.getValue()));
+            newSegments.values().forEach(segment -> {
+                segments.put(segment.getId(), segment);
+                totalSize += segment.getSize();
+            });
+            compaction.getOldSegments().keySet().forEach(segmentId -> {
+                Segment segment = segments.remove(segmentId);
+                totalSize -= segment.getSize();
+                deleteSegment(segment);
+            });
+            compacting = false;
+            log.info("Compacted store \"{}\" to {} bytes", escapeString(dir.toString()), totalSize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Segment getCompactedSegment(Compaction compaction, NavigableMap<Integer, Segment> newSegments, int recordSize) throws IOException {
+        Map.Entry<Integer, Segment> lastEntry = newSegments.lastEntry();
+
+        if (nonNull(lastEntry) && (lastEntry.getValue().getSize() == 0 || lastEntry.getValue().getSize() + recordSize <= maxSegmentSize)) {
+            return lastEntry.getValue();
+        }
+
+        int id = isNull(lastEntry) ? compaction.getFirstSegmentId() : lastEntry.getKey() + 1;
+
+        if (id >= compaction.getEndSegmentId()) {
+            throw new IOException("Compacted records do not fit in the reserved segment ids");
+        }
+
+        Segment segment = createSegment(id);
+        newSegments.put(id, segment);
+        return segment;
+    }
+
+    private void deleteSegment(Segment segment) {
+        try {
+            segment.getChannel().close();
+            Files.deleteIfExists(segment.getFile());
+        } catch (IOException e) {
+            log.warn("Failed to delete segment file \"{}\"", escapeString(segment.getFile().toString()), e);
+        }
+    }
+
+    private Segment openSegment(int id) throws IOException {
+        Segment segment = createSegment(id);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private Segment createSegment(int id) throws IOException {
+        Path file = dir.resolve(String.format("%s%010d%s", SEGMENT_FILE_NAME_PREFIX, id, SEGMENT_FILE_NAME_SUFFIX));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(id, file, channel);
+    }
+
+    private static int getSegmentId(Path file) {
+        String fileName = file.getFileName().toString();
+        return Integer.parseInt(fileName.substring(SEGMENT_FILE_NAME_PREFIX.length(), fileName.length() - SEGMENT_FILE_NAME_SUFFIX.length()));
+    }
+
+    private boolean isExpired(long expiryTime) {
+        return expiryTime <= clock.millis();
+    }
+
+    private ByteBuffer encodeRecord(String key, String value, long expiryTime) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        boolean compressed = false;
+
+        if (keyBytes.length > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(String.format("Key \"%s\" is longer than %d bytes", escapeString(key), MAX_KEY_LENGTH));
+        }
+
+        if (compress) {
+            byte[] compressedValueBytes = deflate(valueBytes);
+
+            if (compressedValueBytes.length < valueBytes.length) {
+                valueBytes = compressedValueBytes;
+                compressed = true;
+            }
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + keyBytes.length + valueBytes.length + RECORD_CHECKSUM_SIZE);
+        record.putInt(RECORD_MAGIC)
+                .put(compressed ? COMPRESSED_FLAG : 0)
+                .putLong(expiryTime)
+                .putInt(keyBytes.length)
+                .putInt(valueBytes.length)
+                .put(keyBytes)
+                .put(valueBytes);
+        record.putInt(checksum(record.array(), record.position()));
+        record.flip();
+        return record;
+    }
+
+    /**
+     * Returns null if there is no complete and valid record at the offset
+     */
+    private Record readRecord(Segment segment, long offset) throws IOException {
+        FileChannel channel = segment.getChannel();
+        long remaining = channel.size() - offset;
+
+        if (remaining < RECORD_HEADER_SIZE) {
+            return null;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        readFully(channel, header, offset);
+        header.flip();
+        int magic = header.getInt();
+        byte flags = header.get();
+        long expiryTime = header.getLong();
+        int keyLength = header.getInt();
+        int valueLength = header.getInt();
+
+        if (magic != RECORD_MAGIC || keyLength < 0 || keyLength > MAX_KEY_LENGTH || valueLength < 0
+                || (long) RECORD_HEADER_SIZE + keyLength + valueLength + RECORD_CHECKSUM_SIZE > remaining) {
+            return null;
+        }
+
+        int recordSize = RECORD_HEADER_SIZE + keyLength + valueLength + RECORD_CHECKSUM_SIZE;
+        ByteBuffer record = ByteBuffer.allocate(recordSize);
+        readFully(channel, record, offset);
+
+        if (checksum(record.array(), recordSize - RECORD_CHECKSUM_SIZE) != record.getInt(recordSize - RECORD_CHECKSUM_SIZE)) {
+            return null;
+        }
+
+        String key = new String(record.array(), RECORD_HEADER_SIZE, keyLength, StandardCharsets.UTF_8);
+        byte[] valueBytes = new byte[valueLength];
+        System.arraycopy(record.array(), RECORD_HEADER_SIZE + keyLength, valueBytes, 0, valueLength);
+
+        if ((flags & COMPRESSED_FLAG) != 0) {
+            valueBytes = inflate(valueBytes);
+
+            if (isNull(valueBytes)) {
+                return null;
+            }
+        }
+
+        return new Record(key, new String(valueBytes, StandardCharsets.UTF_8), expiryTime, recordSize);
+    }
+
+    private static int checksum(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                outputStream.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return outputStream.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    return null;
+                }
+                outputStream.write(buffer, 0, count);
+            }
+            return outputStream.toByteArray();
+        } catch (DataFormatException e) {
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, position);
+            if (count < 0) {
+                throw new IOException("Unexpected end of segment file");
+            }
+            position += count;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    @Value
+    public static class StoredValue {
+
+        String value;
+        long expiryTime;
+    }
+
+    @Value
+    private static class RecordLocation {
+
+        int segmentId;
+        long offset;
+        int size;
+        long expiryTime;
+    }
+
+    @Value
+    private static class Compaction {
+
+        Map<Integer, Segment> oldSegments;
+        List<Map.Entry<String, RecordLocation>> copiedEntries;
+        List<Map.Entry<String, RecordLocation>> droppedEntries;
+        int firstSegmentId;
+        /**
+         * The id of the active segment that puts are appended to while the store is being compacted
+         */
+        int endSegmentId;
+    }
+
+    @Value
+    private static class Record {
+
+        String key;
+        String value;
+        long expiryTime;
+        int size;
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    private static class Segment {
+
+        private final int id;
+        private final Path file;
+        private final FileChannel channel;
+        @Setter
+        private long size;
+    }
+}
@@ -6,55 +6,122 @@ import com.moneysupermarket.componentcatalog.sdk.models.TestResult;
 import com.moneysupermarket.componentcatalog.service.tests.ComponentTest;
 import com.moneysupermarket.componentcatalog.service.tests.models.TestContext;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.moneysupermarket.componentcatalog.common.utils.StringEscapeUtils.escapeString;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
+/**
+ * Runs the component tests against the components.  The components are tested in parallel, as the tests for one component do not depend on the
+ * results of the tests for another.  The test results are only put into the component map once all the components have been tested, so the map does
+ * not change while the tests read it through the test context.
+ *
+ * The result of each test that declares the component fields it reads is remembered along with the values of those fields, and is reused while the
+ * values are unchanged, so that the tests only run again for the components whose relevant fields have changed.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TestEngine {
 
     private final TestFinder testFinder;
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, MemoizedTestResult>> memoizedTestResults = new ConcurrentHashMap<>();
 
     public void test(ConcurrentHashMap<String, Component> componentMap) {
+        test(componentMap, componentMap.keySet());
+        memoizedTestResults.values().forEach(componentTestResults -> componentTestResults.keySet().retainAll(componentMap.keySet()));
+    }
+
+    /**
+     * Tests only the components with the given ids.  All the components in the map are still available to the tests via the test context.
+     *
+     * @param componentMap  a map with component ids as the keys and their components as the values
+     * @param componentIds  the ids of the components to test
+     */
+    public void test(ConcurrentHashMap<String, Component> componentMap, Collection<String> componentIds) {
         TestContext testContext = new TestContext(componentMap);
         List<ComponentTest> componentTests = testFinder.getComponentTests();
-        log.info("Executing {} component tests for {} components", componentTests.size(), componentMap.size());
-        testContext.getComponentMap().values().forEach(executeTests(componentMap, testContext, componentTests));
+        log.info("Executing {} component tests for {} components", componentTests.size(), componentIds.size());
+        List<Component> components = componentIds.stream()
+                .map(componentMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Flux.fromIterable(components)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .map(executeTests(testContext, componentTests))
+                .sequential()
+                .collectList()
+                .block()
+                .forEach(component -> componentMap.put(component.getId(), component));
     }
 
-    private Consumer<Component> executeTests(ConcurrentHashMap<String, Component> componentMap, TestContext testContext, List<ComponentTest> tests) {
+    private Function<Component, Component> executeTests(TestContext testContext, List<ComponentTest> tests) {
         return component -> {
             List<TestResult> results = tests.stream()
-                    .map(executeTest(component, testContext))
+                    .map(test -> executeTest(test, component, testContext))
                     .collect(Collectors.toList());
-            componentMap.put(component.getId(), component.withTestResults(results));
+            return component.withTestResults(results);
         };
     }
 
-    private Function<ComponentTest, TestResult> executeTest(Component component, TestContext testContext) {
-        return test -> {
-            log.info("Executing test {} for \"{}\"", test.id(), escapeString(component.reference()));
-            try {
-                return test.test(component, testContext);
-            } catch (Exception e) {
-                log.error("Failed to execute test {} for \"{}\"", test.id(), escapeString(component.reference()), e);
-                return new TestResult(test.id(), TestOutcome.FAIL, test.priority(), String.format(
-                        "Test generated an error:\n"
-                                + "\n"
-                                + "```\n"
-                                + "%s\n"
-                                + "```\n",
-                        e.getMessage()));
+    private TestResult executeTest(ComponentTest test, Component component, TestContext testContext) {
+        List<Function<Component, ?>> inputFields = test.inputFields();
+        List<Object> inputFieldValues = null;
+        ConcurrentHashMap<String, MemoizedTestResult> componentTestResults = null;
+
+        if (nonNull(inputFields)) {
+            // The values themselves are compared rather than hashes of them, so a hash collision cannot cause a stale result to be reused
+            inputFieldValues = inputFields.stream()
+                    .map(inputField -> inputField.apply(component))
+                    .collect(Collectors.toList());
+            componentTestResults = memoizedTestResults.computeIfAbsent(test.id(), ignored -> new ConcurrentHashMap<>());
+            MemoizedTestResult memoizedTestResult = componentTestResults.get(component.getId());
+
+            if (nonNull(memoizedTestResult) && memoizedTestResult.getInputFieldValues().equals(inputFieldValues)) {
+                log.debug("Reusing result of test {} for \"{}\"", test.id(), escapeString(component.reference()));
+                return memoizedTestResult.getTestResult();
             }
-        };
+        }
+
+        log.info("Executing test {} for \"{}\"", test.id(), escapeString(component.reference()));
+        try {
+            TestResult testResult = test.test(component, testContext);
+
+            // Results of tests that fail with an error are not memoized, so that the test runs again next time
+            if (nonNull(componentTestResults)) {
+                componentTestResults.put(component.getId(), new MemoizedTestResult(inputFieldValues, testResult));
+            }
+
+            return testResult;
+        } catch (Exception e) {
+            log.error("Failed to execute test {} for \"{}\"", test.id(), escapeString(component.reference()), e);
+            return new TestResult(test.id(), TestOutcome.FAIL, test.priority(), String.format(
+                    "Test generated an error:\n"
+                            + "\n"
+                            + "```\n"
+                            + "%s\n"
+                            + "```\n",
+                    e.getMessage()));
+        }
+    }
+
+    @Value
+    private static class MemoizedTestResult {
+
+        List<Object> inputFieldValues;
+        TestResult testResult;
     }
 }
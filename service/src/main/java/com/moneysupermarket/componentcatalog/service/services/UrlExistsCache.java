@@ -6,13 +6,16 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Clock;
 import java.util.Optional;
 
+import static java.util.Objects.nonNull;
+
 @Service
 public class UrlExistsCache extends BaseFileCache {
 
-    public UrlExistsCache(FileUtils fileUtils, UrlExistsCacheConfig config) throws IOException {
-        super(fileUtils, Path.of(config.getDir()));
+    public UrlExistsCache(FileUtils fileUtils, UrlExistsCacheConfig config, Clock clock) throws IOException {
+        super(fileUtils, Path.of(config.getDir()), createOptions(config, clock));
     }
 
     public Optional<Boolean> getExists(String url) {
@@ -23,4 +26,17 @@ public class UrlExistsCache extends BaseFileCache {
     public void putExists(String url, boolean exists) {
         putFileContent(url, Boolean.toString(exists));
     }
+
+    private static Options createOptions(UrlExistsCacheConfig config, Clock clock) {
+        Options.OptionsBuilder builder = Options.builder()
+                .clock(clock)
+                .ttlGetter(content -> Boolean.parseBoolean(content) ? null : config.getNegativeEntryTtl());
+        if (nonNull(config.getMaxHotEntryCount())) {
+            builder.maxHotEntryCount(config.getMaxHotEntryCount());
+        }
+        if (nonNull(config.getMaxSize())) {
+            builder.maxSize(config.getMaxSize().toBytes());
+        }
+        return builder.build();
+    }
 }
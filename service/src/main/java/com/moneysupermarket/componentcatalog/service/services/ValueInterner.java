@@ -0,0 +1,202 @@
+package com.moneysupermarket.componentcatalog.service.services;
+
+import com.moneysupermarket.componentcatalog.sdk.models.Import;
+import com.moneysupermarket.componentcatalog.sdk.models.Software;
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Makes equal software, import and software repository values share a single instance, along with the strings inside them.  The same values are
+ * found in hundreds of components, and without interning each component holds its own copies of them for as long as the components are published.
+ *
+ * Values are interned into a pool that is replaced at the start of each refresh, so values that are no longer found are not held on to for longer than
+ * a refresh.  When a refresh finishes, a report of how many values were interned and an estimate of the memory saved is logged and published as
+ * metrics, tagged with the type of value.  The estimates assume compressed object pointers and Latin-1 strings.
+ */
+@Service
+@Slf4j
+public class ValueInterner {
+
+    private static final int OBJECT_HEADER_BYTES = 12;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int STRING_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final String TYPE_TAG = "type";
+    private static final ValueType<Software> SOFTWARE = new ValueType<>("software", 8,
+            value -> Arrays.asList(value.getScannerId(), value.getName(), value.getVersion(), value.getVersionSelector(), value.getPackaging()),
+            (value, stringInterner) -> value.withName(stringInterner.apply(value.getName()))
+                    .withVersion(stringInterner.apply(value.getVersion()))
+                    .withVersionSelector(stringInterner.apply(value.getVersionSelector())));
+    private static final ValueType<Import> IMPORT = new ValueType<>("import", 3,
+            value -> Arrays.asList(value.getScannerId(), value.getName()),
+            (value, stringInterner) -> value.withName(stringInterner.apply(value.getName())));
+    private static final ValueType<SoftwareRepository> SOFTWARE_REPOSITORY = new ValueType<>("software-repository", 5,
+            value -> Arrays.asList(value.getScannerId(), value.getUrl()),
+            (value, stringInterner) -> value.withUrl(stringInterner.apply(value.getUrl())));
+    private static final List<ValueType<?>> VALUE_TYPES = List.of(SOFTWARE, IMPORT, SOFTWARE_REPOSITORY);
+
+    private volatile Pool pool = new Pool();
+    private volatile Pool lastFinishedPool = new Pool();
+
+    public ValueInterner(MeterRegistry meterRegistry) {
+        VALUE_TYPES.forEach(valueType -> {
+            registerGauge(meterRegistry, "value.interner.values", "The number of distinct values interned during the last refresh", null,
+                    valueType, stats -> stats.getDistinctCount().sum());
+            registerGauge(meterRegistry, "value.interner.duplicates", "The number of duplicate values replaced during the last refresh", null,
+                    valueType, stats -> stats.getDuplicateCount().sum());
+            registerGauge(meterRegistry, "value.interner.saved", "An estimate of the memory saved by interning during the last refresh", "bytes",
+                    valueType, stats -> stats.getSavedBytes().sum());
+        });
+    }
+
+    /**
+     * Replaces the pool, so that values interned from now on do not share instances with values interned before
+     */
+    public void startNewPool() {
+        pool = new Pool();
+    }
+
+    /**
+     * Logs and publishes a report of the values interned into the current pool.  Values can still be interned into the pool afterwards, for example
+     * by rescans that run between refreshes.
+     */
+    public void finishPool() {
+        Pool finishedPool = pool;
+        lastFinishedPool = finishedPool;
+        VALUE_TYPES.forEach(valueType -> {
+            ValueTypeStats stats = finishedPool.getStats(valueType);
+            log.info("Interned {} {} values into {} instances, saving an estimated {} bytes", stats.getDistinctCount().sum()
+                    + stats.getDuplicateCount().sum(), valueType.getName(), stats.getDistinctCount().sum(), stats.getSavedBytes().sum());
+        });
+    }
+
+    public Software intern(Software software) {
+        return intern(SOFTWARE, software);
+    }
+
+    public Import intern(Import value) {
+        return intern(IMPORT, value);
+    }
+
+    public SoftwareRepository intern(SoftwareRepository softwareRepository) {
+        return intern(SOFTWARE_REPOSITORY, softwareRepository);
+    }
+
+    /**
+     * A value that is already the pool's instance is returned as is and is not counted as a duplicate, so values can safely be interned more than once
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T intern(ValueType<T> valueType, T value) {
+        if (isNull(value)) {
+            return null;
+        }
+
+        Pool currentPool = pool;
+        ValueTypeStats stats = currentPool.getStats(valueType);
+        T internedValue = (T) currentPool.getValues().get(value);
+
+        if (isNull(internedValue)) {
+            T newValue = valueType.getStringInterner().apply(value, string -> internString(currentPool, string));
+            internedValue = (T) currentPool.getValues().putIfAbsent(newValue, newValue);
+
+            if (isNull(internedValue)) {
+                stats.getDistinctCount().increment();
+                return newValue;
+            }
+        }
+
+        if (internedValue != value) {
+            stats.getDuplicateCount().increment();
+            stats.getSavedBytes().add(estimateSavedBytes(valueType, value, internedValue));
+        }
+
+        return internedValue;
+    }
+
+    private String internString(Pool currentPool, String string) {
+        if (isNull(string)) {
+            return null;
+        }
+
+        String internedString = currentPool.getStrings().putIfAbsent(string, string);
+        return isNull(internedString) ? string : internedString;
+    }
+
+    /**
+     * Strings that the duplicate already shares with the interned value, like scanner ids, are not counted as saved
+     */
+    private <T> long estimateSavedBytes(ValueType<T> valueType, T duplicate, T internedValue) {
+        long savedBytes = align(OBJECT_HEADER_BYTES + (long) valueType.getFieldCount() * REFERENCE_BYTES);
+        List<String> duplicateStrings = valueType.getStringGetter().apply(duplicate);
+        List<String> internedStrings = valueType.getStringGetter().apply(internedValue);
+
+        for (int index = 0; index < duplicateStrings.size(); index++) {
+            String string = duplicateStrings.get(index);
+
+            if (nonNull(string) && string != internedStrings.get(index)) {
+                savedBytes += STRING_BYTES + align(ARRAY_HEADER_BYTES + string.length());
+            }
+        }
+
+        return savedBytes;
+    }
+
+    private long align(long bytes) {
+        return (bytes + 7) & ~7;
+    }
+
+    private void registerGauge(MeterRegistry meterRegistry, String name, String description, String baseUnit, ValueType<?> valueType,
+            ToLongFunction<ValueTypeStats> valueGetter) {
+        Gauge.builder(name, this, interner -> valueGetter.applyAsLong(interner.lastFinishedPool.getStats(valueType)))
+                .description(description)
+                .tag(TYPE_TAG, valueType.getName())
+                .baseUnit(baseUnit)
+                .register(meterRegistry);
+    }
+
+    @Value
+    private static class ValueType<T> {
+
+        String name;
+        int fieldCount;
+        Function<T, List<String>> stringGetter;
+        BiFunction<T, UnaryOperator<String>, T> stringInterner;
+    }
+
+    @Value
+    private static class ValueTypeStats {
+
+        LongAdder distinctCount = new LongAdder();
+        LongAdder duplicateCount = new LongAdder();
+        LongAdder savedBytes = new LongAdder();
+    }
+
+    @Value
+    private static class Pool {
+
+        Map<Object, Object> values = new ConcurrentHashMap<>();
+        Map<String, String> strings = new ConcurrentHashMap<>();
+        Map<ValueType<?>, ValueTypeStats> statsByValueType = new ConcurrentHashMap<>();
+
+        public ValueTypeStats getStats(ValueType<?> valueType) {
+            return statsByValueType.computeIfAbsent(valueType, ignored -> new ValueTypeStats());
+        }
+    }
+}
@@ -6,6 +6,9 @@ import com.moneysupermarket.componentcatalog.sdk.models.TestOutcome;
 import com.moneysupermarket.componentcatalog.sdk.models.TestResult;
 import com.moneysupermarket.componentcatalog.service.tests.models.TestContext;
 
+import java.util.List;
+import java.util.function.Function;
+
 import static com.moneysupermarket.componentcatalog.common.utils.CaseUtils.toKebabCase;
 
 public abstract class Test<I extends ObjectWithReference> {
@@ -22,6 +25,15 @@ public abstract class Test<I extends ObjectWithReference> {
 
     public abstract Priority priority();
 
+    /**
+     * The fields of the input that the test reads.  When none of their values have changed since the input was last tested, the test engine reuses the
+     * previous result instead of testing the input again.  Tests whose results also depend on other inputs, the current time or anything else that can
+     * change return null, which is the default, so that they are always run.
+     */
+    public List<Function<I, ?>> inputFields() {
+        return null;
+    }
+
     public abstract TestResult test(I input, TestContext testContext);
 
     private TestResult createTestResult(TestOutcome outcome, String message) {
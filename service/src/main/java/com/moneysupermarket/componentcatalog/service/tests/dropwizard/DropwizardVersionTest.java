@@ -5,29 +5,33 @@ import com.moneysupermarket.componentcatalog.sdk.models.KeySoftware;
 import com.moneysupermarket.componentcatalog.sdk.models.Priority;
 import com.moneysupermarket.componentcatalog.sdk.models.TestOutcome;
 import com.moneysupermarket.componentcatalog.sdk.models.TestResult;
+import com.moneysupermarket.componentcatalog.service.services.CachingVersionParser;
 import com.moneysupermarket.componentcatalog.service.spring.stereotypes.Test;
 import com.moneysupermarket.componentcatalog.service.tests.ComponentTest;
 import com.moneysupermarket.componentcatalog.service.tests.models.TestContext;
-import lombok.RequiredArgsConstructor;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.Version;
-import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
 
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Test
-@RequiredArgsConstructor
 public class DropwizardVersionTest extends ComponentTest {
 
     private static final Object DROPWIZARD_NAME = "dropwizard";
-    private final VersionParser versionParser = new VersionParser();
+    private final CachingVersionParser versionParser;
     private final Comparator<Version> versionComparator = new DefaultVersionComparator().asVersionComparator();
-    private final Version minimumVersion = versionParser.transform("2.0.0");
+    private final Version minimumVersion;
+
+    public DropwizardVersionTest(CachingVersionParser versionParser) {
+        this.versionParser = versionParser;
+        this.minimumVersion = versionParser.transform("2.0.0");
+    }
 
     @Override
     public String description() {
@@ -39,6 +43,11 @@ public class DropwizardVersionTest extends ComponentTest {
         return Priority.HIGH;
     }
 
+    @Override
+    public List<Function<Component, ?>> inputFields() {
+        return List.of(Component::getKeySoftware);
+    }
+
     @Override
     public TestResult test(Component input, TestContext testContext) {
         List<KeySoftware> keySoftware = input.getKeySoftware();
@@ -4,9 +4,10 @@ import com.moneysupermarket.componentcatalog.sdk.models.Component;
 import lombok.Builder;
 import lombok.Value;
 
+import java.util.Collections;
 import java.util.Map;
 
-import static com.moneysupermarket.componentcatalog.sdk.utils.MapUtils.createUnmodifiableMap;
+import static java.util.Objects.nonNull;
 
 @Value
 @Builder(toBuilder = true)
@@ -14,7 +15,11 @@ public class TestContext {
 
     Map<String, Component> componentMap;
 
+    /**
+     * The component map is wrapped rather than copied, as copying every component for each test run is expensive.  The caller must not change the map
+     * while the test context is in use.
+     */
     public TestContext(Map<String, Component> componentMap) {
-        this.componentMap = createUnmodifiableMap(componentMap);
+        this.componentMap = nonNull(componentMap) ? Collections.unmodifiableMap(componentMap) : Map.of();
     }
 }
@@ -8,6 +8,9 @@ import com.moneysupermarket.componentcatalog.service.spring.stereotypes.Test;
 import com.moneysupermarket.componentcatalog.service.tests.ComponentTest;
 import com.moneysupermarket.componentcatalog.service.tests.models.TestContext;
 
+import java.util.List;
+import java.util.function.Function;
+
 import static java.util.Objects.isNull;
 
 @Test
@@ -23,6 +26,11 @@ public class ReadmeTest extends ComponentTest {
         return Priority.HIGH;
     }
 
+    @Override
+    public List<Function<Component, ?>> inputFields() {
+        return List.of(Component::getReadme);
+    }
+
     @Override
     public TestResult test(Component input, TestContext testContext) {
         Readme readme = input.getReadme();
@@ -10,6 +10,7 @@ import lombok.Value;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.isNull;
@@ -31,6 +32,11 @@ public class SonarQubeCodeCoverageTest extends BaseSonarQubeTest {
         return Priority.VERY_HIGH;
     }
 
+    @Override
+    public List<Function<Component, ?>> inputFields() {
+        return List.of(Component::getSonarQubeProjects);
+    }
+
     @Override
     protected boolean ignoreNoProjects() {
         return true;
@@ -10,6 +10,7 @@ import com.moneysupermarket.componentcatalog.service.tests.models.TestContext;
 import lombok.RequiredArgsConstructor;
 
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.isNull;
@@ -31,6 +32,11 @@ public class SonarQubeTest extends BaseSonarQubeTest {
         return Priority.HIGH;
     }
 
+    @Override
+    public List<Function<Component, ?>> inputFields() {
+        return List.of(Component::getTypeId, Component::getSonarQubeProjects);
+    }
+
     @Override
     protected boolean ignoreNoProjects() {
         return false;
@@ -10,7 +10,9 @@ import com.moneysupermarket.componentcatalog.service.tests.ComponentTest;
 import com.moneysupermarket.componentcatalog.service.tests.models.TestContext;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static java.util.Objects.isNull;
 
@@ -31,6 +33,11 @@ public class ZipkinTest extends ComponentTest {
         return Priority.HIGH;
     }
 
+    @Override
+    public List<Function<Component, ?>> inputFields() {
+        return List.of(Component::getTypeId, Component::getZipkin);
+    }
+
     @Override
     public TestResult test(Component input, TestContext testContext) {
         if (componentTypeIdNotExpectedToUseZipkin(input.getTypeId())) {
@@ -0,0 +1,73 @@
+package com.moneysupermarket.componentcatalog.service.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.BitbucketServerWebhookHandler;
+import com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.BitbucketServerWebhookSignatureVerifier;
+import com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.InvalidWebhookSignatureException;
+import com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.models.api.RepoEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class BitbucketServerWebhookControllerTest {
+
+    private static final byte[] BODY = "{\"eventKey\":\"repo:refs_changed\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private BitbucketServerWebhookSignatureVerifier mockSignatureVerifier;
+    @Mock
+    private BitbucketServerWebhookHandler mockWebhookHandler;
+    private BitbucketServerWebhookController underTest;
+
+    @BeforeEach
+    public void beforeEach() {
+        underTest = new BitbucketServerWebhookController(mockSignatureVerifier, mockWebhookHandler, new ObjectMapper());
+    }
+
+    @Test
+    public void handleEventShouldPassTheEventToTheWebhookHandler() {
+        // When
+        underTest.handleEvent("sha256=test-signature", BODY);
+
+        // Then
+        verify(mockSignatureVerifier).verifySignature("sha256=test-signature", BODY);
+        verify(mockWebhookHandler).handleEvent(new RepoEvent("repo:refs_changed", null));
+    }
+
+    @Test
+    public void handleEventShouldNotPassTheEventToTheWebhookHandlerWhenTheSignatureIsInvalid() {
+        // Given
+        doThrow(new InvalidWebhookSignatureException("test-reason")).when(mockSignatureVerifier).verifySignature("sha256=test-signature", BODY);
+
+        // When
+        Throwable thrown = catchThrowable(() -> underTest.handleEvent("sha256=test-signature", BODY));
+
+        // Then
+        assertThat(thrown).isInstanceOf(InvalidWebhookSignatureException.class);
+        verifyNoInteractions(mockWebhookHandler);
+    }
+
+    @Test
+    public void handleEventShouldRejectABodyThatIsNotAnEvent() {
+        // When
+        Throwable thrown = catchThrowable(() -> underTest.handleEvent("sha256=test-signature", "not json".getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        assertThat(thrown).isInstanceOf(ResponseStatusException.class);
+        assertThat(((ResponseStatusException) thrown).getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(mockWebhookHandler);
+    }
+}
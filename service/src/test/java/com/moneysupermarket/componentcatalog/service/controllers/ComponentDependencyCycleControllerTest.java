@@ -0,0 +1,42 @@
+package com.moneysupermarket.componentcatalog.service.controllers;
+
+import com.moneysupermarket.componentcatalog.sdk.models.ComponentDependencyCycle;
+import com.moneysupermarket.componentcatalog.sdk.models.GetComponentDependencyCyclesResponse;
+import com.moneysupermarket.componentcatalog.service.services.ComponentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ComponentDependencyCycleControllerTest {
+
+    @Mock
+    private ComponentService mockComponentService;
+    private ComponentDependencyCycleController underTest;
+
+    @BeforeEach
+    public void beforeEach() {
+        underTest = new ComponentDependencyCycleController(mockComponentService);
+    }
+
+    @Test
+    public void getComponentDependencyCyclesShouldReturnCycles() {
+        // Given
+        ComponentDependencyCycle cycle = new ComponentDependencyCycle(List.of("test-component-id-1", "test-component-id-2"));
+        when(mockComponentService.getComponentDependencyCycles()).thenReturn(List.of(cycle));
+
+        // When
+        GetComponentDependencyCyclesResponse returnValue = underTest.getComponentDependencyCycles();
+
+        // Then
+        assertThat(returnValue).isNotNull();
+        assertThat(returnValue.getCycles()).containsExactly(cycle);
+    }
+}
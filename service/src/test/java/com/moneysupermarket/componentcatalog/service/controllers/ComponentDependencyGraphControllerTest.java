@@ -0,0 +1,86 @@
+package com.moneysupermarket.componentcatalog.service.controllers;
+
+import com.moneysupermarket.componentcatalog.sdk.models.BlastRadiusComponent;
+import com.moneysupermarket.componentcatalog.sdk.models.GetComponentBlastRadiusResponse;
+import com.moneysupermarket.componentcatalog.sdk.models.GetComponentIdsResponse;
+import com.moneysupermarket.componentcatalog.service.services.ComponentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ComponentDependencyGraphControllerTest {
+
+    @Mock
+    private ComponentService mockComponentService;
+    private ComponentDependencyGraphController underTest;
+
+    @BeforeEach
+    public void beforeEach() {
+        underTest = new ComponentDependencyGraphController(mockComponentService);
+    }
+
+    @Test
+    public void getUpstreamComponentsShouldReturnUpstreamComponentIds() {
+        // Given
+        String componentId = "test-component-id-1";
+        when(mockComponentService.getUpstreamComponentIds(componentId)).thenReturn(List.of("test-component-id-2", "test-component-id-3"));
+
+        // When
+        GetComponentIdsResponse returnValue = underTest.getUpstreamComponents(componentId);
+
+        // Then
+        assertThat(returnValue).isNotNull();
+        assertThat(returnValue.getComponentIds()).containsExactly("test-component-id-2", "test-component-id-3");
+    }
+
+    @Test
+    public void getDownstreamComponentsShouldReturnDownstreamComponentIds() {
+        // Given
+        String componentId = "test-component-id-1";
+        when(mockComponentService.getDownstreamComponentIds(componentId)).thenReturn(List.of("test-component-id-2"));
+
+        // When
+        GetComponentIdsResponse returnValue = underTest.getDownstreamComponents(componentId);
+
+        // Then
+        assertThat(returnValue).isNotNull();
+        assertThat(returnValue.getComponentIds()).containsExactly("test-component-id-2");
+    }
+
+    @Test
+    public void getBlastRadiusShouldReturnBlastRadiusComponents() {
+        // Given
+        String componentId = "test-component-id-1";
+        BlastRadiusComponent blastRadiusComponent = new BlastRadiusComponent("test-component-id-2", 1);
+        when(mockComponentService.getComponentBlastRadius(componentId)).thenReturn(List.of(blastRadiusComponent));
+
+        // When
+        GetComponentBlastRadiusResponse returnValue = underTest.getBlastRadius(componentId);
+
+        // Then
+        assertThat(returnValue).isNotNull();
+        assertThat(returnValue.getComponents()).containsExactly(blastRadiusComponent);
+    }
+
+    @Test
+    public void getShortestDependencyPathShouldReturnComponentIdsAlongThePath() {
+        // Given
+        when(mockComponentService.getShortestDependencyPath("test-component-id-1", "test-component-id-3"))
+                .thenReturn(List.of("test-component-id-1", "test-component-id-2", "test-component-id-3"));
+
+        // When
+        GetComponentIdsResponse returnValue = underTest.getShortestDependencyPath("test-component-id-1", "test-component-id-3");
+
+        // Then
+        assertThat(returnValue).isNotNull();
+        assertThat(returnValue.getComponentIds()).containsExactly("test-component-id-1", "test-component-id-2", "test-component-id-3");
+    }
+}
@@ -0,0 +1,74 @@
+package com.moneysupermarket.componentcatalog.service.controllers;
+
+import com.moneysupermarket.componentcatalog.sdk.models.GetImportUsagesResponse;
+import com.moneysupermarket.componentcatalog.sdk.models.GetSoftwareRepositoryUsagesResponse;
+import com.moneysupermarket.componentcatalog.sdk.models.GetSoftwareUsagesResponse;
+import com.moneysupermarket.componentcatalog.sdk.models.ImportUsage;
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareRepositoryUsage;
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareUsage;
+import com.moneysupermarket.componentcatalog.service.services.ComponentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ComponentUsageControllerTest {
+
+    @Mock
+    private ComponentService mockComponentService;
+    private ComponentUsageController underTest;
+
+    @BeforeEach
+    public void beforeEach() {
+        underTest = new ComponentUsageController(mockComponentService);
+    }
+
+    @Test
+    public void getSoftwareUsagesShouldReturnSoftwareUsages() {
+        // Given
+        SoftwareUsage softwareUsage = new SoftwareUsage("com.example:example", "1.2.3", List.of("test-component-id-1"));
+        when(mockComponentService.getSoftwareUsages(null, "com.example:", "1.+")).thenReturn(List.of(softwareUsage));
+
+        // When
+        GetSoftwareUsagesResponse returnValue = underTest.getSoftwareUsages(null, "com.example:", "1.+");
+
+        // Then
+        assertThat(returnValue).isNotNull();
+        assertThat(returnValue.getSoftwareUsages()).containsExactly(softwareUsage);
+    }
+
+    @Test
+    public void getImportUsagesShouldReturnImportUsages() {
+        // Given
+        ImportUsage importUsage = new ImportUsage("com.example.Example", List.of("test-component-id-1"));
+        when(mockComponentService.getImportUsages("com.example.Example", null)).thenReturn(List.of(importUsage));
+
+        // When
+        GetImportUsagesResponse returnValue = underTest.getImportUsages("com.example.Example", null);
+
+        // Then
+        assertThat(returnValue).isNotNull();
+        assertThat(returnValue.getImportUsages()).containsExactly(importUsage);
+    }
+
+    @Test
+    public void getSoftwareRepositoryUsagesShouldReturnSoftwareRepositoryUsages() {
+        // Given
+        SoftwareRepositoryUsage softwareRepositoryUsage = new SoftwareRepositoryUsage("https://example.com/repo/", List.of("test-component-id-1"));
+        when(mockComponentService.getSoftwareRepositoryUsages(null, "https://example.com/")).thenReturn(List.of(softwareRepositoryUsage));
+
+        // When
+        GetSoftwareRepositoryUsagesResponse returnValue = underTest.getSoftwareRepositoryUsages(null, "https://example.com/");
+
+        // Then
+        assertThat(returnValue).isNotNull();
+        assertThat(returnValue.getSoftwareRepositoryUsages()).containsExactly(softwareRepositoryUsage);
+    }
+}
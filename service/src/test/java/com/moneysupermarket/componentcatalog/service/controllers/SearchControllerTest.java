@@ -0,0 +1,75 @@
+package com.moneysupermarket.componentcatalog.service.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneysupermarket.componentcatalog.sdk.models.Component;
+import com.moneysupermarket.componentcatalog.sdk.models.GetSearchResultsResponse;
+import com.moneysupermarket.componentcatalog.sdk.models.SearchResult;
+import com.moneysupermarket.componentcatalog.sdk.models.Software;
+import com.moneysupermarket.componentcatalog.service.partialresponse.PartialResponse;
+import com.moneysupermarket.componentcatalog.service.partialresponse.internal.PartialResponseApplier;
+import com.moneysupermarket.componentcatalog.service.services.ComponentService;
+import com.pressassociation.pr.match.Matcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SearchControllerTest {
+
+    @Mock
+    private ComponentService mockComponentService;
+    private SearchController underTest;
+
+    @BeforeEach
+    public void beforeEach() {
+        underTest = new SearchController(mockComponentService);
+    }
+
+    @Test
+    public void getSearchResultsShouldReturnSearchResults() {
+        // Given
+        GetSearchResultsResponse searchResults = new GetSearchResultsResponse(List.of(new SearchResult("test-component-id-1", 1.5,
+                Component.builder().id("test-component-id-1").build())), 3);
+        when(mockComponentService.search("payment", Optional.of(2), Optional.of(1))).thenReturn(searchResults);
+
+        // When
+        GetSearchResultsResponse returnValue = underTest.getSearchResults("payment", Optional.of(2), Optional.of(1));
+
+        // Then
+        assertThat(returnValue).isEqualTo(searchResults);
+    }
+
+    @Test
+    public void getSearchResultsShouldOnlyReturnTheIdsScoresAndSummaryFieldsOfTheComponentsByDefault() throws NoSuchMethodException {
+        // Given
+        String defaultFields = SearchController.class.getMethod("getSearchResults", String.class, Optional.class, Optional.class)
+                .getAnnotation(PartialResponse.class).defaultFields();
+        GetSearchResultsResponse searchResults = new GetSearchResultsResponse(List.of(new SearchResult("test-component-id-1", 1.5,
+                Component.builder()
+                        .id("test-component-id-1")
+                        .name("Test Component Name 1")
+                        .software(List.of(Software.builder().name("com.example:example").version("1.0.0").build()))
+                        .build())), 3);
+        JsonNode json = new ObjectMapper().valueToTree(searchResults);
+
+        // When
+        new PartialResponseApplier().apply(json, Matcher.of(defaultFields));
+
+        // Then
+        assertThat(json.get("totalCount").asInt()).isEqualTo(3);
+        JsonNode result = json.get("results").get(0);
+        assertThat(result.get("componentId").asText()).isEqualTo("test-component-id-1");
+        assertThat(result.get("score").asDouble()).isEqualTo(1.5);
+        assertThat(result.get("component").get("name").asText()).isEqualTo("Test Component Name 1");
+        assertThat(result.get("component").has("software")).isFalse();
+    }
+}
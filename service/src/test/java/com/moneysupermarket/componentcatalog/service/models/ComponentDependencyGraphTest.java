@@ -0,0 +1,159 @@
+package com.moneysupermarket.componentcatalog.service.models;
+
+import com.moneysupermarket.componentcatalog.sdk.models.BlastRadiusComponent;
+import com.moneysupermarket.componentcatalog.sdk.models.ComponentDependencyCycle;
+import com.moneysupermarket.componentcatalog.sdk.models.SummaryComponentDependencies;
+import com.moneysupermarket.componentcatalog.sdk.models.SummaryComponentDependency;
+import com.moneysupermarket.componentcatalog.sdk.models.SummaryComponentDependencyNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ComponentDependencyGraphTest {
+
+    @Test
+    public void emptyGraphShouldReturnNoResults() {
+        // When
+        ComponentDependencyGraph underTest = ComponentDependencyGraph.EMPTY;
+
+        // Then
+        assertThat(underTest.containsComponent("test-component-id-1")).isFalse();
+        assertThat(underTest.getUpstreamComponentIds("test-component-id-1")).isEmpty();
+        assertThat(underTest.getDownstreamComponentIds("test-component-id-1")).isEmpty();
+        assertThat(underTest.getBlastRadius("test-component-id-1")).isEmpty();
+        assertThat(underTest.getShortestPath("test-component-id-1", "test-component-id-2")).isEmpty();
+        assertThat(underTest.getCycles()).isEmpty();
+    }
+
+    @Test
+    public void getDownstreamComponentIdsShouldReturnTransitiveDependencies() {
+        // Given
+        ComponentDependencyGraph underTest = createChainGraph();
+
+        // When
+        List<String> returnValue = underTest.getDownstreamComponentIds("test-component-id-1");
+
+        // Then
+        assertThat(returnValue).containsExactly("test-component-id-2", "test-component-id-3", "test-component-id-4");
+    }
+
+    @Test
+    public void getUpstreamComponentIdsShouldReturnTransitiveDependents() {
+        // Given
+        ComponentDependencyGraph underTest = createChainGraph();
+
+        // When
+        List<String> returnValue = underTest.getUpstreamComponentIds("test-component-id-3");
+
+        // Then
+        assertThat(returnValue).containsExactly("test-component-id-1", "test-component-id-2");
+    }
+
+    @Test
+    public void getUpstreamComponentIdsShouldReturnAnEmptyListForAnUnknownComponent() {
+        // Given
+        ComponentDependencyGraph underTest = createChainGraph();
+
+        // When
+        List<String> returnValue = underTest.getUpstreamComponentIds("unknown");
+
+        // Then
+        assertThat(returnValue).isEmpty();
+    }
+
+    @Test
+    public void getBlastRadiusShouldReturnUpstreamComponentsWithTheirDistances() {
+        // Given
+        ComponentDependencyGraph underTest = createChainGraph();
+
+        // When
+        List<BlastRadiusComponent> returnValue = underTest.getBlastRadius("test-component-id-4");
+
+        // Then
+        assertThat(returnValue).containsExactly(
+                new BlastRadiusComponent("test-component-id-3", 1),
+                new BlastRadiusComponent("test-component-id-2", 2),
+                new BlastRadiusComponent("test-component-id-1", 3));
+    }
+
+    @Test
+    public void getShortestPathShouldReturnTheShortestPath() {
+        // Given
+        ComponentDependencyGraph underTest = ComponentDependencyGraph.create(new SummaryComponentDependencies(
+                createNodes(4),
+                List.of(createDependency(0, 1), createDependency(1, 2), createDependency(2, 3), createDependency(0, 3))));
+
+        // When
+        List<String> returnValue = underTest.getShortestPath("test-component-id-1", "test-component-id-4");
+
+        // Then
+        assertThat(returnValue).containsExactly("test-component-id-1", "test-component-id-4");
+    }
+
+    @Test
+    public void getShortestPathShouldReturnAnEmptyListWhenTargetIsNotReachable() {
+        // Given
+        ComponentDependencyGraph underTest = createChainGraph();
+
+        // When
+        List<String> returnValue = underTest.getShortestPath("test-component-id-4", "test-component-id-1");
+
+        // Then
+        assertThat(returnValue).isEmpty();
+    }
+
+    @Test
+    public void getCyclesShouldReturnStronglyConnectedComponentsThatContainACycle() {
+        // Given
+        ComponentDependencyGraph underTest = ComponentDependencyGraph.create(new SummaryComponentDependencies(
+                createNodes(5),
+                List.of(createDependency(0, 1), createDependency(1, 2), createDependency(2, 1), createDependency(2, 3), createDependency(4, 4))));
+
+        // When
+        List<ComponentDependencyCycle> returnValue = underTest.getCycles();
+
+        // Then
+        assertThat(returnValue).containsExactly(
+                new ComponentDependencyCycle(List.of("test-component-id-2", "test-component-id-3")),
+                new ComponentDependencyCycle(List.of("test-component-id-5")));
+    }
+
+    @Test
+    public void createShouldMergeDuplicateNodesAndIgnoreDependenciesWithoutASource() {
+        // Given
+        List<SummaryComponentDependencyNode> nodes = List.of(
+                new SummaryComponentDependencyNode("test-component-id-1"),
+                new SummaryComponentDependencyNode("test-component-id-2"),
+                new SummaryComponentDependencyNode("test-component-id-1"));
+
+        // When
+        ComponentDependencyGraph underTest = ComponentDependencyGraph.create(new SummaryComponentDependencies(
+                nodes,
+                List.of(createDependency(null, 0), createDependency(1, 2), createDependency(1, 0))));
+
+        // Then
+        assertThat(underTest.getDownstreamComponentIds("test-component-id-2")).containsExactly("test-component-id-1");
+        assertThat(underTest.getUpstreamComponentIds("test-component-id-1")).containsExactly("test-component-id-2");
+        assertThat(underTest.getCycles()).isEmpty();
+    }
+
+    private ComponentDependencyGraph createChainGraph() {
+        return ComponentDependencyGraph.create(new SummaryComponentDependencies(
+                createNodes(4),
+                List.of(createDependency(0, 1), createDependency(1, 2), createDependency(2, 3))));
+    }
+
+    private List<SummaryComponentDependencyNode> createNodes(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(index -> new SummaryComponentDependencyNode("test-component-id-" + index))
+                .collect(Collectors.toList());
+    }
+
+    private SummaryComponentDependency createDependency(Integer sourceIndex, int targetIndex) {
+        return new SummaryComponentDependency(sourceIndex, targetIndex, List.of(), false, 1, null, null, null);
+    }
+}
@@ -0,0 +1,132 @@
+package com.moneysupermarket.componentcatalog.service.models;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.moneysupermarket.componentcatalog.sdk.models.Component;
+import com.moneysupermarket.componentcatalog.sdk.models.Responsibility;
+import com.moneysupermarket.componentcatalog.sdk.models.openapi.OpenApiSpec;
+import com.moneysupermarket.componentcatalog.sdk.models.readme.Readme;
+import com.moneysupermarket.componentcatalog.sdk.models.todos.ToDo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ComponentSearchIndexTest {
+
+    private final ComponentSearchIndex underTest = ComponentSearchIndex.EMPTY.update(List.of(
+            Component.builder()
+                    .id("test-component-id-1")
+                    .name("Payment Gateway")
+                    .description("Takes card payments")
+                    .tags(List.of("payments"))
+                    .build(),
+            Component.builder()
+                    .id("test-component-id-2")
+                    .name("Customer Service")
+                    .description("Stores customer details")
+                    .readme(new Readme("README.md", "Calls the payment gateway to refund customers"))
+                    .build(),
+            Component.builder()
+                    .id("test-component-id-3")
+                    .name("Quote Service")
+                    .responsibilities(List.of(new Responsibility("Calculates quotes")))
+                    .toDos(List.of(ToDo.builder().file("build.gradle").description("Upgrade the gateway client").build()))
+                    .openApiSpecs(List.of(OpenApiSpec.builder().spec(createSpecWithPaths("/v1/quotes/{quoteId}")).build()))
+                    .build()));
+
+    @Test
+    public void emptyIndexShouldReturnNoMatches() {
+        // When
+        List<ComponentSearchIndex.Match> returnValue = ComponentSearchIndex.EMPTY.search("payment");
+
+        // Then
+        assertThat(returnValue).isEmpty();
+    }
+
+    @Test
+    public void searchShouldReturnNoMatchesForAQueryWithoutAnyWords() {
+        // When
+        List<ComponentSearchIndex.Match> returnValue = underTest.search(" - ");
+
+        // Then
+        assertThat(returnValue).isEmpty();
+    }
+
+    @Test
+    public void searchShouldRankAMatchInTheNameAboveAMatchInTheReadme() {
+        // When
+        List<ComponentSearchIndex.Match> returnValue = underTest.search("Payment GATEWAY");
+
+        // Then
+        assertThat(returnValue).extracting(ComponentSearchIndex.Match::getComponentId).containsExactly("test-component-id-1", "test-component-id-2");
+        assertThat(returnValue.get(0).getScore()).isGreaterThan(returnValue.get(1).getScore());
+    }
+
+    @Test
+    public void searchShouldOnlyReturnComponentsThatContainAllTheWords() {
+        // When
+        List<ComponentSearchIndex.Match> returnValue = underTest.search("gateway quotes");
+
+        // Then
+        assertThat(returnValue).extracting(ComponentSearchIndex.Match::getComponentId).containsExactly("test-component-id-3");
+    }
+
+    @Test
+    public void searchShouldMatchTheLastWordAsAPrefix() {
+        // When
+        List<ComponentSearchIndex.Match> returnValue = underTest.search("custom");
+
+        // Then
+        assertThat(returnValue).extracting(ComponentSearchIndex.Match::getComponentId).containsExactly("test-component-id-2");
+    }
+
+    @Test
+    public void searchShouldNotMatchWordsOtherThanTheLastAsAPrefix() {
+        // When
+        List<ComponentSearchIndex.Match> returnValue = underTest.search("custom service");
+
+        // Then
+        assertThat(returnValue).isEmpty();
+    }
+
+    @Test
+    public void searchShouldMatchOpenApiPathNames() {
+        // When
+        List<ComponentSearchIndex.Match> returnValue = underTest.search("quoteId");
+
+        // Then
+        assertThat(returnValue).extracting(ComponentSearchIndex.Match::getComponentId).containsExactly("test-component-id-3");
+    }
+
+    @Test
+    public void updateShouldReindexChangedComponentsAndDropRemovedComponents() {
+        // When
+        ComponentSearchIndex returnValue = underTest.update(List.of(
+                Component.builder()
+                        .id("test-component-id-1")
+                        .name("Payment Gateway")
+                        .description("Takes card payments")
+                        .tags(List.of("payments"))
+                        .build(),
+                Component.builder()
+                        .id("test-component-id-2")
+                        .name("Customer Service")
+                        .description("Stores customer addresses")
+                        .build()));
+
+        // Then
+        assertThat(returnValue.search("payment")).extracting(ComponentSearchIndex.Match::getComponentId).containsExactly("test-component-id-1");
+        assertThat(returnValue.search("addresses")).extracting(ComponentSearchIndex.Match::getComponentId).containsExactly("test-component-id-2");
+        assertThat(returnValue.search("details")).isEmpty();
+        assertThat(returnValue.search("quote")).isEmpty();
+        assertThat(underTest.search("details")).extracting(ComponentSearchIndex.Match::getComponentId).containsExactly("test-component-id-2");
+    }
+
+    private static ObjectNode createSpecWithPaths(String path) {
+        ObjectNode spec = JsonNodeFactory.instance.objectNode();
+        spec.putObject("paths").putObject(path);
+        return spec;
+    }
+}
@@ -0,0 +1,144 @@
+package com.moneysupermarket.componentcatalog.service.models;
+
+import com.moneysupermarket.componentcatalog.sdk.models.Component;
+import com.moneysupermarket.componentcatalog.sdk.models.Import;
+import com.moneysupermarket.componentcatalog.sdk.models.ImportUsage;
+import com.moneysupermarket.componentcatalog.sdk.models.Software;
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareRepository;
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareRepositoryUsage;
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareUsage;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionSelectorScheme;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ComponentUsageIndexTest {
+
+    private final ComponentUsageIndex underTest = ComponentUsageIndex.create(List.of(
+            Component.builder()
+                    .id("test-component-id-1")
+                    .software(List.of(createSoftware("com.example:example-core", "1.0.0"), createSoftware("com.example:example-web", "2.0.0")))
+                    .imports(List.of(createImport("com.example.core.Example"), createImport("com.example.web.Example")))
+                    .softwareRepositories(List.of(createSoftwareRepository("https://example.com/repo-1/")))
+                    .build(),
+            Component.builder()
+                    .id("test-component-id-2")
+                    .software(List.of(createSoftware("com.example:example-core", "1.1.0"), createSoftware("com.example:example-core", "1.0.0")))
+                    .imports(List.of(createImport("com.example.core.Example")))
+                    .softwareRepositories(List.of(createSoftwareRepository("https://example.com/repo-2/")))
+                    .build(),
+            Component.builder()
+                    .id("test-component-id-3")
+                    .build()),
+            new VersionParser());
+
+    @Test
+    public void emptyIndexShouldReturnNoResults() {
+        // When
+        ComponentUsageIndex underTest = ComponentUsageIndex.EMPTY;
+
+        // Then
+        assertThat(underTest.findSoftwareUsages(null, null, null)).isEmpty();
+        assertThat(underTest.findImportUsages(null, null)).isEmpty();
+        assertThat(underTest.findSoftwareRepositoryUsages(null, null)).isEmpty();
+    }
+
+    @Test
+    public void findSoftwareUsagesShouldReturnEachVersionOfTheSoftwareWithTheName() {
+        // When
+        List<SoftwareUsage> returnValue = underTest.findSoftwareUsages("com.example:example-core", null, null);
+
+        // Then
+        assertThat(returnValue).containsExactly(
+                new SoftwareUsage("com.example:example-core", "1.0.0", List.of("test-component-id-1", "test-component-id-2")),
+                new SoftwareUsage("com.example:example-core", "1.1.0", List.of("test-component-id-2")));
+    }
+
+    @Test
+    public void findSoftwareUsagesShouldReturnTheSoftwareWithTheNamePrefixAndAVersionAcceptedByTheVersionSelector() {
+        // Given
+        DefaultVersionSelectorScheme versionSelectorScheme = new DefaultVersionSelectorScheme(new DefaultVersionComparator(), new VersionParser());
+
+        // When
+        List<SoftwareUsage> returnValue = underTest.findSoftwareUsages(null, "com.example:", versionSelectorScheme.parseSelector("[1.0.0,2.0.0]"));
+
+        // Then
+        assertThat(returnValue).containsExactly(
+                new SoftwareUsage("com.example:example-core", "1.0.0", List.of("test-component-id-1", "test-component-id-2")),
+                new SoftwareUsage("com.example:example-core", "1.1.0", List.of("test-component-id-2")),
+                new SoftwareUsage("com.example:example-web", "2.0.0", List.of("test-component-id-1")));
+    }
+
+    @Test
+    public void findSoftwareUsagesShouldSortTheVersionsInGradlesVersionOrder() {
+        // Given
+        ComponentUsageIndex underTest = ComponentUsageIndex.create(List.of(
+                Component.builder()
+                        .id("test-component-id-1")
+                        .software(List.of(createSoftware("com.example:example-core", "1.10.0")))
+                        .build(),
+                Component.builder()
+                        .id("test-component-id-2")
+                        .software(List.of(createSoftware("com.example:example-core", "1.9.0")))
+                        .build(),
+                Component.builder()
+                        .id("test-component-id-3")
+                        .software(List.of(createSoftware("com.example:example-core", "1.9.0-1"),
+                                createSoftware("com.example:example-core", "1.9.0.1")))
+                        .build()),
+                new VersionParser());
+
+        // When
+        List<SoftwareUsage> returnValue = underTest.findSoftwareUsages("com.example:example-core", null, null);
+
+        // Then
+        assertThat(returnValue).containsExactly(
+                new SoftwareUsage("com.example:example-core", "1.9.0", List.of("test-component-id-2")),
+                new SoftwareUsage("com.example:example-core", "1.9.0-1", List.of("test-component-id-3")),
+                new SoftwareUsage("com.example:example-core", "1.9.0.1", List.of("test-component-id-3")),
+                new SoftwareUsage("com.example:example-core", "1.10.0", List.of("test-component-id-1")));
+    }
+
+    @Test
+    public void findSoftwareUsagesShouldReturnNothingForAnUnknownName() {
+        // When
+        List<SoftwareUsage> returnValue = underTest.findSoftwareUsages("com.example:unknown", null, null);
+
+        // Then
+        assertThat(returnValue).isEmpty();
+    }
+
+    @Test
+    public void findImportUsagesShouldReturnTheImportsWithTheNamePrefix() {
+        // When
+        List<ImportUsage> returnValue = underTest.findImportUsages(null, "com.example.core.");
+
+        // Then
+        assertThat(returnValue).containsExactly(new ImportUsage("com.example.core.Example", List.of("test-component-id-1", "test-component-id-2")));
+    }
+
+    @Test
+    public void findSoftwareRepositoryUsagesShouldReturnTheSoftwareRepositoryWithTheUrl() {
+        // When
+        List<SoftwareRepositoryUsage> returnValue = underTest.findSoftwareRepositoryUsages("https://example.com/repo-2/", null);
+
+        // Then
+        assertThat(returnValue).containsExactly(new SoftwareRepositoryUsage("https://example.com/repo-2/", List.of("test-component-id-2")));
+    }
+
+    private static Software createSoftware(String name, String version) {
+        return Software.builder().name(name).version(version).build();
+    }
+
+    private static Import createImport(String name) {
+        return Import.builder().name(name).build();
+    }
+
+    private static SoftwareRepository createSoftwareRepository(String url) {
+        return SoftwareRepository.builder().url(url).build();
+    }
+}
@@ -6,6 +6,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
@@ -27,4 +30,19 @@ public class RepoDirAndGitTest {
         // Then
         verify(git).close();
     }
+
+    @Test
+    public void closeShouldReleaseTheLeaseOnlyOnce() {
+        // Given
+        AtomicInteger releaseCount = new AtomicInteger();
+        RepoDirAndGit underTest = new RepoDirAndGit(null, git, new RepoLease(releaseCount::incrementAndGet));
+
+        // When
+        underTest.close();
+        underTest.getLease().close();
+
+        // Then
+        verify(git).close();
+        assertThat(releaseCount).hasValue(1);
+    }
 }
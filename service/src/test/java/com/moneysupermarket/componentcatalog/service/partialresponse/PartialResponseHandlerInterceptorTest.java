@@ -1,8 +1,11 @@
 package com.moneysupermarket.componentcatalog.service.partialresponse;
 
+import com.moneysupermarket.componentcatalog.service.partialresponse.internal.RequestAttributeNames;
+import com.pressassociation.pr.match.Matcher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.method.HandlerMethod;
@@ -12,6 +15,7 @@ import javax.servlet.http.HttpServletResponse;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -69,6 +73,25 @@ public class PartialResponseHandlerInterceptorTest {
         assertThat(returnValue).isTrue();
     }
 
+    @Test
+    public void shouldUseTheDefaultFieldsOfTheAnnotationWhenThereIsNoFieldsParam() throws NoSuchMethodException {
+        // Given
+        when(handlerMethod.hasMethodAnnotation(PartialResponse.class)).thenReturn(true);
+        when(handlerMethod.getMethodAnnotation(PartialResponse.class)).thenReturn(getClass().getDeclaredMethod("handlerWithDefaultFields")
+                .getAnnotation(PartialResponse.class));
+        when(request.getParameterValues("fields")).thenReturn(null);
+
+        // When
+        boolean returnValue = underTest.preHandle(request, response, handlerMethod);
+
+        // Then
+        assertThat(returnValue).isTrue();
+        ArgumentCaptor<Matcher> matcherCaptor = ArgumentCaptor.forClass(Matcher.class);
+        verify(request).setAttribute(eq(RequestAttributeNames.MATCHER), matcherCaptor.capture());
+        assertThat(matcherCaptor.getValue().matches("a/b")).isTrue();
+        assertThat(matcherCaptor.getValue().matches("a/c")).isFalse();
+    }
+
     @Test
     public void shouldBeSuccessfulWhenFieldsIsAnEmptyArray() {
         // Given
@@ -140,4 +163,8 @@ public class PartialResponseHandlerInterceptorTest {
         assertThat(thrown).hasMessage("400 BAD_REQUEST \"Invalid value \"a/,b/\" for \"fields\" query param\"; nested exception is java.lang.IllegalArgumentException: Was expecting at least one of CharMatcher.and(CharMatcher.whitespace().negate(), CharMatcher.anyOf(\"\\u0028\\u0029\\u002A\\u002C\\u002F\").negate())");
         assertThat(thrown).hasCauseInstanceOf(IllegalArgumentException.class);
     }
+
+    @PartialResponse(defaultFields = "a(b)")
+    private void handlerWithDefaultFields() {
+    }
 }
@@ -0,0 +1,107 @@
+package com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver;
+
+import com.moneysupermarket.componentcatalog.sdk.models.Component;
+import com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.models.api.Project;
+import com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.models.api.Repo;
+import com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.models.api.RepoEvent;
+import com.moneysupermarket.componentcatalog.service.repositories.ComponentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BitbucketServerWebhookHandlerTest {
+
+    @Mock
+    private ComponentRepository mockComponentRepository;
+    private BitbucketServerWebhookHandler underTest;
+
+    @BeforeEach
+    public void beforeEach() {
+        underTest = new BitbucketServerWebhookHandler(mockComponentRepository);
+    }
+
+    @Test
+    public void handleEventShouldQueueARescanOfTheRepoOfEachMatchingComponent() {
+        // Given
+        when(mockComponentRepository.getComponents()).thenReturn(List.of(
+                createComponent("test-component-id-1", "https://bitbucket.example.com/scm/test-project/test-repo-1.git"),
+                createComponent("test-component-id-2", "https://bitbucket.example.com/scm/test-project/test-repo-1.git"),
+                createComponent("test-component-id-3", "https://bitbucket.example.com/scm/test-project/test-repo-2.git"),
+                createComponent("test-component-id-4", "https://bitbucket.example.com/scm/other-project/test-repo-1.git")));
+
+        // When
+        underTest.handleEvent(createEvent("repo:refs_changed", "TEST-PROJECT", "test-repo-1"));
+
+        // Then
+        verify(mockComponentRepository).getComponents();
+        verify(mockComponentRepository).queueRepoRescan("https://bitbucket.example.com/scm/test-project/test-repo-1.git");
+        verifyNoMoreInteractions(mockComponentRepository);
+    }
+
+    @Test
+    public void handleEventShouldMatchRepoUrlsWithoutAGitSuffix() {
+        // Given
+        when(mockComponentRepository.getComponents()).thenReturn(List.of(
+                createComponent("test-component-id-1", "https://bitbucket.example.com/scm/test-project/test-repo-1")));
+
+        // When
+        underTest.handleEvent(createEvent("repo:refs_changed", "TEST-PROJECT", "test-repo-1"));
+
+        // Then
+        verify(mockComponentRepository).queueRepoRescan("https://bitbucket.example.com/scm/test-project/test-repo-1");
+    }
+
+    @Test
+    public void handleEventShouldNotQueueARescanWhenNoComponentsMatch() {
+        // Given
+        when(mockComponentRepository.getComponents()).thenReturn(List.of(
+                createComponent("test-component-id-1", "https://bitbucket.example.com/scm/test-project/test-repo-2.git")));
+
+        // When
+        underTest.handleEvent(createEvent("repo:refs_changed", "TEST-PROJECT", "test-repo-1"));
+
+        // Then
+        verify(mockComponentRepository, never()).queueRepoRescan(any());
+    }
+
+    @Test
+    public void handleEventShouldIgnoreOtherEvents() {
+        // When
+        underTest.handleEvent(createEvent("repo:modified", "TEST-PROJECT", "test-repo-1"));
+
+        // Then
+        verifyNoInteractions(mockComponentRepository);
+    }
+
+    @Test
+    public void handleEventShouldIgnoreEventsWithoutARepository() {
+        // When
+        underTest.handleEvent(new RepoEvent("diagnostics:ping", null));
+
+        // Then
+        verifyNoInteractions(mockComponentRepository);
+    }
+
+    private RepoEvent createEvent(String eventKey, String projectKey, String repoSlug) {
+        return new RepoEvent(eventKey, new Repo(repoSlug, repoSlug, "git", "AVAILABLE", new Project(projectKey, projectKey, "NORMAL"), null));
+    }
+
+    private Component createComponent(String componentId, String repoUrl) {
+        return Component.builder()
+                .id(componentId)
+                .repo(com.moneysupermarket.componentcatalog.sdk.models.Repo.builder().url(repoUrl).build())
+                .build();
+    }
+}
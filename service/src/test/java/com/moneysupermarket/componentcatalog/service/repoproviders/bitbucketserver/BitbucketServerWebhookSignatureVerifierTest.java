@@ -0,0 +1,80 @@
+package com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver;
+
+import com.moneysupermarket.componentcatalog.service.repoproviders.bitbucketserver.config.BitbucketServerConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class BitbucketServerWebhookSignatureVerifierTest {
+
+    private static final byte[] BODY = "{\"eventKey\":\"repo:refs_changed\"}".getBytes(StandardCharsets.UTF_8);
+    // HMAC-SHA256 of BODY with the key "test-secret"
+    private static final String SIGNATURE = "sha256=1952c4aace190e1fd27f3e6185aa20a4883450952652857b9af5aee85bbd91be";
+
+    private final BitbucketServerWebhookSignatureVerifier underTest = new BitbucketServerWebhookSignatureVerifier(createConfig("test-secret"));
+
+    @Test
+    public void verifySignatureShouldAcceptAValidSignature() {
+        // When
+        Throwable thrown = catchThrowable(() -> underTest.verifySignature(SIGNATURE, BODY));
+
+        // Then
+        assertThat(thrown).isNull();
+    }
+
+    @Test
+    public void verifySignatureShouldAcceptAnUpperCaseSignature() {
+        // When
+        Throwable thrown = catchThrowable(() -> underTest.verifySignature("sha256=" + SIGNATURE.substring("sha256=".length()).toUpperCase(), BODY));
+
+        // Then
+        assertThat(thrown).isNull();
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"", "sha1=6d2b4d4fa3b3a6bcb0a7e4b7e9fe0b04c4e1c0bd", "sha256=", "sha256=not-hex",
+            "sha256=0000000000000000000000000000000000000000000000000000000000000000"})
+    public void verifySignatureShouldRejectAMissingOrWrongSignature(String signature) {
+        // When
+        Throwable thrown = catchThrowable(() -> underTest.verifySignature(signature, BODY));
+
+        // Then
+        assertThat(thrown).isInstanceOf(InvalidWebhookSignatureException.class);
+        assertThat(((InvalidWebhookSignatureException) thrown).getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    public void verifySignatureShouldRejectASignatureForADifferentBody() {
+        // When
+        Throwable thrown = catchThrowable(() -> underTest.verifySignature(SIGNATURE, "{}".getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        assertThat(thrown).isInstanceOf(InvalidWebhookSignatureException.class);
+    }
+
+    @Test
+    public void verifySignatureShouldRejectAllSignaturesWhenNoSecretIsConfigured() {
+        // Given
+        BitbucketServerWebhookSignatureVerifier underTest = new BitbucketServerWebhookSignatureVerifier(createConfig(null));
+
+        // When
+        Throwable thrown = catchThrowable(() -> underTest.verifySignature(SIGNATURE, BODY));
+
+        // Then
+        assertThat(thrown).isInstanceOf(InvalidWebhookSignatureException.class);
+    }
+
+    private static BitbucketServerConfig createConfig(String webhookSecret) {
+        return new BitbucketServerConfig(List.of(), Duration.ofSeconds(30), null, null, webhookSecret);
+    }
+}
@@ -45,7 +45,7 @@ public class BitbucketServerClientTest {
     @Test
     public void getNormalReposShouldReturnAnEmptyListWhenNoReposAreFound() {
         // Given
-        BitbucketServerConfig config = new BitbucketServerConfig(List.of(), TEST_DURATION);
+        BitbucketServerConfig config = new BitbucketServerConfig(List.of(), TEST_DURATION, null, null, null);
         underTest = new BitbucketServerClient(webClient, config);
 
         // When
@@ -62,7 +62,10 @@ public class BitbucketServerClientTest {
                 List.of(
                     new BitbucketServerHostConfig(createBaseUrl("/server-1"), "test-username-1", "test-password-1"),
                     new BitbucketServerHostConfig(createBaseUrl("/server-2"), "test-username-2", "test-password-2")),
-                TEST_DURATION);
+                TEST_DURATION,
+                null,
+                2,
+                null);
         underTest = new BitbucketServerClient(webClient, config);
 
         // When
@@ -86,7 +89,10 @@ public class BitbucketServerClientTest {
         // Given
         BitbucketServerConfig config = new BitbucketServerConfig(
                 List.of(new BitbucketServerHostConfig(createBaseUrl("/server-does-not-exist"), "test-username-1", "test-password-1")),
-                TEST_DURATION);
+                TEST_DURATION,
+                null,
+                2,
+                null);
         underTest = new BitbucketServerClient(webClient, config);
 
         // When
@@ -95,12 +101,31 @@ public class BitbucketServerClientTest {
         // Then
         assertThat(thrown).isInstanceOf(BitbucketServerClientException.class);
         BitbucketServerClientException exception = (BitbucketServerClientException) thrown;
-        assertThat(exception).hasMessage("Call to 'http://localhost:" + BitbucketServerWireMockFactory.PORT + "/server-does-not-exist/rest/api/1.0/repos' failed with status 404");
-        assertThat(exception.getUri()).isEqualTo("http://localhost:" + BitbucketServerWireMockFactory.PORT + "/server-does-not-exist/rest/api/1.0/repos");
+        assertThat(exception).hasMessage("Call to 'http://localhost:" + BitbucketServerWireMockFactory.PORT + "/server-does-not-exist/rest/api/1.0/repos?limit=1000' failed with status 404");
+        assertThat(exception.getUri()).isEqualTo("http://localhost:" + BitbucketServerWireMockFactory.PORT + "/server-does-not-exist/rest/api/1.0/repos?limit=1000");
         assertThat(exception.getStatusCode()).isEqualTo(404);
         assertThat(exception.getResponseBody()).isEqualTo("Server does not exist");
     }
 
+    @Test
+    public void getNormalReposShouldThrowAnExceptionWhenListingTheReposTakesLongerThanTheReposTimeout() {
+        // Given
+        BitbucketServerConfig config = new BitbucketServerConfig(
+                List.of(new BitbucketServerHostConfig(createBaseUrl("/server-slow"), "test-username-1", "test-password-1")),
+                TEST_DURATION,
+                Duration.ofMillis(100),
+                2,
+                null);
+        underTest = new BitbucketServerClient(webClient, config);
+
+        // When
+        Throwable thrown = catchThrowable(() -> underTest.getNormalRepos());
+
+        // Then
+        assertThat(thrown).isInstanceOf(IllegalStateException.class);
+        assertThat(thrown).hasMessageStartingWith("Timeout on blocking read");
+    }
+
     private String createBaseUrl(String path) {
         return "http://localhost:" + BitbucketServerWireMockFactory.PORT + path;
     }
@@ -4,6 +4,7 @@ import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.MappingBuilder;
 import com.moneysupermarket.componentcatalog.service.testutils.TestFileHelper;
 
+import java.time.Duration;
 import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
@@ -21,6 +22,7 @@ public class BitbucketServerWireMockFactory {
             IntStream.range(1, 3).forEach(serverNumber -> {
                 String baseUrl = "http://localhost:" + PORT + "/server-" + serverNumber;
                 wireMockServer.stubFor(get(urlPathEqualTo("/server-" + serverNumber + "/rest/api/1.0/repos"))
+                        .withQueryParam("limit", equalTo("1000"))
                         .withBasicAuth("test-username-" + serverNumber, "test-password-" + serverNumber)
                         .willReturn(aResponse()
                                 .withStatus(200)
@@ -29,6 +31,7 @@ public class BitbucketServerWireMockFactory {
                                         readTestFile("bitbucket-server-api-responses/repos.json"),
                                         baseUrl))));
                 wireMockServer.stubFor(get(urlPathEqualTo("/server-" + serverNumber + "/rest/api/1.0/repos"))
+                        .withQueryParam("limit", equalTo("1000"))
                         .withQueryParam("start", equalTo("2"))
                         .withBasicAuth("test-username-" + serverNumber, "test-password-" + serverNumber)
                         .willReturn(aResponse()
@@ -61,6 +64,13 @@ public class BitbucketServerWireMockFactory {
                             .withStatus(404)
                             .withHeader("Content-Type", "text/plain")
                             .withBody("Server does not exist")));
+            wireMockServer.stubFor(get(urlPathEqualTo("/server-slow/rest/api/1.0/repos"))
+                    .withBasicAuth("test-username-1", "test-password-1")
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody("{}")
+                            .withFixedDelay((int) Duration.ofMinutes(2).toMillis())));
         });
     }
 
@@ -17,6 +17,7 @@ import com.moneysupermarket.componentcatalog.sdk.models.SummarySubComponentDepen
 import com.moneysupermarket.componentcatalog.sdk.models.Team;
 import com.moneysupermarket.componentcatalog.sdk.models.TestResult;
 import com.moneysupermarket.componentcatalog.service.scanners.models.Output;
+import com.moneysupermarket.componentcatalog.service.services.CachingVersionParser;
 import com.moneysupermarket.componentcatalog.service.services.ComponentMetadataAssembler;
 import com.moneysupermarket.componentcatalog.service.services.ComponentMetadataLoader;
 import com.moneysupermarket.componentcatalog.service.services.ScanEngine;
@@ -24,9 +25,11 @@ import com.moneysupermarket.componentcatalog.service.services.ScannerFinder;
 import com.moneysupermarket.componentcatalog.service.services.TestEngine;
 import com.moneysupermarket.componentcatalog.service.services.TestFinder;
 import com.moneysupermarket.componentcatalog.service.services.ValidatorService;
+import com.moneysupermarket.componentcatalog.service.services.ValueInterner;
 import com.moneysupermarket.componentcatalog.service.tests.models.TestContext;
 import com.moneysupermarket.componentcatalog.service.testutils.LogCaptor;
 import com.moneysupermarket.componentcatalog.service.utils.ObjectReference;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -43,6 +46,8 @@ import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -52,10 +57,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -79,7 +86,8 @@ public class ComponentRepositoryTest {
         ValidatorService validatorService = createValidationService();
         componentMetadataLoaderSpy = Mockito.spy(new ComponentMetadataLoader(validatorService));
         underTest = new ComponentRepository(mockComponentMetadataRepository, componentMetadataLoaderSpy, new ComponentMetadataAssembler(), mockScanEngine,
-                mockScannerFinder, mockTestEngine, mockTestFinder);
+                mockScannerFinder, mockTestEngine, mockTestFinder, new ValueInterner(new SimpleMeterRegistry()),
+                new CachingVersionParser(new SimpleMeterRegistry()));
     }
 
     @ParameterizedTest
@@ -228,6 +236,53 @@ public class ComponentRepositoryTest {
         assertThat(scheduledAnnotation.initialDelayString()).isEqualTo("");
     }
 
+    @Test
+    public void rescanQueuedReposShouldRescanAndTestOnlyTheComponentsInTheQueuedReposAndPublishThemWithTheSummaryAtTheEnd() {
+        // Given
+        ComponentMetadata componentMetadata = ComponentMetadata
+                .builder()
+                .components(List.of(
+                        createTestComponent("1"),
+                        createTestComponent("2")))
+                .build();
+        when(mockComponentMetadataRepository.getComponentMetadata()).thenReturn(componentMetadata);
+        refreshAndWaitForFinish(underTest);
+        doAnswer(invocation -> {
+            ConcurrentHashMap<String, Component> componentMap = invocation.getArgument(1);
+            componentMap.replaceAll((componentId, component) -> component.withNotes("Rescanned"));
+            getSummaryConsumerArgument(invocation).accept(createTestSummary("rescan-1"));
+            assertThat(underTest.getComponent("test-component-id-2").getNotes()).isNull();
+            assertThat(underTest.getSummary()).isNotEqualTo(createTestSummary("rescan-1"));
+            return null;
+        }).when(mockScanEngine).rescan(eq(componentMetadata), any(), any());
+        underTest.queueRepoRescan("https://example.com/example-2.git");
+        underTest.queueRepoRescan("https://example.com/example-2.git");
+
+        // When
+        underTest.rescanQueuedRepos();
+        underTest.rescanQueuedRepos();
+
+        // Then
+        verify(mockScanEngine).rescan(eq(componentMetadata), argThat(componentMap -> componentMap.keySet().equals(Set.of("test-component-id-2"))),
+                any());
+        verify(mockTestEngine).test(any(), eq(Set.of("test-component-id-2")));
+        assertThat(underTest.getComponent("test-component-id-1").getNotes()).isNull();
+        assertThat(underTest.getComponent("test-component-id-2").getNotes()).isEqualTo("Rescanned");
+        assertThat(underTest.getSummary()).isEqualTo(createTestSummary("rescan-1"));
+    }
+
+    @Test
+    public void rescanQueuedReposShouldDoNothingBeforeTheFirstRefresh() {
+        // Given
+        underTest.queueRepoRescan("https://example.com/example-1.git");
+
+        // When
+        underTest.rescanQueuedRepos();
+
+        // Then
+        verifyNoInteractions(mockScanEngine, mockTestEngine);
+    }
+
     @Test
     public void getAreasShouldReturnAllAreas() {
         // Given
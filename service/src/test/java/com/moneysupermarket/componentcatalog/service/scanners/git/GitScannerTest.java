@@ -1,11 +1,13 @@
 package com.moneysupermarket.componentcatalog.service.scanners.git;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.moneysupermarket.componentcatalog.sdk.models.Component;
 import com.moneysupermarket.componentcatalog.sdk.models.Repo;
 import com.moneysupermarket.componentcatalog.sdk.models.git.Identity;
 import com.moneysupermarket.componentcatalog.service.config.GitConfig;
 import com.moneysupermarket.componentcatalog.service.mappers.ThrowableToScannerErrorMapper;
 import com.moneysupermarket.componentcatalog.service.scanners.BaseScannerTest;
+import com.moneysupermarket.componentcatalog.service.scanners.git.services.CommitStatsCalculator;
 import com.moneysupermarket.componentcatalog.service.scanners.models.Codebase;
 import com.moneysupermarket.componentcatalog.service.scanners.models.Output;
 import com.moneysupermarket.componentcatalog.service.services.GitCloner;
@@ -13,6 +15,7 @@ import com.moneysupermarket.componentcatalog.service.testutils.CreateRemoteRepoO
 import com.moneysupermarket.componentcatalog.service.testutils.GitRepoHelper;
 import com.moneysupermarket.componentcatalog.service.testutils.RepoOperationOption;
 import com.moneysupermarket.componentcatalog.service.testutils.UpdateRemoteRepoOutcome;
+import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,9 +40,9 @@ public class GitScannerTest extends BaseScannerTest {
     @BeforeEach
     public void beforeEach() throws IOException {
         gitRepoHelper = new GitRepoHelper(tempDir);
-        GitCloner gitCloner = new GitCloner(new GitConfig(tempDir.resolve("repos").toString(), List.of()));
+        GitCloner gitCloner = new GitCloner(new GitConfig(tempDir.resolve("repos").toString(), List.of(), null));
         gitCloner.initialize();
-        underTest = new GitScanner(gitCloner, new ThrowableToScannerErrorMapper(), null);
+        underTest = new GitScanner(gitCloner, new ThrowableToScannerErrorMapper(), null, new CommitStatsCalculator(new FileUtils(), new ObjectMapper()));
     }
 
     @Test
@@ -86,6 +89,8 @@ public class GitScannerTest extends BaseScannerTest {
         assertThat(codebase).isNotNull();
         assertThat(codebase.getRepo()).isEqualTo(testRepo);
         assertThat(codebase.getDir()).isNotEmptyDirectory();
+        assertThat(codebase.getCommitId()).hasSize(40);
+        String firstCommitId = codebase.getCommitId();
         assertThat(component.getGitRepo()).isNotNull();
         assertThat(component.getGitRepo().getFirstCommitTimestamp()).isBetween(createOutcome.getBeforeCommit(), createOutcome.getAfterCommit());
         assertThat(component.getGitRepo().getLastCommitTimestamp()).isEqualTo(component.getGitRepo().getFirstCommitTimestamp());
@@ -100,6 +105,7 @@ public class GitScannerTest extends BaseScannerTest {
         assertThat(identity.getLastCommitTimestamp()).isEqualTo(identity.getFirstCommitTimestamp());
         assertThat(component.getGitRepo().getAuthorCount()).isEqualTo(1);
         assertThat(component.getGitRepo().getCommitCount()).isEqualTo(1);
+        codebase.releaseLease();
 
         // When
         waitForNextCommitTimestampToBeForDifferentSecond();
@@ -114,6 +120,7 @@ public class GitScannerTest extends BaseScannerTest {
         assertThat(codebase).isNotNull();
         assertThat(codebase.getRepo()).isEqualTo(testRepo);
         assertThat(codebase.getDir()).isNotEmptyDirectory();
+        assertThat(codebase.getCommitId()).hasSize(40).isNotEqualTo(firstCommitId);
         assertThat(component.getGitRepo()).isNotNull();
         assertThat(component.getGitRepo().getFirstCommitTimestamp()).isBetween(createOutcome.getBeforeCommit(), createOutcome.getAfterCommit());
         assertThat(component.getGitRepo().getLastCommitTimestamp()).isBetween(updateOutcome.getBeforeCommit(), updateOutcome.getAfterCommit());
@@ -0,0 +1,109 @@
+package com.moneysupermarket.componentcatalog.service.scanners.git.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneysupermarket.componentcatalog.sdk.models.git.Identity;
+import com.moneysupermarket.componentcatalog.service.scanners.git.models.CommitStats;
+import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CommitStatsCalculatorTest {
+
+    private static final long FIRST_COMMIT_TIME = 1_600_000_000L;
+
+    @TempDir
+    public Path tempDir;
+    private Git git;
+    private long nextCommitTime = FIRST_COMMIT_TIME;
+    private final CommitStatsCalculator underTest = new CommitStatsCalculator(new FileUtils(), new ObjectMapper());
+
+    @BeforeEach
+    public void beforeEach() throws GitAPIException {
+        git = Git.init().setDirectory(tempDir.toFile()).call();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        git.close();
+    }
+
+    @Test
+    public void calculateCommitStatsShouldReturnEmptyStatsForARepoWithNoCommits() throws IOException {
+        // When
+        CommitStats returnValue = underTest.calculateCommitStats(git.getRepository());
+
+        // Then
+        assertThat(returnValue.getFirstCommitTimestamp()).isNull();
+        assertThat(returnValue.getCommitCount()).isZero();
+        assertThat(returnValue.getAuthors()).isEmpty();
+        assertThat(returnValue.getCommitters()).isEmpty();
+    }
+
+    @Test
+    public void calculateCommitStatsShouldAddNewCommitsToThePreviouslyCalculatedStats() throws GitAPIException, IOException {
+        // Given
+        commit("Test Person 1", "test_person_1@example.com");
+        underTest.calculateCommitStats(git.getRepository());
+        commit("Test Person 2", "test_person_2@example.com");
+        commit("Alternate Test Person 1", "test_person_1@example.com");
+        commit("Test Person 1", "test_person_1@example.com");
+
+        // When
+        CommitStats returnValue = underTest.calculateCommitStats(git.getRepository());
+
+        // Then
+        assertThat(git.getRepository().getDirectory().toPath().resolve("component-catalog-commit-stats.json")).isRegularFile();
+        assertThat(returnValue.getFirstCommitTimestamp()).isEqualTo(getCommitTimestamp(0));
+        assertThat(returnValue.getCommitCount()).isEqualTo(4);
+        assertThat(returnValue.getAuthors()).containsExactly(
+                new Identity(List.of("Alternate Test Person 1", "Test Person 1"), "test_person_1@example.com", 3, getCommitTimestamp(0),
+                        getCommitTimestamp(3)),
+                new Identity(List.of("Test Person 2"), "test_person_2@example.com", 1, getCommitTimestamp(1), getCommitTimestamp(1)));
+        assertThat(returnValue.getCommitters()).isEqualTo(returnValue.getAuthors());
+    }
+
+    @Test
+    public void calculateCommitStatsShouldRecalculateTheStatsWhenPreviouslyCalculatedCommitsAreNoLongerReachable() throws GitAPIException,
+            IOException {
+        // Given
+        commit("Test Person 1", "test_person_1@example.com");
+        commit("Test Person 2", "test_person_2@example.com");
+        underTest.calculateCommitStats(git.getRepository());
+        git.reset().setMode(ResetCommand.ResetType.HARD).setRef("HEAD~1").call();
+        commit("Test Person 3", "test_person_3@example.com");
+
+        // When
+        CommitStats returnValue = underTest.calculateCommitStats(git.getRepository());
+
+        // Then
+        assertThat(returnValue.getCommitCount()).isEqualTo(2);
+        assertThat(returnValue.getAuthors()).extracting(Identity::getEmailAddress)
+                .containsExactlyInAnyOrder("test_person_1@example.com", "test_person_3@example.com");
+    }
+
+    private void commit(String name, String emailAddress) throws GitAPIException {
+        PersonIdent person = new PersonIdent(name, emailAddress, new Date(nextCommitTime * 1000), TimeZone.getTimeZone(ZoneOffset.UTC));
+        git.commit().setAllowEmpty(true).setMessage("Test commit").setAuthor(person).setCommitter(person).call();
+        nextCommitTime += 60;
+    }
+
+    private LocalDateTime getCommitTimestamp(int commitIndex) {
+        return LocalDateTime.ofEpochSecond(FIRST_COMMIT_TIME + commitIndex * 60L, 0, ZoneOffset.UTC);
+    }
+}
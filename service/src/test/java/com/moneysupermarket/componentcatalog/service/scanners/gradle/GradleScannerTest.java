@@ -1295,6 +1295,28 @@ public class GradleScannerTest extends BaseCodebaseScannerTest {
         assertThat(softwareGroups.get(SoftwareGroup.BOM)).hasSize(29);
     }
 
+    @Test
+    public void shouldScanMultiProjectDifferentBomsBuild() {
+        // Given
+        Codebase codebase = new Codebase(getTestRepo(), getCodebaseDir("MultiProjectDifferentBoms"));
+
+        // When
+        Output<Void> output = underTest.scan(codebase);
+
+        // Then
+        assertThat(output.getOutput()).isNull();
+        Component component = getMutatedComponent(output);
+        assertThatGradleIsUsed(component);
+        assertThat(getSoftwareRepositories(component)).containsExactlyInAnyOrder(
+                GRADLE_PLUGIN_PORTAL_REPOSITORY.withScope(SoftwareRepositoryScope.BUILDSCRIPT),
+                MAVEN_CENTRAL_REPOSITORY);
+        Map<SoftwareGroup, List<Software>> softwareGroups = getSoftwareGroups(component);
+        // The Hoxton.SR9 BOM imported by subproject-a must not leak into subproject-b, which only inherits the root project's Hoxton.SR8 BOM
+        assertThat(softwareGroups.get(SoftwareGroup.DIRECT))
+                .filteredOn(software -> software.getName().equals(SPRING_CLOUD_STARTER_ZIPKIN_2_2_5_RELEASE.getName()))
+                .containsExactly(SPRING_CLOUD_STARTER_ZIPKIN_2_2_5_RELEASE);
+    }
+
     @Test
     public void shouldScanMultiProjectInheritedProjectPropertiesBuild() {
         // Given
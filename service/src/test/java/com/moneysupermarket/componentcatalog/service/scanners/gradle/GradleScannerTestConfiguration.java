@@ -4,17 +4,21 @@ import com.moneysupermarket.componentcatalog.service.config.DownloadCacheConfig;
 import com.moneysupermarket.componentcatalog.service.config.DownloaderConfig;
 import com.moneysupermarket.componentcatalog.service.config.UrlExistsCacheConfig;
 import com.moneysupermarket.componentcatalog.service.mappers.ThrowableToScannerErrorMapper;
+import com.moneysupermarket.componentcatalog.service.services.CachingVersionParser;
 import com.moneysupermarket.componentcatalog.service.services.DownloadCache;
 import com.moneysupermarket.componentcatalog.service.services.Downloader;
 import com.moneysupermarket.componentcatalog.service.services.HttpRequestMaker;
 import com.moneysupermarket.componentcatalog.service.services.UrlExistsCache;
+import com.moneysupermarket.componentcatalog.service.services.ValueInterner;
 import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.io.IOException;
+import java.time.Clock;
 import java.time.Duration;
 
 @EnableAutoConfiguration
@@ -32,8 +36,13 @@ public class GradleScannerTestConfiguration {
     }
 
     @Bean
-    public UrlExistsCache urlExistsCache(FileUtils fileUtils, UrlExistsCacheConfig config) throws IOException {
-        return new UrlExistsCache(fileUtils, config);
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+
+    @Bean
+    public UrlExistsCache urlExistsCache(FileUtils fileUtils, UrlExistsCacheConfig config, Clock clock) throws IOException {
+        return new UrlExistsCache(fileUtils, config, clock);
     }
 
     @Bean
@@ -43,7 +52,7 @@ public class GradleScannerTestConfiguration {
 
     @Bean
     public Downloader downloader(WebClient webClient, DownloadCache downloadCache, UrlExistsCache urlExistsCache, HttpRequestMaker httpRequestMaker) {
-        return new Downloader(new DownloaderConfig(Duration.ofMinutes(2)), webClient, downloadCache, urlExistsCache, httpRequestMaker);
+        return new Downloader(new DownloaderConfig(Duration.ofMinutes(2), 8), webClient, downloadCache, urlExistsCache, httpRequestMaker);
     }
 
     @Bean
@@ -55,4 +64,14 @@ public class GradleScannerTestConfiguration {
     public ThrowableToScannerErrorMapper throwableToScannerErrorMapper() {
         return new ThrowableToScannerErrorMapper();
     }
+
+    @Bean
+    public CachingVersionParser cachingVersionParser(MeterRegistry meterRegistry) {
+        return new CachingVersionParser(meterRegistry);
+    }
+
+    @Bean
+    public ValueInterner valueInterner(MeterRegistry meterRegistry) {
+        return new ValueInterner(meterRegistry);
+    }
 }
@@ -1,10 +1,13 @@
 package com.moneysupermarket.componentcatalog.service.scanners.gradle.internal;
 
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.config.GradleConfig;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services.BuildFileCache;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services.BuildFileLoader;
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services.BuildFileParser;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services.PropertyExpander;
 import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services.PropertyRetriever;
 import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.codehaus.groovy.ast.ASTNode;
 import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.ast.stmt.BlockStatement;
@@ -32,7 +35,8 @@ public class BuildFileLoaderTest {
 
     @BeforeEach
     public void setUp() {
-        underTest = new BuildFileLoader(fileUtils, new BuildFileCache(), new PropertyExpander(new PropertyRetriever()));
+        underTest = new BuildFileLoader(fileUtils, new BuildFileCache(new GradleConfig(null, null, null, null, null, null), new SimpleMeterRegistry()),
+                new BuildFileParser(), new PropertyExpander(new PropertyRetriever()));
     }
 
     @Test
@@ -54,6 +58,21 @@ public class BuildFileLoaderTest {
         assertThat(node).isInstanceOf(ClassNode.class);
     }
 
+    @Test
+    public void loadBuildFileShouldReuseTheNodesOfABuildFileWithTheSameContents() {
+        // Given
+        Path codebaseDir = Path.of("/tmp");
+        when(fileUtils.readFileContent(Path.of("/tmp/first.gradle"))).thenReturn("\"Hello, World!\"");
+        when(fileUtils.readFileContent(Path.of("/tmp/second.gradle"))).thenReturn("\"Hello, World!\"");
+        List<ASTNode> firstNodes = underTest.loadBuildFile(Path.of("/tmp/first.gradle"), codebaseDir);
+
+        // When
+        List<ASTNode> secondNodes = underTest.loadBuildFile(Path.of("/tmp/second.gradle"), codebaseDir);
+
+        // Then
+        assertThat(secondNodes).isSameAs(firstNodes);
+    }
+
     @Test
     public void loadBuildFileShouldCheckBuildFileIsWithinCodebaseDir() {
         // Given
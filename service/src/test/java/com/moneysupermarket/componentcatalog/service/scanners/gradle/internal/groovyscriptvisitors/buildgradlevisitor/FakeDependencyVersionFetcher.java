@@ -12,7 +12,7 @@ import java.util.Set;
 public class FakeDependencyVersionFetcher extends DependencyVersionFetcher {
 
     public FakeDependencyVersionFetcher() {
-        super(null, null);
+        super(null, null, null);
     }
 
     @Override
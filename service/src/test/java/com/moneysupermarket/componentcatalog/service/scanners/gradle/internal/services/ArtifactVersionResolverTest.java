@@ -0,0 +1,115 @@
+package com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services;
+
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareRepository;
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.config.GradleConfig;
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.utils.ArtifactUtils;
+import com.moneysupermarket.componentcatalog.service.services.CachingVersionParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ArtifactVersionResolverTest {
+
+    private static final Instant NOW = Instant.parse("2021-01-01T12:00:00Z");
+    private static final Set<SoftwareRepository> SOFTWARE_REPOSITORIES = Set.of(SoftwareRepository.builder().url("https://example.com/repo/").build());
+    private static final List<String> VERSIONS = List.of("1.9", "1.10", "1.2", "2.0-rc1", "2.0", "2.1", "10.0", "1.10.1");
+
+    @Mock
+    private ArtifactVersionsFetcher mockArtifactVersionsFetcher;
+    @Mock
+    private Clock mockClock;
+    private ArtifactVersionResolver underTest;
+
+    @BeforeEach
+    public void beforeEach() {
+        underTest = new ArtifactVersionResolver(mockArtifactVersionsFetcher, new ArtifactUtils(),
+                new GradleConfig(List.of(), "test-pom-cache-dir", null, Duration.ofMinutes(10), null, null), mockClock,
+                new CachingVersionParser(new SimpleMeterRegistry()));
+        underTest.initialise();
+    }
+
+    @Test
+    public void resolveArtifactVersionShouldReturnAStaticVersionWithoutFetchingVersions() {
+        // When
+        String returnValue = underTest.resolveArtifactVersion("com.example", "example", "1.2.3", SOFTWARE_REPOSITORIES);
+
+        // Then
+        assertThat(returnValue).isEqualTo("1.2.3");
+        verifyNoInteractions(mockArtifactVersionsFetcher);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1.+, 1.10.1",
+            "1.1+, 1.10.1",
+            "2.+, 2.1",
+            "+, 10.0",
+            "latest.release, 10.0",
+            "'[1.0,2.0)', 2.0-rc1",
+            "'[1.0,2.0]', 2.0",
+            "'(,1.10]', 1.10",
+            "'[2.0,)', 10.0"
+    })
+    public void resolveArtifactVersionShouldReturnTheHighestMatchingVersion(String version, String expectedVersion) {
+        // Given
+        when(mockClock.instant()).thenReturn(NOW);
+        when(mockArtifactVersionsFetcher.fetchArtifactVersions("com.example", "example", SOFTWARE_REPOSITORIES)).thenReturn(VERSIONS);
+
+        // When
+        String returnValue = underTest.resolveArtifactVersion("com.example", "example", version, SOFTWARE_REPOSITORIES);
+
+        // Then
+        assertThat(returnValue).isEqualTo(expectedVersion);
+    }
+
+    @Test
+    public void resolveArtifactVersionShouldThrowAnExceptionWhenNoVersionMatches() {
+        // Given
+        when(mockClock.instant()).thenReturn(NOW);
+        when(mockArtifactVersionsFetcher.fetchArtifactVersions("com.example", "example", SOFTWARE_REPOSITORIES)).thenReturn(VERSIONS);
+
+        // When
+        Throwable thrown = catchThrowable(() -> underTest.resolveArtifactVersion("com.example", "example", "3.+", SOFTWARE_REPOSITORIES));
+
+        // Then
+        assertThat(thrown).isInstanceOf(RuntimeException.class);
+        assertThat(thrown).hasMessage("Could not find matching version for \"com.example:example:3.+\"");
+    }
+
+    @Test
+    public void resolveArtifactVersionShouldReuseFetchedVersionsUntilTheirTtlHasExpired() {
+        // Given
+        when(mockClock.instant()).thenReturn(NOW, NOW.plus(Duration.ofMinutes(9)), NOW.plus(Duration.ofMinutes(10)));
+        when(mockArtifactVersionsFetcher.fetchArtifactVersions("com.example", "example", SOFTWARE_REPOSITORIES)).thenReturn(VERSIONS,
+                List.of("1.11"));
+
+        // When
+        List<String> returnValues = List.of(
+                underTest.resolveArtifactVersion("com.example", "example", "1.+", SOFTWARE_REPOSITORIES),
+                underTest.resolveArtifactVersion("com.example", "example", "2.+", SOFTWARE_REPOSITORIES),
+                underTest.resolveArtifactVersion("com.example", "example", "1.+", SOFTWARE_REPOSITORIES));
+
+        // Then
+        assertThat(returnValues).containsExactly("1.10.1", "2.1", "1.11");
+        verify(mockArtifactVersionsFetcher, times(2)).fetchArtifactVersions("com.example", "example", SOFTWARE_REPOSITORIES);
+    }
+}
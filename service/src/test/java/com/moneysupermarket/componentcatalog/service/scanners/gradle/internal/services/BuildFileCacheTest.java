@@ -0,0 +1,57 @@
+package com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services;
+
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.config.GradleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BuildFileCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void getBuildFileNodesShouldReturnNodesThatHaveBeenPutForTheSameContent() {
+        // Given
+        BuildFileCache underTest = createUnderTest(DataSize.ofKilobytes(1));
+        List<ASTNode> nodes = List.of(new BlockStatement());
+        underTest.putBuildFileNodes("test-content", nodes);
+
+        // When
+        List<ASTNode> returnValue = underTest.getBuildFileNodes("test-content");
+
+        // Then
+        assertThat(returnValue).isSameAs(nodes);
+        assertThat(underTest.getBuildFileNodes("other-content")).isNull();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "gradleBuildFileCache").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "gradleBuildFileCache").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void putBuildFileNodesShouldEvictTheLeastRecentlyUsedNodesWhenTheMaxSizeIsExceeded() {
+        // Given
+        BuildFileCache underTest = createUnderTest(DataSize.ofBytes(250));
+        underTest.putBuildFileNodes("a".repeat(100), List.of(new BlockStatement()));
+        underTest.putBuildFileNodes("b".repeat(100), List.of(new BlockStatement()));
+        underTest.getBuildFileNodes("a".repeat(100));
+
+        // When
+        underTest.putBuildFileNodes("c".repeat(100), List.of(new BlockStatement()));
+
+        // Then
+        assertThat(underTest.getBuildFileNodes("a".repeat(100))).isNotNull();
+        assertThat(underTest.getBuildFileNodes("b".repeat(100))).isNull();
+        assertThat(underTest.getBuildFileNodes("c".repeat(100))).isNotNull();
+    }
+
+    private BuildFileCache createUnderTest(DataSize maxSize) {
+        return new BuildFileCache(new GradleConfig(null, null, null, null, null, maxSize), meterRegistry);
+    }
+}
@@ -0,0 +1,145 @@
+package com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.services;
+
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareRepository;
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.config.GradleConfig;
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.constants.SoftwareRepositoryUrls;
+import com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.utils.ArtifactUtils;
+import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MavenFilePrefetcherTest {
+
+    private static final SoftwareRepository MAVEN_CENTRAL = SoftwareRepository.builder().url(SoftwareRepositoryUrls.MAVEN_CENTRAL).build();
+    private static final SoftwareRepository CUSTOM_REPO = SoftwareRepository.builder().url("https://example.com/repo/").build();
+
+    @TempDir
+    public Path tempDir;
+    @Mock
+    private PomFetcher mockPomFetcher;
+    @Mock
+    private ArtifactVersionsFetcher mockArtifactVersionsFetcher;
+    @Mock
+    private SoftwareRepositoryFactory mockSoftwareRepositoryFactory;
+    private MavenFilePrefetcher underTest;
+
+    @BeforeEach
+    public void beforeEach() {
+        underTest = new MavenFilePrefetcher(new GradleConfig(List.of(), "test-pom-cache-dir", 2, null, null, null), new FileUtils(), new ArtifactUtils(),
+                mockPomFetcher, mockArtifactVersionsFetcher, mockSoftwareRepositoryFactory);
+    }
+
+    @Test
+    public void prefetchShouldFetchPomsForFixedVersionsAndMetadataForDynamicVersions() throws IOException {
+        // Given
+        Path codebaseDir = tempDir.resolve("codebase");
+        Files.createDirectories(codebaseDir.resolve("sub-project"));
+        Files.writeString(codebaseDir.resolve("build.gradle"), "repositories {\n"
+                + "    mavenCentral()\n"
+                + "}\n"
+                + "dependencies {\n"
+                + "    implementation 'com.example:fixed:1.2.3'\n"
+                + "    implementation \"com.example:dynamic:1.+\"\n"
+                + "    implementation \"com.example:property:$exampleVersion\"\n"
+                + "}\n");
+        Files.writeString(codebaseDir.resolve("sub-project").resolve("build.gradle"), "repositories {\n"
+                + "    maven { url 'https://example.com/repo/' }\n"
+                + "}\n"
+                + "dependencies {\n"
+                + "    implementation 'com.example:classified:2.0.0:tests@jar'\n"
+                + "}\n");
+        when(mockSoftwareRepositoryFactory.createSoftwareRepository("test-scanner", "https://example.com/repo/", null)).thenReturn(CUSTOM_REPO);
+        when(mockSoftwareRepositoryFactory.createSoftwareRepository("test-scanner", SoftwareRepositoryUrls.MAVEN_CENTRAL, null)).thenReturn(MAVEN_CENTRAL);
+        Set<SoftwareRepository> softwareRepositories = Set.of(CUSTOM_REPO, MAVEN_CENTRAL);
+
+        // When
+        underTest.prefetch("test-scanner", List.of(codebaseDir));
+
+        // Then
+        verify(mockPomFetcher).fetchPom("com.example:fixed:1.2.3", softwareRepositories);
+        verify(mockPomFetcher).fetchPom("com.example:classified:2.0.0", softwareRepositories);
+        verify(mockArtifactVersionsFetcher).fetchArtifactVersions("com.example", "dynamic", softwareRepositories);
+        verifyNoMoreInteractions(mockPomFetcher, mockArtifactVersionsFetcher);
+    }
+
+    @Test
+    public void prefetchShouldFetchSpringBootDependenciesPomForSpringBootPlugin() throws IOException {
+        // Given
+        Path codebaseDir = tempDir.resolve("codebase");
+        Files.createDirectories(codebaseDir);
+        Files.writeString(codebaseDir.resolve("build.gradle"), "plugins {\n"
+                + "    id 'org.springframework.boot' version '2.5.0'\n"
+                + "}\n"
+                + "repositories {\n"
+                + "    mavenCentral()\n"
+                + "}\n");
+        when(mockSoftwareRepositoryFactory.createSoftwareRepository(eq("test-scanner"), any(), eq(null))).thenReturn(MAVEN_CENTRAL);
+
+        // When
+        underTest.prefetch("test-scanner", List.of(codebaseDir));
+
+        // Then
+        verify(mockPomFetcher).fetchPom(eq("org.springframework.boot:spring-boot-dependencies:2.5.0"), anySet());
+        verifyNoMoreInteractions(mockPomFetcher, mockArtifactVersionsFetcher);
+    }
+
+    @Test
+    public void prefetchShouldCarryOnWhenAFetchFails() throws IOException {
+        // Given
+        Path codebaseDir = tempDir.resolve("codebase");
+        Files.createDirectories(codebaseDir);
+        Files.writeString(codebaseDir.resolve("build.gradle"), "repositories {\n"
+                + "    mavenCentral()\n"
+                + "}\n"
+                + "dependencies {\n"
+                + "    implementation 'com.example:first:1.0.0'\n"
+                + "    implementation 'com.example:second:1.0.0'\n"
+                + "}\n");
+        when(mockSoftwareRepositoryFactory.createSoftwareRepository("test-scanner", SoftwareRepositoryUrls.MAVEN_CENTRAL, null)).thenReturn(MAVEN_CENTRAL);
+        when(mockPomFetcher.fetchPom("com.example:first:1.0.0", Set.of(MAVEN_CENTRAL))).thenThrow(new RuntimeException("Fetch failed"));
+
+        // When
+        underTest.prefetch("test-scanner", List.of(codebaseDir));
+
+        // Then
+        verify(mockPomFetcher).fetchPom("com.example:second:1.0.0", Set.of(MAVEN_CENTRAL));
+    }
+
+    @Test
+    public void prefetchShouldNotFetchAnythingForACodebaseWithNoRepositories() throws IOException {
+        // Given
+        Path codebaseDir = tempDir.resolve("codebase");
+        Files.createDirectories(codebaseDir);
+        Files.writeString(codebaseDir.resolve("build.gradle"), "plugins {\n"
+                + "    id 'org.springframework.boot' version '2.5.0'\n"
+                + "}\n"
+                + "dependencies {\n"
+                + "    implementation 'com.example:fixed:1.2.3'\n"
+                + "}\n");
+
+        // When
+        underTest.prefetch("test-scanner", List.of(codebaseDir));
+
+        // Then
+        verifyNoInteractions(mockSoftwareRepositoryFactory, mockPomFetcher, mockArtifactVersionsFetcher);
+    }
+}
@@ -20,6 +20,10 @@ import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -107,6 +111,42 @@ public class PomFetcherTest {
         assertThat(returnValue.getPom()).isEqualTo(POM);
     }
 
+    @Test
+    public void fetchPomShouldReuseAPomThatHasAlreadyBeenFetched() {
+        // Given
+        when(mockMavenRepositoryFileDownloader.downloadArtifact(POM_ARTIFACT_COORDINATES, MavenPackagings.POM, SOFTWARE_REPOSITORIES))
+                .thenReturn(new MavenRepositoryFileDownloader.MavenFileRequestOutcome<>(POM_URL, true, POM_XML, List.of()));
+        PomOutcome firstReturnValue = underTest.fetchPom(POM_ARTIFACT_COORDINATES, SOFTWARE_REPOSITORIES);
+
+        // When
+        PomOutcome returnValue = underTest.fetchPom(POM_ARTIFACT_COORDINATES, SOFTWARE_REPOSITORIES);
+
+        // Then
+        assertThat(returnValue.isJarOnly()).isFalse();
+        assertThat(returnValue.getPom()).isSameAs(firstReturnValue.getPom());
+        verify(mockMavenRepositoryFileDownloader, times(1)).downloadArtifact(POM_ARTIFACT_COORDINATES, MavenPackagings.POM, SOFTWARE_REPOSITORIES);
+        verify(mockPomCache, times(1)).get(POM_URL);
+        verify(mockPomCache, times(1)).put(eq(POM_URL), any());
+    }
+
+    @Test
+    public void fetchPomShouldReuseAPomThatHasAlreadyBeenFetchedFromTheSameUrlForDifferentRepositories() {
+        // Given
+        Set<SoftwareRepository> otherSoftwareRepositories = Set.of(SoftwareRepository.builder().url("https://example.com/test-1").build());
+        when(mockMavenRepositoryFileDownloader.downloadArtifact(POM_ARTIFACT_COORDINATES, MavenPackagings.POM, SOFTWARE_REPOSITORIES))
+                .thenReturn(new MavenRepositoryFileDownloader.MavenFileRequestOutcome<>(POM_URL, true, POM_XML, List.of()));
+        when(mockMavenRepositoryFileDownloader.downloadArtifact(POM_ARTIFACT_COORDINATES, MavenPackagings.POM, otherSoftwareRepositories))
+                .thenReturn(new MavenRepositoryFileDownloader.MavenFileRequestOutcome<>(POM_URL, true, POM_XML, List.of()));
+        PomOutcome firstReturnValue = underTest.fetchPom(POM_ARTIFACT_COORDINATES, SOFTWARE_REPOSITORIES);
+
+        // When
+        PomOutcome returnValue = underTest.fetchPom(POM_ARTIFACT_COORDINATES, otherSoftwareRepositories);
+
+        // Then
+        assertThat(returnValue.getPom()).isSameAs(firstReturnValue.getPom());
+        verify(mockPomCache, times(1)).get(POM_URL);
+    }
+
     @Test
     public void fetchPomShouldThrowAnExceptionWhenPomDownloadFailsWithAnException() {
         // Given
@@ -2,6 +2,8 @@ package com.moneysupermarket.componentcatalog.service.scanners.gradle.internal.u
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class InheritingHashMapTest {
@@ -144,4 +146,19 @@ public class InheritingHashMapTest {
         // Then
         assertThat(returnValue).isEqualTo(TEST_DEFAULT);
     }
+
+    @Test
+    public void getOwnEntriesShouldReturnOnlyTheEntriesInThisMap() {
+        // Given
+        InheritingHashMap<String, String> parent = new InheritingHashMap<>();
+        parent.put("parent-key", TEST_VALUE);
+        InheritingHashMap<String, String> underTest = new InheritingHashMap<>(parent);
+        underTest.put(TEST_KEY, TEST_DIFFERENT_VALUE);
+
+        // When
+        Map<String, String> returnValue = underTest.getOwnEntries();
+
+        // Then
+        assertThat(returnValue).containsExactly(Map.entry(TEST_KEY, TEST_DIFFERENT_VALUE));
+    }
 }
@@ -350,4 +350,19 @@ public class InheritingHashSetTest {
         List<String> returnValueList = StreamSupport.stream(returnValue, false).collect(Collectors.toList());
         assertThat(returnValueList).isEmpty();
     }
+
+    @Test
+    public void getOwnElementsShouldReturnOnlyTheElementsInThisSet() {
+        // Given
+        Set<String> parent = new HashSet<>();
+        parent.add("value-1");
+        InheritingHashSet<String> underTest = new InheritingHashSet<>(parent);
+        underTest.add("value-2");
+
+        // When
+        Set<String> returnValue = underTest.getOwnElements();
+
+        // Then
+        assertThat(returnValue).containsExactly("value-2");
+    }
 }
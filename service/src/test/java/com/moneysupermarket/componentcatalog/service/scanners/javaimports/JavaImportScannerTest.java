@@ -6,7 +6,9 @@ import com.moneysupermarket.componentcatalog.service.scanners.BaseCodebaseScanne
 import com.moneysupermarket.componentcatalog.service.scanners.javaimports.internal.services.JavaImportFinder;
 import com.moneysupermarket.componentcatalog.service.scanners.models.Codebase;
 import com.moneysupermarket.componentcatalog.service.scanners.models.Output;
+import com.moneysupermarket.componentcatalog.service.services.ValueInterner;
 import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,7 +25,7 @@ public class JavaImportScannerTest extends BaseCodebaseScannerTest {
 
     @BeforeEach
     public void beforeEach() {
-        underTest = new JavaImportScanner(new FileUtils(), new JavaImportFinder());
+        underTest = new JavaImportScanner(new FileUtils(), new JavaImportFinder(), new ValueInterner(new SimpleMeterRegistry()));
     }
 
     @Test
@@ -0,0 +1,55 @@
+package com.moneysupermarket.componentcatalog.service.scanners.keysoftware;
+
+import com.moneysupermarket.componentcatalog.service.scanners.keysoftware.config.KeySoftwareRule;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KeySoftwareRuleMatcherTest {
+
+    private final KeySoftwareRuleMatcher underTest = new KeySoftwareRuleMatcher(List.of(
+            new KeySoftwareRule("^gradle-wrapper$", "gradle"),
+            new KeySoftwareRule("^org.springframework.boot:", "spring-boot"),
+            new KeySoftwareRule("^org.mongodb:(mongodb-driver|mongo-java-driver)$", "mongodb-driver"),
+            new KeySoftwareRule("guava", "guava"),
+            new KeySoftwareRule("^ab?c", "optional-character"),
+            new KeySoftwareRule("^test|example", "top-level-alternation"),
+            new KeySoftwareRule("^org\\.springframework\\.boot:spring-boot$", "escaped-dots")));
+
+    @ParameterizedTest
+    @CsvSource({
+            "gradle-wrapper, 0",
+            "gradle-wrapper-extra, ''",
+            "org.springframework.boot:spring-boot, 1 6",
+            "org.springframework.boot:spring-boot-starter, 1",
+            "orgXspringframework.boot:spring-boot, 1",
+            "org.mongodb:mongo-java-driver, 2",
+            "org.mongodb:bson, ''",
+            "com.google.guava:guava, 3",
+            "ac, 4",
+            "abc, 4",
+            "abbc, ''",
+            "test, 5",
+            "an-example, 5",
+            "'', ''"
+    })
+    public void findMatchingRuleIndexesShouldReturnTheIndexesOfTheMatchingRulesInOrder(String softwareName, String expectedRuleIndexes) {
+        // When
+        List<Integer> returnValue = underTest.findMatchingRuleIndexes(softwareName);
+
+        // Then
+        assertThat(returnValue).isEqualTo(parseRuleIndexes(expectedRuleIndexes));
+    }
+
+    private List<Integer> parseRuleIndexes(String ruleIndexes) {
+        return Arrays.stream(ruleIndexes.split(" "))
+                .filter(ruleIndex -> !ruleIndex.isEmpty())
+                .map(Integer::valueOf)
+                .collect(Collectors.toList());
+    }
+}
@@ -7,6 +7,8 @@ import com.moneysupermarket.componentcatalog.service.scanners.BaseScannerTest;
 import com.moneysupermarket.componentcatalog.service.scanners.keysoftware.config.KeySoftwareConfig;
 import com.moneysupermarket.componentcatalog.service.scanners.keysoftware.config.KeySoftwareRule;
 import com.moneysupermarket.componentcatalog.service.scanners.models.Output;
+import com.moneysupermarket.componentcatalog.service.services.CachingVersionParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -15,10 +17,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 public class KeySoftwareScannerTest extends BaseScannerTest {
 
+    private final CachingVersionParser versionParser = new CachingVersionParser(new SimpleMeterRegistry());
+
     @Test
     public void idShouldReturnTheIdOfTheScanner() {
         // Given
-        KeySoftwareScanner underTest = new KeySoftwareScanner(new KeySoftwareConfig(List.of()));
+        KeySoftwareScanner underTest = new KeySoftwareScanner(new KeySoftwareConfig(List.of()), versionParser);
 
         // When
         String returnValue = underTest.id();
@@ -30,7 +34,7 @@ public class KeySoftwareScannerTest extends BaseScannerTest {
     @Test
     public void descriptionShouldReturnTheDescriptionOfTheScanner() {
         // Given
-        KeySoftwareScanner underTest = new KeySoftwareScanner(new KeySoftwareConfig(List.of()));
+        KeySoftwareScanner underTest = new KeySoftwareScanner(new KeySoftwareConfig(List.of()), versionParser);
 
         // When
         String returnValue = underTest.description();
@@ -43,7 +47,7 @@ public class KeySoftwareScannerTest extends BaseScannerTest {
     @Test
     public void notesShouldReturnNull() {
         // Given
-        KeySoftwareScanner underTest = new KeySoftwareScanner(new KeySoftwareConfig(List.of()));
+        KeySoftwareScanner underTest = new KeySoftwareScanner(new KeySoftwareConfig(List.of()), versionParser);
 
         // When
         String returnValue = underTest.notes();
@@ -56,7 +60,7 @@ public class KeySoftwareScannerTest extends BaseScannerTest {
     public void scanShouldHandleNoSoftware() {
         // Given
         KeySoftwareConfig config = new KeySoftwareConfig(List.of(new KeySoftwareRule("test", "test")));
-        KeySoftwareScanner underTest = new KeySoftwareScanner(config);
+        KeySoftwareScanner underTest = new KeySoftwareScanner(config, versionParser);
         Component component = Component.builder().build();
 
         // When
@@ -72,7 +76,7 @@ public class KeySoftwareScannerTest extends BaseScannerTest {
     public void scanShouldHandleNoRules() {
         // Given
         KeySoftwareConfig config = new KeySoftwareConfig(List.of());
-        KeySoftwareScanner underTest = new KeySoftwareScanner(config);
+        KeySoftwareScanner underTest = new KeySoftwareScanner(config, versionParser);
         Component component = Component.builder()
                 .software(List.of(Software.builder().build()))
                 .build();
@@ -90,7 +94,7 @@ public class KeySoftwareScannerTest extends BaseScannerTest {
     public void scanShouldHandleRuleThatDoesNotMatch() {
         // Given
         KeySoftwareConfig config = new KeySoftwareConfig(List.of(new KeySoftwareRule("test-software-name", "test-key-software-name")));
-        KeySoftwareScanner underTest = new KeySoftwareScanner(config);
+        KeySoftwareScanner underTest = new KeySoftwareScanner(config, versionParser);
         Component component = Component.builder()
                 .software(List.of(Software.builder().name("other-software-name").build()))
                 .build();
@@ -108,7 +112,7 @@ public class KeySoftwareScannerTest extends BaseScannerTest {
     public void scanShouldMatchKeySoftwareItem() {
         // Given
         KeySoftwareConfig config = new KeySoftwareConfig(List.of(new KeySoftwareRule("test-software-name", "test-key-software-name")));
-        KeySoftwareScanner underTest = new KeySoftwareScanner(config);
+        KeySoftwareScanner underTest = new KeySoftwareScanner(config, versionParser);
         Software softwareItem = Software.builder()
                 .name("test-software-name")
                 .version("1.2.3")
@@ -134,7 +138,7 @@ public class KeySoftwareScannerTest extends BaseScannerTest {
     public void scanShouldMatchMultipleKeySoftwareItems() {
         // Given
         KeySoftwareConfig config = new KeySoftwareConfig(List.of(new KeySoftwareRule("test-software-name", "test-key-software-name")));
-        KeySoftwareScanner underTest = new KeySoftwareScanner(config);
+        KeySoftwareScanner underTest = new KeySoftwareScanner(config, versionParser);
         Software softwareItem1 = Software.builder()
                 .name("test-software-name")
                 .version("4.5.6")
@@ -164,7 +168,7 @@ public class KeySoftwareScannerTest extends BaseScannerTest {
     public void scanShouldMatchMultipleKeySoftwareItemsAndSortThemByVersion() {
         // Given
         KeySoftwareConfig config = new KeySoftwareConfig(List.of(new KeySoftwareRule("test-software-name", "test-key-software-name")));
-        KeySoftwareScanner underTest = new KeySoftwareScanner(config);
+        KeySoftwareScanner underTest = new KeySoftwareScanner(config, versionParser);
         Software softwareItem1 = Software.builder()
                 .name("test-software-name")
                 .version("1.2.3")
@@ -194,7 +198,7 @@ public class KeySoftwareScannerTest extends BaseScannerTest {
     public void scanShouldMatchMultipleKeySoftwareItemsAndDeduplicateThem() {
         // Given
         KeySoftwareConfig config = new KeySoftwareConfig(List.of(new KeySoftwareRule("test-software-name", "test-key-software-name")));
-        KeySoftwareScanner underTest = new KeySoftwareScanner(config);
+        KeySoftwareScanner underTest = new KeySoftwareScanner(config, versionParser);
         Software softwareItem1 = Software.builder()
                 .name("test-software-name")
                 .version("1.2.3")
@@ -226,7 +230,7 @@ public class KeySoftwareScannerTest extends BaseScannerTest {
         KeySoftwareRule rule1 = new KeySoftwareRule("test-software-name-1", "test-key-software-name-1");
         KeySoftwareRule rule2 = new KeySoftwareRule("test-software-name-2", "test-key-software-name-2");
         KeySoftwareConfig config = new KeySoftwareConfig(List.of(rule1, rule2));
-        KeySoftwareScanner underTest = new KeySoftwareScanner(config);
+        KeySoftwareScanner underTest = new KeySoftwareScanner(config, versionParser);
         Software softwareItem1 = Software.builder()
                 .name("test-software-name-1")
                 .version("1.2.3")
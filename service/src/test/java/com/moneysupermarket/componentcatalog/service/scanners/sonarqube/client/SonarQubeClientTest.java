@@ -15,12 +15,19 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @ExtendWith(SpringExtension.class)
-@SpringBootTest(properties = {"sonarqube.base-url=http://localhost:36202"})
+@SpringBootTest(properties = {
+        "sonarqube.base-url=http://localhost:36202",
+        "sonarqube.metric-keys=coverage,last_commit_date",
+        "sonarqube.max-concurrent-requests=2"})
 @ContextConfiguration(classes = { SonarQubeClientTestConfiguration.class})
 @EnableConfigurationProperties(value = { SonarQubeConfig.class})
 public class SonarQubeClientTest {
@@ -56,6 +63,7 @@ public class SonarQubeClientTest {
                 .hidden(false)
                 .custom(false)
                 .build()));
+        wireMockServer.verify(2, getRequestedFor(urlPathEqualTo("/api/metrics/search")));
     }
 
     @Test
@@ -69,26 +77,61 @@ public class SonarQubeClientTest {
         // Then
         assertThat(returnValue).hasSize(105);
         IntStream.range(1, 106).forEach(projectNumber -> assertThat(returnValue).contains(
-                new Project("test-component-key-" + projectNumber, "Test Component Name " + projectNumber)));
+                new Project("test-component-key-" + projectNumber, "Test Component Name " + projectNumber,
+                        SonarQubeWireMockFactory.createAnalysisDate(projectNumber))));
+        wireMockServer.verify(2, getRequestedFor(urlPathEqualTo("/api/components/search_projects")));
     }
 
     @Test
-    public void getProjectMeasuresShouldReturnAllMeasuresForSpecifiedMetricsForAProject() {
+    public void getProjectMeasuresShouldReturnMeasuresForConfiguredMetricsForManyProjectsUsingBatches() {
         // Given
         wireMockServer = SonarQubeWireMockFactory.createWithRealResponses();
+        List<String> projectKeys = IntStream.range(1, 106)
+                .mapToObj(projectNumber -> "test-component-key-" + projectNumber)
+                .collect(Collectors.toList());
 
         // When
-        List<SonarQubeMeasure> returnValue = underTest.getProjectMeasures("test-component-key-1", List.of(
-                SummarySonarQubeMetric.builder().key("test-metric-key-1").build(),
-                SummarySonarQubeMetric.builder().key("test-metric-key-2").build()));
+        Map<String, List<SonarQubeMeasure>> returnValue = underTest.getProjectMeasures(projectKeys, List.of("coverage", "last_commit_date"));
 
         // Then
-        assertThat(returnValue).hasSize(2);
-        IntStream.range(1, 3).forEach(measureNumber -> assertThat(returnValue).contains(
+        assertThat(returnValue).hasSize(105);
+        IntStream.range(1, 106).forEach(projectNumber -> assertThat(returnValue.get("test-component-key-" + projectNumber)).containsExactly(
+                SonarQubeMeasure.builder()
+                        .metric("coverage")
+                        .value(Integer.toString(projectNumber))
+                        .bestValue(false)
+                        .build(),
                 SonarQubeMeasure.builder()
-                        .metric("test-metric-key-" + measureNumber)
-                        .value(Integer.toString(measureNumber))
+                        .metric("last_commit_date")
+                        .value(Integer.toString(1600000000 + projectNumber))
                         .bestValue(false)
                         .build()));
+        wireMockServer.verify(2, getRequestedFor(urlPathEqualTo("/api/measures/search")));
+    }
+
+    @Test
+    public void getProjectMeasuresShouldNotMakeAnyRequestsWhenThereAreNoProjectKeys() {
+        // Given
+        wireMockServer = SonarQubeWireMockFactory.createWithRealResponses();
+
+        // When
+        Map<String, List<SonarQubeMeasure>> returnValue = underTest.getProjectMeasures(List.of(), List.of("coverage", "last_commit_date"));
+
+        // Then
+        assertThat(returnValue).isEmpty();
+        wireMockServer.verify(0, getRequestedFor(urlPathEqualTo("/api/measures/search")));
+    }
+
+    @Test
+    public void getMetricKeysShouldReturnTheConfiguredMetricKeys() {
+        // Given
+        wireMockServer = SonarQubeWireMockFactory.createWithRealResponses();
+
+        // When
+        List<String> returnValue = underTest.getMetricKeys(List.of(
+                SummarySonarQubeMetric.builder().key("test-metric-key-1").build()));
+
+        // Then
+        assertThat(returnValue).containsExactly("coverage", "last_commit_date");
     }
-}
\ No newline at end of file
+}
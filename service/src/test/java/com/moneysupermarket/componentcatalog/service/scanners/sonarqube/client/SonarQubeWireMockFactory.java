@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.tomakehurst.wiremock.WireMockServer;
 
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
@@ -25,35 +26,36 @@ public class SonarQubeWireMockFactory {
         return create(wireMockServer -> {
             ObjectMapper objectMapper = new ObjectMapper();
 
-            IntStream.range(1, 4).forEach(pageNumber -> wireMockServer.stubFor(get(urlPathEqualTo("/api/metrics/search"))
+            IntStream.range(1, 3).forEach(pageNumber -> wireMockServer.stubFor(get(urlPathEqualTo("/api/metrics/search"))
                     .withQueryParam("p", equalTo(Integer.toString(pageNumber)))
                     .willReturn(aResponse()
                             .withStatus(200)
                             .withHeader("Content-Type", "application/json")
                             .withBody(createMetricsBody(pageNumber, objectMapper)))));
 
-            IntStream.range(1, 4).forEach(pageNumber -> wireMockServer.stubFor(get(urlPathEqualTo("/api/components/search"))
-                    .withQueryParam("qualifiers", equalTo("TRK"))
+            IntStream.range(1, 3).forEach(pageNumber -> wireMockServer.stubFor(get(urlPathEqualTo("/api/components/search_projects"))
+                    .withQueryParam("f", equalTo("analysisDate"))
                     .withQueryParam("p", equalTo(Integer.toString(pageNumber)))
                     .willReturn(aResponse()
                             .withStatus(200)
                             .withHeader("Content-Type", "application/json")
                             .withBody(createComponentsBody(pageNumber, objectMapper)))));
 
-            wireMockServer.stubFor(get(urlPathEqualTo("/api/measures/component"))
-                    .withQueryParam("component", equalTo("test-component-key-1"))
-                    .withQueryParam("metricKeys", equalTo("test-metric-key-1,test-metric-key-2"))
+            // Project keys are deliberately spread over two batches, because the endpoint accepts a maximum of 100 project keys per request
+            IntStream.range(1, 3).forEach(batchNumber -> wireMockServer.stubFor(get(urlPathEqualTo("/api/measures/search"))
+                    .withQueryParam("projectKeys", equalTo(getProjectKeys(batchNumber)))
+                    .withQueryParam("metricKeys", equalTo("coverage,last_commit_date"))
                     .willReturn(aResponse()
                             .withStatus(200)
                             .withHeader("Content-Type", "application/json")
-                            .withBody(createComponentMeasuresBody(objectMapper))));
+                            .withBody(createSearchMeasuresBody(batchNumber, objectMapper)))));
         });
     }
 
     private static String createMetricsBody(int pageNumber, ObjectMapper objectMapper) {
         ObjectNode metrics = objectMapper.createObjectNode();
         ArrayNode metricsArray = metrics.putArray("metrics");
-        // Metrics are deliberately spread over two pages with a third page that is empty
+        // Metrics are deliberately spread over two pages
         getItemNumbers(pageNumber).forEach(metricNumber -> {
             ObjectNode metric = objectMapper.createObjectNode();
             metric.put("id", Integer.toString(1000 + metricNumber));
@@ -85,7 +87,7 @@ public class SonarQubeWireMockFactory {
         pagingJson.put("pageSize", SonarQubeWireMockFactory.PAGE_SIZE);
         pagingJson.put("total", SonarQubeWireMockFactory.ITEM_COUNT);
         ArrayNode componentsJson = rootJson.putArray("components");
-        // Components are deliberately spread over two pages with a third page that is empty
+        // Components are deliberately spread over two pages
         getItemNumbers(pageNumber).forEach(componentNumber -> {
             ObjectNode component = objectMapper.createObjectNode();
             component.put("organisation", "test-organisation-" + componentNumber);
@@ -94,6 +96,7 @@ public class SonarQubeWireMockFactory {
             component.put("name", "Test Component Name " + componentNumber);
             component.put("qualifier", "TRK");
             component.put("project", "test-project-" + componentNumber);
+            component.put("analysisDate", createAnalysisDate(componentNumber));
             componentsJson.add(component);
         });
         try {
@@ -103,19 +106,30 @@ public class SonarQubeWireMockFactory {
         }
     }
 
-    private static String createComponentMeasuresBody(ObjectMapper objectMapper) {
+    public static String createAnalysisDate(int componentNumber) {
+        return String.format("2021-01-%02dT12:00:00+0000", 1 + (componentNumber % 28));
+    }
+
+    private static String getProjectKeys(int batchNumber) {
+        return getItemNumbers(batchNumber)
+                .mapToObj(projectNumber -> "test-component-key-" + projectNumber)
+                .collect(Collectors.joining(","));
+    }
+
+    private static String createSearchMeasuresBody(int batchNumber, ObjectMapper objectMapper) {
         ObjectNode rootJson = objectMapper.createObjectNode();
-        ObjectNode componentJson = rootJson.putObject("component");
-        componentJson.put("id", "test-component-id-1001");
-        componentJson.put("id", "test-component-key-1");
-        componentJson.put("name", "Test Component Name 1");
-        componentJson.put("qualifier", "TRK");
-        ArrayNode measuresJson = componentJson.putArray("measures");
-        IntStream.range(1, 3).forEach(measureNumber -> {
-            ObjectNode measureJson = measuresJson.addObject();
-            measureJson.put("metric", "test-metric-key-" + measureNumber);
-            measureJson.put("value", Integer.toString(measureNumber));
-            measureJson.put("bestValue", false);
+        ArrayNode measuresJson = rootJson.putArray("measures");
+        getItemNumbers(batchNumber).forEach(projectNumber -> {
+            ObjectNode lastCommitDateJson = measuresJson.addObject();
+            lastCommitDateJson.put("metric", "last_commit_date");
+            lastCommitDateJson.put("value", Integer.toString(1600000000 + projectNumber));
+            lastCommitDateJson.put("component", "test-component-key-" + projectNumber);
+            lastCommitDateJson.put("bestValue", false);
+            ObjectNode coverageJson = measuresJson.addObject();
+            coverageJson.put("metric", "coverage");
+            coverageJson.put("value", Integer.toString(projectNumber));
+            coverageJson.put("component", "test-component-key-" + projectNumber);
+            coverageJson.put("bestValue", false);
         });
         try {
             return objectMapper.writeValueAsString(rootJson);
@@ -0,0 +1,162 @@
+package com.moneysupermarket.componentcatalog.service.scanners.sonarqube.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneysupermarket.componentcatalog.sdk.models.sonarqube.SonarQubeMeasure;
+import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.config.SonarQubeConfig;
+import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.Project;
+import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SonarQubeProjectStoreTest {
+
+    private static final List<String> METRIC_KEYS = List.of("coverage", "last_commit_date");
+
+    @TempDir
+    public Path tempDir;
+    private final List<List<String>> fetchedProjectKeys = new ArrayList<>();
+
+    @Test
+    public void syncShouldRetrieveMeasuresForAllProjectsOnTheFirstSync() {
+        // Given
+        SonarQubeProjectStore underTest = createUnderTest(getStoreFile());
+        List<Project> projects = List.of(
+                new Project("test-project-key-1", "Test Project Name 1", "2021-01-01T12:00:00+0000"),
+                new Project("test-project-key-2", "Test Project Name 2", "2021-01-02T12:00:00+0000"));
+
+        // When
+        Map<String, List<SonarQubeMeasure>> returnValue = underTest.sync(projects, METRIC_KEYS, this::fetchMeasures);
+
+        // Then
+        assertThat(fetchedProjectKeys).containsExactly(List.of("test-project-key-1", "test-project-key-2"));
+        assertThat(returnValue).isEqualTo(Map.of(
+                "test-project-key-1", createMeasures("test-project-key-1"),
+                "test-project-key-2", createMeasures("test-project-key-2")));
+    }
+
+    @Test
+    public void syncShouldOnlyRetrieveMeasuresForProjectsThatHaveBeenAnalysedSinceTheLastSync() {
+        // Given
+        SonarQubeProjectStore underTest = createUnderTest(getStoreFile());
+        underTest.sync(List.of(
+                new Project("test-project-key-1", "Test Project Name 1", "2021-01-01T12:00:00+0000"),
+                new Project("test-project-key-2", "Test Project Name 2", "2021-01-02T12:00:00+0000"),
+                new Project("test-project-key-3", "Test Project Name 3", "2021-01-03T12:00:00+0000")), METRIC_KEYS, this::fetchMeasures);
+        fetchedProjectKeys.clear();
+        List<Project> projects = List.of(
+                new Project("test-project-key-1", "Test Project Name 1", "2021-01-01T12:00:00+0000"),
+                new Project("test-project-key-2", "Test Project Name 2", "2021-01-04T12:00:00+0000"),
+                new Project("test-project-key-4", "Test Project Name 4", "2021-01-04T12:00:00+0000"));
+
+        // When
+        Map<String, List<SonarQubeMeasure>> returnValue = underTest.sync(projects, METRIC_KEYS, this::fetchMeasures);
+
+        // Then
+        assertThat(fetchedProjectKeys).containsExactly(List.of("test-project-key-2", "test-project-key-4"));
+        assertThat(returnValue).isEqualTo(Map.of(
+                "test-project-key-1", createMeasures("test-project-key-1"),
+                "test-project-key-2", createMeasures("test-project-key-2"),
+                "test-project-key-4", createMeasures("test-project-key-4")));
+    }
+
+    @Test
+    public void syncShouldRetrieveMeasuresForAllProjectsWhenTheMetricKeysHaveChanged() {
+        // Given
+        SonarQubeProjectStore underTest = createUnderTest(getStoreFile());
+        List<Project> projects = List.of(
+                new Project("test-project-key-1", "Test Project Name 1", "2021-01-01T12:00:00+0000"));
+        underTest.sync(projects, METRIC_KEYS, this::fetchMeasures);
+        fetchedProjectKeys.clear();
+
+        // When
+        underTest.sync(projects, List.of("coverage"), this::fetchMeasures);
+
+        // Then
+        assertThat(fetchedProjectKeys).containsExactly(List.of("test-project-key-1"));
+    }
+
+    @Test
+    public void syncShouldUseTheStoreFileWrittenByAPreviousInstance() {
+        // Given
+        Path storeFile = getStoreFile();
+        List<Project> projects = List.of(
+                new Project("test-project-key-1", "Test Project Name 1", "2021-01-01T12:00:00+0000"));
+        createUnderTest(storeFile).sync(projects, METRIC_KEYS, this::fetchMeasures);
+        fetchedProjectKeys.clear();
+        SonarQubeProjectStore underTest = createUnderTest(storeFile);
+
+        // When
+        Map<String, List<SonarQubeMeasure>> returnValue = underTest.sync(projects, METRIC_KEYS, this::fetchMeasures);
+
+        // Then
+        assertThat(fetchedProjectKeys).containsExactly(List.of());
+        assertThat(returnValue).isEqualTo(Map.of("test-project-key-1", createMeasures("test-project-key-1")));
+    }
+
+    @Test
+    public void syncShouldRetrieveMeasuresForAllProjectsWhenTheStoreFileIsCorrupt() throws IOException {
+        // Given
+        Path storeFile = getStoreFile();
+        Files.createDirectories(storeFile.getParent());
+        Files.writeString(storeFile, "{ not json");
+        SonarQubeProjectStore underTest = createUnderTest(storeFile);
+        List<Project> projects = List.of(
+                new Project("test-project-key-1", "Test Project Name 1", "2021-01-01T12:00:00+0000"));
+
+        // When
+        underTest.sync(projects, METRIC_KEYS, this::fetchMeasures);
+
+        // Then
+        assertThat(fetchedProjectKeys).containsExactly(List.of("test-project-key-1"));
+    }
+
+    @Test
+    public void syncShouldKeepTheStoreInMemoryWhenNoStoreFileIsConfigured() {
+        // Given
+        SonarQubeProjectStore underTest = createUnderTest(null);
+        List<Project> projects = List.of(
+                new Project("test-project-key-1", "Test Project Name 1", "2021-01-01T12:00:00+0000"));
+        underTest.sync(projects, METRIC_KEYS, this::fetchMeasures);
+        fetchedProjectKeys.clear();
+
+        // When
+        underTest.sync(projects, METRIC_KEYS, this::fetchMeasures);
+
+        // Then
+        assertThat(fetchedProjectKeys).containsExactly(List.of());
+    }
+
+    private SonarQubeProjectStore createUnderTest(Path storeFile) {
+        SonarQubeConfig config = new SonarQubeConfig(null, null, null, null, storeFile == null ? null : storeFile.toString());
+        return new SonarQubeProjectStore(config, new FileUtils(), new ObjectMapper());
+    }
+
+    private Path getStoreFile() {
+        return tempDir.resolve("sonarqube").resolve("project-store.json");
+    }
+
+    private Map<String, List<SonarQubeMeasure>> fetchMeasures(List<String> projectKeys) {
+        fetchedProjectKeys.add(projectKeys);
+        return projectKeys.stream()
+                .collect(Collectors.toMap(Function.identity(), this::createMeasures));
+    }
+
+    private List<SonarQubeMeasure> createMeasures(String projectKey) {
+        return List.of(SonarQubeMeasure.builder()
+                .metric("coverage")
+                .value(projectKey + "-coverage")
+                .bestValue(false)
+                .build());
+    }
+}
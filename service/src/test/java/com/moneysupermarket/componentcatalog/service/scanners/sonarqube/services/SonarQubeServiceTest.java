@@ -9,15 +9,21 @@ import com.moneysupermarket.componentcatalog.service.scanners.sonarqube.models.P
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,11 +40,17 @@ public class SonarQubeServiceTest {
     private SonarQubeProjectCreator mockProjectCreator;
     @Mock
     private SonarQubeMissingComponentCollator mockMissingComponentCollator;
+    @Mock
+    private SonarQubeProjectStore mockProjectStore;
+    @Captor
+    private ArgumentCaptor<Function<List<String>, Map<String, List<SonarQubeMeasure>>>> measuresFetcherCaptor;
     private SonarQubeService underTest;
 
     @BeforeEach
     public void beforeEach() {
-        underTest = new SonarQubeService(mockProjectFinder, mockClient, mockProjectCache, mockProjectCreator, mockMissingComponentCollator);    }
+        underTest = new SonarQubeService(mockProjectFinder, mockClient, mockProjectCache, mockProjectCreator, mockMissingComponentCollator,
+                mockProjectStore);
+    }
 
     @Test
     public void refreshShouldClearTheProjectCache() {
@@ -57,6 +69,8 @@ public class SonarQubeServiceTest {
                 SummarySonarQubeMetric.builder().key("test-metric-key-1").build(),
                 SummarySonarQubeMetric.builder().key("test-metric-key-2").build());
         when(mockClient.getMetrics()).thenReturn(metrics1);
+        List<String> metricKeys1 = List.of("test-metric-key-1", "test-metric-key-2");
+        when(mockClient.getMetricKeys(metrics1)).thenReturn(metricKeys1);
         Project project1 = new Project("test-project-key-1", "Test Project Name 1");
         Project project2 = new Project("test-project-key-2", "Test Project Name 2");
         List<Project> projects1 = List.of(project1, project2);
@@ -78,13 +92,15 @@ public class SonarQubeServiceTest {
 
         // Then
         verify(mockProjectFinder).findProjects(codebaseDir, projects1);
-        verify(mockClient).getProjectMeasures("test-project-key-1", metrics1);
+        verify(mockProjectStore).sync(eq(projects1), eq(metricKeys1), any());
 
         // Given
         List<SummarySonarQubeMetric> metrics2 = List.of(
                 SummarySonarQubeMetric.builder().key("test-metric-key-3").build(),
                 SummarySonarQubeMetric.builder().key("test-metric-key-4").build());
         when(mockClient.getMetrics()).thenReturn(metrics2);
+        List<String> metricKeys2 = List.of("test-metric-key-3", "test-metric-key-4");
+        when(mockClient.getMetricKeys(metrics2)).thenReturn(metricKeys2);
         Project project3 = new Project("test-project-key-3", "Test Project Name 3");
         Project project4 = new Project("test-project-key-4", "Test Project Name 4");
         List<Project> projects2 = List.of(project3, project4);
@@ -102,7 +118,33 @@ public class SonarQubeServiceTest {
 
         // Then
         verify(mockProjectFinder).findProjects(codebaseDir, projects2);
-        verify(mockClient).getProjectMeasures("test-project-key-3", metrics2);
+        verify(mockProjectStore).sync(eq(projects2), eq(metricKeys2), any());
+    }
+
+    @Test
+    public void refreshShouldRetrieveMeasuresForTheProjectsThatTheProjectStoreSaysHaveChanged() {
+        // Given
+        List<SummarySonarQubeMetric> metrics = List.of(
+                SummarySonarQubeMetric.builder().key("test-metric-key-1").build(),
+                SummarySonarQubeMetric.builder().key("test-metric-key-2").build());
+        when(mockClient.getMetrics()).thenReturn(metrics);
+        List<String> metricKeys = List.of("test-metric-key-1", "test-metric-key-2");
+        when(mockClient.getMetricKeys(metrics)).thenReturn(metricKeys);
+        List<Project> projects = List.of(
+                new Project("test-project-key-1", "Test Project Name 1"),
+                new Project("test-project-key-2", "Test Project Name 2"));
+        when(mockClient.getProjects()).thenReturn(projects);
+        Map<String, List<SonarQubeMeasure>> projectMeasures = Map.of("test-project-key-2", List.of(
+                SonarQubeMeasure.builder().metric("test-metric-key-1").value("2-1").build()));
+        when(mockClient.getProjectMeasures(List.of("test-project-key-2"), metricKeys)).thenReturn(projectMeasures);
+        underTest.refresh();
+        verify(mockProjectStore).sync(eq(projects), eq(metricKeys), measuresFetcherCaptor.capture());
+
+        // When
+        Map<String, List<SonarQubeMeasure>> returnValue = measuresFetcherCaptor.getValue().apply(List.of("test-project-key-2"));
+
+        // Then
+        assertThat(returnValue).isSameAs(projectMeasures);
     }
     
     @Test
@@ -112,27 +154,29 @@ public class SonarQubeServiceTest {
                 SummarySonarQubeMetric.builder().key("test-metric-key-1").build(),
                 SummarySonarQubeMetric.builder().key("test-metric-key-2").build());
         when(mockClient.getMetrics()).thenReturn(metrics);
+        List<String> metricKeys = List.of("test-metric-key-1", "test-metric-key-2");
+        when(mockClient.getMetricKeys(metrics)).thenReturn(metricKeys);
         Project project1 = new Project("test-project-key-1", "Test Project Name 1");
         Project project2 = new Project("test-project-key-2", "Test Project Name 2");
         Project project3 = new Project("test-project-key-3", "Test Project Name 3");
         List<Project> projects = List.of(project1, project2, project3);
         when(mockClient.getProjects()).thenReturn(projects);
-        underTest.refresh();
-
-        Path codebaseDir = Path.of("test-path");
-        when(mockProjectCache.get(codebaseDir)).thenReturn(null);
-
-        when(mockProjectFinder.findProjects(codebaseDir, projects)).thenReturn(List.of(project2, project3));
 
         List<SonarQubeMeasure> project2Measures = List.of(
                 SonarQubeMeasure.builder().metric("test-metric-key-1").value("2-1").build(),
                 SonarQubeMeasure.builder().metric("test-metric-key-2").value("2-2").build());
-        when(mockClient.getProjectMeasures(project2.getKey(), metrics)).thenReturn(project2Measures);
-
         List<SonarQubeMeasure> project3Measures = List.of(
                 SonarQubeMeasure.builder().metric("test-metric-key-1").value("3-1").build(),
                 SonarQubeMeasure.builder().metric("test-metric-key-2").value("3-2").build());
-        when(mockClient.getProjectMeasures(project3.getKey(), metrics)).thenReturn(project3Measures);
+        when(mockProjectStore.sync(eq(projects), eq(metricKeys), any())).thenReturn(Map.of(
+                project2.getKey(), project2Measures,
+                project3.getKey(), project3Measures));
+        underTest.refresh();
+
+        Path codebaseDir = Path.of("test-path");
+        when(mockProjectCache.get(codebaseDir)).thenReturn(null);
+
+        when(mockProjectFinder.findProjects(codebaseDir, projects)).thenReturn(List.of(project2, project3));
 
         SonarQubeProject codebaseProject2 = SonarQubeProject.builder()
                 .key("test-project-key-2")
@@ -158,6 +202,29 @@ public class SonarQubeServiceTest {
         verify(mockProjectCache).put(codebaseDir, returnValue);
     }
 
+    @Test
+    public void findProjectsShouldUseAnEmptyListOfMeasuresForAProjectWithNoMeasures() {
+        // Given
+        Project project1 = new Project("test-project-key-1", "Test Project Name 1");
+        List<Project> projects = List.of(project1);
+        when(mockClient.getProjects()).thenReturn(projects);
+        underTest.refresh();
+
+        Path codebaseDir = Path.of("test-path");
+        when(mockProjectCache.get(codebaseDir)).thenReturn(null);
+        when(mockProjectFinder.findProjects(codebaseDir, projects)).thenReturn(List.of(project1));
+        SonarQubeProject codebaseProject1 = SonarQubeProject.builder()
+                .key("test-project-key-1")
+                .build();
+        when(mockProjectCreator.create(project1, List.of())).thenReturn(codebaseProject1);
+
+        // When
+        List<SonarQubeProject> returnValue = underTest.findProjects(codebaseDir);
+
+        // Then
+        assertThat(returnValue).containsExactly(codebaseProject1);
+    }
+
     @Test
     public void findProjectsShouldReturnTheListOfProjectsFromTheCacheIfPopulated() {
         // Given
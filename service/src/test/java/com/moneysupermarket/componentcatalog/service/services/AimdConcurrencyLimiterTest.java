@@ -0,0 +1,107 @@
+package com.moneysupermarket.componentcatalog.service.services;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AimdConcurrencyLimiterTest {
+
+    @Test
+    public void acquireShouldWaitOnceTheLimitIsReachedUntilARequestIsReleased() {
+        // Given
+        AimdConcurrencyLimiter underTest = new AimdConcurrencyLimiter(1, 2, Duration.ofMinutes(1));
+        underTest.acquire().block();
+        underTest.acquire().block();
+
+        // When
+        CompletableFuture<Void> returnValue = underTest.acquire().toFuture();
+
+        // Then
+        assertThat(returnValue).isNotDone();
+        assertThat(underTest.getInFlightCount()).isEqualTo(2);
+        assertThat(underTest.getWaitingCount()).isEqualTo(1);
+
+        // When
+        long startTime = System.nanoTime();
+        underTest.release(startTime, startTime, true);
+
+        // Then
+        assertThat(returnValue).isCompleted();
+        assertThat(underTest.getInFlightCount()).isEqualTo(2);
+        assertThat(underTest.getWaitingCount()).isZero();
+    }
+
+    @Test
+    public void acquireShouldGiveUpTheCallersPlaceInTheQueueWhenCancelled() {
+        // Given
+        AimdConcurrencyLimiter underTest = new AimdConcurrencyLimiter(1, 1, Duration.ofMinutes(1));
+        underTest.acquire().block();
+        Disposable waitingRequest = underTest.acquire().subscribe();
+        CompletableFuture<Void> nextWaitingRequest = underTest.acquire().toFuture();
+
+        // When
+        waitingRequest.dispose();
+        long startTime = System.nanoTime();
+        underTest.release(startTime, startTime, true);
+
+        // Then
+        assertThat(nextWaitingRequest).isCompleted();
+        assertThat(underTest.getInFlightCount()).isEqualTo(1);
+        assertThat(underTest.getWaitingCount()).isZero();
+    }
+
+    @Test
+    public void releaseShouldHalveTheLimitOnlyOnceForFailedRequestsThatWereInFlightTogether() {
+        // Given
+        AimdConcurrencyLimiter underTest = new AimdConcurrencyLimiter(1, 8, Duration.ofMinutes(1));
+        underTest.acquire().block();
+        underTest.acquire().block();
+        long startTime = System.nanoTime();
+        underTest.release(startTime, System.nanoTime(), false);
+        underTest.release(startTime, System.nanoTime(), false);
+        underTest.acquire().block();
+        long laterStartTime = System.nanoTime();
+
+        // When
+        underTest.release(laterStartTime, System.nanoTime(), false);
+
+        // Then
+        assertThat(underTest.getLimit()).isEqualTo(2);
+        assertThat(underTest.getInFlightCount()).isZero();
+    }
+
+    @Test
+    public void releaseShouldRaiseTheLimitByAboutOneForEachLimitsWorthOfFastSuccessfulRequests() {
+        // Given
+        AimdConcurrencyLimiter underTest = new AimdConcurrencyLimiter(1, 8, Duration.ofMinutes(1));
+        underTest.acquire().block();
+        underTest.release(System.nanoTime(), System.nanoTime(), false);
+
+        // When
+        for (int index = 0; index < 5; index++) {
+            underTest.acquire().block();
+            underTest.release(System.nanoTime(), System.nanoTime(), true);
+        }
+
+        // Then
+        assertThat(underTest.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    public void releaseShouldNotRaiseTheLimitForSlowSuccessfulRequests() {
+        // Given
+        AimdConcurrencyLimiter underTest = new AimdConcurrencyLimiter(1, 8, Duration.ZERO);
+        underTest.acquire().block();
+        long startTime = System.nanoTime();
+
+        // When
+        underTest.release(startTime, startTime + 1, true);
+
+        // Then
+        assertThat(underTest.getLimit()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,219 @@
+package com.moneysupermarket.componentcatalog.service.services;
+
+import com.moneysupermarket.componentcatalog.service.utils.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BaseFileCacheTest {
+
+    private static final Instant NOW = Instant.parse("2021-01-01T12:00:00Z");
+
+    @TempDir
+    public Path tempDir;
+    private final List<BaseFileCache> caches = new ArrayList<>();
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        for (BaseFileCache cache : caches) {
+            cache.close();
+        }
+    }
+
+    @Test
+    public void getFileContentShouldReturnContentThatHasBeenPut() throws IOException {
+        // Given
+        BaseFileCache underTest = createUnderTest(BaseFileCache.Options.builder().build());
+        underTest.putFileContent("https://example.com/test-key", "test-content");
+
+        // When
+        String returnValue = underTest.getFileContent("https://example.com/test-key").orElseThrow();
+
+        // Then
+        assertThat(returnValue).isEqualTo("test-content");
+        assertThat(underTest.getFileContent("https://example.com/other-key")).isEmpty();
+    }
+
+    @Test
+    public void getFileContentShouldReturnTheLatestContentForAKey() throws IOException {
+        // Given
+        BaseFileCache underTest = createUnderTest(BaseFileCache.Options.builder().maxHotEntryCount(0).build());
+        underTest.putFileContent("test-key", "test-content-1");
+        underTest.putFileContent("test-key", "test-content-2");
+
+        // When
+        String returnValue = underTest.getFileContent("test-key").orElseThrow();
+
+        // Then
+        assertThat(returnValue).isEqualTo("test-content-2");
+    }
+
+    @Test
+    public void getFileContentShouldReturnContentPutByAPreviousInstanceWithCompressionEnabled() throws IOException {
+        // Given
+        BaseFileCache.Options options = BaseFileCache.Options.builder().compress(true).build();
+        String content = "test-content ".repeat(1000);
+        createUnderTest(options).putFileContent("test-key", content);
+        BaseFileCache underTest = createUnderTest(options);
+
+        // When
+        String returnValue = underTest.getFileContent("test-key").orElseThrow();
+
+        // Then
+        assertThat(returnValue).isEqualTo(content);
+        assertThat(getFileSize(getSegmentFiles().get(0))).isLessThan(content.length());
+    }
+
+    @Test
+    public void getFileContentShouldNotReturnContentWhoseTtlHasExpired() throws IOException {
+        // Given
+        BaseFileCache.Options.OptionsBuilder optionsBuilder = BaseFileCache.Options.builder()
+                .ttlGetter(content -> content.equals("false") ? Duration.ofMinutes(10) : null);
+        BaseFileCache cache = createUnderTest(optionsBuilder.clock(Clock.fixed(NOW, ZoneOffset.UTC)).build());
+        cache.putFileContent("test-key-1", "false");
+        cache.putFileContent("test-key-2", "true");
+        BaseFileCache underTest = createUnderTest(optionsBuilder.clock(Clock.fixed(NOW.plus(Duration.ofMinutes(11)), ZoneOffset.UTC)).build());
+
+        // When
+        List<String> returnValue = Stream.of("test-key-1", "test-key-2")
+                .map(key -> underTest.getFileContent(key).orElse(null))
+                .collect(Collectors.toList());
+
+        // Then
+        assertThat(returnValue).containsExactly(null, "true");
+    }
+
+    @Test
+    public void constructorShouldRecoverFromAPartiallyWrittenRecord() throws IOException {
+        // Given
+        BaseFileCache cache = createUnderTest(BaseFileCache.Options.builder().build());
+        cache.putFileContent("test-key-1", "test-content-1");
+        cache.putFileContent("test-key-2", "test-content-2");
+        Path segmentFile = getSegmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(segmentFile) - 3);
+        }
+
+        // When
+        BaseFileCache underTest = createUnderTest(BaseFileCache.Options.builder().build());
+
+        // Then
+        assertThat(underTest.getFileContent("test-key-1")).contains("test-content-1");
+        assertThat(underTest.getFileContent("test-key-2")).isEmpty();
+        underTest.putFileContent("test-key-3", "test-content-3");
+        assertThat(createUnderTest(BaseFileCache.Options.builder().build()).getFileContent("test-key-3")).contains("test-content-3");
+    }
+
+    @Test
+    public void putFileContentShouldCompactTheStoreWhenItExceedsTheMaxSize() throws IOException {
+        // Given
+        BaseFileCache underTest = createUnderTest(BaseFileCache.Options.builder().maxHotEntryCount(0).maxSegmentSize(1_000).maxSize(4_000).build());
+
+        // When
+        for (int index = 0; index < 100; index++) {
+            underTest.putFileContent("test-key-" + (index % 5), "test-content-" + index);
+        }
+
+        // Then
+        assertThat(getSegmentFiles().stream().mapToLong(this::getFileSize).sum()).isLessThanOrEqualTo(4_000);
+        assertThat(underTest.getFileContent("test-key-0")).contains("test-content-95");
+        assertThat(underTest.getFileContent("test-key-4")).contains("test-content-99");
+    }
+
+    @Test
+    public void constructorShouldImportLegacyCacheFiles() throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("https%3A%2F%2Fexample.com%2Ftest-key"), "test-content");
+
+        // When
+        BaseFileCache underTest = createUnderTest(BaseFileCache.Options.builder().build());
+        underTest.getLegacyFileImport().join();
+
+        // Then
+        assertThat(underTest.getFileContent("https://example.com/test-key")).contains("test-content");
+        assertThat(tempDir.resolve("https%3A%2F%2Fexample.com%2Ftest-key")).doesNotExist();
+    }
+
+    @Test
+    public void constructorShouldNotImportALegacyCacheFileOverContentThatIsAlreadyInTheStore() throws IOException {
+        // Given
+        createUnderTest(BaseFileCache.Options.builder().build()).putFileContent("https://example.com/test-key", "test-new-content");
+        Files.writeString(tempDir.resolve("https%3A%2F%2Fexample.com%2Ftest-key"), "test-old-content");
+
+        // When
+        BaseFileCache underTest = createUnderTest(BaseFileCache.Options.builder().build());
+        underTest.getLegacyFileImport().join();
+
+        // Then
+        assertThat(underTest.getFileContent("https://example.com/test-key")).contains("test-new-content");
+        assertThat(tempDir.resolve("https%3A%2F%2Fexample.com%2Ftest-key")).doesNotExist();
+    }
+
+    @Test
+    public void constructorShouldLeaveFilesThatAreNotLegacyCacheFilesAlone() throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("test file.txt"), "test-content");
+
+        // When
+        BaseFileCache underTest = createUnderTest(BaseFileCache.Options.builder().build());
+        underTest.getLegacyFileImport().join();
+
+        // Then
+        assertThat(underTest.getFileContent("test file.txt")).isEmpty();
+        assertThat(tempDir.resolve("test file.txt")).hasContent("test-content");
+    }
+
+    @Test
+    public void putFileContentShouldKeepTheLatestContentForEachKeyAfterCompactionWhenTheStoreIsReopened() throws IOException {
+        // Given
+        BaseFileCache.Options options = BaseFileCache.Options.builder().maxHotEntryCount(0).maxSegmentSize(1_000).maxSize(4_000).build();
+        BaseFileCache cache = createUnderTest(options);
+        for (int index = 0; index < 100; index++) {
+            cache.putFileContent("test-key-" + (index % 5), "test-content-" + index);
+        }
+
+        // When
+        BaseFileCache underTest = createUnderTest(options);
+
+        // Then
+        for (int index = 95; index < 100; index++) {
+            assertThat(underTest.getFileContent("test-key-" + (index % 5))).contains("test-content-" + index);
+        }
+    }
+
+    private BaseFileCache createUnderTest(BaseFileCache.Options options) throws IOException {
+        BaseFileCache cache = new BaseFileCache(new FileUtils(), tempDir, options);
+        caches.add(cache);
+        return cache;
+    }
+
+    private List<Path> getSegmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(SegmentedStore::isSegmentFile).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private long getFileSize(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
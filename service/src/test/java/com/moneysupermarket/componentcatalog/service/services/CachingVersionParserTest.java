@@ -0,0 +1,29 @@
+package com.moneysupermarket.componentcatalog.service.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.Version;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachingVersionParserTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CachingVersionParser underTest = new CachingVersionParser(meterRegistry);
+
+    @Test
+    public void transformShouldParseEachVersionOnceAndReturnTheSameInstanceForTheSameVersion() {
+        // When
+        Version version1 = underTest.transform("1.2.3");
+        Version version2 = underTest.transform("1.2.3");
+        Version version3 = underTest.transform("2.0.0-rc1");
+
+        // Then
+        assertThat(version1.getSource()).isEqualTo("1.2.3");
+        assertThat(version1.getNumericParts()).containsExactly(1L, 2L, 3L);
+        assertThat(version2).isSameAs(version1);
+        assertThat(version3.getSource()).isEqualTo("2.0.0-rc1");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "versionParserCache").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "versionParserCache").tag("result", "miss").functionCounter().count()).isEqualTo(2);
+    }
+}
@@ -2,27 +2,38 @@ package com.moneysupermarket.componentcatalog.service.services;
 
 import com.moneysupermarket.componentcatalog.sdk.models.Area;
 import com.moneysupermarket.componentcatalog.sdk.models.Component;
+import com.moneysupermarket.componentcatalog.sdk.models.GetSearchResultsResponse;
 import com.moneysupermarket.componentcatalog.sdk.models.Scanner;
+import com.moneysupermarket.componentcatalog.sdk.models.Software;
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareUsage;
 import com.moneysupermarket.componentcatalog.sdk.models.Summary;
 import com.moneysupermarket.componentcatalog.sdk.models.SummaryCallGraph;
 import com.moneysupermarket.componentcatalog.sdk.models.SummarySubComponentDependencyNode;
 import com.moneysupermarket.componentcatalog.sdk.models.Team;
 import com.moneysupermarket.componentcatalog.sdk.models.TestOutcome;
 import com.moneysupermarket.componentcatalog.sdk.models.TestResult;
+import com.moneysupermarket.componentcatalog.service.exceptions.InvalidVersionSelectorException;
+import com.moneysupermarket.componentcatalog.service.models.ComponentSearchIndex;
+import com.moneysupermarket.componentcatalog.service.models.ComponentUsageIndex;
 import com.moneysupermarket.componentcatalog.service.repositories.ComponentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,9 +45,62 @@ public class ComponentServiceTest {
 
     @BeforeEach
     public void beforeEach() {
-        underTest = new ComponentService(mockComponentRepository);
+        underTest = new ComponentService(mockComponentRepository, new CachingVersionParser(new SimpleMeterRegistry()));
     }
-    
+
+    @Test
+    public void getSoftwareUsagesShouldReturnTheVersionsThatMatchTheVersionSelector() {
+        // Given
+        Component component1 = createComponentWithSoftware("test-component-id-1", "com.example:example", "2.9.10");
+        Component component2 = createComponentWithSoftware("test-component-id-2", "com.example:example", "2.10.0");
+        Component component3 = createComponentWithSoftware("test-component-id-3", "com.example:example", "2.9.1");
+        when(mockComponentRepository.getComponentUsageIndex()).thenReturn(ComponentUsageIndex.create(List.of(component1, component2, component3),
+                new VersionParser()));
+
+        // When
+        List<SoftwareUsage> returnValue = underTest.getSoftwareUsages("com.example:example", null, "[2.9,2.10)");
+
+        // Then
+        assertThat(returnValue).containsExactly(
+                new SoftwareUsage("com.example:example", "2.9.1", List.of("test-component-id-3")),
+                new SoftwareUsage("com.example:example", "2.9.10", List.of("test-component-id-1")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"latest.release", "latest.integration"})
+    public void getSoftwareUsagesShouldRejectAVersionSelectorThatNeedsVersionMetadata(String version) {
+        // When
+        Throwable thrown = catchThrowable(() -> underTest.getSoftwareUsages("com.example:example", null, version));
+
+        // Then
+        assertThat(thrown).isInstanceOf(InvalidVersionSelectorException.class);
+        InvalidVersionSelectorException exception = (InvalidVersionSelectorException) thrown;
+        assertThat(exception.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(exception.getReason()).isEqualTo("Version selector \"" + version + "\" is not supported, because it needs the metadata of each "
+                + "version, like latest.release does");
+    }
+
+    @Test
+    public void searchShouldReturnThePageOfMatchingComponentsAndTheTotalCount() {
+        // Given
+        List<Component> components = List.of(
+                Component.builder().id("test-component-id-1").name("Payment Service 1").build(),
+                Component.builder().id("test-component-id-2").name("Payment Service 2").build(),
+                Component.builder().id("test-component-id-3").name("Payment Service 3").build(),
+                Component.builder().id("test-component-id-4").name("Quote Service").build());
+        when(mockComponentRepository.getComponentSearchIndex()).thenReturn(ComponentSearchIndex.EMPTY.update(components));
+        when(mockComponentRepository.getComponent("test-component-id-2")).thenReturn(components.get(1));
+
+        // When
+        GetSearchResultsResponse returnValue = underTest.search("payment", Optional.of(1), Optional.of(1));
+
+        // Then
+        assertThat(returnValue.getTotalCount()).isEqualTo(3);
+        assertThat(returnValue.getResults()).hasSize(1);
+        assertThat(returnValue.getResults().get(0).getComponentId()).isEqualTo("test-component-id-2");
+        assertThat(returnValue.getResults().get(0).getComponent()).isEqualTo(components.get(1));
+    }
+
     @Test
     public void getComponentsShouldReturnAllComponents() {
         // Given
@@ -577,6 +641,13 @@ public class ComponentServiceTest {
                 });
     }
     
+    private static Component createComponentWithSoftware(String componentId, String softwareName, String softwareVersion) {
+        return Component.builder()
+                .id(componentId)
+                .software(List.of(Software.builder().name(softwareName).version(softwareVersion).build()))
+                .build();
+    }
+
     private static Team createTeam(List<Component> components) {
         return Team.builder()
                 .id("test-team-id")
@@ -2,6 +2,11 @@ package com.moneysupermarket.componentcatalog.service.services;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.moneysupermarket.componentcatalog.service.config.DownloaderConfig;
+import com.moneysupermarket.componentcatalog.service.config.OutboundHttpConfig;
+import com.moneysupermarket.componentcatalog.service.constants.Resilience4JInstanceNames;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,14 +17,19 @@ import org.springframework.web.reactive.function.client.WebClient;
 
 import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.head;
+import static com.github.tomakehurst.wiremock.client.WireMock.headRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -43,6 +53,7 @@ public class DownloaderTest {
     @BeforeEach
     public void beforeEach() {
         webClient = WebClient.create();
+        lenient().when(config.getMaxConcurrentRequestsPerHost()).thenReturn(8);
         underTest = new Downloader(config, webClient, downloadCache, urlExistsCache, new HttpRequestMaker());
         wireMockServer = new WireMockServer(PORT);
         wireMockServer.stubFor(get(urlPathEqualTo("/download"))
@@ -56,6 +67,12 @@ public class DownloaderTest {
                         .withHeader("Content-Type", "text/plain")
                         .withBody("delayed-output")
                         .withFixedDelay((int) Duration.ofMinutes(2).toMillis())));
+        wireMockServer.stubFor(get(urlPathEqualTo("/slow"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "text/plain")
+                        .withBody("slow-output")
+                        .withFixedDelay(500)));
         wireMockServer.stubFor(get(urlPathEqualTo("/not-found"))
                 .willReturn(aResponse()
                         .withStatus(404)));
@@ -92,6 +109,10 @@ public class DownloaderTest {
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withFixedDelay((int) Duration.ofMinutes(2).toMillis())));
+        wireMockServer.stubFor(head(urlPathEqualTo("/slow"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(500)));
         wireMockServer.stubFor(head(urlPathEqualTo("/not-found"))
                 .willReturn(aResponse()
                         .withStatus(404)));
@@ -126,6 +147,7 @@ public class DownloaderTest {
 
     @AfterEach
     public void afterEach() {
+        underTest.shutdown();
         wireMockServer.stop();
         wireMockServer = null;
     }
@@ -328,6 +350,40 @@ public class DownloaderTest {
         assertThat(returnValue.getExceptions()).isEmpty();
     }
 
+    @Test
+    public void downloadAsyncShouldShareAnInFlightRequestForTheSameUrl() {
+        // Given
+        String url = "http://localhost:" + PORT + "/slow";
+        when(config.getTimeout()).thenReturn(TWO_MINUTE_DURATION);
+
+        // When
+        CompletableFuture<Downloader.HttpRequestOutcome<String>> returnValue1 = underTest.downloadAsync(url, 0);
+        CompletableFuture<Downloader.HttpRequestOutcome<String>> returnValue2 = underTest.downloadAsync(url, 0);
+
+        // Then
+        assertThat(returnValue1.join().getOutput()).isEqualTo("slow-output");
+        assertThat(returnValue2.join()).isSameAs(returnValue1.join());
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/slow")));
+        verify(downloadCache).putContent(url, "slow-output");
+    }
+
+    @Test
+    public void downloadAsyncShouldOnlyCancelASharedRequestOnceEveryCallerHasGivenUpOnIt() {
+        // Given
+        String url = "http://localhost:" + PORT + "/slow";
+        when(config.getTimeout()).thenReturn(TWO_MINUTE_DURATION);
+        CompletableFuture<Downloader.HttpRequestOutcome<String>> returnValue1 = underTest.downloadAsync(url, 0);
+        CompletableFuture<Downloader.HttpRequestOutcome<String>> returnValue2 = underTest.downloadAsync(url, 0);
+
+        // When
+        returnValue1.cancel(true);
+
+        // Then
+        assertThat(returnValue1).isCancelled();
+        assertThat(returnValue2.join().getOutput()).isEqualTo("slow-output");
+        verify(downloadCache).putContent(url, "slow-output");
+    }
+
     @Test
     public void existsShouldReturnTrueAndCacheForOkResponse() {
         // Given
@@ -346,6 +402,23 @@ public class DownloaderTest {
         assertThat(returnValue.getExceptions()).isEmpty();
     }
 
+    @Test
+    public void existsAsyncShouldShareAnInFlightRequestForTheSameUrl() {
+        // Given
+        String url = "http://localhost:" + PORT + "/slow";
+        when(config.getTimeout()).thenReturn(TWO_MINUTE_DURATION);
+
+        // When
+        CompletableFuture<Downloader.HttpRequestOutcome<Boolean>> returnValue1 = underTest.existsAsync(url, 0);
+        CompletableFuture<Downloader.HttpRequestOutcome<Boolean>> returnValue2 = underTest.existsAsync(url, 0);
+
+        // Then
+        assertThat(returnValue1.join().getOutput()).isTrue();
+        assertThat(returnValue2.join()).isSameAs(returnValue1.join());
+        wireMockServer.verify(1, headRequestedFor(urlPathEqualTo("/slow")));
+        verify(urlExistsCache).putExists(url, true);
+    }
+
     @Test
     public void existsShouldTimeoutWhenRequestTakesTooLong() {
         // Given
@@ -525,4 +598,37 @@ public class DownloaderTest {
         assertThat(returnValue.getOutput()).isNull();
         assertThat(returnValue.getExceptions()).isEmpty();
     }
+
+    @Test
+    public void responsesThatAreNotReadShouldStillFreeTheirHostsConcurrencyLimitSlots() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        circuitBreakerRegistry.addConfiguration(Resilience4JInstanceNames.OUTBOUND_HTTP_HOST, CircuitBreakerConfig.ofDefaults());
+        webClient = WebClient.builder()
+                .filter(new HostResilienceFilter(circuitBreakerRegistry, new OutboundHttpConfig(Duration.ofMinutes(1), 1, 8, Duration.ofSeconds(1)),
+                        meterRegistry))
+                .build();
+        underTest.shutdown();
+        underTest = new Downloader(config, webClient, downloadCache, urlExistsCache, new HttpRequestMaker());
+        when(config.getTimeout()).thenReturn(TWO_MINUTE_DURATION);
+
+        for (int index = 0; index < 10; index++) {
+            // When
+            Downloader.HttpRequestOutcome<Boolean> existsReturnValue = underTest.exists("http://localhost:" + PORT + "/moved-permanently", 1);
+            Downloader.HttpRequestOutcome<String> redirectReturnValue = underTest.download("http://localhost:" + PORT + "/found", 1);
+            Downloader.HttpRequestOutcome<String> notFoundReturnValue = underTest.download("http://localhost:" + PORT + "/not-found", 1);
+
+            // Then
+            assertThat(existsReturnValue.getOutput()).isTrue();
+            assertThat(existsReturnValue.getExceptions()).isEmpty();
+            assertThat(redirectReturnValue.getOutput()).isEqualTo("test-output");
+            assertThat(redirectReturnValue.getExceptions()).isEmpty();
+            assertThat(notFoundReturnValue.isFailure()).isTrue();
+            assertThat(notFoundReturnValue.getExceptions()).isEmpty();
+        }
+        await().untilAsserted(() -> assertThat(meterRegistry.get("http.client.host.requests.in.flight").tag("host", "localhost").gauge().value())
+                .isZero());
+        assertThat(meterRegistry.get("http.client.host.requests.waiting").tag("host", "localhost").gauge().value()).isZero();
+    }
 }
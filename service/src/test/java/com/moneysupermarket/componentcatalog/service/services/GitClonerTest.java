@@ -6,6 +6,7 @@ import com.moneysupermarket.componentcatalog.service.testutils.CreateBranchInRem
 import com.moneysupermarket.componentcatalog.service.testutils.CreateRemoteRepoOutcome;
 import com.moneysupermarket.componentcatalog.service.testutils.GitRepoHelper;
 import com.moneysupermarket.componentcatalog.service.testutils.UpdateRemoteRepoOutcome;
+import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,11 +15,13 @@ import org.springframework.util.FileSystemUtils;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
@@ -56,16 +59,20 @@ public class GitClonerTest {
         CreateRemoteRepoOutcome createOutcome = gitRepoHelper.createRemoteRepo();
 
         // When
-        try (RepoDirAndGit returnValue = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
+        RepoDirAndGit returnValue;
+        Instant lastModifiedTime;
+        try (RepoDirAndGit repoDirAndGit = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
+            returnValue = repoDirAndGit;
+
             // Then
             assertThat(returnValue.getRepoDir()).exists();
             assertThat(returnValue.getRepoDir()).isNotEmptyDirectory();
-            Instant lastModifiedTime = getLastModifiedTime(returnValue);
-
-            // When
-            UpdateRemoteRepoOutcome updateOutcome = gitRepoHelper.updateRemoteGitRepo(createOutcome.getRepoDir());
-            RepoDirAndGit returnValue2 = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString());
+            lastModifiedTime = getLastModifiedTime(returnValue);
+        }
 
+        // When
+        UpdateRemoteRepoOutcome updateOutcome = gitRepoHelper.updateRemoteGitRepo(createOutcome.getRepoDir());
+        try (RepoDirAndGit returnValue2 = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
             // Then
             assertThat(returnValue2.getRepoDir()).isEqualTo(returnValue.getRepoDir());
             Instant lastModifiedTime2 = getLastModifiedTime(returnValue);
@@ -81,19 +88,23 @@ public class GitClonerTest {
         CreateRemoteRepoOutcome createOutcome = gitRepoHelper.createRemoteRepo();
 
         // When
-        try (RepoDirAndGit returnValue = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
+        RepoDirAndGit returnValue;
+        Path untrackedFile;
+        try (RepoDirAndGit repoDirAndGit = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
+            returnValue = repoDirAndGit;
+
             // Then
             assertThat(returnValue.getRepoDir()).exists();
             assertThat(returnValue.getRepoDir()).isNotEmptyDirectory();
-            Path untrackedFile = returnValue.getRepoDir().resolve("untracked.txt");
+            untrackedFile = returnValue.getRepoDir().resolve("untracked.txt");
             Files.writeString(untrackedFile, "Untracked File", StandardCharsets.UTF_8);
             assertThat(untrackedFile).exists();
             causeNextGitOpenFail(returnValue);
+        }
 
-            // When
-            UpdateRemoteRepoOutcome updateOutcome = gitRepoHelper.updateRemoteGitRepo(createOutcome.getRepoDir());
-            RepoDirAndGit returnValue2 = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString());
-
+        // When
+        UpdateRemoteRepoOutcome updateOutcome = gitRepoHelper.updateRemoteGitRepo(createOutcome.getRepoDir());
+        try (RepoDirAndGit returnValue2 = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
             // Then
             assertThat(returnValue2.getRepoDir()).isEqualTo(returnValue.getRepoDir());
             assertThat(updateOutcome.getNewFile()).exists();
@@ -108,19 +119,23 @@ public class GitClonerTest {
         CreateRemoteRepoOutcome createOutcome = gitRepoHelper.createRemoteRepo();
 
         // When
-        try (RepoDirAndGit returnValue = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
+        RepoDirAndGit returnValue;
+        Path untrackedFile;
+        try (RepoDirAndGit repoDirAndGit = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
+            returnValue = repoDirAndGit;
+
             // Then
             assertThat(returnValue.getRepoDir()).exists();
             assertThat(returnValue.getRepoDir()).isNotEmptyDirectory();
-            Path untrackedFile = returnValue.getRepoDir().resolve("untracked.txt");
+            untrackedFile = returnValue.getRepoDir().resolve("untracked.txt");
             Files.writeString(untrackedFile, "Untracked File", StandardCharsets.UTF_8);
             assertThat(untrackedFile).exists();
             causeNextFetchToFail(returnValue);
+        }
 
-            // When
-            UpdateRemoteRepoOutcome updateOutcome = gitRepoHelper.updateRemoteGitRepo(createOutcome.getRepoDir());
-            RepoDirAndGit returnValue2 = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString());
-
+        // When
+        UpdateRemoteRepoOutcome updateOutcome = gitRepoHelper.updateRemoteGitRepo(createOutcome.getRepoDir());
+        try (RepoDirAndGit returnValue2 = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
             // Then
             assertThat(returnValue2.getRepoDir()).isEqualTo(returnValue.getRepoDir());
             assertThat(updateOutcome.getNewFile()).exists();
@@ -128,6 +143,38 @@ public class GitClonerTest {
         }
     }
 
+    @Test
+    public void cloneOrPullRepoShouldBorrowObjectsFromASharedObjectStoreWhenEnabled() throws IOException, GitAPIException, URISyntaxException {
+        // Given
+        createGitCloner(true);
+        CreateRemoteRepoOutcome createOutcome = gitRepoHelper.createRemoteRepo();
+
+        // When
+        RepoDirAndGit returnValue;
+        try (RepoDirAndGit repoDirAndGit = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
+            returnValue = repoDirAndGit;
+
+            // Then
+            assertThat(returnValue.getRepoDir()).isNotEmptyDirectory();
+            assertThat(underTest.usesSharedObjectStore(returnValue.getRepoDir())).isTrue();
+            List<Path> repoDirs = underTest.getRepoDirs();
+            assertThat(repoDirs).hasSize(2);
+            assertThat(repoDirs.get(0)).isEqualTo(returnValue.getRepoDir());
+            try (Git sharedObjectStoreGit = Git.open(repoDirs.get(1).toFile())) {
+                assertThat(sharedObjectStoreGit.getRepository().getRefDatabase().getRefsByPrefix("refs/repos/")).hasSize(1);
+            }
+        }
+
+        // When
+        UpdateRemoteRepoOutcome updateOutcome = gitRepoHelper.updateRemoteGitRepo(createOutcome.getRepoDir());
+        try (RepoDirAndGit returnValue2 = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
+            // Then
+            assertThat(returnValue2.getRepoDir()).isEqualTo(returnValue.getRepoDir());
+            assertThat(returnValue2.getGit().getRepository().getBranch()).isEqualTo(updateOutcome.getNewFileCommitHash());
+            assertThat(updateOutcome.getNewFile()).exists();
+        }
+    }
+
     @Test
     public void cloneOrPullRepoShouldCheckoutARefWhenARefIsSpecified() throws IOException, GitAPIException, URISyntaxException {
         // Given
@@ -160,8 +207,57 @@ public class GitClonerTest {
                 + createOutcome.getRepoDir().toString() + "\"");
     }
 
+    @Test
+    public void cloneOrPullRepoShouldNotLeaveAPartlyCompletedCloneInPlaceWhenCloningFails() throws IOException, GitAPIException, URISyntaxException {
+        // Given
+        createGitCloner();
+        CreateRemoteRepoOutcome createOutcome = gitRepoHelper.createRemoteRepo();
+        Path reposDir = tempDir.resolve("repos");
+        Throwable thrown = catchThrowable(() -> underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString(), "branch_that_does_not_exist"));
+        assertThat(thrown).isNotNull();
+        assertThat(reposDir.resolve(URLEncoder.encode(createOutcome.getRepoDir().toString(), StandardCharsets.UTF_8))).doesNotExist();
+        assertThat(reposDir.resolve(".clones-in-progress")).isEmptyDirectory();
+
+        // When
+        try (RepoDirAndGit returnValue = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
+            // Then
+            assertThat(returnValue.getRepoDir()).isEqualTo(reposDir.resolve(URLEncoder.encode(createOutcome.getRepoDir().toString(),
+                    StandardCharsets.UTF_8)));
+            assertThat(returnValue.getRepoDir().resolve(".git")).isDirectory();
+            assertThat(returnValue.getGit().getRepository().resolve("HEAD")).isNotNull();
+        }
+    }
+
+    @Test
+    public void runIfRepoNotInUseShouldSkipARepoUntilItsLeaseIsReleased() throws IOException, GitAPIException, URISyntaxException {
+        // Given
+        createGitCloner();
+        CreateRemoteRepoOutcome createOutcome = gitRepoHelper.createRemoteRepo();
+        RepoDirAndGit repoDirAndGit = underTest.cloneOrPullRepo(createOutcome.getRepoDir().toString());
+        AtomicInteger runCount = new AtomicInteger();
+
+        // When
+        boolean returnValue = underTest.runIfRepoNotInUse(repoDirAndGit.getRepoDir(), runCount::incrementAndGet);
+
+        // Then
+        assertThat(returnValue).isFalse();
+        assertThat(runCount).hasValue(0);
+
+        // When
+        repoDirAndGit.close();
+        returnValue = underTest.runIfRepoNotInUse(repoDirAndGit.getRepoDir(), runCount::incrementAndGet);
+
+        // Then
+        assertThat(returnValue).isTrue();
+        assertThat(runCount).hasValue(1);
+    }
+
     private void createGitCloner() throws IOException {
-        GitConfig gitConfig = new GitConfig(tempDir.resolve("repos").toString(), List.of());
+        createGitCloner(null);
+    }
+
+    private void createGitCloner(Boolean useSharedObjectStores) throws IOException {
+        GitConfig gitConfig = new GitConfig(tempDir.resolve("repos").toString(), List.of(), useSharedObjectStores);
         underTest = new GitCloner(gitConfig);
         underTest.initialize();
     }
@@ -0,0 +1,154 @@
+package com.moneysupermarket.componentcatalog.service.services;
+
+import com.moneysupermarket.componentcatalog.service.config.GitConfig;
+import com.moneysupermarket.componentcatalog.service.models.RepoDirAndGit;
+import com.moneysupermarket.componentcatalog.service.testutils.CreateRemoteRepoOutcome;
+import com.moneysupermarket.componentcatalog.service.testutils.GitRepoHelper;
+import com.moneysupermarket.componentcatalog.service.testutils.UpdateRemoteRepoOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.internal.storage.file.PackIndex;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+public class GitRepoMaintainerTest {
+
+    @TempDir
+    public Path tempDir;
+    private GitRepoHelper gitRepoHelper;
+    private GitCloner gitCloner;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GitRepoMaintainer underTest;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        gitRepoHelper = new GitRepoHelper(tempDir);
+        gitCloner = new GitCloner(new GitConfig(tempDir.resolve("repos").toString(), List.of(), null));
+        gitCloner.initialize();
+        underTest = new GitRepoMaintainer(gitCloner, meterRegistry);
+    }
+
+    @Test
+    public void maintainReposShouldPackEachRepoAndPublishItsStats() throws IOException, GitAPIException, URISyntaxException {
+        // Given
+        CreateRemoteRepoOutcome createOutcome = gitRepoHelper.createRemoteRepo();
+        gitRepoHelper.updateRemoteGitRepo(createOutcome.getRepoDir());
+        String repoDirName;
+        try (RepoDirAndGit repoDirAndGit = gitCloner.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
+            repoDirName = repoDirAndGit.getRepoDir().getFileName().toString();
+        }
+
+        // When
+        underTest.maintainRepos();
+
+        // Then
+        assertThat(meterRegistry.get("git.repo.packs").tag("repo", repoDirName).gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("git.repo.loose.objects").tag("repo", repoDirName).gauge().value()).isZero();
+        assertThat(meterRegistry.get("git.repo.disk.usage").tag("repo", repoDirName).gauge().value()).isPositive();
+    }
+
+    @Test
+    public void maintainReposShouldRepackOnlyTheObjectsThatACloneUsingASharedObjectStoreHoldsItself() throws IOException, GitAPIException,
+            URISyntaxException {
+        // Given
+        gitCloner = new GitCloner(new GitConfig(tempDir.resolve("repos").toString(), List.of(), true));
+        gitCloner.initialize();
+        underTest = new GitRepoMaintainer(gitCloner, meterRegistry);
+        CreateRemoteRepoOutcome createOutcome = gitRepoHelper.createRemoteRepo();
+        Path repoDir;
+        ObjectId borrowedCommitId;
+        try (RepoDirAndGit repoDirAndGit = gitCloner.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
+            repoDir = repoDirAndGit.getRepoDir();
+            borrowedCommitId = repoDirAndGit.getGit().getRepository().resolve(Constants.HEAD);
+        }
+        UpdateRemoteRepoOutcome localCommitOutcome = gitRepoHelper.updateRemoteGitRepo(repoDir);
+
+        // When
+        underTest.maintainRepos();
+
+        // Then
+        String repoDirName = repoDir.getFileName().toString();
+        assertThat(meterRegistry.get("git.repo.packs").tag("repo", repoDirName).gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("git.repo.loose.objects").tag("repo", repoDirName).gauge().value()).isZero();
+        List<Path> packIndexFiles;
+        try (Stream<Path> files = Files.list(repoDir.resolve(".git").resolve("objects").resolve("pack"))) {
+            packIndexFiles = files.filter(file -> file.getFileName().toString().endsWith(".idx")).collect(Collectors.toList());
+        }
+        assertThat(packIndexFiles).hasSize(1);
+        PackIndex packIndex = PackIndex.open(packIndexFiles.get(0).toFile());
+        assertThat(packIndex.contains(ObjectId.fromString(localCommitOutcome.getNewFileCommitHash()))).isTrue();
+        assertThat(packIndex.contains(borrowedCommitId)).isFalse();
+        try (Git git = Git.open(repoDir.toFile())) {
+            assertThat(git.log().call()).hasSize(2);
+        }
+    }
+
+    @Test
+    public void scheduleMaintenanceShouldMaintainTheReposInTheBackground() throws IOException, GitAPIException, URISyntaxException {
+        // Given
+        CreateRemoteRepoOutcome createOutcome = gitRepoHelper.createRemoteRepo();
+        String repoDirName;
+        try (RepoDirAndGit repoDirAndGit = gitCloner.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
+            repoDirName = repoDirAndGit.getRepoDir().getFileName().toString();
+        }
+
+        // When
+        underTest.scheduleMaintenance();
+
+        // Then
+        await().atMost(30, SECONDS).until(() -> meterRegistry.find("git.repo.packs").tag("repo", repoDirName).gauge() != null);
+        underTest.shutdown();
+    }
+
+    @Test
+    public void maintainReposShouldSkipARepoThatIsInUse() throws IOException, GitAPIException, URISyntaxException {
+        // Given
+        CreateRemoteRepoOutcome createOutcome = gitRepoHelper.createRemoteRepo();
+        Path repoDir;
+        try (RepoDirAndGit repoDirAndGit = gitCloner.cloneOrPullRepo(createOutcome.getRepoDir().toString())) {
+            repoDir = repoDirAndGit.getRepoDir();
+        }
+        Thread otherThread = new Thread(this::maintainReposWithoutException);
+
+        // When
+        gitCloner.runIfRepoNotInUse(repoDir, () -> {
+            otherThread.start();
+            joinWithoutException(otherThread);
+        });
+
+        // Then
+        assertThat(meterRegistry.find("git.repo.packs").tag("repo", repoDir.getFileName().toString()).gauge()).isNull();
+    }
+
+    private void maintainReposWithoutException() {
+        try {
+            underTest.maintainRepos();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void joinWithoutException(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.moneysupermarket.componentcatalog.service.services;
+
+import com.moneysupermarket.componentcatalog.service.config.OutboundHttpConfig;
+import com.moneysupermarket.componentcatalog.service.constants.Resilience4JInstanceNames;
+import com.moneysupermarket.componentcatalog.service.exceptions.HostConcurrencyLimitException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class HostResilienceFilterTest {
+
+    private static final ClientRequest TEST_REQUEST = ClientRequest.create(HttpMethod.GET, URI.create("http://example.com/test")).build();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger exchangeCount = new AtomicInteger();
+    private HostResilienceFilter underTest;
+
+    @BeforeEach
+    public void beforeEach() {
+        underTest = createHostResilienceFilter(4, Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void filterShouldFailFastOnceAHostHasRespondedWithTooManyServerErrors() {
+        // Given
+        ExchangeFunction next = createExchangeFunction(HttpStatus.INTERNAL_SERVER_ERROR);
+        underTest.filter(TEST_REQUEST, next).block();
+        underTest.filter(TEST_REQUEST, next).block();
+
+        // When
+        Throwable thrown = catchThrowable(() -> underTest.filter(TEST_REQUEST, next).block());
+
+        // Then
+        assertThat(thrown).isInstanceOf(CallNotPermittedException.class);
+        assertThat(exchangeCount).hasValue(2);
+    }
+
+    @Test
+    public void filterShouldPassResponsesThroughAndPublishTheConcurrencyLimitOfEachHost() {
+        // Given
+        ExchangeFunction next = createExchangeFunction(HttpStatus.OK);
+
+        // When
+        ClientResponse returnValue = underTest.filter(TEST_REQUEST, next).block();
+
+        // Then
+        assertThat(returnValue.statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(meterRegistry.get("http.client.host.concurrency.limit").tag("host", "example.com").gauge().value()).isEqualTo(4);
+        assertThat(meterRegistry.get("http.client.host.requests.in.flight").tag("host", "example.com").gauge().value()).isEqualTo(1);
+
+        // When
+        returnValue.releaseBody().block();
+
+        // Then
+        assertThat(meterRegistry.get("http.client.host.requests.in.flight").tag("host", "example.com").gauge().value()).isZero();
+    }
+
+    @Test
+    public void filterShouldHoldARequestsConcurrencyLimitSlotUntilItsResponseBodyHasBeenConsumed() {
+        // Given
+        underTest = createHostResilienceFilter(1, Duration.ofSeconds(10));
+        ExchangeFunction next = createExchangeFunction(HttpStatus.OK);
+        ClientResponse firstResponse = underTest.filter(TEST_REQUEST, next).block();
+
+        // When
+        CompletableFuture<ClientResponse> returnValue = underTest.filter(TEST_REQUEST, next).toFuture();
+
+        // Then
+        assertThat(returnValue).isNotDone();
+        assertThat(exchangeCount).hasValue(1);
+        assertThat(meterRegistry.get("http.client.host.requests.waiting").tag("host", "example.com").gauge().value()).isEqualTo(1);
+
+        // When
+        firstResponse.bodyToMono(String.class).block();
+
+        // Then
+        assertThat(returnValue).isCompleted();
+        assertThat(exchangeCount).hasValue(2);
+        assertThat(meterRegistry.get("http.client.host.requests.waiting").tag("host", "example.com").gauge().value()).isZero();
+    }
+
+    @Test
+    public void filterShouldFailARequestThatHasWaitedTooLongForTheConcurrencyLimitOfItsHost() {
+        // Given
+        underTest = createHostResilienceFilter(1, Duration.ofMillis(100));
+        ExchangeFunction next = createExchangeFunction(HttpStatus.OK);
+        underTest.filter(TEST_REQUEST, next).block();
+
+        // When
+        Throwable thrown = catchThrowable(() -> underTest.filter(TEST_REQUEST, next).block());
+
+        // Then
+        assertThat(thrown).isInstanceOf(HostConcurrencyLimitException.class);
+        assertThat(thrown).hasMessage("Timed out after PT0.1S waiting for a concurrent request slot for host \"example.com\"");
+        assertThat(exchangeCount).hasValue(1);
+        assertThat(meterRegistry.get("http.client.host.requests.waiting").tag("host", "example.com").gauge().value()).isZero();
+    }
+
+    private HostResilienceFilter createHostResilienceFilter(int maxConcurrentRequestsPerHost, Duration maxWaitDuration) {
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        circuitBreakerRegistry.addConfiguration(Resilience4JInstanceNames.OUTBOUND_HTTP_HOST, CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .build());
+        return new HostResilienceFilter(circuitBreakerRegistry, new OutboundHttpConfig(Duration.ofMinutes(1), 1, maxConcurrentRequestsPerHost,
+                maxWaitDuration), meterRegistry);
+    }
+
+    private ExchangeFunction createExchangeFunction(HttpStatus statusCode) {
+        return request -> {
+            exchangeCount.incrementAndGet();
+            return Mono.just(ClientResponse.create(statusCode).build());
+        };
+    }
+}
@@ -9,8 +9,11 @@ import com.moneysupermarket.componentcatalog.sdk.models.Summary;
 import com.moneysupermarket.componentcatalog.sdk.models.SummaryComponentDependencies;
 import com.moneysupermarket.componentcatalog.sdk.models.SummaryComponentDependencyNode;
 import com.moneysupermarket.componentcatalog.sdk.models.TechDebt;
+import com.moneysupermarket.componentcatalog.service.config.DownloaderConfig;
+import com.moneysupermarket.componentcatalog.service.config.ScanEngineConfig;
 import com.moneysupermarket.componentcatalog.service.exceptions.ValidationException;
 import com.moneysupermarket.componentcatalog.service.mappers.ThrowableToScannerErrorMapper;
+import com.moneysupermarket.componentcatalog.service.models.RepoLease;
 import com.moneysupermarket.componentcatalog.service.scanners.CodebaseScanner;
 import com.moneysupermarket.componentcatalog.service.scanners.ComponentAndCodebaseScanner;
 import com.moneysupermarket.componentcatalog.service.scanners.ComponentScanner;
@@ -28,16 +31,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 import static java.util.Objects.isNull;
@@ -53,16 +65,22 @@ public class ScanEngineTest {
     private static final Repo TEST_REPO_1 = new Repo("test-repo-url1");
     private static final Repo TEST_REPO_2 = new Repo("test-repo-url2");
     private List<ScanLogEntry> scanLog;
+    private final CountDownLatch interruptedScanLatch = new CountDownLatch(1);
     @Mock
     private ScannerFinder mockScannerFinder;
     @Mock
     private ValidatorService mockValidatorService;
+    @Mock
+    private DownloadCache mockDownloadCache;
+    @Mock
+    private UrlExistsCache mockUrlExistsCache;
     private ScanEngine underTest;
 
     @BeforeEach
     public void beforeEach() {
         scanLog = new ArrayList<>();
-        underTest = new ScanEngine(mockScannerFinder, mockValidatorService, new ThrowableToScannerErrorMapper());
+        underTest = new ScanEngine(mockScannerFinder, mockValidatorService, new ThrowableToScannerErrorMapper(), new ScanEngineConfig(Map.of(
+                "TestComponentScanner2", Duration.ofHours(1)), null, null, null, null));
     }
 
     @Test
@@ -226,6 +244,105 @@ public class ScanEngineTest {
         assertRefreshScannerErrors(componentMap.get("test-component2"));
     }
 
+    @Test
+    public void rescanShouldPassEachComponentThroughEachScannerWithoutRefreshingTheScanners() {
+        // Given
+        ComponentMetadata componentMetadata = ComponentMetadata.builder().build();
+        Component component1 = Component.builder().id("test-component1").repo(TEST_REPO_1).build();
+        TestScannerConfig config = TestScannerConfig.builder().output(true).build();
+        TestComponentScanner1 testComponentScanner1 = new TestComponentScanner1(config);
+        when(mockScannerFinder.getComponentScanners()).thenReturn(List.of(testComponentScanner1));
+        TestRepoScanner testRepoScanner = new TestRepoScanner(config);
+        when(mockScannerFinder.getRepoScanner()).thenReturn(testRepoScanner);
+        TestCodebaseScanner1 testCodebaseScanner1 = new TestCodebaseScanner1(config);
+        when(mockScannerFinder.getCodebaseScanners()).thenReturn(List.of(testCodebaseScanner1));
+        underTest.scan(componentMetadata, createComponentMap(component1), summary -> {});
+        ComponentMetadata rescanComponentMetadata = ComponentMetadata.builder().components(List.of(component1)).build();
+        ConcurrentHashMap<String, Component> componentMap = createComponentMap(component1);
+        List<Summary> summaries = new ArrayList<>();
+
+        // When
+        underTest.rescan(rescanComponentMetadata, componentMap, summaries::add);
+
+        // Then
+        assertThat(testComponentScanner1.componentMetadataItems).containsExactly(componentMetadata);
+        assertThat(testRepoScanner.componentMetadataItems).containsExactly(componentMetadata);
+        assertThat(testCodebaseScanner1.componentMetadataItems).containsExactly(componentMetadata);
+        assertThat(componentMap.get("test-component1").getScannerErrors()).isEmpty();
+        assertThat(componentMap.get("test-component1").getTechDebts()).containsExactly(
+                createTestTechDebt("Update to test-component1 from TestComponentScanner1"),
+                createTestTechDebt("Update to test-component1 from TestRepoScanner"),
+                createTestTechDebt("Update to test-component1 from TestCodebaseScanner1"));
+        assertThat(summaries).containsExactly(
+                createTestSummary(new SummaryComponentDependencyNode("TestComponentScanner1")),
+                createTestSummary(new SummaryComponentDependencyNode("TestComponentScanner1"),
+                        new SummaryComponentDependencyNode("TestRepoScanner")),
+                createTestSummary(new SummaryComponentDependencyNode("TestComponentScanner1"),
+                        new SummaryComponentDependencyNode("TestRepoScanner"), new SummaryComponentDependencyNode("TestCodebaseScanner1")));
+    }
+
+    @Test
+    public void scanShouldReuseTheOutputsOfAScannerThatHasBeenRefreshedWithinItsRefreshInterval() {
+        // Given
+        ComponentMetadata componentMetadata = ComponentMetadata.builder().build();
+        Component component1 = Component.builder().id("test-component1").repo(TEST_REPO_1).build();
+        TestScannerConfig config = TestScannerConfig.builder().output(true).build();
+        TestComponentScanner1 testComponentScanner1 = new TestComponentScanner1(config);
+        TestComponentScanner2 testComponentScanner2 = new TestComponentScanner2(config);
+        when(mockScannerFinder.getComponentScanners()).thenReturn(List.of(testComponentScanner1, testComponentScanner2));
+        when(mockScannerFinder.getRepoScanner()).thenReturn(new TestRepoScanner(config));
+        underTest.scan(componentMetadata, createComponentMap(component1), summary -> {});
+        scanLog.clear();
+        ConcurrentHashMap<String, Component> componentMap = createComponentMap(component1);
+
+        // When
+        underTest.scan(componentMetadata, componentMap, summary -> {});
+
+        // Then
+        assertThat(testComponentScanner1.refreshCount).hasValue(2);
+        assertThat(testComponentScanner2.refreshCount).hasValue(1);
+        assertThat(scanLog).containsExactly(
+                new ScanLogEntry("TestComponentScanner1", "test-component1"),
+                new ScanLogEntry("TestRepoScanner", TEST_REPO_1.getUrl()));
+        assertThat(componentMap.get("test-component1").getTechDebts()).containsExactly(
+                createTestTechDebt("Update to test-component1 from TestComponentScanner1"),
+                createTestTechDebt("Update to test-component1 from TestComponentScanner2"),
+                createTestTechDebt("Update to test-component1 from TestRepoScanner"));
+    }
+
+    @Test
+    public void scanShouldRescanACodebaseThatHasMovedToANewCommitWithinItsScannersRefreshInterval() {
+        // Given
+        underTest = new ScanEngine(mockScannerFinder, mockValidatorService, new ThrowableToScannerErrorMapper(), new ScanEngineConfig(Map.of(
+                "TestCodebaseScanner1", Duration.ofHours(1)), null, null, null, null));
+        ComponentMetadata componentMetadata = ComponentMetadata.builder().build();
+        Component component1 = Component.builder().id("test-component1").repo(TEST_REPO_1).build();
+        TestScannerConfig config = TestScannerConfig.builder().output(true).build();
+        TestCodebaseScanner1 testCodebaseScanner1 = new TestCodebaseScanner1(config);
+        when(mockScannerFinder.getRepoScanner()).thenReturn(
+                new TestRepoScanner(config.toBuilder().commitId("test-commit-id1").build()),
+                new TestRepoScanner(config.toBuilder().commitId("test-commit-id1").build()),
+                new TestRepoScanner(config.toBuilder().commitId("test-commit-id2").build()));
+        when(mockScannerFinder.getCodebaseScanners()).thenReturn(List.of(testCodebaseScanner1));
+        underTest.scan(componentMetadata, createComponentMap(component1), summary -> {});
+        underTest.scan(componentMetadata, createComponentMap(component1), summary -> {});
+        scanLog.clear();
+        ConcurrentHashMap<String, Component> componentMap = createComponentMap(component1);
+
+        // When
+        underTest.scan(componentMetadata, componentMap, summary -> {});
+
+        // Then
+        assertThat(testCodebaseScanner1.refreshCount).hasValue(1);
+        assertThat(scanLog).containsExactly(
+                new ScanLogEntry("TestRepoScanner", TEST_REPO_1.getUrl()),
+                new ScanLogEntry("TestCodebaseScanner1", "prepare"),
+                new ScanLogEntry("TestCodebaseScanner1", TEST_REPO_1.getUrl()));
+        assertThat(componentMap.get("test-component1").getTechDebts()).containsExactly(
+                createTestTechDebt("Update to test-component1 from TestRepoScanner"),
+                createTestTechDebt("Update to test-component1 from TestCodebaseScanner1"));
+    }
+
     @Test
     public void scanShouldCatchExceptionsThrowByScannerScan() {
         // Given
@@ -326,6 +443,150 @@ public class ScanEngineTest {
                 new ScanLogEntry("TestLateComponentScanner2", "test-component-c"));
     }
 
+    @Test
+    public void scanShouldPrepareEachScannerWithAllItsInputsBeforeScanningThem() {
+        // Given
+        ComponentMetadata componentMetadata = ComponentMetadata.builder().build();
+        Component component1 = Component.builder().id("test-component1").repo(TEST_REPO_2).build();
+        Component component2 = Component.builder().id("test-component2").repo(TEST_REPO_1).build();
+        ConcurrentHashMap<String, Component> componentMap = createComponentMap(component1, component2);
+        TestScannerConfig config = TestScannerConfig.builder().output(true).build();
+        when(mockScannerFinder.getRepoScanner()).thenReturn(new TestRepoScanner(config));
+        TestCodebaseScanner1 testCodebaseScanner1 = new TestCodebaseScanner1(config);
+        when(mockScannerFinder.getCodebaseScanners()).thenReturn(List.of(testCodebaseScanner1));
+
+        // When
+        underTest.scan(componentMetadata, componentMap, summary -> {});
+
+        // Then
+        assertThat(testCodebaseScanner1.preparedInputReferences).containsExactly(List.of("test-repo-url1", "test-repo-url2"));
+        assertThat(scanLog).containsExactly(
+                new ScanLogEntry("TestRepoScanner", "test-repo-url1"),
+                new ScanLogEntry("TestRepoScanner", "test-repo-url2"),
+                new ScanLogEntry("TestCodebaseScanner1", "prepare"),
+                new ScanLogEntry("TestCodebaseScanner1", "test-repo-url1"),
+                new ScanLogEntry("TestCodebaseScanner1", "test-repo-url2"));
+    }
+
+    @Test
+    public void scanShouldReleaseTheRepoLeasesOfTheCodebasesOnceTheCodebaseScannersHaveFinished() {
+        // Given
+        ComponentMetadata componentMetadata = ComponentMetadata.builder().build();
+        Component component1 = Component.builder().id("test-component1").repo(TEST_REPO_1).build();
+        ConcurrentHashMap<String, Component> componentMap = createComponentMap(component1);
+        TestScannerConfig config = TestScannerConfig.builder().output(true).build();
+        RepoLease lease = new RepoLease(() -> scanLog.add(new ScanLogEntry("RepoLease", "release")));
+        when(mockScannerFinder.getRepoScanner()).thenReturn(new TestRepoScanner(config.toBuilder().lease(lease).build()));
+        when(mockScannerFinder.getCodebaseScanners()).thenReturn(List.of(new TestCodebaseScanner1(config)));
+        when(mockScannerFinder.getComponentAndCodebaseScanners()).thenReturn(List.of(new TestComponentAndCodebaseScanner1(config)));
+        when(mockScannerFinder.getLateComponentScanners()).thenReturn(List.of(new TestLateComponentScanner1(config)));
+
+        // When
+        underTest.scan(componentMetadata, componentMap, summary -> {});
+
+        // Then
+        assertThat(scanLog).containsExactly(
+                new ScanLogEntry("TestRepoScanner", "test-repo-url1"),
+                new ScanLogEntry("TestCodebaseScanner1", "prepare"),
+                new ScanLogEntry("TestCodebaseScanner1", "test-repo-url1"),
+                new ScanLogEntry("TestComponentAndCodebaseScanner1", "test-component1"),
+                new ScanLogEntry("RepoLease", "release"),
+                new ScanLogEntry("TestLateComponentScanner1", "test-component1"));
+    }
+
+    @Test
+    public void scanShouldCancelAScanThatExceedsItsScannersScanTimeoutAndCarryOnWithTheOtherInputs() throws InterruptedException {
+        // Given
+        underTest = new ScanEngine(mockScannerFinder, mockValidatorService, new ThrowableToScannerErrorMapper(), new ScanEngineConfig(null,
+                Map.of("TestComponentScanner1", Duration.ofMillis(100)), null, null, null));
+        ComponentMetadata componentMetadata = ComponentMetadata.builder().build();
+        Component component1 = Component.builder().id("test-component1").repo(TEST_REPO_1).build();
+        Component component2 = Component.builder().id("test-component2").repo(TEST_REPO_1).build();
+        ConcurrentHashMap<String, Component> componentMap = createComponentMap(component1, component2);
+        TestScannerConfig config = TestScannerConfig.builder().output(true).slowInputReference("test-component1").build();
+        when(mockScannerFinder.getComponentScanners()).thenReturn(List.of(new TestComponentScanner1(config)));
+        when(mockScannerFinder.getRepoScanner()).thenReturn(new TestRepoScanner(TestScannerConfig.builder().output(true).build()));
+
+        // When
+        underTest.scan(componentMetadata, componentMap, summary -> {});
+
+        // Then
+        assertThat(interruptedScanLatch.await(10, TimeUnit.SECONDS)).isTrue();
+        List<ScannerError> scannerErrors = componentMap.get("test-component1").getScannerErrors();
+        assertThat(scannerErrors).hasSize(1);
+        assertThat(scannerErrors.get(0).getScannerId()).isEqualTo("TestComponentScanner1");
+        assertThat(scannerErrors.get(0).getMessage()).isEqualTo("Timed out scanning \"test-component1\" after PT0.1S");
+        assertThat(componentMap.get("test-component2").getScannerErrors()).isEmpty();
+        assertThat(componentMap.get("test-component2").getTechDebts()).containsExactly(
+                createTestTechDebt("Update to test-component2 from TestComponentScanner1"),
+                createTestTechDebt("Update to test-component2 from TestRepoScanner"));
+    }
+
+    @Test
+    public void scanShouldFreeTheThreadOfAScanThatExceedsItsScanTimeoutWhileStuckInARetryingDownload() throws InterruptedException {
+        // Given
+        underTest = new ScanEngine(mockScannerFinder, mockValidatorService, new ThrowableToScannerErrorMapper(), new ScanEngineConfig(null,
+                Map.of("TestComponentScanner1", Duration.ofMillis(100)), null, null, null));
+        CountDownLatch stoppedRetryingLatch = new CountDownLatch(1);
+        Downloader downloader = new Downloader(new DownloaderConfig(Duration.ofMinutes(1), 1), WebClient.create(), mockDownloadCache,
+                mockUrlExistsCache, new RetryingHttpRequestMaker(stoppedRetryingLatch));
+        ComponentMetadata componentMetadata = ComponentMetadata.builder().build();
+        Component component1 = Component.builder().id("test-component1").repo(TEST_REPO_1).build();
+        ConcurrentHashMap<String, Component> componentMap = createComponentMap(component1);
+        TestScannerConfig config = TestScannerConfig.builder().output(true).slowInputReference("test-component1").slowInputDownloader(downloader)
+                .build();
+        when(mockDownloadCache.getContent(any())).thenReturn(Optional.empty());
+        when(mockScannerFinder.getComponentScanners()).thenReturn(List.of(new TestComponentScanner1(config)));
+        when(mockScannerFinder.getRepoScanner()).thenReturn(new TestRepoScanner(TestScannerConfig.builder().output(true).build()));
+
+        try {
+            // When
+            underTest.scan(componentMetadata, componentMap, summary -> {});
+
+            // Then
+            assertThat(interruptedScanLatch.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(stoppedRetryingLatch.await(10, TimeUnit.SECONDS)).isTrue();
+            List<ScannerError> scannerErrors = componentMap.get("test-component1").getScannerErrors();
+            assertThat(scannerErrors).hasSize(1);
+            assertThat(scannerErrors.get(0).getMessage()).isEqualTo("Timed out scanning \"test-component1\" after PT0.1S");
+        } finally {
+            downloader.shutdown();
+        }
+    }
+
+    @Test
+    public void scanShouldScanAnInputThatHasTimedOutLastAndSkipItOnceItHasTimedOutTooManyTimesInARow() {
+        // Given
+        underTest = new ScanEngine(mockScannerFinder, mockValidatorService, new ThrowableToScannerErrorMapper(), new ScanEngineConfig(null,
+                null, Duration.ofMillis(100), 2, 1));
+        ComponentMetadata componentMetadata = ComponentMetadata.builder().build();
+        Component componentA = Component.builder().id("test-component-a").repo(TEST_REPO_1).build();
+        Component componentB = Component.builder().id("test-component-b").repo(TEST_REPO_1).build();
+        TestScannerConfig config = TestScannerConfig.builder().output(true).slowInputReference("test-component-a").build();
+        when(mockScannerFinder.getComponentScanners()).thenReturn(List.of(new TestComponentScanner1(config)));
+        when(mockScannerFinder.getRepoScanner()).thenReturn(new TestRepoScanner(TestScannerConfig.builder().output(true).build()));
+        underTest.scan(componentMetadata, createComponentMap(componentA, componentB), summary -> {});
+        underTest.scan(componentMetadata, createComponentMap(componentA, componentB), summary -> {});
+        ConcurrentHashMap<String, Component> componentMap = createComponentMap(componentA, componentB);
+
+        // When
+        underTest.scan(componentMetadata, componentMap, summary -> {});
+
+        // Then
+        assertThat(scanLog).containsExactly(
+                new ScanLogEntry("TestComponentScanner1", "test-component-a"),
+                new ScanLogEntry("TestComponentScanner1", "test-component-b"),
+                new ScanLogEntry("TestRepoScanner", TEST_REPO_1.getUrl()),
+                new ScanLogEntry("TestComponentScanner1", "test-component-b"),
+                new ScanLogEntry("TestComponentScanner1", "test-component-a"),
+                new ScanLogEntry("TestRepoScanner", TEST_REPO_1.getUrl()),
+                new ScanLogEntry("TestComponentScanner1", "test-component-b"),
+                new ScanLogEntry("TestRepoScanner", TEST_REPO_1.getUrl()));
+        List<ScannerError> scannerErrors = componentMap.get("test-component-a").getScannerErrors();
+        assertThat(scannerErrors).hasSize(1);
+        assertThat(scannerErrors.get(0).getMessage()).isEqualTo("Skipped scanning \"test-component-a\" because its last 2 scans timed out");
+    }
+
     private void assertRefreshScannerErrors(Component component) {
         List<ScannerError> scannerErrors = component.getScannerErrors();
         // There will only be 3 errors as the RepoScanner failed to produce any codebases
@@ -436,6 +697,21 @@ public class ScanEngineTest {
     private <I extends ObjectWithReference, O> Output<O> scannerScan(TestScannerConfig config, AtomicInteger refreshCount, Scanner<?, ?> scanner, I input, O output) {
         assertThat(refreshCount.get()).isGreaterThan(0);
         scanLog.add(new ScanLogEntry(scanner.id(), input.reference()));
+        if (input.reference().equals(config.getSlowInputReference()) && nonNull(config.getSlowInputDownloader())) {
+            config.getSlowInputDownloader().download("http://localhost:1/unreachable", 0);
+            if (Thread.currentThread().isInterrupted()) {
+                interruptedScanLatch.countDown();
+            }
+            throw new RuntimeException("Download failed");
+        }
+        if (input.reference().equals(config.getSlowInputReference())) {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interruptedScanLatch.countDown();
+                throw new RuntimeException(e);
+            }
+        }
         if (config.isScanException()) {
             throw new RuntimeException("Scan exception");
         }
@@ -489,6 +765,10 @@ public class ScanEngineTest {
         boolean scanException;
         boolean outputScannerError;
         boolean output;
+        String slowInputReference;
+        Downloader slowInputDownloader;
+        String commitId;
+        RepoLease lease;
     }
     
     @RequiredArgsConstructor
@@ -584,7 +864,7 @@ public class ScanEngineTest {
 
         @Override
         public Output<Codebase> scan(Repo input) {
-            Codebase codebase = config.isOutput() ? new Codebase(input, Path.of(input.getUrl())) : null;
+            Codebase codebase = config.isOutput() ? new Codebase(input, Path.of(input.getUrl()), config.getCommitId(), config.getLease()) : null;
             return scannerScan(config, refreshCount, this, input, codebase);
         }
 
@@ -600,6 +880,7 @@ public class ScanEngineTest {
         private final AtomicInteger refreshCount = new AtomicInteger();
         private final TestScannerConfig config;
         private final Set<ComponentMetadata> componentMetadataItems = new HashSet<>();
+        private final List<List<String>> preparedInputReferences = new ArrayList<>();
 
         @Override
         public void refresh(ComponentMetadata componentMetadata) {
@@ -607,6 +888,12 @@ public class ScanEngineTest {
             scannerRefresh(config, refreshCount);
         }
 
+        @Override
+        public void prepare(List<Codebase> inputs) {
+            preparedInputReferences.add(inputs.stream().map(Codebase::reference).collect(Collectors.toList()));
+            scanLog.add(new ScanLogEntry(id(), "prepare"));
+        }
+
         @Override
         public String id() {
             return getClass().getSimpleName();
@@ -798,6 +1085,32 @@ public class ScanEngineTest {
         }
     }
 
+    /**
+     * Keeps retrying a failing HTTP request with a backoff between attempts, like the retry configured for the real {@link HttpRequestMaker}, until its
+     * thread is interrupted
+     */
+    @RequiredArgsConstructor
+    private static class RetryingHttpRequestMaker extends HttpRequestMaker {
+
+        private final CountDownLatch stoppedRetryingLatch;
+
+        @Override
+        public ClientResponse makeHttpRequest(Function<String, ClientResponse> httpRequest, String url) {
+            while (true) {
+                try {
+                    return httpRequest.apply(url);
+                } catch (RuntimeException e) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException interruptedException) {
+                        stoppedRetryingLatch.countDown();
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+
     @Value
     private static class ScanLogEntry {
 
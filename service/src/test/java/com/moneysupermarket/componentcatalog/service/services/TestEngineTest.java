@@ -18,6 +18,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
@@ -145,6 +147,39 @@ public class TestEngineTest {
                                 .build()));
     }
 
+    @Test
+    public void testShouldReuseTheResultOfATestWhenTheComponentFieldsItReadsHaveNotChanged() {
+        // Given
+        TestMemoizableComponentTest test = new TestMemoizableComponentTest("1");
+        when(mockTestFinder.getComponentTests()).thenReturn(List.of(test));
+        underTest.test(createComponentMap(createTestComponent("1").withName("test-name")));
+        ConcurrentHashMap<String, Component> componentMap = createComponentMap(createTestComponent("1").withName("test-name")
+                .withDescription("test-description"));
+
+        // When
+        underTest.test(componentMap);
+
+        // Then
+        assertThat(test.executionCount).hasValue(1);
+        assertThat(componentMap.get("test-component-id-1").getTestResults()).containsExactly(
+                new TestResult("test-test-id-1", TestOutcome.PASS, Priority.VERY_HIGH, "test-test-id-1 test-component-id-1"));
+    }
+
+    @Test
+    public void testShouldExecuteATestAgainWhenTheComponentFieldsItReadsHaveChanged() {
+        // Given
+        TestMemoizableComponentTest test = new TestMemoizableComponentTest("1");
+        when(mockTestFinder.getComponentTests()).thenReturn(List.of(test));
+        underTest.test(createComponentMap(createTestComponent("1").withName("test-name")));
+        ConcurrentHashMap<String, Component> componentMap = createComponentMap(createTestComponent("1").withName("test-changed-name"));
+
+        // When
+        underTest.test(componentMap);
+
+        // Then
+        assertThat(test.executionCount).hasValue(2);
+    }
+
     private Component createTestComponent(String uniquePart) {
         return Component.builder().id("test-component-id-" + uniquePart).build();
     }
@@ -185,6 +220,26 @@ public class TestEngineTest {
         }
     }
 
+    private static class TestMemoizableComponentTest extends TestComponentTest {
+
+        private final AtomicInteger executionCount = new AtomicInteger();
+
+        public TestMemoizableComponentTest(String uniquePart) {
+            super(uniquePart);
+        }
+
+        @Override
+        public List<Function<Component, ?>> inputFields() {
+            return List.of(Component::getName);
+        }
+
+        @Override
+        public TestResult test(Component input, TestContext testContext) {
+            executionCount.incrementAndGet();
+            return super.test(input, testContext);
+        }
+    }
+
     private class TestExceptionThrowingComponentTest extends TestComponentTest {
 
         public TestExceptionThrowingComponentTest(String uniquePart) {
@@ -0,0 +1,74 @@
+package com.moneysupermarket.componentcatalog.service.services;
+
+import com.moneysupermarket.componentcatalog.sdk.models.Import;
+import com.moneysupermarket.componentcatalog.sdk.models.ImportType;
+import com.moneysupermarket.componentcatalog.sdk.models.Software;
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareDependencyType;
+import com.moneysupermarket.componentcatalog.sdk.models.SoftwareType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ValueInternerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ValueInterner underTest = new ValueInterner(meterRegistry);
+
+    @Test
+    public void internShouldReturnTheSameInstanceForEqualValuesAndShareTheirStrings() {
+        // When
+        Software software1 = underTest.intern(createSoftware("1.0.0"));
+        Software software2 = underTest.intern(createSoftware("1.0.0"));
+        Software software3 = underTest.intern(createSoftware("2.0.0"));
+        Import import1 = underTest.intern(createImport());
+        Import import2 = underTest.intern(createImport());
+
+        // Then
+        assertThat(software2).isSameAs(software1);
+        assertThat(software3).isNotSameAs(software1);
+        assertThat(software3.getName()).isSameAs(software1.getName());
+        assertThat(import2).isSameAs(import1);
+    }
+
+    @Test
+    public void internShouldNotShareInstancesWithValuesInternedBeforeANewPoolWasStarted() {
+        // Given
+        Software software1 = underTest.intern(createSoftware("1.0.0"));
+
+        // When
+        underTest.startNewPool();
+        Software software2 = underTest.intern(createSoftware("1.0.0"));
+
+        // Then
+        assertThat(software2).isEqualTo(software1);
+        assertThat(software2).isNotSameAs(software1);
+    }
+
+    @Test
+    public void finishPoolShouldPublishTheCountsAndEstimatedSavingsOfTheFinishedPool() {
+        // Given
+        Software software = underTest.intern(createSoftware("1.0.0"));
+        underTest.intern(createSoftware("1.0.0"));
+        underTest.intern(createSoftware("1.0.0"));
+        underTest.intern(software);
+
+        // When
+        underTest.finishPool();
+
+        // Then
+        assertThat(meterRegistry.get("value.interner.values").tag("type", "software").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("value.interner.duplicates").tag("type", "software").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("value.interner.saved").tag("type", "software").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("value.interner.values").tag("type", "import").gauge().value()).isZero();
+    }
+
+    private Software createSoftware(String version) {
+        return new Software("test-scanner", SoftwareType.JVM, SoftwareDependencyType.DIRECT, new String("com.example:example"), new String(version),
+                null, null, null);
+    }
+
+    private Import createImport() {
+        return new Import("test-scanner", ImportType.JAVA, new String("com.example.Example"));
+    }
+}
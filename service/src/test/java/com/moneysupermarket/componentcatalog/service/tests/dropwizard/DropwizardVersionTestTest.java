@@ -5,6 +5,8 @@ import com.moneysupermarket.componentcatalog.sdk.models.KeySoftware;
 import com.moneysupermarket.componentcatalog.sdk.models.Priority;
 import com.moneysupermarket.componentcatalog.sdk.models.TestOutcome;
 import com.moneysupermarket.componentcatalog.sdk.models.TestResult;
+import com.moneysupermarket.componentcatalog.service.services.CachingVersionParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -16,7 +18,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 @ExtendWith(MockitoExtension.class)
 public class DropwizardVersionTestTest {
 
-    private final DropwizardVersionTest underTest = new DropwizardVersionTest();
+    private final DropwizardVersionTest underTest = new DropwizardVersionTest(new CachingVersionParser(new SimpleMeterRegistry()));
 
     @Test
     public void descriptionShouldReturnTheDescriptionOfTheTest() {
@@ -16,7 +16,7 @@ public class SonarQubeTestTest {
 
     public static final String COMPONENT_TEST_ID_EXPECTED_TO_USE_SONARQUBE = "component-test-id-expected-to-use-sonarqube";
     public static final String COMPONENT_TEST_ID_NOT_EXPECTED_TO_USE_SONARQUBE = "component-test-id-not-expected-to-use-sonarqube";
-    private final SonarQubeTest underTest = new SonarQubeTest(new SonarQubeConfig(null, List.of(COMPONENT_TEST_ID_EXPECTED_TO_USE_SONARQUBE)));
+    private final SonarQubeTest underTest = new SonarQubeTest(new SonarQubeConfig(null, List.of(COMPONENT_TEST_ID_EXPECTED_TO_USE_SONARQUBE), null, null, null));
 
     @Test
     public void descriptionShouldReturnTheDescriptionOfTheTest() {